@@ -4,14 +4,17 @@
 // Switch to the demo-campus database
 db = db.getSiblingDB('demo-campus');
 
-// Create the point_of_interest collection
-db.createCollection('point_of_interest');
+// Create the point-of-interest collection used by the backends
+db.createCollection('point-of-interest');
 
 // Create the required 2dsphere index for location-based queries
-db.point_of_interest.createIndex({ location: "2dsphere" });
+db.getCollection('point-of-interest').createIndex({ location: "2dsphere" });
+
+// Create the index for queries by category
+db.getCollection('point-of-interest').createIndex({ category: 1 });
 
 // Insert sample data (optional - remove if not needed)
-db.point_of_interest.insertMany([
+db.getCollection('point-of-interest').insertMany([
     {
         category: "company",
         details: "Carl Zeiss Digital Innovation GmbH, Fritz-Foerster-Platz 2, 01069 Dresden, Tel.: +49 (0)351 497 01-500, https://www.zeiss.de/digital-innovation",
@@ -31,5 +34,5 @@ db.point_of_interest.insertMany([
 ]);
 
 print("Database 'demo-campus' initialized successfully!");
-print("Collection 'point_of_interest' created with 2dsphere index!");
+print("Collection 'point-of-interest' created with 2dsphere and category indexes!");
 print("Sample data inserted!");
\ No newline at end of file
@@ -0,0 +1,147 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.jfr;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Controls a JDK Flight Recorder recording of the service, including the {@link PoiEvent}s. Only one recording is
+ * managed at a time, a stopped recording is kept until the next one is started, so it can still be dumped.
+ */
+@ApplicationScoped
+public class FlightRecording {
+
+    private static final Logger LOG = Logger.getLogger(FlightRecording.class.getName());
+
+    static final String RECORDING_NAME = "geo-service";
+
+    /**
+     * Name of the JFR configuration used if none is given, "default" (low overhead) or "profile".
+     */
+    @Inject
+    @ConfigProperty(name = "geoservice.jfr.configuration", defaultValue = "default")
+    String defaultConfiguration = "default";
+
+    /**
+     * Maximum age of the data kept by a running recording, older data is discarded.
+     */
+    @Inject
+    @ConfigProperty(name = "geoservice.jfr.max-age-ms", defaultValue = "3600000")
+    long maxAgeMs = 3600000;
+
+    private Recording recording;
+
+    /**
+     * Starts a new recording, unless one is running already.
+     *
+     * @param configuration name of the JFR configuration, e.g. "profile", null for the configured one
+     * @return the status of the recording
+     * @throws IllegalArgumentException if there is no configuration with this name
+     */
+    public synchronized Map<String, Object> start(String configuration) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return getStatus();
+        }
+        close();
+
+        String configurationName = configuration != null ? configuration : defaultConfiguration;
+        try {
+            recording = new Recording(Configuration.getConfiguration(configurationName));
+        } catch (IOException | ParseException e) {
+            throw new IllegalArgumentException("Unknown JFR configuration " + configurationName, e);
+        }
+        recording.setName(RECORDING_NAME);
+        recording.setToDisk(true);
+        recording.setMaxAge(Duration.ofMillis(maxAgeMs));
+        // the configurations do not know our events, enable them explicitly
+        recording.enable(PoiRadiusQueryEvent.class);
+        recording.enable(PoiLookupEvent.class);
+        recording.enable(PoiWriteEvent.class);
+        recording.start();
+        LOG.info("Started JFR recording with configuration " + configurationName);
+
+        return getStatus();
+    }
+
+    /**
+     * Stops the running recording, it can still be dumped afterwards.
+     *
+     * @return the status of the recording
+     */
+    public synchronized Map<String, Object> stop() {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            LOG.info("Stopped JFR recording");
+        }
+        return getStatus();
+    }
+
+    /**
+     * Writes the data of the recording to a temporary file, the caller has to delete it.
+     *
+     * @return the file or null if there is no recording
+     * @throws IOException if the file could not be written
+     */
+    public synchronized Path dump() throws IOException {
+        if (recording == null) {
+            return null;
+        }
+
+        Path file = Files.createTempFile(RECORDING_NAME + "-", ".jfr");
+        try {
+            recording.dump(file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return file;
+    }
+
+    /**
+     * @return state of the recording (NONE if there is none), its start time, duration and size
+     */
+    public synchronized Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (recording == null) {
+            status.put("state", "NONE");
+            return status;
+        }
+
+        status.put("state", recording.getState().name());
+        status.put("name", recording.getName());
+        if (recording.getStartTime() != null) {
+            status.put("startTime", recording.getStartTime().toString());
+        }
+        if (recording.getStopTime() != null) {
+            status.put("stopTime", recording.getStopTime().toString());
+        }
+        status.put("sizeBytes", recording.getSize());
+        return status;
+    }
+
+    @PreDestroy
+    synchronized void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+}
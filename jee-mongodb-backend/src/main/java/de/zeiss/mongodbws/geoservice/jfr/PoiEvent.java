@@ -0,0 +1,51 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Base of the JDK Flight Recorder events of the point of interest operations. The duration of an event is the
+ * duration of the operation, so expensive queries can be correlated with GC or CPU spikes in a recording.
+ */
+@Category({"Geo Service", "MongoDB"})
+@StackTrace(false)
+public abstract class PoiEvent extends jdk.jfr.Event {
+
+    @Label("Error")
+    @Description("Class of the exception if the operation failed")
+    String error;
+
+    /**
+     * Executes the operation within the event and commits it, also if the operation fails.
+     *
+     * @param operation the operation
+     * @param onResult  sets the fields of the event describing the result
+     * @param <T>       type of the result
+     * @return the result of the operation
+     */
+    public <T> T record(Supplier<T> operation, Consumer<T> onResult) {
+        begin();
+        try {
+            T result = operation.get();
+            if (shouldCommit()) {
+                onResult.accept(result);
+            }
+            return result;
+        } catch (RuntimeException e) {
+            error = e.getClass().getName();
+            throw e;
+        } finally {
+            commit();
+        }
+    }
+}
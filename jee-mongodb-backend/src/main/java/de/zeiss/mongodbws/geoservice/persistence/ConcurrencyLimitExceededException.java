@@ -0,0 +1,26 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.persistence;
+
+/**
+ * Thrown if a database call is shed because the adaptive concurrency limit is reached.
+ */
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ConcurrencyLimitExceededException(long retryAfterSeconds) {
+        super("Too many concurrent queries, please retry later");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * @return the number of seconds the client should wait before retrying
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.persistence;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+import java.lang.reflect.Method;
+
+/**
+ * Executes calls of {@link ConcurrencyLimited} methods only if the {@link ConcurrencyLimiter} grants a permit of their
+ * workload and reports their latency back to it. Calls exceeding the limit fail fast with a
+ * {@link ConcurrencyLimitExceededException} instead of waiting for a database connection.
+ */
+@Interceptor
+@ConcurrencyLimited
+@Priority(Interceptor.Priority.APPLICATION)
+public class ConcurrencyLimitInterceptor {
+
+    @Inject
+    ConcurrencyLimiter limiter;
+
+    @AroundInvoke
+    public Object limit(InvocationContext context) throws Exception {
+        Workload workload = workload(context.getMethod());
+        if (!limiter.tryAcquire(workload)) {
+            throw new ConcurrencyLimitExceededException(limiter.getRetryAfterSeconds());
+        }
+
+        long start = System.nanoTime();
+        try {
+            return context.proceed();
+        } finally {
+            limiter.release(workload, System.nanoTime() - start);
+        }
+    }
+
+    static Workload workload(Method method) {
+        ConcurrencyLimited limited = method.getAnnotation(ConcurrencyLimited.class);
+        if (limited == null) {
+            limited = method.getDeclaringClass().getAnnotation(ConcurrencyLimited.class);
+        }
+        return limited != null ? limited.value() : Workload.INTERACTIVE;
+    }
+}
@@ -0,0 +1,32 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.persistence;
+
+import jakarta.enterprise.util.Nonbinding;
+import jakarta.interceptor.InterceptorBinding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks methods (or all methods of a bean) whose calls are limited by the {@link ConcurrencyLimiter}. The workload of
+ * a method overrides the one of its bean.
+ *
+ * @see ConcurrencyLimitInterceptor
+ */
+@InterceptorBinding
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface ConcurrencyLimited {
+
+    /**
+     * @return the workload whose limit applies to the calls
+     */
+    @Nonbinding
+    Workload value() default Workload.INTERACTIVE;
+}
@@ -0,0 +1,194 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.persistence;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleUnaryOperator;
+import java.util.logging.Logger;
+
+/**
+ * Adaptive limit of the number of concurrent database calls (AIMD, as known from TCP congestion control). Calls
+ * slower than the latency threshold indicate an overloaded database and shrink the limit by the backoff ratio, at most
+ * once per threshold interval. Faster calls grow it by one per limit calls, but only while more than half of the
+ * limit is in use. Calls beyond the limit are shed right away, so requests do not pile up in the servlet container
+ * while the database is degraded.
+ * <p>
+ * Each {@link Workload} has its own limit, so e.g. slow bulk aggregations only shrink the limit of bulk work and do
+ * not shed interactive reads.
+ * <p>
+ * Lock-free, the limit is kept as double in an {@link AtomicLong}.
+ */
+@ApplicationScoped
+public class ConcurrencyLimiter {
+
+    private static final Logger LOG = Logger.getLogger(ConcurrencyLimiter.class.getName());
+
+    @Inject
+    @ConfigProperty(name = "geoservice.concurrency-limit.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @Inject
+    @ConfigProperty(name = "geoservice.concurrency-limit.initial-limit", defaultValue = "20")
+    int initialLimit;
+
+    @Inject
+    @ConfigProperty(name = "geoservice.concurrency-limit.min-limit", defaultValue = "2")
+    int minLimit;
+
+    @Inject
+    @ConfigProperty(name = "geoservice.concurrency-limit.max-limit", defaultValue = "200")
+    int maxLimit;
+
+    @Inject
+    @ConfigProperty(name = "geoservice.concurrency-limit.latency-threshold-ms", defaultValue = "1000")
+    long latencyThresholdMs;
+
+    @Inject
+    @ConfigProperty(name = "geoservice.concurrency-limit.backoff-ratio", defaultValue = "0.9")
+    double backoffRatio;
+
+    @Inject
+    @ConfigProperty(name = "geoservice.concurrency-limit.retry-after-seconds", defaultValue = "1")
+    long retryAfterSeconds;
+
+    private final Map<Workload, Limit> limits = new EnumMap<>(Workload.class);
+
+    @PostConstruct
+    void init() {
+        for (Workload workload : Workload.values()) {
+            limits.put(workload, new Limit(workload));
+        }
+    }
+
+    /**
+     * Tries to start a call. Every successful call must be followed by {@link #release(Workload, long)}.
+     *
+     * @param workload the workload of the call
+     * @return true if the call may be executed, false if it has to be shed
+     */
+    public boolean tryAcquire(Workload workload) {
+        return limits.get(workload).tryAcquire();
+    }
+
+    /**
+     * Ends a call and adapts the limit of its workload to its latency.
+     *
+     * @param workload     the workload of the call
+     * @param latencyNanos duration of the call in nanoseconds
+     */
+    public void release(Workload workload, long latencyNanos) {
+        limits.get(workload).release(latencyNanos);
+    }
+
+    /**
+     * @param workload the workload
+     * @return the current number of concurrent calls of the workload allowed
+     */
+    public int getLimit(Workload workload) {
+        return limits.get(workload).get();
+    }
+
+    /**
+     * @return the number of seconds a client should wait before retrying a shed call
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    /**
+     * @return per workload the current limit, the number of calls in flight and the number of shed calls
+     */
+    public Map<String, Map<String, Long>> getStatistics() {
+        Map<String, Map<String, Long>> statistics = new LinkedHashMap<>();
+        limits.forEach((workload, limit) -> statistics.put(workload.name().toLowerCase(), limit.getStatistics()));
+        return statistics;
+    }
+
+    /**
+     * The limit of one workload.
+     */
+    private class Limit {
+
+        private final AtomicLong limit = new AtomicLong();
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        private final AtomicLong lastDecrease = new AtomicLong();
+
+        private final LongAdder rejected = new LongAdder();
+
+        private final Workload workload;
+
+        private Limit(Workload workload) {
+            this.workload = workload;
+            limit.set(Double.doubleToLongBits(Math.clamp(initialLimit, minLimit, maxLimit)));
+            // allows the first decrease right away
+            lastDecrease.set(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(latencyThresholdMs));
+        }
+
+        private boolean tryAcquire() {
+            while (true) {
+                int current = inFlight.get();
+                if (enabled && current >= get()) {
+                    rejected.increment();
+                    return false;
+                }
+                if (inFlight.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        private void release(long latencyNanos) {
+            int current = inFlight.getAndDecrement();
+            if (!enabled) {
+                return;
+            }
+
+            long thresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMs);
+            if (latencyNanos > thresholdNanos) {
+                // all calls in flight during an overload are slow, so the limit is only decreased once per interval
+                long now = System.nanoTime();
+                long last = lastDecrease.get();
+                if (now - last >= thresholdNanos && lastDecrease.compareAndSet(last, now)) {
+                    double newLimit = update(value -> Math.max(minLimit, value * backoffRatio));
+                    LOG.info("Database calls are slow, decreased concurrency limit of " + workload.name().toLowerCase()
+                            + " work to " + (int) newLimit);
+                }
+            } else if (current * 2 >= get()) {
+                update(value -> Math.min(maxLimit, value + 1.0 / value));
+            }
+        }
+
+        private double update(DoubleUnaryOperator function) {
+            return Double.longBitsToDouble(limit.updateAndGet(
+                    bits -> Double.doubleToLongBits(function.applyAsDouble(Double.longBitsToDouble(bits)))));
+        }
+
+        private int get() {
+            return (int) Double.longBitsToDouble(limit.get());
+        }
+
+        private Map<String, Long> getStatistics() {
+            Map<String, Long> statistics = new LinkedHashMap<>();
+            statistics.put("limit", (long) get());
+            statistics.put("inFlight", (long) inFlight.get());
+            statistics.put("rejected", rejected.sum());
+            return statistics;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.persistence;
+
+/**
+ * Number of poi's within a grid cell.
+ *
+ * @param latIndex index of the cell in latitude direction, floor(latitude / cellSize)
+ * @param lonIndex index of the cell in longitude direction, floor(longitude / cellSize)
+ * @param count    number of poi's in the cell
+ */
+public record GridCellCount(int latIndex, int lonIndex, long count) {
+}
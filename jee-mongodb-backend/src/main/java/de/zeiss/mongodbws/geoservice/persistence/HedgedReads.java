@@ -0,0 +1,215 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.persistence;
+
+import com.mongodb.ReadPreference;
+import io.opentelemetry.context.Context;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Hedged reads to cut the tail latency on replica sets: if a read has not completed within the configured percentile
+ * of the recent latencies of its kind, a duplicate read is sent with a different read preference, i.e. to another
+ * replica set member. The first answer is taken and the other read is cancelled.
+ * <p>
+ * Each hedge is an additional database read, so the statistics show both the latency percentiles and how many reads
+ * were hedged.
+ */
+@ApplicationScoped
+public class HedgedReads {
+
+    /**
+     * Number of most recent reads per kind the hedging delay is computed from.
+     */
+    static final int WINDOW_SIZE = 1000;
+
+    /**
+     * Reads are not hedged before this number of reads of their kind has been seen.
+     */
+    static final int MIN_SAMPLES = 100;
+
+    /**
+     * The hedging delay is recomputed after this number of reads.
+     */
+    static final int DELAY_UPDATE_INTERVAL = 100;
+
+    @Resource(lookup = "java:comp/DefaultManagedExecutorService")
+    ExecutorService executorService;
+
+    @Inject
+    @ConfigProperty(name = "geoservice.hedging.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @Inject
+    @ConfigProperty(name = "geoservice.hedging.percentile", defaultValue = "95")
+    double percentile;
+
+    @Inject
+    @ConfigProperty(name = "geoservice.hedging.min-delay-ms", defaultValue = "10")
+    long minDelayMs;
+
+    @Inject
+    @ConfigProperty(name = "geoservice.hedging.read-preference", defaultValue = "secondaryPreferred")
+    String readPreferenceName;
+
+    private ReadPreference hedgeReadPreference;
+
+    private final Map<String, ReadStatistics> statistics = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        hedgeReadPreference = ReadPreference.valueOf(readPreferenceName);
+    }
+
+    /**
+     * Executes a read, hedged if enabled.
+     *
+     * @param kind the kind of read, e.g. "get", reads of a kind share their latency statistics
+     * @param read the read, called with the read preference to use, null for the one of the client
+     * @return the result of the first read to complete
+     */
+    public <T> T read(String kind, Function<ReadPreference, T> read) {
+        if (!enabled) {
+            return read.apply(null);
+        }
+
+        ReadStatistics readStatistics = statistics.computeIfAbsent(kind, k -> new ReadStatistics());
+        long start = System.nanoTime();
+
+        T result;
+        long delayNanos = readStatistics.delayNanos;
+        if (delayNanos > 0) {
+            result = hedged(readStatistics, read, delayNanos);
+        } else {
+            result = read.apply(null);
+        }
+
+        readStatistics.record(System.nanoTime() - start);
+        return result;
+    }
+
+    private <T> T hedged(ReadStatistics readStatistics, Function<ReadPreference, T> read, long delayNanos) {
+        CompletableFuture<Answer<T>> result = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(1);
+        // the attempts run in the trace of the caller
+        Context context = Context.current();
+
+        Future<?> primary = executorService.submit(context.wrap(() -> attempt(read, null, result, pending)));
+        Future<?> hedge = null;
+        try {
+            try {
+                return result.get(delayNanos, TimeUnit.NANOSECONDS).value();
+            } catch (TimeoutException e) {
+                readStatistics.hedged.increment();
+                pending.incrementAndGet();
+                hedge = executorService.submit(context.wrap(() -> attempt(read, hedgeReadPreference, result, pending)));
+
+                Answer<T> answer = result.get();
+                if (answer.readPreference() != null) {
+                    readStatistics.hedgeWins.increment();
+                }
+                return answer.value();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reading points of interest", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            primary.cancel(true);
+            if (hedge != null) {
+                hedge.cancel(true);
+            }
+        }
+    }
+
+    private static <T> void attempt(Function<ReadPreference, T> read, ReadPreference readPreference,
+                                    CompletableFuture<Answer<T>> result, AtomicInteger pending) {
+        try {
+            result.complete(new Answer<>(read.apply(readPreference), readPreference));
+        } catch (RuntimeException e) {
+            // the result fails only if no other attempt may still succeed
+            if (pending.decrementAndGet() == 0) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * @param value          the result of a read
+     * @param readPreference the read preference it was read with, null for the one of the client
+     */
+    private record Answer<T>(T value, ReadPreference readPreference) {
+    }
+
+    /**
+     * @return per kind of read the number of reads, of hedged reads and of hedges answering first, the current
+     * hedging delay and the p50 and p99 latencies in milliseconds
+     */
+    public Map<String, Map<String, Number>> getStatistics() {
+        Map<String, Map<String, Number>> result = new LinkedHashMap<>();
+        statistics.forEach((kind, readStatistics) -> result.put(kind, readStatistics.toMap()));
+        return result;
+    }
+
+    private class ReadStatistics {
+
+        final LatencyWindow latencies = new LatencyWindow(WINDOW_SIZE);
+
+        final LongAdder reads = new LongAdder();
+
+        final LongAdder hedged = new LongAdder();
+
+        final LongAdder hedgeWins = new LongAdder();
+
+        final AtomicInteger sinceDelayUpdate = new AtomicInteger();
+
+        /**
+         * Delay after which a read is hedged, 0 while there are too few samples.
+         */
+        volatile long delayNanos;
+
+        void record(long latencyNanos) {
+            latencies.record(latencyNanos);
+            reads.increment();
+
+            if (sinceDelayUpdate.incrementAndGet() >= DELAY_UPDATE_INTERVAL && latencies.size() >= MIN_SAMPLES) {
+                sinceDelayUpdate.set(0);
+                delayNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(minDelayMs), latencies.percentile(percentile));
+            }
+        }
+
+        Map<String, Number> toMap() {
+            Map<String, Number> map = new LinkedHashMap<>();
+            map.put("reads", reads.sum());
+            map.put("hedged", hedged.sum());
+            map.put("hedgeWins", hedgeWins.sum());
+            map.put("delayMs", delayNanos / 1_000_000.0);
+            map.put("p50Ms", latencies.percentile(50) / 1_000_000.0);
+            map.put("p99Ms", latencies.percentile(99) / 1_000_000.0);
+            return map;
+        }
+    }
+}
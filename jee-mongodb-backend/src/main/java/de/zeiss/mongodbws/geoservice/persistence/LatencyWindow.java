@@ -0,0 +1,64 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.persistence;
+
+import java.util.Arrays;
+
+/**
+ * Thread safe sliding window of the latencies of the most recent calls, for computing percentiles of them.
+ */
+public class LatencyWindow {
+
+    private final long[] latencies;
+
+    private int next;
+
+    private int size;
+
+    /**
+     * @param capacity number of most recent latencies kept
+     */
+    public LatencyWindow(int capacity) {
+        this.latencies = new long[capacity];
+    }
+
+    /**
+     * Records the latency of a call, replacing the oldest one if the window is full.
+     *
+     * @param latencyNanos duration of the call in nanoseconds
+     */
+    public synchronized void record(long latencyNanos) {
+        latencies[next] = latencyNanos;
+        next = (next + 1) % latencies.length;
+        size = Math.min(size + 1, latencies.length);
+    }
+
+    /**
+     * @return number of latencies in the window
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @param percentile the percentile, e.g. 99.0
+     * @return the latency in nanoseconds which the given percentage of the calls in the window did not exceed, 0 if
+     * the window is empty
+     */
+    public long percentile(double percentile) {
+        long[] sorted;
+        synchronized (this) {
+            if (size == 0) {
+                return 0;
+            }
+            sorted = Arrays.copyOf(latencies, size);
+        }
+        Arrays.sort(sorted);
+
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.clamp(index, 0, sorted.length - 1)];
+    }
+}
@@ -5,8 +5,12 @@
  */
 package de.zeiss.mongodbws.geoservice.persistence;
 
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
+import de.zeiss.mongodbws.geoservice.timing.ServerTimingCommandListener;
+import de.zeiss.mongodbws.geoservice.tracing.TracingCommandListener;
 import dev.morphia.Datastore;
 import dev.morphia.Morphia;
 import jakarta.annotation.PostConstruct;
@@ -15,9 +19,14 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.logging.Logger;
 
 /**
+ * Provides the Morphia datastores. Each {@link Workload} with a configured pool size gets its own MongoDB client and
+ * thus its own connection pool, workloads without fall back to the client of interactive reads.
+ *
  * @author Andreas Post
  */
 @ApplicationScoped
@@ -37,10 +46,38 @@ public class MongoDBClientProvider {
     @ConfigProperty(name = "mongodb.port", defaultValue = "27017")
     int port;
 
+    /*
+     * Maximum sizes of the connection pools per workload, 0 shares the pool of interactive reads.
+     */
+    @Inject
+    @ConfigProperty(name = "mongodb.pool-size.interactive", defaultValue = "100")
+    int interactivePoolSize;
+
+    @Inject
+    @ConfigProperty(name = "mongodb.pool-size.write", defaultValue = "10")
+    int writePoolSize;
+
+    @Inject
+    @ConfigProperty(name = "mongodb.pool-size.bulk", defaultValue = "10")
+    int bulkPoolSize;
+
+    @Inject
+    ServerTimingCommandListener serverTimingListener;
+
+    @Inject
+    TracingCommandListener tracingListener;
+
+    @Inject
+    SlowQueryLog slowQueryLog;
+
     MongoClient mongoClient = null;
 
     Datastore datastore;
 
+    final Map<Workload, MongoClient> workloadClients = new EnumMap<>(Workload.class);
+
+    final Map<Workload, Datastore> workloadDatastores = new EnumMap<>(Workload.class);
+
     @PostConstruct
     public void init() {
         // TODO add user and password support
@@ -49,15 +86,64 @@ public class MongoDBClientProvider {
                 "'mongodb.host', 'mongodb.port' and 'mongodb.database' by supplying custom microprofile.properties in 'src/main/webapp/META-INF'" +
                 " by creating a copy of the template file 'microprofile-config.properties.template'." +
                 " Default values are 'localhost', '27017' and 'demo-campus'.");
-        mongoClient = MongoClients.create("mongodb://" + hostname + ":" + port);
+        mongoClient = createClient(interactivePoolSize);
 
         datastore = Morphia.createDatastore(mongoClient, databaseName);
+
+        createWorkloadDatastore(Workload.WRITE, writePoolSize);
+        createWorkloadDatastore(Workload.BULK, bulkPoolSize);
     }
 
+    private void createWorkloadDatastore(Workload workload, int poolSize) {
+        if (poolSize > 0) {
+            LOG.info("Creating a MongoDB client with a pool of " + poolSize + " connections for " + workload);
+            MongoClient client = createClient(poolSize);
+            workloadClients.put(workload, client);
+            workloadDatastores.put(workload, Morphia.createDatastore(client, databaseName));
+        }
+    }
+
+    private MongoClient createClient(int poolSize) {
+        MongoClientSettings.Builder settings = MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString("mongodb://" + hostname + ":" + port));
+        if (poolSize > 0) {
+            settings.applyToConnectionPoolSettings(pool -> pool.maxSize(poolSize));
+        }
+        if (serverTimingListener != null) {
+            settings.addCommandListener(serverTimingListener);
+        }
+        if (tracingListener != null) {
+            settings.addCommandListener(tracingListener);
+        }
+        if (slowQueryLog != null) {
+            settings.addCommandListener(slowQueryLog);
+        }
+        return MongoClients.create(settings.build());
+    }
+
+    /**
+     * @return the datastore for interactive reads
+     */
     public Datastore getDatastore() {
         return datastore;
     }
 
+    /**
+     * @param workload the class of work
+     * @return the datastore with the connection pool of the workload
+     */
+    public Datastore getDatastore(Workload workload) {
+        return workloadDatastores.getOrDefault(workload, datastore);
+    }
+
+    /**
+     * @param workload the class of work
+     * @return the client with the connection pool of the workload
+     */
+    public MongoClient getClient(Workload workload) {
+        return workloadClients.getOrDefault(workload, mongoClient);
+    }
+
     /**
      *
      */
@@ -67,5 +153,6 @@ public class MongoDBClientProvider {
         if (mongoClient != null) {
             mongoClient.close();
         }
+        workloadClients.values().forEach(MongoClient::close);
     }
 }
@@ -5,27 +5,67 @@
  */
 package de.zeiss.mongodbws.geoservice.persistence;
 
+import com.mongodb.MongoExecutionTimeoutException;
+import com.mongodb.ReadPreference;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Accumulators;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
 import com.mongodb.client.model.geojson.Point;
 import com.mongodb.client.model.geojson.Position;
-import com.mongodb.client.result.DeleteResult;
+import de.zeiss.mongodbws.geoservice.jfr.PoiLookupEvent;
+import de.zeiss.mongodbws.geoservice.jfr.PoiRadiusQueryEvent;
+import de.zeiss.mongodbws.geoservice.jfr.PoiWriteEvent;
 import de.zeiss.mongodbws.geoservice.persistence.entity.PointOfInterestEntity;
+import de.zeiss.mongodbws.geoservice.tracing.Traced;
+import dev.morphia.aggregation.Aggregation;
+import dev.morphia.aggregation.AggregationOptions;
+import dev.morphia.aggregation.stages.GeoNear;
+import dev.morphia.aggregation.stages.Group;
+import dev.morphia.aggregation.stages.Projection;
+import dev.morphia.aggregation.stages.ReplaceWith;
+import dev.morphia.aggregation.stages.Sort;
+import dev.morphia.aggregation.stages.Unwind;
 import dev.morphia.query.FindOptions;
 import dev.morphia.query.Query;
+import dev.morphia.query.internal.MorphiaCursor;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import org.bson.Document;
+import org.bson.conversions.Bson;
 import org.bson.types.ObjectId;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
+import static dev.morphia.aggregation.expressions.AccumulatorExpressions.topN;
+import static dev.morphia.aggregation.expressions.Expressions.field;
+import static dev.morphia.aggregation.expressions.Expressions.value;
+import static dev.morphia.aggregation.expressions.SystemVariables.ROOT;
 import static dev.morphia.query.filters.Filters.eq;
+import static dev.morphia.query.filters.Filters.in;
+import static dev.morphia.query.filters.Filters.ne;
 
 /**
- * Service for our persistence stuff.
+ * Service for our persistence stuff. All calls are subject to the adaptive {@link ConcurrencyLimiter} of the workload
+ * of the connection pool they use (interactive unless annotated otherwise), id and radius lookups may be
+ * {@link HedgedReads hedged}. Queries and writes emit JDK Flight Recorder events, see
+ * {@link de.zeiss.mongodbws.geoservice.jfr.PoiEvent}. Commands exceeding a threshold are recorded with their explain
+ * plan by the {@link SlowQueryLog}.
  *
  * @author Andreas Post
  */
 @ApplicationScoped
+@ConcurrencyLimited
+@Traced
 public class PersistenceService {
 
     private static final Logger LOG = Logger.getLogger(PersistenceService.class.getName());
@@ -33,6 +73,36 @@ public class PersistenceService {
     @Inject
     MongoDBClientProvider mongoDBClientProvider;
 
+    @Inject
+    HedgedReads hedgedReads;
+
+    /*
+     * Time budgets (maxTimeMS) of the queries per endpoint, 0 means no limit.
+     */
+    @Inject
+    @ConfigProperty(name = "geoservice.query.max-time-ms.get", defaultValue = "1000")
+    long getMaxTimeMs;
+
+    @Inject
+    @ConfigProperty(name = "geoservice.query.max-time-ms.list", defaultValue = "2000")
+    long listMaxTimeMs;
+
+    @Inject
+    @ConfigProperty(name = "geoservice.query.max-time-ms.nearest", defaultValue = "2000")
+    long nearestMaxTimeMs;
+
+    @Inject
+    @ConfigProperty(name = "geoservice.query.max-time-ms.per-category", defaultValue = "5000")
+    long perCategoryMaxTimeMs;
+
+    /**
+     * Batch size of queries which may return partial results. Results are only available batch by batch, so smaller
+     * batches keep more of them if the time budget is exceeded.
+     */
+    @Inject
+    @ConfigProperty(name = "geoservice.query.partial-batch-size", defaultValue = "100")
+    int partialBatchSize;
+
     /**
      * Saves the given {@link PointOfInterestEntity} as new entity. The
      * returning entity contains the generated id.
@@ -40,11 +110,13 @@ public class PersistenceService {
      * @param poi the entity to store.
      * @return the entity with id
      */
+    @ConcurrencyLimited(Workload.WRITE)
     public PointOfInterestEntity createPointOfInterest(PointOfInterestEntity poi) {
-
-        mongoDBClientProvider.getDatastore().save(poi);
-
-        return poi;
+        PoiWriteEvent event = new PoiWriteEvent("create", null);
+        return event.record(() -> mongoDBClientProvider.getDatastore(Workload.WRITE).save(poi), saved -> {
+            event.setId(String.valueOf(saved.getId()));
+            event.setApplied(true);
+        });
     }
 
     /**
@@ -60,43 +132,127 @@ public class PersistenceService {
          *
          * db.getCollection('point_of_interest').find({_id: ObjectId('[id]')},{'details': 0})
          */
-        if (!expandDetails) {
-            FindOptions options = new FindOptions().projection().exclude("details");
+        PoiLookupEvent event = new PoiLookupEvent(1, projection(expandDetails));
+        return event.record(() -> hedgedReads.read("get", readPreference -> {
+            FindOptions options = withReadPreference(withMaxTime(new FindOptions(), getMaxTimeMs), readPreference);
+            if (!expandDetails) {
+                options.projection().exclude("details");
+            }
 
-            return mongoDBClientProvider.getDatastore()
-                    .find(PointOfInterestEntity.class)
-                    .filter(eq("_id", id))
-                    .iterator(options)
-                    .tryNext();
-        } else {
             return mongoDBClientProvider.getDatastore()//.get(PointOfInterestEntity.class, id);
                     .find(PointOfInterestEntity.class)
                     .filter(eq("_id", id))
-                    .iterator()
+                    .iterator(options)
                     .tryNext();
-        }
+        }), poi -> event.setFound(poi != null ? 1 : 0));
+    }
+
+    /**
+     * Retrieve an poi entity by id for updating it. Unlike {@link #getPointOfInterest(ObjectId, boolean)} this read is
+     * never hedged, so it always returns the current state from the primary.
+     *
+     * @param id The object id of the entity.
+     * @return the entity with all data or null if there is none with this id
+     */
+    @ConcurrencyLimited(Workload.WRITE)
+    public PointOfInterestEntity getPointOfInterestForUpdate(ObjectId id) {
+        PoiLookupEvent event = new PoiLookupEvent(1, projection(true));
+        return event.record(() -> mongoDBClientProvider.getDatastore(Workload.WRITE)
+                .find(PointOfInterestEntity.class)
+                .filter(eq("_id", id))
+                .iterator(withMaxTime(new FindOptions(), getMaxTimeMs))
+                .tryNext(), poi -> event.setFound(poi != null ? 1 : 0));
     }
 
+    @ConcurrencyLimited(Workload.WRITE)
     public PointOfInterestEntity updatePointOfInterest(PointOfInterestEntity poi) {
-        mongoDBClientProvider.getDatastore().save(poi);
+        PoiWriteEvent event = new PoiWriteEvent("update", String.valueOf(poi.getId()));
+        return event.record(() -> mongoDBClientProvider.getDatastore(Workload.WRITE).save(poi),
+                saved -> event.setApplied(true));
+    }
+
+    /**
+     * Retrieve several poi entities by id with a single query:
+     * <p>
+     * db.getCollection('point-of-interest').find({_id: {$in: [ObjectId('[id1]'), ObjectId('[id2]')]}},{'details': 0})
+     *
+     * @param ids           The object ids of the entities.
+     * @param expandDetails If true returnes all data of the poi's.
+     * @return the found entities in no particular order
+     */
+    public List<PointOfInterestEntity> getPointsOfInterest(Collection<ObjectId> ids, boolean expandDetails) {
+        PoiLookupEvent event = new PoiLookupEvent(ids.size(), projection(expandDetails));
+        return event.record(() -> hedgedReads.read("ids", readPreference -> {
+            Query<PointOfInterestEntity> query = mongoDBClientProvider.getDatastore()
+                    .find(PointOfInterestEntity.class)
+                    .filter(in("_id", ids));
 
-        return poi;
+            FindOptions options = withReadPreference(withMaxTime(new FindOptions(), getMaxTimeMs), readPreference);
+            if (!expandDetails) {
+                options.projection().exclude("details");
+            }
+
+            return query.iterator(options).toList();
+        }), pois -> event.setFound(pois.size()));
     }
 
     /**
      * Delete a poi by id.
      *
      * @param id
+     * @return the deleted entity or null if there was none with this id
      */
-    public void deletePointOfInterest(ObjectId id) {
+    @ConcurrencyLimited(Workload.WRITE)
+    public PointOfInterestEntity deletePointOfInterest(ObjectId id) {
         LOG.info("deletePointOfInterest: " + id);
 
-        DeleteResult writeResult = mongoDBClientProvider.getDatastore()//.delete(PointOfInterestEntity.class, id);
+        PoiWriteEvent event = new PoiWriteEvent("delete", String.valueOf(id));
+        PointOfInterestEntity deleted = event.record(() -> mongoDBClientProvider.getDatastore(Workload.WRITE)//.delete(PointOfInterestEntity.class, id);
                 .find(PointOfInterestEntity.class)
                 .filter(eq("_id", id))
-                .delete();
+                .findAndDelete(), entity -> event.setApplied(entity != null));
 
-        LOG.info(writeResult.toString());
+        LOG.info(deleted == null ? "nothing deleted" : "deleted " + id);
+
+        return deleted;
+    }
+
+    /**
+     * Counts the poi's per grid cell of cellSize degrees, e.g. for estimating the number of results of radius queries:
+     * <p>
+     * db.getCollection('point-of-interest').aggregate([{$group: {_id: {lat: {$floor: {$divide: [{$arrayElemAt:
+     * ['$location.coordinates', 1]}, [cellSize]]}}, lon: {$floor: {$divide: [{$arrayElemAt: ['$location.coordinates',
+     * 0]}, [cellSize]]}}}, count: {$sum: 1}}}])
+     * <p>
+     * The result documents are no entities, so the aggregation runs on the plain driver collection.
+     *
+     * @param cellSize edge length of the cells in degrees
+     * @return the counts of the cells containing poi's
+     */
+    @ConcurrencyLimited(Workload.BULK)
+    public List<GridCellCount> countPOIsPerCell(double cellSize) {
+        MongoCollection<Document> collection = mongoDBClientProvider.getDatastore(Workload.BULK)
+                .getCollection(PointOfInterestEntity.class)
+                .withDocumentClass(Document.class);
+
+        List<Bson> pipeline = List.of(
+                Aggregates.match(Filters.exists("location.coordinates")),
+                Aggregates.group(new Document("lat", cellIndex(1, cellSize)).append("lon", cellIndex(0, cellSize)),
+                        Accumulators.sum("count", 1)));
+
+        List<GridCellCount> counts = new ArrayList<>();
+        for (Document cell : collection.aggregate(pipeline)) {
+            Document cellId = cell.get("_id", Document.class);
+            counts.add(new GridCellCount(cellId.get("lat", Number.class).intValue(),
+                    cellId.get("lon", Number.class).intValue(), cell.get("count", Number.class).longValue()));
+        }
+
+        return counts;
+    }
+
+    private static Document cellIndex(int coordinateIndex, double cellSize) {
+        return new Document("$floor", new Document("$divide", List.of(
+                new Document("$arrayElemAt", List.of("$location.coordinates", coordinateIndex)), cellSize)));
     }
 
     /**
@@ -106,23 +262,327 @@ public class PersistenceService {
      * @param lon
      * @param radius
      * @param expandDetails If true returnes all data of the poi.
+     * @param allowPartial  If true the poi's read until the time budget is exceeded are returned instead of an error.
+     * @param limit         Maximum number of poi's to return, 0 for no limit. A result cut off by the limit is partial.
+     * @return the poi's ordered by distance
+     */
+    public QueryResult<PointOfInterestEntity> listPOIs(double lat, double lon, int radius, boolean expandDetails,
+                                                       boolean allowPartial, int limit) {
+        PoiRadiusQueryEvent event = new PoiRadiusQueryEvent("radius", lat, lon, radius, limit, null,
+                projection(expandDetails));
+        return event.record(() -> hedgedReads.read("radius", readPreference -> {
+            FindOptions options = withReadPreference(withMaxTime(new FindOptions(), listMaxTimeMs), readPreference)
+                    .limit(queryLimit(limit));
+            if (!expandDetails) {
+                options.projection().exclude("details");
+            }
+
+            return collect(nearQuery(Workload.INTERACTIVE, lat, lon, radius), options, allowPartial, limit);
+        }), result -> event.setResult(result.results().size(), result.partial()));
+    }
+
+    /**
+     * List poi's by coords and radius, optionally restricted to a category.
+     *
+     * @param lat
+     * @param lon
+     * @param radius
+     * @param category      Optional category filter, may be null.
+     * @param expandDetails If true returnes all data of the poi.
      * @return
      */
-    public List<PointOfInterestEntity> listPOIs(double lat, double lon, int radius, boolean expandDetails) {
+    @ConcurrencyLimited(Workload.BULK)
+    public List<PointOfInterestEntity> listPOIs(double lat, double lon, int radius, String category,
+                                                boolean expandDetails) {
+        // only used by the batch search
+        Query<PointOfInterestEntity> query = nearQuery(Workload.BULK, lat, lon, radius);
+
+        if (category != null) {
+            query.filter(eq("category", category));
+        }
+
+        FindOptions options = withMaxTime(new FindOptions(), listMaxTimeMs);
+        if (!expandDetails) {
+            options.projection().exclude("details");
+        }
+
+        PoiRadiusQueryEvent event = new PoiRadiusQueryEvent("radius", lat, lon, radius, 0, category,
+                projection(expandDetails));
+        return event.record(() -> query.iterator(options).toList(), pois -> event.setResult(pois.size(), false));
+    }
+
+    /**
+     * List poi's by coords and radius, reading only the given fields (and the id) from the database.
+     *
+     * @param lat
+     * @param lon
+     * @param radius
+     * @param fields       The fields to read, e.g. name and location.
+     * @param allowPartial If true the poi's read until the time budget is exceeded are returned instead of an error.
+     * @param limit        Maximum number of poi's to return, 0 for no limit. A result cut off by the limit is partial.
+     * @return the poi's ordered by distance
+     */
+    public QueryResult<PointOfInterestEntity> listPOIs(double lat, double lon, int radius, Set<String> fields,
+                                                       boolean allowPartial, int limit) {
+        PoiRadiusQueryEvent event = new PoiRadiusQueryEvent("radius", lat, lon, radius, limit, null,
+                String.join(",", fields));
+        return event.record(() -> hedgedReads.read("radius", readPreference -> {
+            FindOptions options = withReadPreference(withMaxTime(new FindOptions(), listMaxTimeMs), readPreference)
+                    .limit(queryLimit(limit))
+                    .projection().include(fields.toArray(String[]::new));
+
+            return collect(nearQuery(Workload.INTERACTIVE, lat, lon, radius), options, allowPartial, limit);
+        }), result -> event.setResult(result.results().size(), result.partial()));
+    }
+
+    /**
+     * List the ids, coordinates and categories of the poi's by coords and radius as columns, see
+     * {@link PointOfInterestColumns}.
+     * <p>
+     * db.getCollection('point-of-interest').find({location: {$near: {$geometry: {type: 'Point', coordinates: [lon,
+     * lat]}, $maxDistance: [radius]}}}, {'location.coordinates': 1, category: 1})
+     * <p>
+     * The columns are filled while iterating the cursor once, so no entity is mapped and no list of results is kept.
+     * This is done on the plain driver collection like {@link #countPOIsPerCell(double)}.
+     *
+     * @param lat
+     * @param lon
+     * @param radius
+     * @param allowPartial If true the poi's read until the time budget is exceeded are returned instead of an error.
+     * @param limit        Maximum number of poi's to return, 0 for no limit. A result cut off by the limit is partial.
+     * @return the columns of the poi's ordered by distance
+     */
+    public PointOfInterestColumns listPOIColumns(double lat, double lon, int radius, boolean allowPartial, int limit) {
+        PoiRadiusQueryEvent event = new PoiRadiusQueryEvent("radius", lat, lon, radius, limit, null, "columns");
+        return event.record(() -> hedgedReads.read("radius", readPreference -> {
+            MongoCollection<Document> collection = mongoDBClientProvider.getDatastore(Workload.INTERACTIVE)
+                    .getCollection(PointOfInterestEntity.class)
+                    .withDocumentClass(Document.class);
+            if (readPreference != null) {
+                collection = collection.withReadPreference(readPreference);
+            }
+
+            FindIterable<Document> documents = collection
+                    .find(Filters.near("location", new Point(new Position(lon, lat)), (double) radius, null))
+                    .projection(Projections.include("location.coordinates", "category"))
+                    .limit(queryLimit(limit));
+            if (listMaxTimeMs > 0) {
+                documents.maxTime(listMaxTimeMs, TimeUnit.MILLISECONDS);
+            }
+            if (allowPartial) {
+                documents.batchSize(partialBatchSize);
+            }
+
+            return collectColumns(documents, allowPartial, limit);
+        }), columns -> event.setResult(columns.size(), columns.partial()));
+    }
+
+    private static PointOfInterestColumns collectColumns(FindIterable<Document> documents, boolean allowPartial,
+                                                         int limit) {
+        PointOfInterestColumns columns = new PointOfInterestColumns();
+        try (MongoCursor<Document> cursor = documents.iterator()) {
+            while (cursor.hasNext()) {
+                if (limit > 0 && columns.size() == limit) {
+                    // more poi's than the limit
+                    columns.markPartial();
+                    break;
+                }
+                Document document = cursor.next();
+                List<Number> coordinates = document.get("location", Document.class)
+                        .getList("coordinates", Number.class);
+                columns.add(document.getObjectId("_id").toHexString(), coordinates.get(0).doubleValue(),
+                        coordinates.get(1).doubleValue(), document.getString("category"));
+            }
+        } catch (MongoExecutionTimeoutException e) {
+            if (!allowPartial) {
+                throw e;
+            }
+            LOG.warning("Query exceeded its time budget, returning " + columns.size() + " results: " + e.getMessage());
+            columns.markPartial();
+        }
+        return columns;
+    }
+
+    /**
+     * Reads all results of the query. $near returns them ordered by distance, so if the time budget is exceeded the
+     * results read so far are the nearest ones and can be returned as partial result.
+     */
+    private QueryResult<PointOfInterestEntity> collect(Query<PointOfInterestEntity> query, FindOptions options,
+                                                       boolean allowPartial, int limit) {
+        if (!allowPartial) {
+            return limited(query.iterator(options).toList(), limit);
+        }
+
+        List<PointOfInterestEntity> results = new ArrayList<>();
+        try (MorphiaCursor<PointOfInterestEntity> cursor = query.iterator(options.batchSize(partialBatchSize))) {
+            while (cursor.hasNext()) {
+                results.add(cursor.next());
+            }
+        } catch (MongoExecutionTimeoutException e) {
+            LOG.warning("Query exceeded its time budget, returning " + results.size() + " results: " + e.getMessage());
+            return new QueryResult<>(results, true);
+        }
+
+        return limited(results, limit);
+    }
+
+    /**
+     * @return the limit of a query whose results are cut off by the limit, one more result tells whether there are
+     * more of them
+     */
+    private static int queryLimit(int limit) {
+        return limit > 0 ? limit + 1 : 0;
+    }
+
+    /**
+     * @param results the results of a query limited by {@link #queryLimit(int)}
+     * @param limit   maximum number of results, 0 for no limit
+     * @return the results, partial if they were cut off by the limit
+     */
+    private static QueryResult<PointOfInterestEntity> limited(List<PointOfInterestEntity> results, int limit) {
+        if (limit > 0 && results.size() > limit) {
+            return new QueryResult<>(List.copyOf(results.subList(0, limit)), true);
+        }
+        return new QueryResult<>(results, false);
+    }
+
+    /**
+     * @return the fields read from the database for the projection of a flight recorder event
+     */
+    private static String projection(boolean expandDetails) {
+        return expandDetails ? "all" : "without details";
+    }
+
+    private static FindOptions withMaxTime(FindOptions options, long maxTimeMs) {
+        return maxTimeMs > 0 ? options.maxTime(maxTimeMs, TimeUnit.MILLISECONDS) : options;
+    }
+
+    /**
+     * @param readPreference the read preference of a hedged read, null for the one of the client
+     */
+    private static FindOptions withReadPreference(FindOptions options, ReadPreference readPreference) {
+        return readPreference != null ? options.readPreference(readPreference) : options;
+    }
+
+    private static AggregationOptions aggregationOptions(long maxTimeMs) {
+        AggregationOptions options = new AggregationOptions();
+        return maxTimeMs > 0 ? options.maxTimeMS(maxTimeMs) : options;
+    }
+
+    private Query<PointOfInterestEntity> nearQuery(Workload workload, double lat, double lon, int radius) {
         Point point = new Point(
                 new Position(lon, lat)
         );
 
-        Query<PointOfInterestEntity> query = mongoDBClientProvider.getDatastore()
+        return mongoDBClientProvider.getDatastore(workload)
                 .find(PointOfInterestEntity.class)
                 .filter(dev.morphia.query.filters.Filters.near("location", point).maxDistance((double) radius));
+    }
+
+    /**
+     * List the k nearest poi's to the given coords, annotated with their distance in meters.
+     * <p>
+     * This is done by a $geoNear aggregation which sorts by distance and lets us cut off after k results:
+     * <p>
+     * db.getCollection('point-of-interest').aggregate([{$geoNear: {near: {type: 'Point', coordinates: [lon, lat]},
+     * distanceField: 'distance', maxDistance: [maxRadius], query: {category: [category]}, spherical: true}}, {$limit: k}])
+     *
+     * @param lat
+     * @param lon
+     * @param limit         Maximum number of results (k).
+     * @param maxRadius     Optional maximum distance in meters, may be null.
+     * @param category      Optional category filter, may be null.
+     * @param expandDetails If true returnes all data of the poi.
+     * @return the poi's ordered by distance
+     */
+    public List<PointOfInterestEntity> listNearestPOIs(double lat, double lon, int limit, Integer maxRadius,
+                                                       String category, boolean expandDetails) {
+        Point point = new Point(
+                new Position(lon, lat)
+        );
+
+        GeoNear geoNear = GeoNear.geoNear(point)
+                .distanceField("distance")
+                .spherical(true);
+
+        if (maxRadius != null) {
+            geoNear.maxDistance(maxRadius);
+        }
+        if (category != null) {
+            geoNear.query(eq("category", category));
+        }
+
+        Aggregation<PointOfInterestEntity> aggregation = mongoDBClientProvider.getDatastore()
+                .aggregate(PointOfInterestEntity.class)
+                .geoNear(geoNear)
+                .limit(limit);
 
         if (!expandDetails) {
-            FindOptions options = new FindOptions().projection().exclude("details");
-            return query.iterator(options).toList();
+            aggregation.project(Projection.project().exclude("details"));
         }
 
-        return query.iterator().toList();
+        PoiRadiusQueryEvent event = new PoiRadiusQueryEvent("nearest", lat, lon, maxRadius != null ? maxRadius : 0,
+                limit, category, projection(expandDetails));
+        return event.record(() -> aggregation.execute(PointOfInterestEntity.class,
+                aggregationOptions(nearestMaxTimeMs)).toList(), pois -> event.setResult(pois.size(), false));
     }
-}
 
+    /**
+     * List the nearest poi's of each category within the radius in a single aggregation, annotated with their
+     * distance in meters.
+     * <p>
+     * $geoNear sorts all poi's within the radius by distance using the 2dsphere index, $group/$topN keeps the nearest
+     * ones of each category, $unwind/$replaceWith turn them back into poi documents:
+     * <p>
+     * db.getCollection('point-of-interest').aggregate([{$geoNear: {near: {type: 'Point', coordinates: [lon, lat]},
+     * distanceField: 'distance', maxDistance: [radius], spherical: true}}, {$group: {_id: '$category', pois: {$topN:
+     * {n: [n], sortBy: {distance: 1}, output: '$$ROOT'}}}}, {$unwind: '$pois'}, {$replaceWith: '$pois'},
+     * {$sort: {category: 1, distance: 1}}])
+     *
+     * @param lat
+     * @param lon
+     * @param radius           Maximum distance in meters.
+     * @param limitPerCategory Maximum number of results per category (n).
+     * @param categories       Optional categories to restrict the query to, may be null or empty.
+     * @param expandDetails    If true returnes all data of the poi.
+     * @return the poi's ordered by category and distance
+     */
+    public List<PointOfInterestEntity> listNearestPOIsPerCategory(double lat, double lon, int radius,
+                                                                  int limitPerCategory, List<String> categories,
+                                                                  boolean expandDetails) {
+        Point point = new Point(
+                new Position(lon, lat)
+        );
+
+        GeoNear geoNear = GeoNear.geoNear(point)
+                .distanceField("distance")
+                .maxDistance(radius)
+                .spherical(true);
+
+        if (categories != null && !categories.isEmpty()) {
+            geoNear.query(in("category", categories));
+        } else {
+            // poi's without category belong to no group of the result
+            geoNear.query(ne("category", null));
+        }
+
+        Aggregation<PointOfInterestEntity> aggregation = mongoDBClientProvider.getDatastore()
+                .aggregate(PointOfInterestEntity.class)
+                .geoNear(geoNear);
+
+        if (!expandDetails) {
+            aggregation.project(Projection.project().exclude("details"));
+        }
+
+        PoiRadiusQueryEvent event = new PoiRadiusQueryEvent("per-category", lat, lon, radius, limitPerCategory,
+                categories != null ? String.join(",", categories) : null, projection(expandDetails));
+        return event.record(() -> aggregation
+                .group(Group.group(Group.id("category"))
+                        .field("pois", topN(value(limitPerCategory), ROOT, dev.morphia.query.Sort.ascending("distance"))))
+                .unwind(Unwind.unwind("pois"))
+                .replaceWith(ReplaceWith.replaceWith(field("pois")))
+                .sort(Sort.sort().ascending("category").ascending("distance"))
+                .execute(PointOfInterestEntity.class, aggregationOptions(perCategoryMaxTimeMs))
+                .toList(), pois -> event.setResult(pois.size(), false));
+    }
+}
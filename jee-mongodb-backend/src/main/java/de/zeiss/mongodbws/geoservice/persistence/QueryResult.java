@@ -0,0 +1,34 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.persistence;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Results of a query which may have been cut off by its time budget or by the query cost guard.
+ *
+ * @param results the results, in the order returned by the database
+ * @param partial true if the query exceeded its time budget and only the results read until then are contained, or
+ *                if the results were capped to the nearest ones
+ * @param <T>     type of the results
+ */
+public record QueryResult<T>(List<T> results, boolean partial) {
+
+    /**
+     * @return a result containing all results of the query
+     */
+    public static <T> QueryResult<T> complete(List<T> results) {
+        return new QueryResult<>(results, false);
+    }
+
+    /**
+     * @return a result with the mapped results and the same partial flag
+     */
+    public <R> QueryResult<R> map(Function<? super T, ? extends R> mapper) {
+        return new QueryResult<>(results.stream().<R>map(mapper).toList(), partial);
+    }
+}
@@ -0,0 +1,28 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.persistence;
+
+/**
+ * Classes of work which are isolated from each other by separate MongoDB connection pools and bulkheads, so e.g. an
+ * import flooding the service with writes does not slow down interactive map reads.
+ */
+public enum Workload {
+
+    /**
+     * Single reads and radius queries of interactive clients.
+     */
+    INTERACTIVE,
+
+    /**
+     * Creating, updating and deleting poi's.
+     */
+    WRITE,
+
+    /**
+     * Batch endpoints, background aggregations and requests tagged with low priority.
+     */
+    BULK
+}
@@ -30,6 +30,12 @@ public class PointOfInterestEntity {
 
     private GeoPoint location;
 
+    /**
+     * Distance in meters to the query point, filled by {@code $geoNear} aggregations only.
+     */
+    @LoadOnly
+    private Double distance;
+
     public PointOfInterestEntity() {
 
     }
@@ -97,4 +103,18 @@ public class PointOfInterestEntity {
     public void setLocation(GeoPoint location) {
         this.location = location;
     }
+
+    /**
+     * @return the distance in meters or null if not queried by distance
+     */
+    public Double getDistance() {
+        return distance;
+    }
+
+    /**
+     * @param distance the distance to set
+     */
+    public void setDistance(Double distance) {
+        this.distance = distance;
+    }
 }
@@ -0,0 +1,39 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.rest;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.IOException;
+
+/**
+ * Answers requests of the {@link AdminEndpoint} resources with 404 (not found) unless they are enabled. They are not
+ * authenticated and start flight recordings or return the parameters of slow queries, so they are disabled by default
+ * and should only be enabled in trusted networks.
+ */
+@Provider
+@AdminEndpoint
+@Priority(Priorities.AUTHORIZATION)
+public class AdminFilter implements ContainerRequestFilter {
+
+    @Inject
+    @ConfigProperty(name = "geoservice.admin.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) throws IOException {
+        if (!enabled) {
+            requestContext.abortWith(Response.status(Response.Status.NOT_FOUND).build());
+        }
+    }
+}
@@ -0,0 +1,31 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.rest;
+
+import de.zeiss.mongodbws.geoservice.service.CircuitBreakerOpenException;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+
+import java.util.Map;
+
+/**
+ * Exception mapper for reads rejected by the open circuit breaker without a stale result to serve, answered with 503
+ * and a Retry-After header.
+ */
+@Provider
+public class CircuitBreakerOpenExceptionMapper implements ExceptionMapper<CircuitBreakerOpenException> {
+
+    @Override
+    public Response toResponse(CircuitBreakerOpenException exception) {
+        return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, exception.getRetryAfterSeconds())
+                .entity(Map.of("message", exception.getMessage()))
+                .type(Constants.MEDIA_TYPE_JSON)
+                .build();
+    }
+}
@@ -17,6 +17,46 @@ public abstract class Constants {
 
     public static final String MEDIA_TYPE_JSON = "application/json";
 
+    /**
+     * Binary JSON of Jackson, see {@link JacksonBinaryProvider}.
+     */
+    public static final String MEDIA_TYPE_SMILE = "application/x-jackson-smile";
+
+    /**
+     * Concise Binary Object Representation, RFC 8949, see {@link JacksonBinaryProvider}.
+     */
+    public static final String MEDIA_TYPE_CBOR = "application/cbor";
+
+    /**
+     * Protocol Buffers of the schema point_of_interest.proto, see {@link PointOfInterestProtobufProvider}.
+     */
+    public static final String MEDIA_TYPE_PROTOBUF = "application/x-protobuf";
+
     public static final String POI_RESOURCE_PATH = "poi/";
 
+    /**
+     * Comma separated list of the poi fields a client may select with the fields parameter.
+     */
+    public static final String FIELDS_PATTERN = "(name|category|location|details)(,(name|category|location|details))*";
+
+    /**
+     * Response header marking a list cut off by the time budget of its query or by the query cost guard.
+     */
+    public static final String PARTIAL_RESULT_HEADER = "X-Partial-Result";
+
+    /**
+     * Request header tagging the priority of a request, "low" for bulk work like imports.
+     */
+    public static final String REQUEST_PRIORITY_HEADER = "X-Request-Priority";
+
+    /**
+     * Response header marking a result served from the stale cache because the database is degraded.
+     */
+    public static final String STALE_HEADER = "X-Stale";
+
+    /**
+     * Response header with the time spent per layer of the service.
+     */
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
 }
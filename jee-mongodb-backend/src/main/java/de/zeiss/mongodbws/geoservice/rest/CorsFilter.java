@@ -11,10 +11,13 @@ import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.Provider;
 
 import java.io.IOException;
+import java.net.URI;
 import java.util.regex.Pattern;
 
 /**
- * CORS Filter: allows localhost calls regardless of the port and answers Preflight requests.
+ * CORS Filter: allows localhost calls regardless of the port and answers Preflight requests. The operational tools
+ * below /admin get no CORS headers and requests of other origins are rejected, so pages of other origins cannot start
+ * flight recordings or read slow queries.
  *
  * @author AI Generated
  */
@@ -24,17 +27,18 @@ import java.util.regex.Pattern;
 public class CorsFilter implements ContainerRequestFilter, ContainerResponseFilter {
 
     private static final Pattern LOCALHOST_ORIGIN = Pattern.compile("^https?://(?:localhost|127\\.0\\.0\\.1)(?::\\d+)?$");
+    private static final Pattern ADMIN_PATH = Pattern.compile("^/?admin(?:/.*)?$");
     private static final String HEADER_ORIGIN = "Origin";
     private static final String HDR_ALLOW_METHODS = "Access-Control-Allow-Methods";
     private static final String HDR_ALLOW_HEADERS = "Access-Control-Allow-Headers";
     static final String HDR_ALLOW_ORIGIN = "Access-Control-Allow-Origin";
     static final String HDR_ALLOW_CREDENTIALS = "Access-Control-Allow-Credentials";
     private static final String HDR_MAX_AGE = "Access-Control-Max-Age";
+    static final String HDR_TIMING_ALLOW_ORIGIN = "Timing-Allow-Origin";
 
     @Override
     public void filter(ContainerRequestContext requestContext) throws IOException {
-        String origin = requestContext.getHeaderString(HEADER_ORIGIN);
-        String allowedOrigin = origin != null && LOCALHOST_ORIGIN.matcher(origin).matches() ? origin : null;
+        String allowedOrigin = allowedOrigin(requestContext);
 
         // Preflight request handling
         if ("OPTIONS".equalsIgnoreCase(requestContext.getMethod())) {
@@ -47,18 +51,47 @@ public class CorsFilter implements ContainerRequestFilter, ContainerResponseFilt
                     .header(HDR_ALLOW_HEADERS, "Origin, Content-Type, Accept, Authorization")
                     .header(HDR_MAX_AGE, "3600");
             requestContext.abortWith(rb.build());
+        } else if (isCrossOriginAdminRequest(requestContext)) {
+            // e.g. a form of another page posting to /admin/jfr/start, which needs no preflight
+            requestContext.abortWith(Response.status(Response.Status.FORBIDDEN).build());
         }
     }
 
     @Override
     public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) throws IOException {
-        String origin = requestContext.getHeaderString(HEADER_ORIGIN);
-        if (origin != null && LOCALHOST_ORIGIN.matcher(origin).matches()) {
+        String origin = allowedOrigin(requestContext);
+        if (origin != null) {
             responseContext.getHeaders().putSingle(HDR_ALLOW_ORIGIN, origin);
             responseContext.getHeaders().putSingle(HDR_ALLOW_CREDENTIALS, "true");
             responseContext.getHeaders().putSingle(HDR_ALLOW_METHODS, "GET, POST, PUT, DELETE, OPTIONS");
             responseContext.getHeaders().putSingle(HDR_ALLOW_HEADERS, "Origin, Content-Type, Accept, Authorization");
             responseContext.getHeaders().putSingle(HDR_MAX_AGE, "3600");
+            // exposes the Server-Timing header to the resource timing API of the calling page
+            responseContext.getHeaders().putSingle(HDR_TIMING_ALLOW_ORIGIN, origin);
+        }
+    }
+
+    /**
+     * @return the origin of the request if it is allowed to call the requested resource, otherwise null
+     */
+    private static String allowedOrigin(ContainerRequestContext requestContext) {
+        String origin = requestContext.getHeaderString(HEADER_ORIGIN);
+        if (origin == null || !LOCALHOST_ORIGIN.matcher(origin).matches() || isAdminPath(requestContext)) {
+            return null;
         }
+        return origin;
+    }
+
+    private static boolean isCrossOriginAdminRequest(ContainerRequestContext requestContext) {
+        String origin = requestContext.getHeaderString(HEADER_ORIGIN);
+        if (origin == null || !isAdminPath(requestContext)) {
+            return false;
+        }
+        URI baseUri = requestContext.getUriInfo().getBaseUri();
+        return !origin.equalsIgnoreCase(baseUri.getScheme() + "://" + baseUri.getRawAuthority());
+    }
+
+    private static boolean isAdminPath(ContainerRequestContext requestContext) {
+        return ADMIN_PATH.matcher(requestContext.getUriInfo().getPath()).matches();
     }
 }
\ No newline at end of file
@@ -0,0 +1,119 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.rest;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.geojson.LngLatAlt;
+import org.geojson.Point;
+
+import java.io.IOException;
+
+/**
+ * Serializes the GeoJSON points of the points of interest directly as {@code {"type":"Point","coordinates":[lon,lat]}}.
+ * <p>
+ * The JSON is the same as the one of geojson-jackson, but without its type id handling of GeoJsonObject, the checks of
+ * crs and bbox and the serializer of LngLatAlt per point. Points with crs, bbox, altitude or additional elements, which
+ * the service never returns, are still serialized by the serializer of geojson-jackson.
+ */
+public class GeoJsonPointModule extends SimpleModule {
+
+    public GeoJsonPointModule() {
+        super(GeoJsonPointModule.class.getSimpleName());
+        setSerializerModifier(new BeanSerializerModifier() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public JsonSerializer<?> modifySerializer(SerializationConfig config, BeanDescription beanDesc,
+                                                      JsonSerializer<?> serializer) {
+                if (beanDesc.getBeanClass() == Point.class) {
+                    return new PointSerializer((JsonSerializer<Object>) serializer);
+                }
+                return serializer;
+            }
+        });
+    }
+
+    static class PointSerializer extends StdSerializer<Point> implements ContextualSerializer, ResolvableSerializer {
+
+        /**
+         * The serializer of geojson-jackson for the points the fast path does not cover.
+         */
+        private final JsonSerializer<Object> defaultSerializer;
+
+        PointSerializer(JsonSerializer<Object> defaultSerializer) {
+            super(Point.class);
+            this.defaultSerializer = defaultSerializer;
+        }
+
+        @Override
+        public void serialize(Point point, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            if (isPlain(point)) {
+                write(point, generator);
+            } else {
+                defaultSerializer.serialize(point, generator, provider);
+            }
+        }
+
+        @Override
+        public void serializeWithType(Point point, JsonGenerator generator, SerializerProvider provider,
+                                      TypeSerializer typeSerializer) throws IOException {
+            // the type id of GeoJsonObject is the property "type", which write() adds
+            if (isPlain(point)) {
+                write(point, generator);
+            } else {
+                defaultSerializer.serializeWithType(point, generator, provider, typeSerializer);
+            }
+        }
+
+        private static boolean isPlain(Point point) {
+            LngLatAlt coordinates = point.getCoordinates();
+            return point.getCrs() == null && point.getBbox() == null && coordinates != null
+                    && !coordinates.hasAltitude() && !coordinates.hasAdditionalElements();
+        }
+
+        private static void write(Point point, JsonGenerator generator) throws IOException {
+            generator.writeStartObject(point);
+            generator.writeStringField("type", "Point");
+            generator.writeFieldName("coordinates");
+            generator.writeStartArray();
+            generator.writeNumber(point.getCoordinates().getLongitude());
+            generator.writeNumber(point.getCoordinates().getLatitude());
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+
+        @Override
+        public void resolve(SerializerProvider provider) throws JsonMappingException {
+            if (defaultSerializer instanceof ResolvableSerializer resolvable) {
+                resolvable.resolve(provider);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property)
+                throws JsonMappingException {
+            if (defaultSerializer instanceof ContextualSerializer contextual) {
+                JsonSerializer<?> contextualized = contextual.createContextual(provider, property);
+                if (contextualized != defaultSerializer) {
+                    return new PointSerializer((JsonSerializer<Object>) contextualized);
+                }
+            }
+            return this;
+        }
+    }
+}
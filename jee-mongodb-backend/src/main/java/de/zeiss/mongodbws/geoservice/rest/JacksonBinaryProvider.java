@@ -0,0 +1,98 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.rest;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.MessageBodyReader;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import jakarta.ws.rs.ext.Provider;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+/**
+ * Reads and writes the resources as Smile or CBOR, the binary formats of Jackson. They have the structure of the JSON
+ * representation, but are smaller and faster to parse, e.g. for other services which read long lists of poi's.
+ * <p>
+ * The ObjectMappers have the modules and prebuilt writers of the JSON one, see {@link ObjectMapperProvider}.
+ */
+@Provider
+@Produces({Constants.MEDIA_TYPE_SMILE, Constants.MEDIA_TYPE_CBOR})
+@Consumes({Constants.MEDIA_TYPE_SMILE, Constants.MEDIA_TYPE_CBOR})
+public class JacksonBinaryProvider implements MessageBodyReader<Object>, MessageBodyWriter<Object> {
+
+    static final ObjectMapper SMILE_MAPPER = createObjectMapper(new SmileFactory());
+
+    static final ObjectMapper CBOR_MAPPER = createObjectMapper(new CBORFactory());
+
+    static final MediaType SMILE = MediaType.valueOf(Constants.MEDIA_TYPE_SMILE);
+
+    static final MediaType CBOR = MediaType.valueOf(Constants.MEDIA_TYPE_CBOR);
+
+    private static ObjectMapper createObjectMapper(JsonFactory factory) {
+        // the streams belong to the JAX-RS implementation
+        factory.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return ObjectMapperProvider.createObjectMapper(factory);
+    }
+
+    @Override
+    public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return mapperFor(mediaType) != null;
+    }
+
+    @Override
+    public Object readFrom(Class<Object> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                           MultivaluedMap<String, String> httpHeaders, InputStream entityStream) throws IOException {
+        ObjectMapper mapper = mapperFor(mediaType);
+        try {
+            return mapper.readerFor(mapper.constructType(genericType)).readValue(entityStream);
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("Invalid " + mediaType.getSubtype() + " request body", e);
+        }
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return mapperFor(mediaType) != null;
+    }
+
+    @Override
+    public void writeTo(Object value, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                        MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException {
+        ObjectMapper mapper = mapperFor(mediaType);
+        mapper.writerFor(mapper.constructType(genericType)).writeValue(entityStream, value);
+    }
+
+    /**
+     * @return the ObjectMapper of the format of the media type, null for other media types
+     */
+    static ObjectMapper mapperFor(MediaType mediaType) {
+        if (mediaType == null || mediaType.isWildcardType() || mediaType.isWildcardSubtype()) {
+            return null;
+        }
+        if (SMILE.isCompatible(mediaType)) {
+            return SMILE_MAPPER;
+        }
+        if (CBOR.isCompatible(mediaType)) {
+            return CBOR_MAPPER;
+        }
+        return null;
+    }
+}
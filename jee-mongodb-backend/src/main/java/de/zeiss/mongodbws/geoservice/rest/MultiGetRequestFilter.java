@@ -0,0 +1,54 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.rest;
+
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.PreMatching;
+import jakarta.ws.rs.core.UriInfo;
+import jakarta.ws.rs.ext.Provider;
+
+import java.io.IOException;
+
+/**
+ * Routes GET /poi?ids=... to GET /poi/_mget?ids=... JAX-RS selects resource methods by path only, so the list
+ * endpoint (lat/lon/radius) and the batch fetch by ids can't share the path without this rewrite.
+ */
+@Provider
+@PreMatching
+public class MultiGetRequestFilter implements ContainerRequestFilter {
+
+    static final String IDS_PARAM = "ids";
+
+    private static final String POI_PATH = "poi";
+
+    private static final String MULTI_GET_PATH = "poi/_mget";
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) throws IOException {
+        UriInfo uriInfo = requestContext.getUriInfo();
+
+        if (HttpMethod.GET.equals(requestContext.getMethod())
+                && POI_PATH.equals(stripSlashes(uriInfo.getPath()))
+                && uriInfo.getQueryParameters().containsKey(IDS_PARAM)) {
+            requestContext.setRequestUri(uriInfo.getBaseUri(),
+                    uriInfo.getRequestUriBuilder().replacePath(uriInfo.getBaseUri().getPath()).path(MULTI_GET_PATH).build());
+        }
+    }
+
+    private static String stripSlashes(String path) {
+        int start = 0;
+        int end = path.length();
+        while (start < end && path.charAt(start) == '/') {
+            start++;
+        }
+        while (end > start && path.charAt(end - 1) == '/') {
+            end--;
+        }
+        return path.substring(start, end);
+    }
+}
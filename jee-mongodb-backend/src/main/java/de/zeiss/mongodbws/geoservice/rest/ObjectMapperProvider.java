@@ -0,0 +1,59 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.rest;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import de.zeiss.mongodbws.geoservice.rest.resource.PointOfInterest;
+import de.zeiss.mongodbws.geoservice.rest.resource.PointOfInterestMultiGetResult;
+import de.zeiss.mongodbws.geoservice.rest.resource.PointOfInterestSearchResult;
+import jakarta.ws.rs.ext.ContextResolver;
+import jakarta.ws.rs.ext.Provider;
+
+import java.util.List;
+
+/**
+ * Provides the ObjectMapper of the Jackson provider of RESTEasy with the fast path for GeoJSON points, see
+ * {@link GeoJsonPointModule}, and the Blackbird module, which accesses the properties with generated lambdas instead of
+ * reflection.
+ * <p>
+ * The writers of the response types are built once at startup, so the serializers are introspected and cached before
+ * the first request instead of during it.
+ */
+@Provider
+public class ObjectMapperProvider implements ContextResolver<ObjectMapper> {
+
+    static final ObjectMapper OBJECT_MAPPER = createObjectMapper();
+
+    static ObjectMapper createObjectMapper() {
+        return createObjectMapper(new JsonFactory());
+    }
+
+    /**
+     * @param factory the factory of the format, e.g. JSON or Smile
+     * @return a new ObjectMapper of the format with the modules and prebuilt writers of the JSON one
+     */
+    static ObjectMapper createObjectMapper(JsonFactory factory) {
+        ObjectMapper objectMapper = new ObjectMapper(factory)
+                .registerModule(new GeoJsonPointModule())
+                .registerModule(new BlackbirdModule());
+
+        // with SerializationFeature.EAGER_SERIALIZER_FETCH the writers resolve and cache the serializers of the types
+        objectMapper.writerFor(PointOfInterest.class);
+        objectMapper.writerFor(new TypeReference<List<PointOfInterest>>() {
+        });
+        objectMapper.writerFor(PointOfInterestMultiGetResult.class);
+        objectMapper.writerFor(PointOfInterestSearchResult.class);
+        return objectMapper;
+    }
+
+    @Override
+    public ObjectMapper getContext(Class<?> type) {
+        return OBJECT_MAPPER;
+    }
+}
@@ -0,0 +1,173 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.rest;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import de.zeiss.mongodbws.geoservice.rest.resource.PointOfInterest;
+import org.geojson.LngLatAlt;
+import org.geojson.Point;
+
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * Encodes and decodes poi's as Protocol Buffers of the schema src/main/proto/point_of_interest.proto. The fields are
+ * written and read one by one with the coded streams of protobuf-java, so no classes have to be generated from the
+ * schema and the resources are not copied into generated messages.
+ */
+final class PointOfInterestProtobuf {
+
+    // fields of PointOfInterestList
+    static final int POINTS_OF_INTEREST = 1;
+
+    // fields of PointOfInterest
+    static final int HREF = 1;
+    static final int NAME = 2;
+    static final int CATEGORY = 3;
+    static final int DETAILS = 4;
+    static final int LOCATION = 5;
+    static final int DISTANCE = 6;
+
+    // fields of Location
+    static final int LONGITUDE = 1;
+    static final int LATITUDE = 2;
+    static final int ALTITUDE = 3;
+
+    private PointOfInterestProtobuf() {
+    }
+
+    /**
+     * Writes the poi's as PointOfInterestList.
+     */
+    static void writeList(Collection<?> pois, CodedOutputStream output) throws IOException {
+        for (Object poi : pois) {
+            output.writeTag(POINTS_OF_INTEREST, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            output.writeUInt32NoTag(computeSize((PointOfInterest) poi));
+            write((PointOfInterest) poi, output);
+        }
+    }
+
+    /**
+     * Writes the poi as PointOfInterest.
+     */
+    static void write(PointOfInterest poi, CodedOutputStream output) throws IOException {
+        writeString(HREF, poi.getHref(), output);
+        writeString(NAME, poi.getName(), output);
+        writeString(CATEGORY, poi.getCategory(), output);
+        writeString(DETAILS, poi.getDetails(), output);
+
+        LngLatAlt coordinates = coordinates(poi);
+        if (coordinates != null) {
+            output.writeTag(LOCATION, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            output.writeUInt32NoTag(computeSize(coordinates));
+            output.writeDouble(LONGITUDE, coordinates.getLongitude());
+            output.writeDouble(LATITUDE, coordinates.getLatitude());
+            if (coordinates.hasAltitude()) {
+                output.writeDouble(ALTITUDE, coordinates.getAltitude());
+            }
+        }
+
+        if (poi.getDistance() != null) {
+            output.writeDouble(DISTANCE, poi.getDistance());
+        }
+    }
+
+    private static void writeString(int field, String value, CodedOutputStream output) throws IOException {
+        if (value != null) {
+            output.writeString(field, value);
+        }
+    }
+
+    /**
+     * @return the size of the poi as PointOfInterest in bytes, which precedes it in a list
+     */
+    static int computeSize(PointOfInterest poi) {
+        int size = computeStringSize(HREF, poi.getHref())
+                + computeStringSize(NAME, poi.getName())
+                + computeStringSize(CATEGORY, poi.getCategory())
+                + computeStringSize(DETAILS, poi.getDetails());
+
+        LngLatAlt coordinates = coordinates(poi);
+        if (coordinates != null) {
+            int locationSize = computeSize(coordinates);
+            size += CodedOutputStream.computeTagSize(LOCATION) + CodedOutputStream.computeUInt32SizeNoTag(locationSize)
+                    + locationSize;
+        }
+
+        if (poi.getDistance() != null) {
+            size += CodedOutputStream.computeDoubleSize(DISTANCE, poi.getDistance());
+        }
+        return size;
+    }
+
+    private static int computeSize(LngLatAlt coordinates) {
+        return CodedOutputStream.computeDoubleSize(LONGITUDE, coordinates.getLongitude())
+                + CodedOutputStream.computeDoubleSize(LATITUDE, coordinates.getLatitude())
+                + (coordinates.hasAltitude() ? CodedOutputStream.computeDoubleSize(ALTITUDE, coordinates.getAltitude()) : 0);
+    }
+
+    private static int computeStringSize(int field, String value) {
+        return value == null ? 0 : CodedOutputStream.computeStringSize(field, value);
+    }
+
+    private static LngLatAlt coordinates(PointOfInterest poi) {
+        return poi.getLocation() == null ? null : poi.getLocation().getCoordinates();
+    }
+
+    /**
+     * Reads a PointOfInterest. Unknown fields are skipped, so clients may use a newer version of the schema.
+     *
+     * @return the poi
+     * @throws com.google.protobuf.InvalidProtocolBufferException if the input is no valid message
+     */
+    static PointOfInterest read(CodedInputStream input) throws IOException {
+        PointOfInterest poi = new PointOfInterest();
+        for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+            int field = WireFormat.getTagFieldNumber(tag);
+            if (WireFormat.getTagWireType(tag) != wireType(field)) {
+                input.skipField(tag);
+                continue;
+            }
+            switch (field) {
+                case HREF -> poi.setHref(input.readString());
+                case NAME -> poi.setName(input.readString());
+                case CATEGORY -> poi.setCategory(input.readString());
+                case DETAILS -> poi.setDetails(input.readString());
+                case LOCATION -> {
+                    int limit = input.pushLimit(input.readRawVarint32());
+                    poi.setLocation(readLocation(input));
+                    input.popLimit(limit);
+                }
+                case DISTANCE -> poi.setDistance(input.readDouble());
+                default -> input.skipField(tag);
+            }
+        }
+        return poi;
+    }
+
+    private static int wireType(int pointOfInterestField) {
+        return pointOfInterestField == DISTANCE ? WireFormat.WIRETYPE_FIXED64 : WireFormat.WIRETYPE_LENGTH_DELIMITED;
+    }
+
+    private static Point readLocation(CodedInputStream input) throws IOException {
+        LngLatAlt coordinates = new LngLatAlt();
+        for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+            if (WireFormat.getTagWireType(tag) != WireFormat.WIRETYPE_FIXED64) {
+                input.skipField(tag);
+                continue;
+            }
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case LONGITUDE -> coordinates.setLongitude(input.readDouble());
+                case LATITUDE -> coordinates.setLatitude(input.readDouble());
+                case ALTITUDE -> coordinates.setAltitude(input.readDouble());
+                default -> input.skipField(tag);
+            }
+        }
+        return new Point(coordinates);
+    }
+}
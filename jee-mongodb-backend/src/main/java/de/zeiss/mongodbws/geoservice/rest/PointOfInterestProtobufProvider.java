@@ -0,0 +1,75 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.rest;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import de.zeiss.mongodbws.geoservice.rest.resource.PointOfInterest;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.MessageBodyReader;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import jakarta.ws.rs.ext.Provider;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+/**
+ * Reads a poi and writes poi's and lists of poi's as Protocol Buffers, see {@link PointOfInterestProtobuf}. A list is
+ * written as PointOfInterestList.
+ */
+@Provider
+@Produces(Constants.MEDIA_TYPE_PROTOBUF)
+@Consumes(Constants.MEDIA_TYPE_PROTOBUF)
+public class PointOfInterestProtobufProvider implements MessageBodyReader<PointOfInterest>, MessageBodyWriter<Object> {
+
+    @Override
+    public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return type == PointOfInterest.class;
+    }
+
+    @Override
+    public PointOfInterest readFrom(Class<PointOfInterest> type, Type genericType, Annotation[] annotations,
+                                    MediaType mediaType, MultivaluedMap<String, String> httpHeaders,
+                                    InputStream entityStream) throws IOException {
+        try {
+            return PointOfInterestProtobuf.read(CodedInputStream.newInstance(entityStream));
+        } catch (InvalidProtocolBufferException e) {
+            throw new BadRequestException("Invalid protobuf request body", e);
+        }
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        if (PointOfInterest.class.isAssignableFrom(type)) {
+            return true;
+        }
+        // the lists of the resource methods are passed in a Response, so their element type is not known here
+        return Collection.class.isAssignableFrom(type) && (!(genericType instanceof ParameterizedType parameterizedType)
+                || parameterizedType.getActualTypeArguments()[0] == PointOfInterest.class);
+    }
+
+    @Override
+    public void writeTo(Object value, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                        MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException {
+        CodedOutputStream output = CodedOutputStream.newInstance(entityStream);
+        if (value instanceof PointOfInterest poi) {
+            PointOfInterestProtobuf.write(poi, output);
+        } else {
+            PointOfInterestProtobuf.writeList((Collection<?>) value, output);
+        }
+        output.flush();
+    }
+}
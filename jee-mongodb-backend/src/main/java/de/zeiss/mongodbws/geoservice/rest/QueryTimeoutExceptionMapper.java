@@ -0,0 +1,29 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.rest;
+
+import com.mongodb.MongoExecutionTimeoutException;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+
+import java.util.Map;
+
+/**
+ * Exception mapper for queries which exceeded their time budget (maxTimeMS). These are answered with 503 instead of a
+ * generic server error so clients can tell them apart and e.g. retry with a smaller radius.
+ */
+@Provider
+public class QueryTimeoutExceptionMapper implements ExceptionMapper<MongoExecutionTimeoutException> {
+
+    @Override
+    public Response toResponse(MongoExecutionTimeoutException exception) {
+        return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                .entity(Map.of("message", "The query exceeded its time budget"))
+                .type(Constants.MEDIA_TYPE_JSON)
+                .build();
+    }
+}
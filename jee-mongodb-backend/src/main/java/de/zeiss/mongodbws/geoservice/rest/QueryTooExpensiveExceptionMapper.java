@@ -0,0 +1,34 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.rest;
+
+import de.zeiss.mongodbws.geoservice.service.QueryTooExpensiveException;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Exception mapper for radius queries rejected by the query cost guard.
+ */
+@Provider
+public class QueryTooExpensiveExceptionMapper implements ExceptionMapper<QueryTooExpensiveException> {
+
+    @Override
+    public Response toResponse(QueryTooExpensiveException exception) {
+        Map<String, Object> entity = new LinkedHashMap<>();
+        entity.put("message", exception.getMessage());
+        entity.put("estimatedResults", exception.getEstimatedResults());
+        entity.put("maxEstimatedResults", exception.getMaxEstimatedResults());
+
+        return Response.status(Response.Status.BAD_REQUEST)
+                .entity(entity)
+                .type(Constants.MEDIA_TYPE_JSON)
+                .build();
+    }
+}
@@ -0,0 +1,33 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.rest;
+
+import de.zeiss.mongodbws.geoservice.service.RequestPriority;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.ext.Provider;
+
+import java.io.IOException;
+
+/**
+ * Reads the priority tag of the request from the X-Request-Priority header. Clients doing bulk work like imports
+ * send "low" to be isolated from interactive clients.
+ */
+@Provider
+public class RequestPriorityFilter implements ContainerRequestFilter {
+
+    static final String LOW_PRIORITY = "low";
+
+    @Inject
+    RequestPriority requestPriority;
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) throws IOException {
+        requestPriority.setLow(LOW_PRIORITY.equalsIgnoreCase(
+                requestContext.getHeaderString(Constants.REQUEST_PRIORITY_HEADER)));
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.rest;
+
+import de.zeiss.mongodbws.geoservice.timing.Layer;
+import de.zeiss.mongodbws.geoservice.timing.RequestTimings;
+import de.zeiss.mongodbws.geoservice.timing.ServerTiming;
+import de.zeiss.mongodbws.geoservice.timing.ServerTimingStatistics;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Adds the Server-Timing header with the time spent per layer (controller, service, database) to the responses, so
+ * that it shows up in the developer tools of the browser. The header is added by the response filter, before the body
+ * is serialized. Only if the serialization is timed as well, the body is serialized into a buffer first, as the header
+ * has to be sent before the body. Streamed bodies like flight recordings are never buffered.
+ *
+ * @see ServerTiming
+ */
+@Provider
+public class ServerTimingFilter implements ContainerRequestFilter, ContainerResponseFilter, WriterInterceptor {
+
+    /**
+     * If true the responses carry the Server-Timing header.
+     */
+    @Inject
+    @ConfigProperty(name = "geoservice.server-timing.enabled", defaultValue = "true")
+    boolean enabled = true;
+
+    /**
+     * If true the CPU time and the bytes allocated by the request thread are measured as well.
+     */
+    @Inject
+    @ConfigProperty(name = "geoservice.server-timing.resource-usage", defaultValue = "false")
+    boolean resourceUsage;
+
+    /**
+     * If true the serialization of the body is timed as well, at the cost of buffering every body.
+     */
+    @Inject
+    @ConfigProperty(name = "geoservice.server-timing.serialization", defaultValue = "false")
+    boolean serialization;
+
+    @Inject
+    ServerTiming serverTiming;
+
+    @Inject
+    ServerTimingStatistics statistics;
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) throws IOException {
+        if (enabled) {
+            serverTiming.start(resourceUsage);
+        }
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext)
+            throws IOException {
+        if (!serverTiming.isStarted()) {
+            return;
+        }
+        // buffered bodies get the header when they are serialized
+        if (!isBuffered(responseContext.getEntity())) {
+            finish(responseContext.getHeaders());
+        }
+    }
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+        if (!serverTiming.isStarted() || !isBuffered(context.getEntity())) {
+            context.proceed();
+            return;
+        }
+
+        OutputStream out = context.getOutputStream();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        context.setOutputStream(body);
+        serverTiming.enter(Layer.SERIALIZATION);
+        try {
+            context.proceed();
+        } finally {
+            serverTiming.exit(Layer.SERIALIZATION);
+            context.setOutputStream(out);
+        }
+        finish(context.getHeaders());
+        body.writeTo(out);
+    }
+
+    private boolean isBuffered(Object entity) {
+        return serialization && entity != null && !(entity instanceof StreamingOutput);
+    }
+
+    private void finish(MultivaluedMap<String, Object> headers) {
+        RequestTimings timings = serverTiming.finish();
+        headers.putSingle(Constants.SERVER_TIMING_HEADER, timings.toHeaderValue());
+        statistics.record(timings);
+    }
+}
@@ -0,0 +1,38 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.rest;
+
+import de.zeiss.mongodbws.geoservice.service.StaleResponse;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.ext.Provider;
+
+import java.io.IOException;
+
+/**
+ * Marks responses served from the stale cache while the database is degraded with the headers Warning (110 "Response
+ * is Stale"), Age and X-Stale.
+ */
+@Provider
+public class StaleResponseFilter implements ContainerResponseFilter {
+
+    static final String STALE_WARNING = "110 - \"Response is Stale\"";
+
+    @Inject
+    StaleResponse staleResponse;
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext)
+            throws IOException {
+        if (staleResponse.isStale()) {
+            responseContext.getHeaders().putSingle("Warning", STALE_WARNING);
+            responseContext.getHeaders().putSingle("Age", staleResponse.getAgeSeconds());
+            responseContext.getHeaders().putSingle(Constants.STALE_HEADER, true);
+        }
+    }
+}
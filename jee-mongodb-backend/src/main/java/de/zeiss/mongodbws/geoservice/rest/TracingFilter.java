@@ -0,0 +1,150 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.rest;
+
+import de.zeiss.mongodbws.geoservice.tracing.Tracing;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.context.propagation.TextMapGetter;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.ApplicationPath;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+
+import java.io.IOException;
+
+/**
+ * Records the server span of a request. The trace context of the caller is taken from the W3C traceparent header,
+ * the span is named after the HTTP method and the route template and ends after the body has been serialized. The
+ * spans of the controller, the services and the MongoDB commands become its children.
+ *
+ * @see Tracing
+ */
+@Provider
+public class TracingFilter implements ContainerRequestFilter, ContainerResponseFilter, WriterInterceptor {
+
+    static final String SPAN_PROPERTY = TracingFilter.class.getName() + ".span";
+
+    static final String SCOPE_PROPERTY = TracingFilter.class.getName() + ".scope";
+
+    private static final TextMapGetter<MultivaluedMap<String, String>> HEADERS = new TextMapGetter<>() {
+        @Override
+        public Iterable<String> keys(MultivaluedMap<String, String> headers) {
+            return headers.keySet();
+        }
+
+        @Override
+        public String get(MultivaluedMap<String, String> headers, String key) {
+            return headers == null ? null : headers.getFirst(key);
+        }
+    };
+
+    @Inject
+    Tracing tracing;
+
+    @Context
+    ResourceInfo resourceInfo;
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) throws IOException {
+        if (!tracing.isEnabled()) {
+            return;
+        }
+
+        io.opentelemetry.context.Context parent = tracing.getPropagator()
+                .extract(io.opentelemetry.context.Context.root(), requestContext.getHeaders(), HEADERS);
+        String route = route();
+        Span span = tracing.getTracer().spanBuilder(requestContext.getMethod() + (route != null ? " " + route : ""))
+                .setParent(parent)
+                .setSpanKind(SpanKind.SERVER)
+                .setAttribute("http.request.method", requestContext.getMethod())
+                .setAttribute("url.path", requestContext.getUriInfo().getRequestUri().getPath())
+                .startSpan();
+        if (route != null) {
+            span.setAttribute("http.route", route);
+        }
+        requestContext.setProperty(SPAN_PROPERTY, span);
+        requestContext.setProperty(SCOPE_PROPERTY, span.makeCurrent());
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext)
+            throws IOException {
+        if (requestContext.getProperty(SCOPE_PROPERTY) instanceof Scope scope) {
+            scope.close();
+            requestContext.removeProperty(SCOPE_PROPERTY);
+        }
+        if (requestContext.getProperty(SPAN_PROPERTY) instanceof Span span) {
+            span.setAttribute("http.response.status_code", responseContext.getStatus());
+            if (responseContext.getStatus() >= 500) {
+                span.setStatus(StatusCode.ERROR);
+            }
+            // responses with a body end the span when it is serialized
+            if (!responseContext.hasEntity()) {
+                requestContext.removeProperty(SPAN_PROPERTY);
+                span.end();
+            }
+        }
+    }
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+        if (!(context.getProperty(SPAN_PROPERTY) instanceof Span span)) {
+            context.proceed();
+            return;
+        }
+
+        context.removeProperty(SPAN_PROPERTY);
+        try {
+            context.proceed();
+        } catch (IOException | RuntimeException e) {
+            span.recordException(e);
+            span.setStatus(StatusCode.ERROR);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    /**
+     * @return the path template of the matched resource method, e.g. /api/poi/{id}
+     */
+    private String route() {
+        if (resourceInfo == null || resourceInfo.getResourceMethod() == null) {
+            return null;
+        }
+        StringBuilder route = new StringBuilder(RestApplication.class.getAnnotation(ApplicationPath.class).value());
+        append(route, resourceInfo.getResourceClass().getAnnotation(Path.class));
+        append(route, resourceInfo.getResourceMethod().getAnnotation(Path.class));
+        return route.toString();
+    }
+
+    private static void append(StringBuilder route, Path path) {
+        if (path == null) {
+            return;
+        }
+        String value = path.value();
+        if (route.isEmpty() || route.charAt(route.length() - 1) != '/') {
+            if (!value.startsWith("/")) {
+                route.append('/');
+            }
+        } else if (value.startsWith("/")) {
+            value = value.substring(1);
+        }
+        route.append(value);
+    }
+}
@@ -0,0 +1,272 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.rest.resource;
+
+import de.zeiss.mongodbws.geoservice.jfr.FlightRecording;
+import de.zeiss.mongodbws.geoservice.persistence.ConcurrencyLimiter;
+import de.zeiss.mongodbws.geoservice.persistence.HedgedReads;
+import de.zeiss.mongodbws.geoservice.persistence.SlowQuery;
+import de.zeiss.mongodbws.geoservice.persistence.SlowQueryLog;
+import de.zeiss.mongodbws.geoservice.rest.AdminEndpoint;
+import de.zeiss.mongodbws.geoservice.rest.Constants;
+import de.zeiss.mongodbws.geoservice.service.BatchStatistics;
+import de.zeiss.mongodbws.geoservice.service.Bulkheads;
+import de.zeiss.mongodbws.geoservice.service.GeoDataService;
+import de.zeiss.mongodbws.geoservice.service.PointOfInterestBatchLoader;
+import de.zeiss.mongodbws.geoservice.service.StaleWhileRevalidate;
+import de.zeiss.mongodbws.geoservice.timing.ServerTimingStatistics;
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * REST endpoint for operational insights into the service. It is disabled by default, see {@link AdminEndpoint}.
+ */
+@Path("/admin")
+@AdminEndpoint
+@RequestScoped
+@Tag(name = "Administration", description = "Operational metrics of the service")
+public class AdminResourceController {
+
+    @Inject
+    PointOfInterestBatchLoader batchLoader;
+
+    @Inject
+    GeoDataService geoDataService;
+
+    @Inject
+    ConcurrencyLimiter concurrencyLimiter;
+
+    @Inject
+    Bulkheads bulkheads;
+
+    @Inject
+    HedgedReads hedgedReads;
+
+    @Inject
+    StaleWhileRevalidate staleWhileRevalidate;
+
+    @Inject
+    ServerTimingStatistics serverTimingStatistics;
+
+    @Inject
+    FlightRecording flightRecording;
+
+    @Inject
+    SlowQueryLog slowQueryLog;
+
+    /**
+     * GET request for the batch size statistics of single poi reads.
+     *
+     * @return the statistics
+     */
+    @GET
+    @Path("metrics/batching")
+    @Produces(Constants.MEDIA_TYPE_JSON)
+    @Operation(summary = "Batch size statistics", description = "Returns how many single point of interest reads were combined into one database query")
+    public BatchStatistics getBatchingMetrics() {
+        return batchLoader.getStatistics();
+    }
+
+    /**
+     * GET request for the statistics of coalesced radius queries.
+     *
+     * @return number of executed queries and of calls which shared the result of an identical query in flight
+     */
+    @GET
+    @Path("metrics/coalescing")
+    @Produces(Constants.MEDIA_TYPE_JSON)
+    @Operation(summary = "Query coalescing statistics", description = "Returns how many radius queries were executed and how many calls shared the result of an identical query in flight")
+    public Map<String, Long> getCoalescingMetrics() {
+        return geoDataService.getCoalescingStatistics();
+    }
+
+    /**
+     * GET request for the state of the adaptive concurrency limit of database calls.
+     *
+     * @return per workload the current limit, calls in flight and number of shed calls
+     */
+    @GET
+    @Path("metrics/concurrency")
+    @Produces(Constants.MEDIA_TYPE_JSON)
+    @Operation(summary = "Concurrency limit statistics", description = "Returns per workload the adaptive limit of concurrent database calls, the calls in flight and how many calls were shed")
+    public Map<String, Map<String, Long>> getConcurrencyMetrics() {
+        return concurrencyLimiter.getStatistics();
+    }
+
+    /**
+     * GET request for the state of the bulkheads isolating interactive reads, writes and bulk work.
+     *
+     * @return per workload the maximum number of concurrent calls, the calls in flight and the rejected calls
+     */
+    @GET
+    @Path("metrics/bulkheads")
+    @Produces(Constants.MEDIA_TYPE_JSON)
+    @Operation(summary = "Bulkhead statistics", description = "Returns per workload (interactive, write, bulk) the concurrent calls allowed, in flight and rejected")
+    public Map<String, Map<String, Long>> getBulkheadMetrics() {
+        return bulkheads.getStatistics();
+    }
+
+    /**
+     * GET request for the statistics of hedged reads.
+     *
+     * @return per kind of read the number of reads, hedged reads and hedges answering first, the hedging delay and
+     * the latency percentiles
+     */
+    @GET
+    @Path("metrics/hedging")
+    @Produces(Constants.MEDIA_TYPE_JSON)
+    @Operation(summary = "Hedged read statistics", description = "Returns per kind of read (get, ids, radius) how many reads were hedged by a duplicate read and how many hedges answered first, the hedging delay and the p50 and p99 latencies")
+    public Map<String, Map<String, Number>> getHedgingMetrics() {
+        return hedgedReads.getStatistics();
+    }
+
+    /**
+     * GET request for the state of the circuit breaker guarding reads and of the stale cache.
+     *
+     * @return state of the breaker, how often it opened and rejected reads, number of cached results, stale responses
+     * and background refreshes
+     */
+    @GET
+    @Path("metrics/circuit-breaker")
+    @Produces(Constants.MEDIA_TYPE_JSON)
+    @Operation(summary = "Circuit breaker statistics", description = "Returns the state of the circuit breaker guarding reads and how many stale results were served while the database was degraded")
+    public Map<String, Object> getCircuitBreakerMetrics() {
+        return staleWhileRevalidate.getStatistics();
+    }
+
+    /**
+     * GET request for the histograms of the request timings reported in the Server-Timing header.
+     *
+     * @return per metric (total, ctrl, svc, db, ser, cpu, alloc) the number of requests, the sum of their values and
+     * the counts per histogram bucket
+     */
+    @GET
+    @Path("metrics/server-timing")
+    @Produces(Constants.MEDIA_TYPE_JSON)
+    @Operation(summary = "Request timing histograms", description = "Returns per layer (controller, service, database, serialization) histograms of the time spent in milliseconds, and of the CPU time and allocated bytes if measured")
+    public Map<String, Map<String, Object>> getServerTimingMetrics() {
+        return serverTimingStatistics.getStatistics();
+    }
+
+    /**
+     * GET request for the MongoDB commands which exceeded the slow query threshold.
+     *
+     * @return the statistics of the slow query log and the slow commands, the latest first, with shape, parameters,
+     * duration and for the sampled ones the explain plan
+     */
+    @GET
+    @Path("slow-queries")
+    @Produces(Constants.MEDIA_TYPE_JSON)
+    @Operation(summary = "Slow queries", description = "Returns the latest MongoDB commands exceeding the slow query threshold with their shape and duration, sampled ones with the keys and documents examined and the winning plan of explain")
+    public Map<String, Object> getSlowQueries() {
+        Map<String, Object> result = new LinkedHashMap<>(slowQueryLog.getStatistics());
+        result.put("queries", slowQueryLog.getSlowQueries().stream().map(SlowQuery::toMap).toList());
+        return result;
+    }
+
+    /**
+     * DELETE request clearing the slow query log, e.g. after an index was added.
+     *
+     * @return 204 (no content)
+     */
+    @DELETE
+    @Path("slow-queries")
+    @Operation(summary = "Clear slow queries", description = "Removes the recorded slow MongoDB commands")
+    public Response clearSlowQueries() {
+        slowQueryLog.clear();
+        return Response.noContent().build();
+    }
+
+    /**
+     * GET request for the state of the JDK Flight Recorder recording.
+     *
+     * @return state of the recording, its start time and size
+     */
+    @GET
+    @Path("jfr")
+    @Produces(Constants.MEDIA_TYPE_JSON)
+    @Operation(summary = "Flight recording status", description = "Returns the state of the JDK Flight Recorder recording (NONE, RUNNING, STOPPED), its start time and size")
+    public Map<String, Object> getRecordingStatus() {
+        return flightRecording.getStatus();
+    }
+
+    /**
+     * POST request starting a JDK Flight Recorder recording, including the events of poi queries and writes.
+     *
+     * @param configuration name of the JFR configuration, "default" or "profile", optional
+     * @return state of the recording
+     */
+    @POST
+    @Path("jfr/start")
+    @Produces(Constants.MEDIA_TYPE_JSON)
+    @Operation(summary = "Start a flight recording", description = "Starts a JDK Flight Recorder recording with the poi query and write events, unless one is running")
+    public Map<String, Object> startRecording(@QueryParam("configuration") String configuration) {
+        try {
+            return flightRecording.start(configuration);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+    }
+
+    /**
+     * POST request stopping the JDK Flight Recorder recording. It can still be dumped afterwards.
+     *
+     * @return state of the recording
+     */
+    @POST
+    @Path("jfr/stop")
+    @Produces(Constants.MEDIA_TYPE_JSON)
+    @Operation(summary = "Stop the flight recording", description = "Stops the JDK Flight Recorder recording, it can still be dumped afterwards")
+    public Map<String, Object> stopRecording() {
+        return flightRecording.stop();
+    }
+
+    /**
+     * GET request for the data of the JDK Flight Recorder recording, to be opened with JDK Mission Control.
+     *
+     * @return the recording as .jfr file
+     * @throws IOException if the recording could not be dumped
+     */
+    @GET
+    @Path("jfr/dump")
+    @Produces(MediaType.APPLICATION_OCTET_STREAM)
+    @Operation(summary = "Dump the flight recording", description = "Returns the data of the running or stopped JDK Flight Recorder recording as .jfr file")
+    public Response dumpRecording() throws IOException {
+        java.nio.file.Path file = flightRecording.dump();
+        if (file == null) {
+            throw new NotFoundException();
+        }
+
+        StreamingOutput body = out -> {
+            try {
+                Files.copy(file, out);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        };
+        return Response.ok(body)
+                .header("Content-Disposition", "attachment; filename=\"" + file.getFileName() + "\"")
+                .build();
+    }
+}
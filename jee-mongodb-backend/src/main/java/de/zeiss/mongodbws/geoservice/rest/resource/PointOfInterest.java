@@ -35,6 +35,8 @@ public class PointOfInterest {
 
     private String details;
 
+    private Double distance;
+
     /**
      *
      */
@@ -120,4 +122,18 @@ public class PointOfInterest {
         this.details = details;
     }
 
+    /**
+     * @return the distance in meters to the query point, only set for nearest queries
+     */
+    public Double getDistance() {
+        return distance;
+    }
+
+    /**
+     * @param distance the distance to set
+     */
+    public void setDistance(Double distance) {
+        this.distance = distance;
+    }
+
 }
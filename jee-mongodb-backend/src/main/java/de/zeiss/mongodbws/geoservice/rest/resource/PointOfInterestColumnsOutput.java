@@ -0,0 +1,98 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.rest.resource;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import de.zeiss.mongodbws.geoservice.persistence.PointOfInterestColumns;
+import jakarta.ws.rs.core.StreamingOutput;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes {@link PointOfInterestColumns} as compact JSON for map clients:
+ * <p>
+ * {"ids": ["..", ".."], "lon": [13.73735, 13.7412], "lat": [51.05041, 51.0489], "cat": [0, 1], "categories":
+ * ["restaurant", "cafe"]}
+ * <p>
+ * The i-th poi consists of the i-th value of ids, lon, lat and cat, where cat is the index of its category in
+ * categories or null. The coordinates are rounded to the given number of decimal places, 5 places are about 1 m.
+ */
+public class PointOfInterestColumnsOutput implements StreamingOutput {
+
+    // the container closes the response stream
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build();
+
+    private final PointOfInterestColumns columns;
+
+    private final double scale;
+
+    /**
+     * @param columns   the columns to write
+     * @param precision number of decimal places of the coordinates
+     */
+    public PointOfInterestColumnsOutput(PointOfInterestColumns columns, int precision) {
+        this.columns = columns;
+        this.scale = Math.pow(10, precision);
+    }
+
+    @Override
+    public void write(OutputStream output) throws IOException {
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(output)) {
+            int size = columns.size();
+            generator.writeStartObject();
+
+            generator.writeArrayFieldStart("ids");
+            for (int i = 0; i < size; i++) {
+                generator.writeString(columns.id(i));
+            }
+            generator.writeEndArray();
+
+            generator.writeArrayFieldStart("lon");
+            for (int i = 0; i < size; i++) {
+                generator.writeNumber(round(columns.longitude(i)));
+            }
+            generator.writeEndArray();
+
+            generator.writeArrayFieldStart("lat");
+            for (int i = 0; i < size; i++) {
+                generator.writeNumber(round(columns.latitude(i)));
+            }
+            generator.writeEndArray();
+
+            generator.writeArrayFieldStart("cat");
+            for (int i = 0; i < size; i++) {
+                int categoryIndex = columns.categoryIndex(i);
+                if (categoryIndex == PointOfInterestColumns.NO_CATEGORY) {
+                    generator.writeNull();
+                } else {
+                    generator.writeNumber(categoryIndex);
+                }
+            }
+            generator.writeEndArray();
+
+            generator.writeArrayFieldStart("categories");
+            for (String category : columns.categories()) {
+                generator.writeString(category);
+            }
+            generator.writeEndArray();
+
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * @return the coordinate rounded to the precision. Doubles are written with the fewest digits that identify them,
+     * so no more decimal places than the precision are written.
+     */
+    private double round(double coordinate) {
+        return Math.round(coordinate * scale) / scale;
+    }
+}
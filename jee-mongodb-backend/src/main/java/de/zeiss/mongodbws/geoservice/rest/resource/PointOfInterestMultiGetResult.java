@@ -0,0 +1,48 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.rest.resource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of a batch fetch by ids. The poi's are in the order of the requested ids, ids without a poi are listed in
+ * {@link #getMissingIds()}.
+ */
+public class PointOfInterestMultiGetResult {
+
+    private List<PointOfInterest> pointsOfInterest = new ArrayList<>();
+
+    private List<String> missingIds = new ArrayList<>();
+
+    /**
+     * @return the found poi's in the requested order
+     */
+    public List<PointOfInterest> getPointsOfInterest() {
+        return pointsOfInterest;
+    }
+
+    /**
+     * @param pointsOfInterest the found poi's to set
+     */
+    public void setPointsOfInterest(List<PointOfInterest> pointsOfInterest) {
+        this.pointsOfInterest = pointsOfInterest;
+    }
+
+    /**
+     * @return the requested ids without a poi
+     */
+    public List<String> getMissingIds() {
+        return missingIds;
+    }
+
+    /**
+     * @param missingIds the requested ids without a poi to set
+     */
+    public void setMissingIds(List<String> missingIds) {
+        this.missingIds = missingIds;
+    }
+}
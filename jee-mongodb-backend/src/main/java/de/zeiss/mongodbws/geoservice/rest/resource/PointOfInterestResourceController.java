@@ -5,13 +5,21 @@
  */
 package de.zeiss.mongodbws.geoservice.rest.resource;
 
+import de.zeiss.mongodbws.geoservice.persistence.PointOfInterestColumns;
+import de.zeiss.mongodbws.geoservice.persistence.QueryResult;
 import de.zeiss.mongodbws.geoservice.rest.Constants;
 import de.zeiss.mongodbws.geoservice.service.GeoDataService;
+import de.zeiss.mongodbws.geoservice.timing.Layer;
+import de.zeiss.mongodbws.geoservice.timing.ServerTimed;
+import de.zeiss.mongodbws.geoservice.tracing.Traced;
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.Response;
@@ -26,18 +34,25 @@ import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * REST endpoint for POI operations.
  */
 @Path("/poi")
 @RequestScoped
+@ServerTimed(Layer.CONTROLLER)
+@Traced
 @Tag(name = "Points of Interest", description = "Operations for managing points of interest")
 public class PointOfInterestResourceController {
 
     private static final String EXPAND_DETAILS = "details";
 
+    private static final String FORMAT_COLUMNAR = "columnar";
+
     @Inject
     GeoDataService geoDataService;
 
@@ -52,7 +67,7 @@ public class PointOfInterestResourceController {
      */
     @GET
     @Path("{id}")
-    @Produces(Constants.MEDIA_TYPE_JSON)
+    @Produces({Constants.MEDIA_TYPE_JSON, Constants.MEDIA_TYPE_SMILE, Constants.MEDIA_TYPE_CBOR, Constants.MEDIA_TYPE_PROTOBUF})
     @Operation(summary = "Get point of interest by ID", description = "Returns a single point of interest")
     @APIResponses({
             @APIResponse(responseCode = "200", description = "Point of interest details", content = @Content(mediaType = "application/json", schema = @Schema(implementation = PointOfInterest.class))),
@@ -78,7 +93,7 @@ public class PointOfInterestResourceController {
      * @return Response with location header of created resource
      */
     @POST
-    @Consumes(Constants.MEDIA_TYPE_JSON)
+    @Consumes({Constants.MEDIA_TYPE_JSON, Constants.MEDIA_TYPE_SMILE, Constants.MEDIA_TYPE_CBOR, Constants.MEDIA_TYPE_PROTOBUF})
     @Operation(summary = "Create a new point of interest", description = "Adds a new point of interest")
     @APIResponses({
             @APIResponse(responseCode = "201", description = "Point of interest created"),
@@ -103,7 +118,7 @@ public class PointOfInterestResourceController {
 
     @PUT
     @Path("{id}")
-    @Consumes(Constants.MEDIA_TYPE_JSON)
+    @Consumes({Constants.MEDIA_TYPE_JSON, Constants.MEDIA_TYPE_SMILE, Constants.MEDIA_TYPE_CBOR, Constants.MEDIA_TYPE_PROTOBUF})
     @Operation(summary = "Update point of interest", description = "Updates an existing point of interest by ID")
     @APIResponses({
             @APIResponse(responseCode = "201", description = "New Point of interest created if not existing for given ID"),
@@ -115,18 +130,13 @@ public class PointOfInterestResourceController {
             return Response.status(Status.BAD_REQUEST).build();
         }
 
-        PointOfInterest resultPoi = null;
-        boolean isNew = false;
-
-        resultPoi = geoDataService.getPOI(id, true);
+        // the existence is checked by the update on the primary, not by the cached and batched reads of getPOI
+        poi.setId(id);
+        PointOfInterest resultPoi = geoDataService.updatePOI(poi);
+        boolean isNew = resultPoi == null;
 
-        if (resultPoi == null) {
-            isNew = true;
-            poi.setId(id);
+        if (isNew) {
             resultPoi = geoDataService.createPOI(poi);
-        } else {
-            poi.setId(id);
-            resultPoi = geoDataService.updatePOI(poi);
         }
 
         if (isNew) {
@@ -157,12 +167,10 @@ public class PointOfInterestResourceController {
             @APIResponse(responseCode = "204", description = "Point of interest deleted"),
             @APIResponse(responseCode = "404", description = "Point of interest not found")})
     public Response deletePOI(@PathParam("id") String id) {
-        if (geoDataService.getPOI(id, false) == null) {
+        if (!geoDataService.deletePOI(id)) {
             throw new NotFoundException();
         }
 
-        geoDataService.deletePOI(id);
-
         return Response.noContent().header(Constants.CONTENT_ENC_KEY, Constants.CHARSET_UTF8).build();
     }
 
@@ -172,19 +180,87 @@ public class PointOfInterestResourceController {
      * @param latitude
      * @param longitude
      * @param radius
+     * @param expand    if set to "details" the poi's contain all data
+     * @param fields    optional comma separated list of the fields to return, e.g. "name,location". Only these
+     *                  fields are read from the database, expand is ignored then.
+     * @param partial   if true and the query exceeds its time budget the nearest poi's found until then are returned,
+     *                  marked by the X-Partial-Result header, instead of status 503. Queries estimated to match too
+     *                  many poi's are capped to the nearest ones, also marked by the header, or rejected.
+     * @param format    if set to "columnar" only the ids, coordinates and categories of the poi's are returned as
+     *                  JSON columns, see {@link PointOfInterestColumnsOutput}. expand and fields are ignored then.
+     * @param precision number of decimal places of the coordinates in the columnar format
      * @return list of poi's within radius from latitude / longitude
      */
     @GET
-    @Produces(Constants.MEDIA_TYPE_JSON)
+    @Produces({Constants.MEDIA_TYPE_JSON, Constants.MEDIA_TYPE_SMILE, Constants.MEDIA_TYPE_CBOR, Constants.MEDIA_TYPE_PROTOBUF})
     @Operation(summary = "Get points of interest", description = "Returns a list of points of interest near a given location")
     @APIResponses({
-            @APIResponse(responseCode = "200", description = "List of points of interest", content = @Content(mediaType = "application/json", schema = @Schema(implementation = PointOfInterest.class))),
-            @APIResponse(responseCode = "400", description = "Invalid parameters", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ConstraintViolationInfo.class)))})
+            @APIResponse(responseCode = "200", description = "List of points of interest, or their ids, coordinates and categories as columns if format is columnar", content = @Content(mediaType = "application/json", schema = @Schema(implementation = PointOfInterest.class))),
+            @APIResponse(responseCode = "400", description = "Invalid parameters or query estimated to match too many points of interest", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ConstraintViolationInfo.class))),
+            @APIResponse(responseCode = "503", description = "The query exceeded its time budget and partial results were not requested")})
     public Response listPOIs(@Min(value = -90, message = "latitude must be between -90 and 90") @Max(value = 90, message = "latitude must be between -90 and 90") @QueryParam("lat") double latitude,
                              @Min(-180) @Max(180) @QueryParam("lon") double longitude,
-                             @Min(1) @Max(100000) @QueryParam("radius") int radius, @QueryParam("expand") String expand) {
+                             @Min(1) @Max(100000) @QueryParam("radius") int radius, @QueryParam("expand") String expand,
+                             @Pattern(regexp = Constants.FIELDS_PATTERN, message = "fields must be a comma separated list of name, category, location and details") @QueryParam("fields") String fields,
+                             @QueryParam("partial") boolean partial,
+                             @Pattern(regexp = FORMAT_COLUMNAR, message = "format must be columnar") @QueryParam("format") String format,
+                             @Min(0) @Max(7) @DefaultValue("5") @QueryParam("precision") int precision) {
+
+        if (FORMAT_COLUMNAR.equals(format)) {
+            PointOfInterestColumns columns = geoDataService.listPOIColumns(latitude, longitude, radius, partial);
+
+            // always JSON, the columns are no poi's
+            Response.ResponseBuilder response = Response.ok(new PointOfInterestColumnsOutput(columns, precision))
+                    .type(Constants.MEDIA_TYPE_JSON)
+                    .header(Constants.CONTENT_ENC_KEY, Constants.CHARSET_UTF8);
+            if (columns.partial()) {
+                response.header(Constants.PARTIAL_RESULT_HEADER, Boolean.TRUE.toString());
+            }
+
+            return response.build();
+        }
+
+        QueryResult<PointOfInterest> result = fields == null
+                ? geoDataService.listPOIs(latitude, longitude, radius, EXPAND_DETAILS.equalsIgnoreCase(expand), partial)
+                : geoDataService.listPOIs(latitude, longitude, radius, new LinkedHashSet<>(List.of(fields.split(","))), partial);
+
+        for (PointOfInterest poi : result.results()) {
+            poi.setHref(createUriString(poi));
+        }
+
+        Response.ResponseBuilder response = Response.ok(result.results())
+                .header(Constants.CONTENT_ENC_KEY, Constants.CHARSET_UTF8);
+        if (result.partial()) {
+            response.header(Constants.PARTIAL_RESULT_HEADER, Boolean.TRUE.toString());
+        }
+
+        return response.build();
+    }
 
-        List<PointOfInterest> poiList = geoDataService.listPOIs(latitude, longitude, radius,
+    /**
+     * GET request for the k nearest poi's to latitude / longitude. Each poi carries its distance in meters.
+     *
+     * @param latitude
+     * @param longitude
+     * @param k         maximum number of poi's to return
+     * @param maxRadius optional maximum distance in meters
+     * @param category  optional category filter
+     * @return list of poi's ordered by distance
+     */
+    @GET
+    @Path("nearest")
+    @Produces({Constants.MEDIA_TYPE_JSON, Constants.MEDIA_TYPE_SMILE, Constants.MEDIA_TYPE_CBOR, Constants.MEDIA_TYPE_PROTOBUF})
+    @Operation(summary = "Get nearest points of interest", description = "Returns the k nearest points of interest to a given location including their distance in meters")
+    @APIResponses({
+            @APIResponse(responseCode = "200", description = "List of points of interest ordered by distance", content = @Content(mediaType = "application/json", schema = @Schema(implementation = PointOfInterest.class))),
+            @APIResponse(responseCode = "400", description = "Invalid parameters", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ConstraintViolationInfo.class)))})
+    public Response listNearestPOIs(@Min(value = -90, message = "latitude must be between -90 and 90") @Max(value = 90, message = "latitude must be between -90 and 90") @QueryParam("lat") double latitude,
+                                    @Min(-180) @Max(180) @QueryParam("lon") double longitude,
+                                    @Min(1) @Max(1000) @QueryParam("k") int k,
+                                    @Min(1) @Max(100000) @QueryParam("maxRadius") Integer maxRadius,
+                                    @QueryParam("category") String category, @QueryParam("expand") String expand) {
+
+        List<PointOfInterest> poiList = geoDataService.listNearestPOIs(latitude, longitude, k, maxRadius, category,
                 EXPAND_DETAILS.equalsIgnoreCase(expand));
 
         for (PointOfInterest poi : poiList) {
@@ -194,6 +270,119 @@ public class PointOfInterestResourceController {
         return Response.ok(poiList).header(Constants.CONTENT_ENC_KEY, Constants.CHARSET_UTF8).build();
     }
 
+    /**
+     * GET request for the n nearest poi's of each category within the radius. Answers "what's around me" with a
+     * single query instead of one radius query per category.
+     *
+     * @param latitude
+     * @param longitude
+     * @param radius     maximum distance in meters
+     * @param n          maximum number of poi's per category
+     * @param categories optional categories to restrict the result to
+     * @return poi's by category, each list ordered by distance
+     */
+    @GET
+    @Path("nearest/per-category")
+    @Produces({Constants.MEDIA_TYPE_JSON, Constants.MEDIA_TYPE_SMILE, Constants.MEDIA_TYPE_CBOR})
+    @Operation(summary = "Get nearest points of interest per category", description = "Returns the n nearest points of interest of each category within the radius including their distance in meters")
+    @APIResponses({
+            @APIResponse(responseCode = "200", description = "Points of interest by category, ordered by distance", content = @Content(mediaType = "application/json")),
+            @APIResponse(responseCode = "400", description = "Invalid parameters", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ConstraintViolationInfo.class)))})
+    public Response listNearestPOIsPerCategory(@Min(value = -90, message = "latitude must be between -90 and 90") @Max(value = 90, message = "latitude must be between -90 and 90") @QueryParam("lat") double latitude,
+                                               @Min(-180) @Max(180) @QueryParam("lon") double longitude,
+                                               @Min(1) @Max(100000) @QueryParam("radius") int radius,
+                                               @Min(1) @Max(100) @QueryParam("n") int n,
+                                               @QueryParam("category") List<String> categories, @QueryParam("expand") String expand) {
+
+        Map<String, List<PointOfInterest>> poisByCategory = geoDataService.listNearestPOIsPerCategory(latitude, longitude,
+                radius, n, categories, EXPAND_DETAILS.equalsIgnoreCase(expand));
+
+        for (List<PointOfInterest> poiList : poisByCategory.values()) {
+            for (PointOfInterest poi : poiList) {
+                poi.setHref(createUriString(poi));
+            }
+        }
+
+        return Response.ok(poisByCategory).header(Constants.CONTENT_ENC_KEY, Constants.CHARSET_UTF8).build();
+    }
+
+    /**
+     * GET request for several poi's by id with a single query. Also serves GET /poi?ids=..., see
+     * {@link de.zeiss.mongodbws.geoservice.rest.MultiGetRequestFilter}.
+     *
+     * @param ids    comma separated ids, at most 100
+     * @param expand if set to "details" the poi's contain all data
+     * @return the poi's in the requested order and the ids without a poi
+     */
+    @GET
+    @Path("_mget")
+    @Produces({Constants.MEDIA_TYPE_JSON, Constants.MEDIA_TYPE_SMILE, Constants.MEDIA_TYPE_CBOR})
+    @Operation(summary = "Get points of interest by IDs", description = "Returns the points of interest in the order of the comma separated IDs and reports the IDs without a point of interest. Also available as GET /poi?ids=...")
+    @APIResponses({
+            @APIResponse(responseCode = "200", description = "Points of interest and missing IDs", content = @Content(mediaType = "application/json", schema = @Schema(implementation = PointOfInterestMultiGetResult.class))),
+            @APIResponse(responseCode = "400", description = "Invalid parameters", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ConstraintViolationInfo.class)))})
+    public Response getPOIsByIds(@NotEmpty @Pattern(regexp = "[^,]+(,[^,]+){0,99}", message = "ids must be a comma separated list of at most 100 ids") @QueryParam("ids") String ids,
+                                 @QueryParam("expand") String expand) {
+        return multiGet(List.of(ids.split(",")), expand);
+    }
+
+    /**
+     * POST request for several poi's by id with a single query, for id lists too long for the URL.
+     *
+     * @param ids    the ids, at most 100
+     * @param expand if set to "details" the poi's contain all data
+     * @return the poi's in the requested order and the ids without a poi
+     */
+    @POST
+    @Path("_mget")
+    @Consumes({Constants.MEDIA_TYPE_JSON, Constants.MEDIA_TYPE_SMILE, Constants.MEDIA_TYPE_CBOR})
+    @Produces({Constants.MEDIA_TYPE_JSON, Constants.MEDIA_TYPE_SMILE, Constants.MEDIA_TYPE_CBOR})
+    @Operation(summary = "Get points of interest by IDs", description = "Returns the points of interest in the order of the IDs in the request body and reports the IDs without a point of interest")
+    @APIResponses({
+            @APIResponse(responseCode = "200", description = "Points of interest and missing IDs", content = @Content(mediaType = "application/json", schema = @Schema(implementation = PointOfInterestMultiGetResult.class))),
+            @APIResponse(responseCode = "400", description = "Invalid IDs", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ConstraintViolationInfo.class)))})
+    public Response multiGetPOIs(@NotEmpty @Size(max = 100) List<@NotEmpty String> ids, @QueryParam("expand") String expand) {
+        return multiGet(ids, expand);
+    }
+
+    private Response multiGet(List<String> ids, String expand) {
+        PointOfInterestMultiGetResult result = geoDataService.getPOIs(ids, EXPAND_DETAILS.equalsIgnoreCase(expand));
+
+        for (PointOfInterest poi : result.getPointsOfInterest()) {
+            poi.setHref(createUriString(poi));
+        }
+
+        return Response.ok(result).header(Constants.CONTENT_ENC_KEY, Constants.CHARSET_UTF8).build();
+    }
+
+    /**
+     * POST request with several radius queries, e.g. the stops of a route. The queries are executed concurrently, poi's
+     * found by more than one query are returned only once.
+     *
+     * @param queries the radius queries, at most 50
+     * @param expand  if set to "details" the poi's contain all data
+     * @return the distinct poi's and per query the indexes of the poi's it found
+     */
+    @POST
+    @Path("_search")
+    @Consumes({Constants.MEDIA_TYPE_JSON, Constants.MEDIA_TYPE_SMILE, Constants.MEDIA_TYPE_CBOR})
+    @Produces({Constants.MEDIA_TYPE_JSON, Constants.MEDIA_TYPE_SMILE, Constants.MEDIA_TYPE_CBOR})
+    @Operation(summary = "Search points of interest around several locations", description = "Executes several radius queries at once and returns the distinct points of interest together with the indexes of the points of interest found by each query")
+    @APIResponses({
+            @APIResponse(responseCode = "200", description = "Search result", content = @Content(mediaType = "application/json", schema = @Schema(implementation = PointOfInterestSearchResult.class))),
+            @APIResponse(responseCode = "400", description = "Invalid queries", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ConstraintViolationInfo.class)))})
+    public Response searchPOIs(@NotEmpty @Size(max = 50) List<@Valid PointOfInterestQuery> queries,
+                               @QueryParam("expand") String expand) {
+
+        PointOfInterestSearchResult searchResult = geoDataService.searchPOIs(queries, EXPAND_DETAILS.equalsIgnoreCase(expand));
+
+        for (PointOfInterest poi : searchResult.getPointsOfInterest()) {
+            poi.setHref(createUriString(poi));
+        }
+
+        return Response.ok(searchResult).header(Constants.CONTENT_ENC_KEY, Constants.CHARSET_UTF8).build();
+    }
+
     /**
      * Create the URI of the poi as string.
      *
@@ -0,0 +1,49 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.rest.resource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of a batch search. Every poi is contained only once in {@link #getPointsOfInterest()}, even if it was found
+ * by several queries. {@link #getResults()} holds the indexes of the poi's found by each query in the order of the
+ * queries.
+ */
+public class PointOfInterestSearchResult {
+
+    private List<PointOfInterest> pointsOfInterest = new ArrayList<>();
+
+    private List<List<Integer>> results = new ArrayList<>();
+
+    /**
+     * @return the distinct poi's of all queries
+     */
+    public List<PointOfInterest> getPointsOfInterest() {
+        return pointsOfInterest;
+    }
+
+    /**
+     * @param pointsOfInterest the distinct poi's of all queries to set
+     */
+    public void setPointsOfInterest(List<PointOfInterest> pointsOfInterest) {
+        this.pointsOfInterest = pointsOfInterest;
+    }
+
+    /**
+     * @return per query the indexes of its poi's in {@link #getPointsOfInterest()}
+     */
+    public List<List<Integer>> getResults() {
+        return results;
+    }
+
+    /**
+     * @param results per query the indexes of its poi's to set
+     */
+    public void setResults(List<List<Integer>> results) {
+        this.results = results;
+    }
+}
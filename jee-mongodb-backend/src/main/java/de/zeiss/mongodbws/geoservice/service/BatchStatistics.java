@@ -0,0 +1,94 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread safe statistics on the batch sizes of the {@link PointOfInterestBatchLoader}.
+ */
+public class BatchStatistics {
+
+    /**
+     * Upper bounds (inclusive) of the batch size histogram buckets.
+     */
+    private static final int[] BUCKET_BOUNDS = {1, 2, 4, 8, 16, 32, 64, 128};
+
+    private final LongAdder batches = new LongAdder();
+
+    private final LongAdder keys = new LongAdder();
+
+    private final LongAccumulator maxBatchSize = new LongAccumulator(Math::max, 0);
+
+    private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS.length + 1];
+
+    public BatchStatistics() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a dispatched batch.
+     *
+     * @param size number of distinct ids loaded by the batch
+     */
+    public void record(int size) {
+        batches.increment();
+        keys.add(size);
+        maxBatchSize.accumulate(size);
+
+        int bucket = 0;
+        while (bucket < BUCKET_BOUNDS.length && size > BUCKET_BOUNDS[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+    }
+
+    /**
+     * @return number of queries sent to the database
+     */
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    /**
+     * @return number of ids loaded by all batches
+     */
+    public long getKeys() {
+        return keys.sum();
+    }
+
+    /**
+     * @return largest batch so far
+     */
+    public long getMaxBatchSize() {
+        return maxBatchSize.get();
+    }
+
+    /**
+     * @return average number of ids per query
+     */
+    public double getAverageBatchSize() {
+        long count = getBatches();
+        return count == 0 ? 0.0 : (double) getKeys() / count;
+    }
+
+    /**
+     * @return number of batches by size bucket, e.g. "<=4" or ">128"
+     */
+    public Map<String, Long> getHistogram() {
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+            histogram.put("<=" + BUCKET_BOUNDS[i], buckets[i].sum());
+        }
+        histogram.put(">" + BUCKET_BOUNDS[BUCKET_BOUNDS.length - 1], buckets[BUCKET_BOUNDS.length].sum());
+        return histogram;
+    }
+}
@@ -0,0 +1,35 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.service;
+
+import de.zeiss.mongodbws.geoservice.persistence.Workload;
+
+/**
+ * Thrown if a call is rejected because the bulkhead of its workload is full.
+ */
+public class BulkheadFullException extends RuntimeException {
+
+    private final Workload workload;
+
+    private final long retryAfterSeconds;
+
+    public BulkheadFullException(Workload workload, long retryAfterSeconds) {
+        super("Too many concurrent " + workload.name().toLowerCase() + " requests, please retry later");
+        this.workload = workload;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public Workload getWorkload() {
+        return workload;
+    }
+
+    /**
+     * @return the number of seconds the client should wait before retrying
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
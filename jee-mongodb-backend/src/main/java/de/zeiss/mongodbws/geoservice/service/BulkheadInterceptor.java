@@ -0,0 +1,61 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.service;
+
+import de.zeiss.mongodbws.geoservice.persistence.Workload;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ContextNotActiveException;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+/**
+ * Executes calls of {@link WorkloadBulkhead} methods within the bulkhead of their workload. Requests tagged with low
+ * priority always use the bulkhead of bulk work.
+ */
+@Interceptor
+@WorkloadBulkhead
+@Priority(Interceptor.Priority.APPLICATION)
+public class BulkheadInterceptor {
+
+    @Inject
+    Bulkheads bulkheads;
+
+    @Inject
+    RequestPriority requestPriority;
+
+    @AroundInvoke
+    public Object isolate(InvocationContext context) throws Exception {
+        Bulkhead bulkhead = bulkheads.acquire(workloadOf(context));
+        try {
+            return context.proceed();
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private Workload workloadOf(InvocationContext context) {
+        if (isLowPriority()) {
+            return Workload.BULK;
+        }
+
+        WorkloadBulkhead annotation = context.getMethod().getAnnotation(WorkloadBulkhead.class);
+        if (annotation == null) {
+            annotation = context.getMethod().getDeclaringClass().getAnnotation(WorkloadBulkhead.class);
+        }
+        return annotation != null ? annotation.value() : Workload.INTERACTIVE;
+    }
+
+    private boolean isLowPriority() {
+        try {
+            return requestPriority.isLow();
+        } catch (ContextNotActiveException e) {
+            // not called within a request
+            return false;
+        }
+    }
+}
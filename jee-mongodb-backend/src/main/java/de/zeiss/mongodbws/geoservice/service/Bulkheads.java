@@ -0,0 +1,83 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.service;
+
+import de.zeiss.mongodbws.geoservice.persistence.Workload;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The bulkheads of the {@link Workload}s, so that e.g. an import flooding the service with writes can only take a
+ * bounded number of request threads and interactive reads stay fast.
+ */
+@ApplicationScoped
+public class Bulkheads {
+
+    /*
+     * Maximum numbers of concurrent calls per workload, 0 means no limit.
+     */
+    @Inject
+    @ConfigProperty(name = "geoservice.bulkhead.interactive.max-concurrent", defaultValue = "0")
+    int interactiveMaxConcurrent;
+
+    @Inject
+    @ConfigProperty(name = "geoservice.bulkhead.write.max-concurrent", defaultValue = "10")
+    int writeMaxConcurrent;
+
+    @Inject
+    @ConfigProperty(name = "geoservice.bulkhead.bulk.max-concurrent", defaultValue = "10")
+    int bulkMaxConcurrent;
+
+    /**
+     * Time a call waits for a free permit before it is rejected.
+     */
+    @Inject
+    @ConfigProperty(name = "geoservice.bulkhead.max-wait-ms", defaultValue = "100")
+    long maxWaitMs;
+
+    @Inject
+    @ConfigProperty(name = "geoservice.bulkhead.retry-after-seconds", defaultValue = "1")
+    long retryAfterSeconds;
+
+    private final Map<Workload, Bulkhead> bulkheads = new EnumMap<>(Workload.class);
+
+    @PostConstruct
+    void init() {
+        bulkheads.put(Workload.INTERACTIVE, new Bulkhead(interactiveMaxConcurrent, maxWaitMs));
+        bulkheads.put(Workload.WRITE, new Bulkhead(writeMaxConcurrent, maxWaitMs));
+        bulkheads.put(Workload.BULK, new Bulkhead(bulkMaxConcurrent, maxWaitMs));
+    }
+
+    /**
+     * Enters the bulkhead of the workload.
+     *
+     * @param workload the workload of the call
+     * @return the bulkhead to release after the call
+     * @throws BulkheadFullException if the bulkhead is full
+     */
+    public Bulkhead acquire(Workload workload) {
+        Bulkhead bulkhead = bulkheads.get(workload);
+        if (!bulkhead.tryAcquire()) {
+            throw new BulkheadFullException(workload, retryAfterSeconds);
+        }
+        return bulkhead;
+    }
+
+    /**
+     * @return the statistics per workload
+     */
+    public Map<String, Map<String, Long>> getStatistics() {
+        Map<String, Map<String, Long>> statistics = new LinkedHashMap<>();
+        bulkheads.forEach((workload, bulkhead) -> statistics.put(workload.name().toLowerCase(), bulkhead.getStatistics()));
+        return statistics;
+    }
+}
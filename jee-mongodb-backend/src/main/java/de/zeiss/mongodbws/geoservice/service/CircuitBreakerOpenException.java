@@ -0,0 +1,26 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.service;
+
+/**
+ * Thrown if a read is rejected by the open circuit breaker and there is no stale result to serve instead.
+ */
+public class CircuitBreakerOpenException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public CircuitBreakerOpenException(long retryAfterSeconds) {
+        super("The database is currently unavailable, please retry later");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * @return the number of seconds the client should wait before retrying
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
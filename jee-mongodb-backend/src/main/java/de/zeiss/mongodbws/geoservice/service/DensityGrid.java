@@ -0,0 +1,127 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coarse in-memory grid of the number of poi's per cell, used to estimate how many poi's a radius query will match
+ * before running it. Cells are squares of cellSize degrees latitude and longitude.
+ */
+public class DensityGrid {
+
+    private static final double METERS_PER_DEGREE_LATITUDE = 111_320.0;
+
+    private final double cellSize;
+
+    private final ConcurrentMap<Long, LongAdder> counts = new ConcurrentHashMap<>();
+
+    /**
+     * @param cellSize edge length of the cells in degrees
+     */
+    public DensityGrid(double cellSize) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("cellSize must be positive: " + cellSize);
+        }
+        this.cellSize = cellSize;
+    }
+
+    public double getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * Adds the count of a cell, e.g. read from the database.
+     */
+    public void add(int latIndex, int lonIndex, long count) {
+        counts.computeIfAbsent(key(latIndex, lonIndex), key -> new LongAdder()).add(count);
+    }
+
+    /**
+     * Counts a new poi.
+     */
+    public void add(double lat, double lon) {
+        add(index(lat), index(lon), 1);
+    }
+
+    /**
+     * Uncounts a removed poi.
+     */
+    public void remove(double lat, double lon) {
+        add(index(lat), index(lon), -1);
+    }
+
+    /**
+     * @return number of poi's in all cells
+     */
+    public long getTotal() {
+        return counts.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    /**
+     * Estimates the number of poi's within the radius. The cells overlapping the bounding box of the circle contribute
+     * with the overlapping fraction of their area, assuming the poi's are evenly distributed within a cell; the circle
+     * covers pi/4 of its bounding box.
+     *
+     * @param lat    latitude of the center
+     * @param lon    longitude of the center
+     * @param radius radius in meters
+     * @return the estimated number of poi's
+     */
+    public long estimate(double lat, double lon, int radius) {
+        double latSpan = radius / METERS_PER_DEGREE_LATITUDE;
+        double cos = Math.cos(Math.toRadians(lat));
+        double lonSpan = cos < 1e-6 ? 180.0 : Math.min(180.0, latSpan / cos);
+
+        double minLat = lat - latSpan;
+        double maxLat = lat + latSpan;
+        double minLon = lon - lonSpan;
+        double maxLon = lon + lonSpan;
+
+        double estimate = 0.0;
+        long cellsInBox = (long) (index(maxLat) - index(minLat) + 1) * (index(maxLon) - index(minLon) + 1);
+
+        if (cellsInBox > counts.size()) {
+            // sparse grid or small cells: only look at the cells containing poi's
+            for (Map.Entry<Long, LongAdder> entry : counts.entrySet()) {
+                int latIndex = (int) (entry.getKey() >> 32);
+                int lonIndex = (int) (long) entry.getKey();
+                estimate += entry.getValue().sum() * overlap(latIndex, minLat, maxLat) * overlap(lonIndex, minLon, maxLon);
+            }
+        } else {
+            for (int latIndex = index(minLat); latIndex <= index(maxLat); latIndex++) {
+                double latOverlap = overlap(latIndex, minLat, maxLat);
+                for (int lonIndex = index(minLon); lonIndex <= index(maxLon); lonIndex++) {
+                    LongAdder count = counts.get(key(latIndex, lonIndex));
+                    if (count != null) {
+                        estimate += count.sum() * latOverlap * overlap(lonIndex, minLon, maxLon);
+                    }
+                }
+            }
+        }
+
+        return Math.round(estimate * Math.PI / 4.0);
+    }
+
+    private int index(double degrees) {
+        return (int) Math.floor(degrees / cellSize);
+    }
+
+    /**
+     * @return fraction of the cell with the index within [min, max]
+     */
+    private double overlap(int index, double min, double max) {
+        double overlap = Math.min(max, (index + 1) * cellSize) - Math.max(min, index * cellSize);
+        return Math.max(0.0, overlap / cellSize);
+    }
+
+    private static long key(int latIndex, int lonIndex) {
+        return ((long) latIndex << 32) | (lonIndex & 0xffffffffL);
+    }
+}
@@ -6,27 +6,105 @@
 package de.zeiss.mongodbws.geoservice.service;
 
 import de.zeiss.mongodbws.geoservice.persistence.PersistenceService;
+import de.zeiss.mongodbws.geoservice.persistence.PointOfInterestColumns;
+import de.zeiss.mongodbws.geoservice.persistence.QueryResult;
+import de.zeiss.mongodbws.geoservice.persistence.Workload;
+import de.zeiss.mongodbws.geoservice.persistence.entity.GeoPoint;
 import de.zeiss.mongodbws.geoservice.persistence.entity.PointOfInterestEntity;
 import de.zeiss.mongodbws.geoservice.rest.resource.PointOfInterest;
+import de.zeiss.mongodbws.geoservice.rest.resource.PointOfInterestMultiGetResult;
+import de.zeiss.mongodbws.geoservice.rest.resource.PointOfInterestQuery;
+import de.zeiss.mongodbws.geoservice.rest.resource.PointOfInterestSearchResult;
 import de.zeiss.mongodbws.geoservice.service.mapper.PointOfInterestMapper;
+import de.zeiss.mongodbws.geoservice.timing.Layer;
+import de.zeiss.mongodbws.geoservice.timing.ServerTimed;
+import de.zeiss.mongodbws.geoservice.tracing.Traced;
+import io.opentelemetry.context.Context;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedExecutorService;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.bson.types.ObjectId;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static de.zeiss.mongodbws.geoservice.service.StaleWhileRevalidate.normalizeCoordinate;
 
 /**
  * Our data service. Does currently nothing more than converting beeing the
  * interface between REST and persistence layer including converting entities.
+ * <p>
+ * While the database is degraded, interactive reads serve their last known results, see
+ * {@link StaleWhileRevalidate}.
  *
  * @author Andreas Post
  */
 @ApplicationScoped
+@ServerTimed(Layer.SERVICE)
+@Traced
 public class GeoDataService {
 
     @Inject
     PersistenceService persistenceService;
 
+    /**
+     * Container managed executor for the queries of a batch search. Its pool size bounds the number of queries
+     * executed concurrently.
+     */
+    @Resource
+    ManagedExecutorService executorService;
+
+    @Inject
+    PointOfInterestBatchLoader batchLoader;
+
+    @Inject
+    QueryCostGuard costGuard;
+
+    @Inject
+    StaleWhileRevalidate staleWhileRevalidate;
+
+    /**
+     * If true concurrent identical radius queries share one database query.
+     */
+    @Inject
+    @ConfigProperty(name = "geoservice.coalescing.enabled", defaultValue = "true")
+    boolean coalescingEnabled;
+
+    /**
+     * Time budgets of the reads, a read within its budget does not count as slow for the circuit breaker.
+     */
+    @Inject
+    @ConfigProperty(name = "geoservice.query.max-time-ms.get", defaultValue = "1000")
+    long getMaxTimeMs;
+
+    @Inject
+    @ConfigProperty(name = "geoservice.query.max-time-ms.list", defaultValue = "2000")
+    long listMaxTimeMs;
+
+    @Inject
+    @ConfigProperty(name = "geoservice.query.max-time-ms.nearest", defaultValue = "2000")
+    long nearestMaxTimeMs;
+
+    @Inject
+    @ConfigProperty(name = "geoservice.query.max-time-ms.per-category", defaultValue = "5000")
+    long perCategoryMaxTimeMs;
+
+    private final SingleFlight<RadiusQuery, QueryResult<PointOfInterestEntity>> radiusQueries = new SingleFlight<>();
+
     /**
      * Get a poi by id.
      *
@@ -34,8 +112,13 @@ public class GeoDataService {
      * @param expandDetails If true returnes all data of the poi.
      * @return
      */
+    @WorkloadBulkhead(Workload.INTERACTIVE)
     public PointOfInterest getPOI(String id, boolean expandDetails) {
-        PointOfInterestEntity entity = persistenceService.getPointOfInterest(new ObjectId(id), expandDetails);
+        ObjectId objectId = new ObjectId(id);
+        PointOfInterestEntity entity = staleWhileRevalidate.read(List.of("poi", id, expandDetails), getMaxTimeMs,
+                () -> batchLoader.isEnabled()
+                        ? batchLoader.load(objectId, expandDetails)
+                        : persistenceService.getPointOfInterest(objectId, expandDetails));
 
         if (entity == null) {
             return null;
@@ -44,33 +127,80 @@ public class GeoDataService {
         return PointOfInterestMapper.mapToModel(entity);
     }
 
+    /**
+     * Get several poi's by id with a single query.
+     *
+     * @param ids           String representations of the object ids, invalid ids are reported as missing.
+     * @param expandDetails If true returnes all data of the poi's.
+     * @return the poi's in the order of the ids and the ids without a poi
+     */
+    @WorkloadBulkhead(Workload.BULK)
+    public PointOfInterestMultiGetResult getPOIs(List<String> ids, boolean expandDetails) {
+        Set<ObjectId> objectIds = new LinkedHashSet<>();
+        for (String id : ids) {
+            if (ObjectId.isValid(id)) {
+                objectIds.add(new ObjectId(id));
+            }
+        }
+
+        Map<ObjectId, PointOfInterestEntity> entityById = objectIds.isEmpty() ? Map.of()
+                : persistenceService.getPointsOfInterest(objectIds, expandDetails).stream()
+                .collect(Collectors.toMap(PointOfInterestEntity::getId, Function.identity()));
+
+        PointOfInterestMultiGetResult result = new PointOfInterestMultiGetResult();
+        for (String id : ids) {
+            // compared as object ids, the hex string of an id may be upper case
+            PointOfInterestEntity entity = ObjectId.isValid(id) ? entityById.get(new ObjectId(id)) : null;
+            if (entity == null) {
+                result.getMissingIds().add(id);
+            } else {
+                result.getPointsOfInterest().add(PointOfInterestMapper.mapToModel(entity));
+            }
+        }
+
+        return result;
+    }
+
     /**
      * Create a new poi.
      *
      * @param poi
      * @return The new poi including its id.
      */
+    @WorkloadBulkhead(Workload.WRITE)
     public PointOfInterest createPOI(PointOfInterest poi) {
 
         PointOfInterestEntity entity = PointOfInterestMapper.mapToEntity(poi);
 
         entity = persistenceService.createPointOfInterest(entity);
+        costGuard.added(entity.getLocation());
 
         return PointOfInterestMapper.mapToModel(entity);
     }
 
+    /**
+     * Update an existing poi, read for the update from the primary.
+     *
+     * @param poi
+     * @return The updated poi or null if no poi exists for its id.
+     */
+    @WorkloadBulkhead(Workload.WRITE)
     public PointOfInterest updatePOI(PointOfInterest poi) {
         if (poi.getId() == null || !ObjectId.isValid(poi.getId())) {
             throw new IllegalArgumentException("Invalid or missing POI id for update operation.");
         }
-        PointOfInterestEntity entity = persistenceService.getPointOfInterest(new ObjectId(poi.getId()), true);
+        PointOfInterestEntity entity = persistenceService.getPointOfInterestForUpdate(new ObjectId(poi.getId()));
 
         if (entity == null) {
             return null;
         }
+        GeoPoint previousLocation = entity.getLocation();
         PointOfInterestMapper.updateEntityFromModel(poi, entity);
 
         entity = persistenceService.updatePointOfInterest(entity);
+        costGuard.removed(previousLocation);
+        costGuard.added(entity.getLocation());
+        invalidateStale(poi.getId());
 
         return PointOfInterestMapper.mapToModel(entity);
     }
@@ -79,9 +209,26 @@ public class GeoDataService {
      * Delete a poi by id.
      *
      * @param id
+     * @return true if the poi existed
      */
-    public void deletePOI(String id) {
-        persistenceService.deletePointOfInterest(new ObjectId(id));
+    @WorkloadBulkhead(Workload.WRITE)
+    public boolean deletePOI(String id) {
+        PointOfInterestEntity deleted = persistenceService.deletePointOfInterest(new ObjectId(id));
+
+        if (deleted == null) {
+            return false;
+        }
+        costGuard.removed(deleted.getLocation());
+        invalidateStale(id);
+        return true;
+    }
+
+    /**
+     * Removes the last known results of the reads of a modified poi by id.
+     */
+    private void invalidateStale(String id) {
+        staleWhileRevalidate.invalidate(List.of("poi", id, true));
+        staleWhileRevalidate.invalidate(List.of("poi", id, false));
     }
 
     /**
@@ -91,11 +238,205 @@ public class GeoDataService {
      * @param lon
      * @param radius
      * @param expandDetails If true returnes all data of the poi.
+     * @param allowPartial  If true the nearest poi's found until the time budget of the query is exceeded are returned
+     *                      instead of an error.
+     * @return the poi's, partial if capped by the {@link QueryCostGuard}
+     * @throws QueryTooExpensiveException if the query is estimated to match too many poi's
+     */
+    @WorkloadBulkhead(Workload.INTERACTIVE)
+    public QueryResult<PointOfInterest> listPOIs(double lat, double lon, int radius, boolean expandDetails,
+                                                 boolean allowPartial) {
+        int limit = costGuard.limitFor(lat, lon, radius);
+        RadiusQuery query = new RadiusQuery(lat, lon, radius, null, null, expandDetails, allowPartial, limit);
+        QueryResult<PointOfInterestEntity> entities = staleWhileRevalidate.read(query.staleKey(), listMaxTimeMs,
+                () -> coalesce(query,
+                        () -> persistenceService.listPOIs(lat, lon, radius, expandDetails, allowPartial, limit)));
+
+        return entities.map(PointOfInterestMapper::mapToModel);
+    }
+
+    /**
+     * Returns a list of nearest points of interest containing only the given fields (and the id).
+     *
+     * @param lat
+     * @param lon
+     * @param radius
+     * @param fields       The fields to read, e.g. name and location.
+     * @param allowPartial If true the nearest poi's found until the time budget of the query is exceeded are returned
+     *                     instead of an error.
+     * @return the poi's, partial if capped by the {@link QueryCostGuard}
+     * @throws QueryTooExpensiveException if the query is estimated to match too many poi's
+     */
+    @WorkloadBulkhead(Workload.INTERACTIVE)
+    public QueryResult<PointOfInterest> listPOIs(double lat, double lon, int radius, Set<String> fields,
+                                                 boolean allowPartial) {
+        int limit = costGuard.limitFor(lat, lon, radius);
+        RadiusQuery query = new RadiusQuery(lat, lon, radius, null, Set.copyOf(fields), false, allowPartial, limit);
+        QueryResult<PointOfInterestEntity> entities = staleWhileRevalidate.read(query.staleKey(), listMaxTimeMs,
+                () -> coalesce(query,
+                        () -> persistenceService.listPOIs(lat, lon, radius, fields, allowPartial, limit)));
+
+        return entities.map(PointOfInterestMapper::mapToModel);
+    }
+
+    /**
+     * Returns the ids, coordinates and categories of the nearest points of interest as columns, e.g. for drawing them
+     * on a map. The columns are read from the cursor in one pass, without entities and models, so unlike the other
+     * radius queries they are neither cached nor coalesced.
+     *
+     * @param lat
+     * @param lon
+     * @param radius
+     * @param allowPartial If true the nearest poi's found until the time budget of the query is exceeded are returned
+     *                     instead of an error.
+     * @return the columns, partial if capped by the {@link QueryCostGuard}
+     * @throws QueryTooExpensiveException if the query is estimated to match too many poi's
+     */
+    @WorkloadBulkhead(Workload.INTERACTIVE)
+    public PointOfInterestColumns listPOIColumns(double lat, double lon, int radius, boolean allowPartial) {
+        int limit = costGuard.limitFor(lat, lon, radius);
+        return persistenceService.listPOIColumns(lat, lon, radius, allowPartial, limit);
+    }
+
+    /**
+     * Returns the k nearest points of interest including their distance in meters.
+     *
+     * @param lat
+     * @param lon
+     * @param limit         Maximum number of results (k).
+     * @param maxRadius     Optional maximum distance in meters, may be null.
+     * @param category      Optional category filter, may be null.
+     * @param expandDetails If true returnes all data of the poi.
      * @return
      */
-    public List<PointOfInterest> listPOIs(double lat, double lon, int radius, boolean expandDetails) {
-        List<PointOfInterestEntity> entityList = persistenceService.listPOIs(lat, lon, radius, expandDetails);
+    @WorkloadBulkhead(Workload.INTERACTIVE)
+    public List<PointOfInterest> listNearestPOIs(double lat, double lon, int limit, Integer maxRadius,
+                                                 String category, boolean expandDetails) {
+        List<PointOfInterestEntity> entityList = staleWhileRevalidate.read(
+                Arrays.asList("nearest", normalizeCoordinate(lat), normalizeCoordinate(lon), limit, maxRadius, category,
+                        expandDetails), nearestMaxTimeMs,
+                () -> persistenceService.listNearestPOIs(lat, lon, limit, maxRadius, category, expandDetails));
 
         return entityList.stream().map(PointOfInterestMapper::mapToModel).toList();
     }
+
+    /**
+     * Returns the nearest points of interest of each category within the radius including their distance in meters.
+     *
+     * @param lat
+     * @param lon
+     * @param radius           Maximum distance in meters.
+     * @param limitPerCategory Maximum number of results per category (n).
+     * @param categories       Optional categories to restrict the query to, may be null or empty.
+     * @param expandDetails    If true returnes all data of the poi.
+     * @return the poi's by category, both ordered by category name and distance
+     */
+    @WorkloadBulkhead(Workload.INTERACTIVE)
+    public Map<String, List<PointOfInterest>> listNearestPOIsPerCategory(double lat, double lon, int radius,
+                                                                         int limitPerCategory, List<String> categories,
+                                                                         boolean expandDetails) {
+        List<PointOfInterestEntity> entityList = staleWhileRevalidate.read(
+                Arrays.asList("per-category", normalizeCoordinate(lat), normalizeCoordinate(lon), radius, limitPerCategory,
+                        categories == null ? null : List.copyOf(categories), expandDetails), perCategoryMaxTimeMs,
+                () -> persistenceService.listNearestPOIsPerCategory(lat, lon, radius, limitPerCategory, categories,
+                        expandDetails));
+
+        return entityList.stream().map(PointOfInterestMapper::mapToModel)
+                .collect(Collectors.groupingBy(PointOfInterest::getCategory, LinkedHashMap::new, Collectors.toList()));
+    }
+
+    /**
+     * Executes several radius queries concurrently and returns their results. Poi's found by more than one query are
+     * contained only once in the result.
+     *
+     * @param queries       The radius queries.
+     * @param expandDetails If true returnes all data of the poi's.
+     * @return the distinct poi's and per query the indexes of the poi's it found
+     */
+    @WorkloadBulkhead(Workload.BULK)
+    public PointOfInterestSearchResult searchPOIs(List<PointOfInterestQuery> queries, boolean expandDetails) {
+        // the queries run in the trace of the caller
+        Context context = Context.current();
+        List<Callable<List<PointOfInterestEntity>>> tasks = queries.stream()
+                .<Callable<List<PointOfInterestEntity>>>map(query -> () -> coalesce(new RadiusQuery(query.getLat(),
+                                query.getLon(), query.getRadius(), query.getCategory(), null, expandDetails, false, 0),
+                        () -> QueryResult.complete(persistenceService.listPOIs(query.getLat(), query.getLon(),
+                                query.getRadius(), query.getCategory(), expandDetails))).results())
+                .map(context::wrap)
+                .toList();
+
+        List<Future<List<PointOfInterestEntity>>> futures;
+        try {
+            futures = executorService.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while searching points of interest", e);
+        }
+
+        PointOfInterestSearchResult searchResult = new PointOfInterestSearchResult();
+        Map<ObjectId, Integer> indexById = new HashMap<>();
+
+        for (Future<List<PointOfInterestEntity>> future : futures) {
+            List<Integer> indexes = new ArrayList<>();
+            for (PointOfInterestEntity entity : getResult(future)) {
+                indexes.add(indexById.computeIfAbsent(entity.getId(), id -> {
+                    searchResult.getPointsOfInterest().add(PointOfInterestMapper.mapToModel(entity));
+                    return searchResult.getPointsOfInterest().size() - 1;
+                }));
+            }
+            searchResult.getResults().add(indexes);
+        }
+
+        return searchResult;
+    }
+
+    /**
+     * @return number of radius queries executed and answered with the result of an identical query in flight
+     */
+    public Map<String, Long> getCoalescingStatistics() {
+        Map<String, Long> statistics = new LinkedHashMap<>();
+        statistics.put("executions", radiusQueries.getExecutions());
+        statistics.put("sharedResults", radiusQueries.getSharedResults());
+        return statistics;
+    }
+
+    private QueryResult<PointOfInterestEntity> coalesce(RadiusQuery query,
+                                                        Supplier<QueryResult<PointOfInterestEntity>> call) {
+        return coalescingEnabled ? radiusQueries.execute(query, call) : call.get();
+    }
+
+    private static <T> T getResult(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while searching points of interest", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Normalised parameters of a radius query, identical queries are coalesced.
+     */
+    private record RadiusQuery(double lat, double lon, int radius, String category, Set<String> fields,
+                               boolean expandDetails, boolean allowPartial, int limit) {
+
+        private RadiusQuery {
+            // -0.0 and 0.0 are the same location
+            lat += 0.0;
+            lon += 0.0;
+        }
+
+        /**
+         * @return the key of the last known result of the query, shared by queries of nearby locations
+         */
+        private List<Object> staleKey() {
+            return Arrays.asList("radius", normalizeCoordinate(lat), normalizeCoordinate(lon), radius, category, fields,
+                    expandDetails, allowPartial, limit);
+        }
+    }
 }
@@ -0,0 +1,255 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.service;
+
+import com.mongodb.MongoExecutionTimeoutException;
+import de.zeiss.mongodbws.geoservice.persistence.PersistenceService;
+import de.zeiss.mongodbws.geoservice.persistence.entity.PointOfInterestEntity;
+import de.zeiss.mongodbws.geoservice.timing.Layer;
+import de.zeiss.mongodbws.geoservice.timing.ServerTiming;
+import io.opentelemetry.context.Context;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedExecutorService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.ContextNotActiveException;
+import jakarta.inject.Inject;
+import org.bson.types.ObjectId;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Batches concurrent lookups of single poi's by id (DataLoader pattern). Lookups arriving within a small window are
+ * sent to the database as one $in query instead of one find per id. A batch is dispatched when the window after its
+ * first lookup elapsed or when it reached the maximum size, whatever happens first.
+ * <p>
+ * Lookups with and without details are batched separately as they use different projections. The queries run on the
+ * managed executor in the trace of the first lookup of the batch, the timer thread only hands them off. The execution
+ * time of the query is added to the database time of every request waiting for the batch.
+ */
+@ApplicationScoped
+public class PointOfInterestBatchLoader {
+
+    private static final Logger LOG = Logger.getLogger(PointOfInterestBatchLoader.class.getName());
+
+    @Inject
+    PersistenceService persistenceService;
+
+    @Resource(lookup = "java:comp/DefaultManagedScheduledExecutorService")
+    ScheduledExecutorService scheduler;
+
+    @Resource
+    ManagedExecutorService executorService;
+
+    @Inject
+    ServerTiming serverTiming;
+
+    @Inject
+    @ConfigProperty(name = "geoservice.batching.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @Inject
+    @ConfigProperty(name = "geoservice.batching.window-micros", defaultValue = "1000")
+    long windowMicros;
+
+    @Inject
+    @ConfigProperty(name = "geoservice.batching.max-size", defaultValue = "64")
+    int maxBatchSize;
+
+    /**
+     * Time budget of the lookups by id, the waiting for a batch is bounded by it.
+     */
+    @Inject
+    @ConfigProperty(name = "geoservice.query.max-time-ms.get", defaultValue = "1000")
+    long getMaxTimeMs;
+
+    private final BatchStatistics statistics = new BatchStatistics();
+
+    /**
+     * Pending batches without (index 0) and with details (index 1).
+     */
+    private final Batch[] pending = new Batch[2];
+
+    /**
+     * @return true if lookups should go through this loader
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return the batch size statistics
+     */
+    public BatchStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Loads a poi by id as part of the next batch and waits for the result.
+     *
+     * @param id            The object id of the entity.
+     * @param expandDetails If true returnes all data of the poi.
+     * @return the entity or null if there is none with this id
+     * @throws MongoExecutionTimeoutException if the batch did not complete within the window and the time budget
+     */
+    public PointOfInterestEntity load(ObjectId id, boolean expandDetails) {
+        Lookup lookup = enqueue(id, expandDetails);
+        try {
+            PointOfInterestEntity entity = getMaxTimeMs > 0
+                    // the budget limits the execution on the server, the same again covers the executor and network
+                    ? lookup.future().get(windowMicros + TimeUnit.MILLISECONDS.toMicros(2 * getMaxTimeMs),
+                    TimeUnit.MICROSECONDS)
+                    : lookup.future().get();
+            addDatabaseTime(lookup.batch());
+            return entity;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading point of interest " + id, e);
+        } catch (TimeoutException e) {
+            throw new MongoExecutionTimeoutException("Loading point of interest " + id + " exceeded its time budget");
+        } catch (ExecutionException e) {
+            addDatabaseTime(lookup.batch());
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Adds a lookup to the pending batch.
+     *
+     * @param id            The object id of the entity.
+     * @param expandDetails If true returnes all data of the poi.
+     * @return future completed with the entity or null if there is none with this id
+     */
+    public CompletableFuture<PointOfInterestEntity> loadAsync(ObjectId id, boolean expandDetails) {
+        return enqueue(id, expandDetails).future();
+    }
+
+    private Lookup enqueue(ObjectId id, boolean expandDetails) {
+        int index = expandDetails ? 1 : 0;
+        Batch full = null;
+        Batch batch;
+        CompletableFuture<PointOfInterestEntity> future;
+
+        synchronized (pending) {
+            batch = pending[index];
+            if (batch == null) {
+                batch = new Batch(expandDetails, Context.current());
+                pending[index] = batch;
+                Batch scheduled = batch;
+                batch.timer = scheduler.schedule(() -> flush(scheduled), windowMicros, TimeUnit.MICROSECONDS);
+            }
+
+            future = batch.lookups.computeIfAbsent(id, key -> new CompletableFuture<>());
+
+            if (batch.lookups.size() >= maxBatchSize) {
+                pending[index] = null;
+                batch.timer.cancel(false);
+                full = batch;
+            }
+        }
+
+        if (full != null) {
+            dispatch(full);
+        }
+
+        return new Lookup(batch, future);
+    }
+
+    private void flush(Batch batch) {
+        synchronized (pending) {
+            int index = batch.expandDetails ? 1 : 0;
+            if (pending[index] != batch) {
+                // already dispatched because it was full
+                return;
+            }
+            pending[index] = null;
+        }
+        dispatch(batch);
+    }
+
+    /**
+     * Hands the query of the batch off to the managed executor.
+     */
+    private void dispatch(Batch batch) {
+        statistics.record(batch.lookups.size());
+
+        try {
+            executorService.execute(batch.context.wrap(() -> query(batch)));
+        } catch (RuntimeException e) {
+            LOG.log(Level.WARNING, "Could not schedule a batch of " + batch.lookups.size() + " points of interest", e);
+            batch.lookups.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    private void query(Batch batch) {
+        long start = System.nanoTime();
+        try {
+            Map<ObjectId, PointOfInterestEntity> entityById = persistenceService
+                    .getPointsOfInterest(List.copyOf(batch.lookups.keySet()), batch.expandDetails).stream()
+                    .collect(Collectors.toMap(PointOfInterestEntity::getId, Function.identity()));
+
+            batch.databaseNanos = System.nanoTime() - start;
+            batch.lookups.forEach((id, future) -> future.complete(entityById.get(id)));
+        } catch (RuntimeException e) {
+            batch.databaseNanos = System.nanoTime() - start;
+            LOG.log(Level.WARNING, "Loading a batch of " + batch.lookups.size() + " points of interest failed", e);
+            batch.lookups.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    /**
+     * Adds the execution time of the query of the batch to the database time of the current request.
+     */
+    private void addDatabaseTime(Batch batch) {
+        try {
+            serverTiming.add(Layer.DATABASE, batch.databaseNanos);
+        } catch (ContextNotActiveException e) {
+            // not called within a request, e.g. by the refresh of a stale result
+        }
+    }
+
+    private static class Batch {
+
+        private final boolean expandDetails;
+
+        /**
+         * Trace context of the first lookup.
+         */
+        private final Context context;
+
+        private final Map<ObjectId, CompletableFuture<PointOfInterestEntity>> lookups = new LinkedHashMap<>();
+
+        private ScheduledFuture<?> timer;
+
+        /**
+         * Execution time of the query, written before the futures are completed.
+         */
+        private volatile long databaseNanos;
+
+        private Batch(boolean expandDetails, Context context) {
+            this.expandDetails = expandDetails;
+            this.context = context;
+        }
+    }
+
+    private record Lookup(Batch batch, CompletableFuture<PointOfInterestEntity> future) {
+    }
+}
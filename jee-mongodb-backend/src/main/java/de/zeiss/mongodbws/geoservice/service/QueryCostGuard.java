@@ -0,0 +1,126 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.service;
+
+import de.zeiss.mongodbws.geoservice.persistence.GridCellCount;
+import de.zeiss.mongodbws.geoservice.persistence.PersistenceService;
+import de.zeiss.mongodbws.geoservice.persistence.entity.GeoPoint;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedExecutorService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.Startup;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Guards against radius queries matching too many poi's, e.g. 100 km around a dense city centre. The number of
+ * matches is estimated from a {@link DensityGrid} built at startup and updated on writes. Queries above the threshold
+ * are either capped to the nearest poi's (mode "cap") or rejected (mode "reject").
+ */
+@ApplicationScoped
+public class QueryCostGuard {
+
+    private static final Logger LOG = Logger.getLogger(QueryCostGuard.class.getName());
+
+    @Inject
+    PersistenceService persistenceService;
+
+    @Resource
+    ManagedExecutorService executorService;
+
+    @Inject
+    @ConfigProperty(name = "geoservice.cost-guard.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @Inject
+    @ConfigProperty(name = "geoservice.cost-guard.cell-size", defaultValue = "0.1")
+    double cellSize;
+
+    @Inject
+    @ConfigProperty(name = "geoservice.cost-guard.max-estimated-results", defaultValue = "5000")
+    int maxEstimatedResults;
+
+    @Inject
+    @ConfigProperty(name = "geoservice.cost-guard.mode", defaultValue = "cap")
+    String mode;
+
+    private volatile DensityGrid grid;
+
+    void onStartup(@Observes Startup startup) {
+        if (enabled) {
+            // counting all poi's may take a while (or until the server selection timed out), so not on deployment
+            executorService.execute(this::rebuild);
+        }
+    }
+
+    /**
+     * Builds the density grid from the database.
+     */
+    public void rebuild() {
+        try {
+            DensityGrid newGrid = new DensityGrid(cellSize);
+            for (GridCellCount cell : persistenceService.countPOIsPerCell(cellSize)) {
+                newGrid.add(cell.latIndex(), cell.lonIndex(), cell.count());
+            }
+            grid = newGrid;
+            LOG.info("Built density grid of " + newGrid.getTotal() + " points of interest");
+        } catch (RuntimeException e) {
+            LOG.log(Level.WARNING, "Building the density grid failed, radius queries are not guarded", e);
+        }
+    }
+
+    /**
+     * Checks the estimated cost of a radius query.
+     *
+     * @param lat
+     * @param lon
+     * @param radius radius in meters
+     * @return the maximum number of poi's the query may return or 0 for no limit
+     * @throws QueryTooExpensiveException if the query is estimated to match too many poi's in mode "reject"
+     */
+    public int limitFor(double lat, double lon, int radius) {
+        DensityGrid current = grid;
+        if (!enabled || current == null) {
+            return 0;
+        }
+
+        long estimate = current.estimate(lat, lon, radius);
+        if (estimate <= maxEstimatedResults) {
+            return 0;
+        }
+
+        if ("reject".equalsIgnoreCase(mode)) {
+            throw new QueryTooExpensiveException(estimate, maxEstimatedResults);
+        }
+
+        LOG.fine("Capping query of about " + estimate + " points of interest at " + maxEstimatedResults);
+        return maxEstimatedResults;
+    }
+
+    /**
+     * Counts a new poi in the grid.
+     */
+    public void added(GeoPoint location) {
+        DensityGrid current = grid;
+        if (current != null && location != null) {
+            current.add(location.getLatitude(), location.getLongitude());
+        }
+    }
+
+    /**
+     * Uncounts a removed poi in the grid.
+     */
+    public void removed(GeoPoint location) {
+        DensityGrid current = grid;
+        if (current != null && location != null) {
+            current.remove(location.getLatitude(), location.getLongitude());
+        }
+    }
+}
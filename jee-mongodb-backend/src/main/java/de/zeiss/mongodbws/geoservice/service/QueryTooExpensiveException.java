@@ -0,0 +1,31 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.service;
+
+/**
+ * Thrown if a radius query is estimated to match more poi's than allowed.
+ */
+public class QueryTooExpensiveException extends RuntimeException {
+
+    private final long estimatedResults;
+
+    private final long maxEstimatedResults;
+
+    public QueryTooExpensiveException(long estimatedResults, long maxEstimatedResults) {
+        super("The query would match about " + estimatedResults + " points of interest, at most "
+                + maxEstimatedResults + " are allowed. Please reduce the radius.");
+        this.estimatedResults = estimatedResults;
+        this.maxEstimatedResults = maxEstimatedResults;
+    }
+
+    public long getEstimatedResults() {
+        return estimatedResults;
+    }
+
+    public long getMaxEstimatedResults() {
+        return maxEstimatedResults;
+    }
+}
@@ -0,0 +1,26 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.service;
+
+import jakarta.enterprise.context.RequestScoped;
+
+/**
+ * Priority the client tagged the current request with. Requests tagged with low priority, e.g. by the test data
+ * import, are executed in the bulkhead of bulk work whatever endpoint they call.
+ */
+@RequestScoped
+public class RequestPriority {
+
+    private boolean low;
+
+    public boolean isLow() {
+        return low;
+    }
+
+    public void setLow(boolean low) {
+        this.low = low;
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls with the same key: the first caller executes the call, callers arriving while it is in
+ * flight wait for and share its result (or exception). Results are not cached beyond the call.
+ *
+ * @param <K> key identifying identical calls, must implement equals and hashCode
+ * @param <V> result type, shared between the callers and therefore not to be modified
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder executions = new LongAdder();
+
+    private final LongAdder sharedResults = new LongAdder();
+
+    /**
+     * Executes the call or joins an identical one in flight.
+     *
+     * @param key    key of the call
+     * @param call   the call to execute if there is none in flight for the key
+     * @return the result of the call
+     */
+    public V execute(K key, Supplier<V> call) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+
+        if (existing != null) {
+            sharedResults.increment();
+            return await(existing);
+        }
+
+        executions.increment();
+        try {
+            V result = call.get();
+            future.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * @return number of calls actually executed
+     */
+    public long getExecutions() {
+        return executions.sum();
+    }
+
+    /**
+     * @return number of calls answered with the result of an identical call in flight
+     */
+    public long getSharedResults() {
+        return sharedResults.sum();
+    }
+
+    private static <V> V await(CompletableFuture<V> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an identical query", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
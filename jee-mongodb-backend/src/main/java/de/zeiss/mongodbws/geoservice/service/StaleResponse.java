@@ -0,0 +1,41 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.service;
+
+import jakarta.enterprise.context.RequestScoped;
+
+/**
+ * Marks the response of the current request as stale, i.e. served from the {@link StaleWhileRevalidate} cache
+ * because the database is degraded.
+ */
+@RequestScoped
+public class StaleResponse {
+
+    private boolean stale;
+
+    private long ageSeconds;
+
+    public boolean isStale() {
+        return stale;
+    }
+
+    /**
+     * @return age of the oldest stale result of the response in seconds
+     */
+    public long getAgeSeconds() {
+        return ageSeconds;
+    }
+
+    /**
+     * Marks the response as stale.
+     *
+     * @param ageSeconds age of the stale result in seconds
+     */
+    public void markStale(long ageSeconds) {
+        this.ageSeconds = stale ? Math.max(this.ageSeconds, ageSeconds) : ageSeconds;
+        this.stale = true;
+    }
+}
@@ -0,0 +1,297 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.service;
+
+import com.mongodb.MongoException;
+import com.mongodb.MongoNodeIsRecoveringException;
+import com.mongodb.MongoNotPrimaryException;
+import com.mongodb.MongoSocketException;
+import com.mongodb.MongoTimeoutException;
+import de.zeiss.mongodbws.geoservice.persistence.ConcurrencyLimitExceededException;
+import de.zeiss.mongodbws.geoservice.persistence.QueryResult;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedExecutorService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.ContextNotActiveException;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps map browsing working through short database stalls. Reads are guarded by a {@link CircuitBreaker}, their
+ * last results are kept in a {@link StaleResultCache} bounded by the number of cached poi's and a time to live. Only
+ * small results are cached, large radius results are not worth their memory for a fallback. If a read fails because
+ * the database is down, slow or overloaded, or the breaker is open, the last known result of the read is served
+ * instead, marked as {@link StaleResponse stale}, and refreshed in the background once the breaker lets calls through
+ * again. Only failures to reach the database and reads slower than their time budget are counted by the breaker.
+ */
+@ApplicationScoped
+public class StaleWhileRevalidate {
+
+    private static final Logger LOG = Logger.getLogger(StaleWhileRevalidate.class.getName());
+
+    @Resource
+    ManagedExecutorService executorService;
+
+    @Inject
+    StaleResponse staleResponse;
+
+    @Inject
+    @ConfigProperty(name = "geoservice.stale-cache.enabled", defaultValue = "true")
+    boolean enabled;
+
+    /**
+     * Maximum number of poi's of all cached results.
+     */
+    @Inject
+    @ConfigProperty(name = "geoservice.stale-cache.max-weight", defaultValue = "50000")
+    long maxWeight;
+
+    /**
+     * Results with more poi's are not cached.
+     */
+    @Inject
+    @ConfigProperty(name = "geoservice.stale-cache.max-result-weight", defaultValue = "500")
+    int maxResultWeight;
+
+    @Inject
+    @ConfigProperty(name = "geoservice.stale-cache.ttl-ms", defaultValue = "600000")
+    long ttlMs;
+
+    @Inject
+    @ConfigProperty(name = "geoservice.circuit-breaker.failure-threshold", defaultValue = "5")
+    int failureThreshold;
+
+    @Inject
+    @ConfigProperty(name = "geoservice.circuit-breaker.open-duration-ms", defaultValue = "5000")
+    long openDurationMs;
+
+    /**
+     * Successful reads slower than this and than their own time budget count as failures of the circuit breaker.
+     */
+    @Inject
+    @ConfigProperty(name = "geoservice.circuit-breaker.slow-call-threshold-ms", defaultValue = "2000")
+    long slowCallThresholdMs;
+
+    private CircuitBreaker circuitBreaker;
+
+    private StaleResultCache cache;
+
+    private final Set<Object> refreshing = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder staleResponses = new LongAdder();
+
+    private final LongAdder refreshes = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        circuitBreaker = new CircuitBreaker(failureThreshold, openDurationMs);
+        cache = new StaleResultCache(maxWeight, ttlMs);
+    }
+
+    /**
+     * Normalizes a coordinate of the key of a read. The key is the exact query, as a result of a nearby location has
+     * other poi's and other distances.
+     *
+     * @param coordinate latitude or longitude
+     * @return the coordinate, with -0.0 replaced by 0.0
+     */
+    public static double normalizeCoordinate(double coordinate) {
+        // -0.0 and 0.0 are the same location, but not equal as boxed doubles
+        return coordinate + 0.0;
+    }
+
+    /**
+     * Executes the read guarded by the circuit breaker, falling back to its last known result.
+     *
+     * @param key  identifies the read, e.g. the id of a poi or a radius query
+     * @param read the read
+     * @return the result of the read or, if the database is degraded, its last known result
+     * @throws CircuitBreakerOpenException if the breaker is open and there is no last known result
+     */
+    public <T> T read(Object key, Supplier<T> read) {
+        return read(key, 0, read);
+    }
+
+    /**
+     * Executes the read guarded by the circuit breaker, falling back to its last known result.
+     *
+     * @param key      identifies the read, e.g. the id of a poi or a radius query
+     * @param budgetMs time budget of the read in milliseconds, it counts as slow only if it takes longer
+     * @param read     the read
+     * @return the result of the read or, if the database is degraded, its last known result
+     * @throws CircuitBreakerOpenException if the breaker is open and there is no last known result
+     */
+    public <T> T read(Object key, long budgetMs, Supplier<T> read) {
+        if (!enabled) {
+            return read.get();
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            return stale(key, budgetMs, read, null);
+        }
+
+        try {
+            return guarded(key, budgetMs, read);
+        } catch (RuntimeException e) {
+            if (!isDatabaseFailure(e)) {
+                throw e;
+            }
+            return stale(key, budgetMs, read, e);
+        }
+    }
+
+    /**
+     * Removes the last known result of a read, so a modified poi is not served stale.
+     *
+     * @param key identifies the read
+     */
+    public void invalidate(Object key) {
+        if (enabled) {
+            cache.invalidate(key);
+        }
+    }
+
+    /**
+     * Executes a read permitted by the circuit breaker and caches its result.
+     */
+    private <T> T guarded(Object key, long budgetMs, Supplier<T> read) {
+        long start = System.nanoTime();
+        T result;
+        try {
+            result = read.get();
+        } catch (RuntimeException e) {
+            if (isConnectionFailure(e)) {
+                circuitBreaker.onFailure();
+            } else if (isDatabaseFailure(e)) {
+                // shed by the concurrency limit or over the budget of the read, the database is reachable
+                circuitBreaker.onIgnored();
+            } else {
+                // e.g. invalid requests, the database did its job
+                circuitBreaker.onSuccess();
+            }
+            throw e;
+        }
+
+        if (System.nanoTime() - start > TimeUnit.MILLISECONDS.toNanos(Math.max(slowCallThresholdMs, budgetMs))) {
+            circuitBreaker.onFailure();
+        } else {
+            circuitBreaker.onSuccess();
+        }
+        if (result != null) {
+            int weight = weight(result);
+            if (weight <= maxResultWeight) {
+                cache.put(key, result, weight);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of poi's of the result, at least 1
+     */
+    private static int weight(Object result) {
+        if (result instanceof QueryResult<?> queryResult) {
+            return Math.max(queryResult.results().size(), 1);
+        }
+        if (result instanceof Collection<?> collection) {
+            return Math.max(collection.size(), 1);
+        }
+        return 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T stale(Object key, long budgetMs, Supplier<T> read, RuntimeException failure) {
+        StaleResultCache.CachedResult cached = cache.get(key);
+        if (cached == null) {
+            if (failure != null) {
+                throw failure;
+            }
+            throw new CircuitBreakerOpenException(TimeUnit.MILLISECONDS.toSeconds(openDurationMs));
+        }
+
+        staleResponses.increment();
+        try {
+            staleResponse.markStale(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - cached.storedAt()));
+        } catch (ContextNotActiveException e) {
+            // not within a request, e.g. on a thread of the executor
+        }
+        refresh(key, budgetMs, read);
+
+        return (T) cached.value();
+    }
+
+    /**
+     * Refreshes the cached result of the read in the background, if the circuit breaker lets the read through and it
+     * is not being refreshed already.
+     */
+    private void refresh(Object key, long budgetMs, Supplier<?> read) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+
+        try {
+            executorService.execute(() -> {
+                try {
+                    if (circuitBreaker.tryAcquire()) {
+                        refreshes.increment();
+                        guarded(key, budgetMs, read);
+                    }
+                } catch (RuntimeException e) {
+                    LOG.log(Level.FINE, "Refreshing a stale result failed", e);
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RuntimeException e) {
+            refreshing.remove(key);
+            LOG.log(Level.WARNING, "Could not schedule the refresh of a stale result", e);
+        }
+    }
+
+    /**
+     * @return true if the read failed because of the database, a stale result may be served then
+     */
+    private static boolean isDatabaseFailure(RuntimeException e) {
+        return e instanceof MongoException || e instanceof ConcurrencyLimitExceededException;
+    }
+
+    /**
+     * @return true if the driver could not reach the database, only these failures are counted by the circuit breaker
+     */
+    private static boolean isConnectionFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoSocketException || cause instanceof MongoTimeoutException
+                    || cause instanceof MongoNotPrimaryException || cause instanceof MongoNodeIsRecoveringException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the state of the circuit breaker, the number of cached results and their poi's, of stale responses and
+     * of background refreshes
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>(circuitBreaker.getStatistics());
+        statistics.put("cachedResults", cache.size());
+        statistics.put("cachedWeight", cache.weight());
+        statistics.put("staleResponses", staleResponses.sum());
+        statistics.put("refreshes", refreshes.sum());
+        return statistics;
+    }
+}
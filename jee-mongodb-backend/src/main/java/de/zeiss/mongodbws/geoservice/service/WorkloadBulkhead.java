@@ -0,0 +1,32 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.service;
+
+import de.zeiss.mongodbws.geoservice.persistence.Workload;
+import jakarta.enterprise.util.Nonbinding;
+import jakarta.interceptor.InterceptorBinding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Executes the annotated method within the bulkhead of its workload.
+ *
+ * @see BulkheadInterceptor
+ */
+@InterceptorBinding
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface WorkloadBulkhead {
+
+    /**
+     * @return the workload of the method
+     */
+    @Nonbinding
+    Workload value() default Workload.INTERACTIVE;
+}
@@ -28,6 +28,7 @@ public class PointOfInterestMapper {
         poi.setName(entity.getName());
         poi.setDetails(entity.getDetails());
         poi.setLocation(PointMapper.mapToModel(entity.getLocation()));
+        poi.setDistance(entity.getDistance());
 
         return poi;
     }
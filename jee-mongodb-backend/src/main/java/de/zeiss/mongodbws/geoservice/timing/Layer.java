@@ -0,0 +1,38 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.timing;
+
+/**
+ * Layers of the request processing reported in the Server-Timing header. The durations of the layers are inclusive,
+ * e.g. the controller time contains the time spent in the service and the database.
+ */
+public enum Layer {
+
+    CONTROLLER("ctrl", "Controller"),
+    SERVICE("svc", "GeoDataService"),
+    DATABASE("db", "MongoDB"),
+    SERIALIZATION("ser", "Serialization");
+
+    private final String metricName;
+
+    private final String description;
+
+    Layer(String metricName, String description) {
+        this.metricName = metricName;
+        this.description = description;
+    }
+
+    /**
+     * @return name of the metric in the Server-Timing header
+     */
+    public String getMetricName() {
+        return metricName;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
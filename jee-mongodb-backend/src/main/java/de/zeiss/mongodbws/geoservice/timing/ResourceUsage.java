@@ -0,0 +1,40 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.timing;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Reads the CPU time and the allocated bytes of the current thread from the {@link ThreadMXBean}, if the JVM
+ * supports it.
+ */
+final class ResourceUsage {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private ResourceUsage() {
+    }
+
+    /**
+     * @return CPU time of the current thread in nanoseconds, -1 if not supported
+     */
+    static long currentThreadCpuNanos() {
+        return THREADS.isCurrentThreadCpuTimeSupported() && THREADS.isThreadCpuTimeEnabled()
+                ? THREADS.getCurrentThreadCpuTime() : -1;
+    }
+
+    /**
+     * @return bytes allocated by the current thread so far, -1 if not supported
+     */
+    static long currentThreadAllocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+}
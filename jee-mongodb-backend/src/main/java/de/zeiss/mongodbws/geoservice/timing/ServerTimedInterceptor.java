@@ -0,0 +1,58 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.timing;
+
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ContextNotActiveException;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+/**
+ * Measures the calls of {@link ServerTimed} methods for the Server-Timing header of the current request. It runs
+ * before the other interceptors, so that waiting for bulkheads and concurrency permits counts to the layer. Calls
+ * outside of a request, e.g. on the threads of a batch search, are not measured.
+ */
+@Interceptor
+@ServerTimed
+@Priority(Interceptor.Priority.APPLICATION - 10)
+public class ServerTimedInterceptor {
+
+    @Inject
+    ServerTiming serverTiming;
+
+    @AroundInvoke
+    public Object time(InvocationContext context) throws Exception {
+        Layer layer = layerOf(context);
+        if (!enter(layer)) {
+            return context.proceed();
+        }
+
+        try {
+            return context.proceed();
+        } finally {
+            serverTiming.exit(layer);
+        }
+    }
+
+    private boolean enter(Layer layer) {
+        try {
+            return serverTiming.enter(layer);
+        } catch (ContextNotActiveException e) {
+            // not called within a request
+            return false;
+        }
+    }
+
+    private static Layer layerOf(InvocationContext context) {
+        ServerTimed annotation = context.getMethod().getAnnotation(ServerTimed.class);
+        if (annotation == null) {
+            annotation = context.getMethod().getDeclaringClass().getAnnotation(ServerTimed.class);
+        }
+        return annotation != null ? annotation.value() : Layer.SERVICE;
+    }
+}
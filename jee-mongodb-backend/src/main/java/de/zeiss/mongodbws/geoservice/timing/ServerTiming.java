@@ -0,0 +1,122 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.timing;
+
+import jakarta.enterprise.context.RequestScoped;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Collects the time the current request spends in the layers of the service for the Server-Timing header. Nested
+ * calls of a layer (e.g. a service method calling another one) are counted once, database commands add up.
+ * <p>
+ * Optionally the CPU time and the bytes allocated by the request thread are measured. They cover the request thread
+ * only, work done on other threads (e.g. the queries of a batch search) is not included.
+ */
+@RequestScoped
+public class ServerTiming {
+
+    private boolean started;
+
+    private long startNanos;
+
+    private long startCpuNanos = -1;
+
+    private long startAllocatedBytes = -1;
+
+    private long threadId;
+
+    private final long[] layerNanos = new long[Layer.values().length];
+
+    private final long[] enteredNanos = new long[Layer.values().length];
+
+    private final int[] depth = new int[Layer.values().length];
+
+    private final boolean[] passed = new boolean[Layer.values().length];
+
+    /**
+     * Starts measuring the request.
+     *
+     * @param resourceUsage if true the CPU time and the allocated bytes of the request thread are measured as well
+     */
+    public synchronized void start(boolean resourceUsage) {
+        started = true;
+        startNanos = System.nanoTime();
+        threadId = Thread.currentThread().threadId();
+        if (resourceUsage) {
+            startCpuNanos = ResourceUsage.currentThreadCpuNanos();
+            startAllocatedBytes = ResourceUsage.currentThreadAllocatedBytes();
+        }
+    }
+
+    public synchronized boolean isStarted() {
+        return started;
+    }
+
+    /**
+     * Enters a layer, the time until the matching {@link #exit(Layer)} counts to it.
+     *
+     * @param layer the layer
+     * @return false if the request is not measured, {@link #exit(Layer)} must not be called then
+     */
+    public synchronized boolean enter(Layer layer) {
+        if (!started) {
+            return false;
+        }
+        if (depth[layer.ordinal()]++ == 0) {
+            enteredNanos[layer.ordinal()] = System.nanoTime();
+        }
+        return true;
+    }
+
+    /**
+     * Leaves a layer entered before.
+     *
+     * @param layer the layer
+     */
+    public synchronized void exit(Layer layer) {
+        if (--depth[layer.ordinal()] == 0) {
+            add(layer, System.nanoTime() - enteredNanos[layer.ordinal()]);
+        }
+    }
+
+    /**
+     * Adds a measured duration to a layer, e.g. the execution time of a database command.
+     *
+     * @param layer the layer
+     * @param nanos the duration in nanoseconds
+     */
+    public synchronized void add(Layer layer, long nanos) {
+        if (started) {
+            layerNanos[layer.ordinal()] += nanos;
+            passed[layer.ordinal()] = true;
+        }
+    }
+
+    /**
+     * @return the timings of the request up to now, layers not left yet count until now
+     */
+    public synchronized RequestTimings finish() {
+        long now = System.nanoTime();
+        Map<Layer, Long> nanos = new EnumMap<>(Layer.class);
+        for (Layer layer : Layer.values()) {
+            if (depth[layer.ordinal()] > 0) {
+                nanos.put(layer, layerNanos[layer.ordinal()] + now - enteredNanos[layer.ordinal()]);
+            } else if (passed[layer.ordinal()]) {
+                nanos.put(layer, layerNanos[layer.ordinal()]);
+            }
+        }
+
+        // the resource usage of a thread can only be read on the thread itself
+        boolean sameThread = Thread.currentThread().threadId() == threadId;
+        long cpuNanos = startCpuNanos >= 0 && sameThread
+                ? ResourceUsage.currentThreadCpuNanos() - startCpuNanos : -1;
+        long allocatedBytes = startAllocatedBytes >= 0 && sameThread
+                ? ResourceUsage.currentThreadAllocatedBytes() - startAllocatedBytes : -1;
+        return new RequestTimings(now - startNanos, nanos, cpuNanos, allocatedBytes);
+    }
+}
@@ -0,0 +1,44 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.timing;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandSucceededEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.ContextNotActiveException;
+import jakarta.inject.Inject;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adds the execution time of the MongoDB commands to the database layer of the current request. The synchronous
+ * driver notifies the listener on the thread executing the command, commands outside of a request are ignored.
+ */
+@ApplicationScoped
+public class ServerTimingCommandListener implements CommandListener {
+
+    @Inject
+    ServerTiming serverTiming;
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        add(event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        add(event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    private void add(long nanos) {
+        try {
+            serverTiming.add(Layer.DATABASE, nanos);
+        } catch (ContextNotActiveException e) {
+            // not called within a request
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.tracing;
+
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sanitises MongoDB commands for traces. The shape keeps the command name, the collection and the field names and
+ * operators, all values are replaced by "?", so that neither coordinates nor other data of the requests end up in
+ * the tracing backend. Arrays of values collapse to a single "?", arrays of documents keep one entry per distinct
+ * shape, so that pipelines show all their stages while inserted documents show up once.
+ */
+public final class QueryShape {
+
+    /**
+     * Maximum length of a shape, longer ones are truncated.
+     */
+    static final int MAX_LENGTH = 2048;
+
+    private static final BsonString PLACEHOLDER = new BsonString("?");
+
+    /**
+     * Fields added by the driver, which are no part of the query.
+     */
+    private static final Set<String> DRIVER_FIELDS = Set.of("lsid", "$db", "$clusterTime", "$readPreference",
+            "txnNumber", "autocommit", "startTransaction", "readConcern", "writeConcern", "apiVersion", "apiStrict",
+            "apiDeprecationErrors");
+
+    private QueryShape() {
+    }
+
+    /**
+     * @param command the command sent to MongoDB
+     * @return the JSON of the sanitised command
+     */
+    public static String of(BsonDocument command) {
+        BsonDocument shape = new BsonDocument();
+        boolean first = true;
+        for (Map.Entry<String, BsonValue> entry : withoutDriverFields(command).entrySet()) {
+            // the value of the command name is the collection
+            shape.put(entry.getKey(), first && entry.getValue().isString() ? entry.getValue() : sanitise(entry.getValue()));
+            first = false;
+        }
+        return truncate(shape.toJson());
+    }
+
+    /**
+     * @param command the command sent to MongoDB
+     * @return the command without the fields added by the driver, e.g. the session
+     */
+    public static BsonDocument withoutDriverFields(BsonDocument command) {
+        BsonDocument query = new BsonDocument();
+        command.forEach((key, value) -> {
+            if (!DRIVER_FIELDS.contains(key)) {
+                query.put(key, value);
+            }
+        });
+        return query;
+    }
+
+    /**
+     * @param json a JSON document
+     * @return the document, truncated to {@link #MAX_LENGTH} characters
+     */
+    public static String truncate(String json) {
+        return json.length() > MAX_LENGTH ? json.substring(0, MAX_LENGTH - 3) + "..." : json;
+    }
+
+    private static BsonValue sanitise(BsonValue value) {
+        if (value.isDocument()) {
+            BsonDocument document = new BsonDocument();
+            value.asDocument().forEach((key, nested) -> document.put(key, sanitise(nested)));
+            return document;
+        }
+        if (value.isArray()) {
+            BsonArray array = new BsonArray();
+            for (BsonValue element : value.asArray()) {
+                BsonValue shape = sanitise(element);
+                if (!array.contains(shape)) {
+                    array.add(shape);
+                }
+            }
+            return array;
+        }
+        return PLACEHOLDER;
+    }
+}
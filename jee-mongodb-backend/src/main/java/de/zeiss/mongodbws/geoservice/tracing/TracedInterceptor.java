@@ -0,0 +1,54 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Scope;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+import java.lang.reflect.Method;
+
+/**
+ * Records a span named after the class and method for the calls of {@link Traced} methods. It runs before the other
+ * interceptors, so that waiting for bulkheads and concurrency permits is part of the span. The span is the current
+ * one while the method executes, the spans of nested calls and MongoDB commands become its children.
+ */
+@Interceptor
+@Traced
+@Priority(Interceptor.Priority.APPLICATION - 20)
+public class TracedInterceptor {
+
+    @Inject
+    Tracing tracing;
+
+    @AroundInvoke
+    public Object trace(InvocationContext context) throws Exception {
+        if (!tracing.isEnabled()) {
+            return context.proceed();
+        }
+
+        Method method = context.getMethod();
+        String className = method.getDeclaringClass().getSimpleName();
+        Span span = tracing.getTracer().spanBuilder(className + "." + method.getName())
+                .setAttribute("code.namespace", method.getDeclaringClass().getName())
+                .setAttribute("code.function", method.getName())
+                .startSpan();
+        try (Scope ignored = span.makeCurrent()) {
+            return context.proceed();
+        } catch (Exception e) {
+            span.recordException(e);
+            span.setStatus(StatusCode.ERROR);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.tracing;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import io.opentelemetry.exporter.otlp.http.trace.OtlpHttpSpanExporter;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Holds the OpenTelemetry tracer of the service. If tracing is enabled, the spans of the REST, service, persistence
+ * and MongoDB layers are exported via OTLP over HTTP to the configured endpoint, otherwise a no-op tracer is used.
+ * The trace context of incoming requests is read from the W3C traceparent header.
+ */
+@ApplicationScoped
+public class Tracing {
+
+    private static final Logger LOG = Logger.getLogger(Tracing.class.getName());
+
+    static final String INSTRUMENTATION_NAME = "de.zeiss.mongodbws.geoservice";
+
+    /**
+     * If true spans are recorded and exported.
+     */
+    @Inject
+    @ConfigProperty(name = "geoservice.tracing.enabled", defaultValue = "false")
+    boolean enabled;
+
+    /**
+     * OTLP/HTTP endpoint receiving the spans, e.g. of an OpenTelemetry collector or Jaeger.
+     */
+    @Inject
+    @ConfigProperty(name = "geoservice.tracing.otlp-endpoint", defaultValue = "http://localhost:4318/v1/traces")
+    String otlpEndpoint = "http://localhost:4318/v1/traces";
+
+    @Inject
+    @ConfigProperty(name = "geoservice.tracing.service-name", defaultValue = "zdi-geo-service")
+    String serviceName = "zdi-geo-service";
+
+    /**
+     * Ratio of the traces started by this service which are sampled, traces of callers follow their decision.
+     */
+    @Inject
+    @ConfigProperty(name = "geoservice.tracing.sample-ratio", defaultValue = "1.0")
+    double sampleRatio = 1.0;
+
+    private SdkTracerProvider tracerProvider;
+
+    private Tracer tracer = OpenTelemetry.noop().getTracer(INSTRUMENTATION_NAME);
+
+    @PostConstruct
+    public void init() {
+        if (enabled) {
+            LOG.info("Exporting traces of " + serviceName + " to " + otlpEndpoint);
+            start(BatchSpanProcessor.builder(OtlpHttpSpanExporter.builder()
+                    .setEndpoint(otlpEndpoint)
+                    .build()).build());
+        }
+    }
+
+    /**
+     * Starts recording spans.
+     *
+     * @param spanProcessor the processor receiving the finished spans, e.g. a batching exporter
+     */
+    public synchronized void start(SpanProcessor spanProcessor) {
+        close();
+        tracerProvider = SdkTracerProvider.builder()
+                .setResource(Resource.getDefault().toBuilder()
+                        .put(AttributeKey.stringKey("service.name"), serviceName)
+                        .build())
+                .setSampler(Sampler.parentBased(Sampler.traceIdRatioBased(sampleRatio)))
+                .addSpanProcessor(spanProcessor)
+                .build();
+        tracer = tracerProvider.get(INSTRUMENTATION_NAME);
+        enabled = true;
+    }
+
+    /**
+     * @return true if spans are recorded
+     */
+    public boolean isEnabled() {
+        return enabled && tracerProvider != null;
+    }
+
+    /**
+     * @return the tracer, a no-op tracer if tracing is disabled
+     */
+    public Tracer getTracer() {
+        return tracer;
+    }
+
+    /**
+     * @return the propagator of the trace context in HTTP headers
+     */
+    public TextMapPropagator getPropagator() {
+        return W3CTraceContextPropagator.getInstance();
+    }
+
+    /**
+     * Exports the pending spans and stops recording.
+     */
+    @PreDestroy
+    public synchronized void close() {
+        if (tracerProvider != null) {
+            tracerProvider.shutdown().join(10, TimeUnit.SECONDS);
+            tracerProvider = null;
+            tracer = OpenTelemetry.noop().getTracer(INSTRUMENTATION_NAME);
+        }
+    }
+}
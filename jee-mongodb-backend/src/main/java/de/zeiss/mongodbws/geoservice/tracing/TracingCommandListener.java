@@ -0,0 +1,116 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.tracing;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records a client span per MongoDB command. The synchronous driver notifies the listener on the thread executing
+ * the command, so the spans become children of the current service or persistence span. They carry the sanitised
+ * {@link QueryShape shape} of the command and the number of documents returned or written.
+ */
+@ApplicationScoped
+public class TracingCommandListener implements CommandListener {
+
+    @Inject
+    Tracing tracing;
+
+    /**
+     * Spans of the running commands by request id.
+     */
+    final Map<Integer, Span> spans = new ConcurrentHashMap<>();
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        if (!tracing.isEnabled()) {
+            return;
+        }
+
+        BsonDocument command = event.getCommand();
+        String collection = collectionOf(event.getCommandName(), command);
+        Span span = tracing.getTracer()
+                .spanBuilder(collection != null ? event.getCommandName() + " " + collection : event.getCommandName())
+                .setSpanKind(SpanKind.CLIENT)
+                .setAttribute("db.system", "mongodb")
+                .setAttribute("db.namespace", event.getDatabaseName())
+                .setAttribute("db.operation.name", event.getCommandName())
+                .setAttribute("db.query.text", QueryShape.of(command))
+                .setAttribute("server.address", event.getConnectionDescription().getServerAddress().getHost())
+                .setAttribute("server.port", event.getConnectionDescription().getServerAddress().getPort())
+                .startSpan();
+        if (collection != null) {
+            span.setAttribute("db.collection.name", collection);
+        }
+        spans.put(event.getRequestId(), span);
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        Span span = spans.remove(event.getRequestId());
+        if (span != null) {
+            long count = resultCount(event.getResponse());
+            if (count >= 0) {
+                span.setAttribute("db.response.returned_rows", count);
+            }
+            span.end();
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        Span span = spans.remove(event.getRequestId());
+        if (span != null) {
+            span.recordException(event.getThrowable());
+            span.setStatus(StatusCode.ERROR, event.getThrowable().getMessage());
+            span.end();
+        }
+    }
+
+    private static String collectionOf(String commandName, BsonDocument command) {
+        BsonValue value = command.get("getMore".equals(commandName) ? "collection" : commandName);
+        return value != null && value.isString() ? value.asString().getValue() : null;
+    }
+
+    /**
+     * @param response the reply of MongoDB
+     * @return the number of documents of the cursor batch, the number of documents written or -1 if unknown
+     */
+    static long resultCount(BsonDocument response) {
+        if (response == null) {
+            return -1;
+        }
+        BsonDocument cursor = response.getDocument("cursor", null);
+        if (cursor != null) {
+            if (cursor.isArray("firstBatch")) {
+                return cursor.getArray("firstBatch").size();
+            }
+            if (cursor.isArray("nextBatch")) {
+                return cursor.getArray("nextBatch").size();
+            }
+        }
+        if (response.isNumber("n")) {
+            return response.getNumber("n").longValue();
+        }
+        if (response.containsKey("value")) {
+            // findAndModify
+            return response.isNull("value") ? 0 : 1;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.jfr;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link FlightRecording}
+ */
+public class FlightRecordingTest {
+
+    private final FlightRecording flightRecording = new FlightRecording();
+
+    @AfterEach
+    public void tearDown() {
+        flightRecording.close();
+    }
+
+    @Test
+    public void testGetStatus_NoRecording_ShouldReturnNone() throws Exception {
+        assertEquals(Map.of("state", "NONE"), flightRecording.getStatus());
+        assertNull(flightRecording.dump());
+    }
+
+    @Test
+    public void testStartStopDump_ShouldWriteRecording() throws Exception {
+        assertEquals("RUNNING", flightRecording.start(null).get("state"));
+        // starting again keeps the running recording
+        assertEquals("RUNNING", flightRecording.start("profile").get("state"));
+
+        new PoiLookupEvent(1, "all").record(() -> "poi", poi -> {
+        });
+
+        assertEquals("STOPPED", flightRecording.stop().get("state"));
+        Path file = flightRecording.dump();
+        try {
+            assertTrue(Files.size(file) > 0);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testStart_UnknownConfiguration_ShouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> flightRecording.start("no-such-configuration"));
+        assertEquals("NONE", flightRecording.getStatus().get("state"));
+    }
+}
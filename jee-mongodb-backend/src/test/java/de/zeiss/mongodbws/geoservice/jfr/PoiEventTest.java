@@ -0,0 +1,71 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link PoiEvent}
+ */
+public class PoiEventTest {
+
+    @Test
+    public void testRecord_ShouldCommitEventWithResult() throws Exception {
+        List<RecordedEvent> events = recordEvents(() -> {
+            PoiRadiusQueryEvent event = new PoiRadiusQueryEvent("radius", 51.05, 13.74, 1000, 500, null, "all");
+            assertEquals(List.of("a", "b"), event.record(() -> List.of("a", "b"),
+                    pois -> event.setResult(pois.size(), false)));
+        });
+
+        assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals("de.zeiss.geoservice.PoiRadiusQuery", event.getEventType().getName());
+        assertEquals("radius", event.getString("queryType"));
+        assertEquals(51.05, event.getDouble("latitude"));
+        assertEquals(1000, event.getInt("radius"));
+        assertEquals(2, event.getInt("resultCount"));
+        assertNull(event.getString("error"));
+    }
+
+    @Test
+    public void testRecord_FailingOperation_ShouldCommitEventWithError() throws Exception {
+        List<RecordedEvent> events = recordEvents(() -> {
+            PoiWriteEvent event = new PoiWriteEvent("delete", "42");
+            assertThrows(IllegalStateException.class, () -> event.record(() -> {
+                throw new IllegalStateException("failed");
+            }, result -> event.setApplied(true)));
+        });
+
+        assertEquals(1, events.size());
+        assertEquals("42", events.get(0).getString("id"));
+        assertFalse(events.get(0).getBoolean("applied"));
+        assertEquals(IllegalStateException.class.getName(), events.get(0).getString("error"));
+    }
+
+    private static List<RecordedEvent> recordEvents(Runnable emitter) throws Exception {
+        Path file = Files.createTempFile("poi-events", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(PoiRadiusQueryEvent.class);
+            recording.enable(PoiWriteEvent.class);
+            recording.start();
+            emitter.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.persistence;
+
+import de.zeiss.mongodbws.geoservice.persistence.entity.PointOfInterestEntity;
+import jakarta.interceptor.InvocationContext;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link ConcurrencyLimitInterceptor}
+ */
+@ExtendWith(MockitoExtension.class)
+public class ConcurrencyLimitInterceptorTest {
+
+    @Mock
+    private ConcurrencyLimiter limiter;
+
+    @Mock
+    private InvocationContext context;
+
+    @InjectMocks
+    private ConcurrencyLimitInterceptor interceptor;
+
+    private static Method method(String name, Class<?>... parameterTypes) throws NoSuchMethodException {
+        return PersistenceService.class.getMethod(name, parameterTypes);
+    }
+
+    @Test
+    public void testLimit_PermitGranted_ShouldProceedAndRelease() throws Exception {
+        when(context.getMethod()).thenReturn(method("getPointOfInterest", ObjectId.class, boolean.class));
+        when(limiter.tryAcquire(Workload.INTERACTIVE)).thenReturn(true);
+        when(context.proceed()).thenReturn("result");
+
+        assertEquals("result", interceptor.limit(context));
+        verify(limiter).release(eq(Workload.INTERACTIVE), anyLong());
+    }
+
+    @Test
+    public void testLimit_WriteMethod_ShouldUseLimitOfWrites() throws Exception {
+        when(context.getMethod()).thenReturn(method("createPointOfInterest", PointOfInterestEntity.class));
+        when(limiter.tryAcquire(Workload.WRITE)).thenReturn(true);
+
+        interceptor.limit(context);
+
+        verify(limiter).release(eq(Workload.WRITE), anyLong());
+        verify(limiter, never()).tryAcquire(Workload.INTERACTIVE);
+    }
+
+    @Test
+    public void testLimit_CallFails_ShouldRelease() throws Exception {
+        when(context.getMethod()).thenReturn(method("countPOIsPerCell", double.class));
+        when(limiter.tryAcquire(Workload.BULK)).thenReturn(true);
+        when(context.proceed()).thenThrow(new IllegalStateException("boom"));
+
+        assertThrows(IllegalStateException.class, () -> interceptor.limit(context));
+        verify(limiter).release(eq(Workload.BULK), anyLong());
+    }
+
+    @Test
+    public void testLimit_LimitReached_ShouldShedWithoutProceeding() throws Exception {
+        when(context.getMethod()).thenReturn(method("getPointOfInterest", ObjectId.class, boolean.class));
+        when(limiter.tryAcquire(Workload.INTERACTIVE)).thenReturn(false);
+        when(limiter.getRetryAfterSeconds()).thenReturn(3L);
+
+        ConcurrencyLimitExceededException exception = assertThrows(ConcurrencyLimitExceededException.class,
+                () -> interceptor.limit(context));
+
+        assertEquals(3L, exception.getRetryAfterSeconds());
+        verify(context, never()).proceed();
+        verify(limiter, never()).release(any(), anyLong());
+    }
+}
@@ -0,0 +1,150 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.persistence;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ConcurrencyLimiter}
+ */
+public class ConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(2000);
+
+    private ConcurrencyLimiter limiter;
+
+    @BeforeEach
+    public void setUp() {
+        limiter = new ConcurrencyLimiter();
+        limiter.enabled = true;
+        limiter.initialLimit = 4;
+        limiter.minLimit = 2;
+        limiter.maxLimit = 5;
+        limiter.latencyThresholdMs = 1000;
+        limiter.backoffRatio = 0.5;
+        limiter.retryAfterSeconds = 1;
+        limiter.init();
+    }
+
+    @Test
+    public void testTryAcquire_LimitReached_ShouldShed() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire(Workload.INTERACTIVE));
+        }
+
+        assertFalse(limiter.tryAcquire(Workload.INTERACTIVE));
+        assertEquals(1L, limiter.getStatistics().get("interactive").get("rejected"));
+        assertEquals(4L, limiter.getStatistics().get("interactive").get("inFlight"));
+
+        limiter.release(Workload.INTERACTIVE, FAST);
+        assertTrue(limiter.tryAcquire(Workload.INTERACTIVE));
+    }
+
+    @Test
+    public void testRelease_SlowCalls_ShouldDecreaseLimitOncePerInterval() {
+        // Given
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire(Workload.INTERACTIVE);
+        }
+
+        // When: all calls in flight are slow
+        for (int i = 0; i < 4; i++) {
+            limiter.release(Workload.INTERACTIVE, SLOW);
+        }
+
+        // Then
+        assertEquals(2, limiter.getLimit(Workload.INTERACTIVE));
+    }
+
+    @Test
+    public void testRelease_SlowCalls_ShouldNotDecreaseBelowMinimum() {
+        limiter.initialLimit = 3;
+        limiter.latencyThresholdMs = 0;
+        limiter.init();
+
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire(Workload.INTERACTIVE);
+            limiter.release(Workload.INTERACTIVE, SLOW);
+        }
+
+        assertEquals(2, limiter.getLimit(Workload.INTERACTIVE));
+    }
+
+    @Test
+    public void testRelease_FastCallsUnderLoad_ShouldIncreaseLimitUpToMaximum() {
+        // Given: the limit fully used
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire(Workload.INTERACTIVE);
+        }
+
+        // When: one limit of fast calls grows the limit by one
+        for (int i = 0; i < 4; i++) {
+            limiter.release(Workload.INTERACTIVE, FAST);
+            limiter.tryAcquire(Workload.INTERACTIVE);
+        }
+
+        // Then
+        assertEquals(4, limiter.getLimit(Workload.INTERACTIVE), "4 + 4 * 1/4 is slightly below 5 due to the growing divisor");
+        for (int i = 0; i < 100; i++) {
+            limiter.release(Workload.INTERACTIVE, FAST);
+            limiter.tryAcquire(Workload.INTERACTIVE);
+        }
+        assertEquals(5, limiter.getLimit(Workload.INTERACTIVE));
+    }
+
+    @Test
+    public void testRelease_FastCallsWithoutLoad_ShouldNotIncreaseLimit() {
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire(Workload.INTERACTIVE);
+            limiter.release(Workload.INTERACTIVE, FAST);
+        }
+
+        assertEquals(4, limiter.getLimit(Workload.INTERACTIVE));
+    }
+
+    @Test
+    public void testTryAcquire_Disabled_ShouldNeverShed() {
+        limiter.enabled = false;
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire(Workload.INTERACTIVE));
+        }
+        limiter.release(Workload.INTERACTIVE, SLOW);
+
+        assertEquals(4, limiter.getLimit(Workload.INTERACTIVE));
+        assertEquals(9L, limiter.getStatistics().get("interactive").get("inFlight"));
+    }
+
+    @Test
+    public void testRelease_SlowCallsOfOneWorkload_ShouldNotShedOtherWorkloads() {
+        // Given: slow bulk calls shrink the bulk limit
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire(Workload.BULK);
+        }
+        for (int i = 0; i < 4; i++) {
+            limiter.release(Workload.BULK, SLOW);
+        }
+        for (int i = 0; i < 2; i++) {
+            assertTrue(limiter.tryAcquire(Workload.BULK));
+        }
+
+        // Then
+        assertFalse(limiter.tryAcquire(Workload.BULK));
+        assertEquals(2, limiter.getLimit(Workload.BULK));
+        assertEquals(4, limiter.getLimit(Workload.INTERACTIVE));
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire(Workload.INTERACTIVE));
+        }
+        assertEquals(0L, limiter.getStatistics().get("interactive").get("rejected"));
+    }
+}
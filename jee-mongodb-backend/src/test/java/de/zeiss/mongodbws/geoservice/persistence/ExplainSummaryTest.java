@@ -0,0 +1,77 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.persistence;
+
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ExplainSummary}
+ */
+public class ExplainSummaryTest {
+
+    @Test
+    public void testOf_Find_ShouldSummarizeWinningPlanAndStats() {
+        BsonDocument explain = BsonDocument.parse("{queryPlanner: {namespace: 'demo-campus.poi', winningPlan: "
+                + "{stage: 'LIMIT', limitAmount: 10, inputStage: {stage: 'FETCH', inputStage: {stage: 'IXSCAN', "
+                + "keyPattern: {category: 1}, indexName: 'category_1'}}}, rejectedPlans: []}, "
+                + "executionStats: {nReturned: 10, executionTimeMillis: 3, totalKeysExamined: 10, "
+                + "totalDocsExamined: 10}, ok: 1}");
+
+        ExplainSummary summary = ExplainSummary.of(explain);
+
+        assertEquals(10, summary.keysExamined());
+        assertEquals(10, summary.docsExamined());
+        assertEquals(10, summary.nReturned());
+        assertEquals(3, summary.executionTime());
+        assertEquals("LIMIT > FETCH > IXSCAN(category_1)", summary.planSummary());
+        assertTrue(summary.winningPlan().contains("\"keyPattern\""));
+    }
+
+    @Test
+    public void testOf_CollectionScan_ShouldShowDocsExamined() {
+        BsonDocument explain = BsonDocument.parse("{queryPlanner: {winningPlan: {queryPlan: {stage: 'COLLSCAN', "
+                + "filter: {name: {$eq: 'x'}}}, slotBasedPlan: {}}}, executionStats: {nReturned: 1, "
+                + "totalKeysExamined: 0, totalDocsExamined: 50000}}");
+
+        ExplainSummary summary = ExplainSummary.of(explain);
+
+        assertEquals("COLLSCAN", summary.planSummary());
+        assertEquals(0, summary.keysExamined());
+        assertEquals(50000, summary.docsExamined());
+    }
+
+    @Test
+    public void testOf_GeoNearAggregation_ShouldUsePlannerOfFirstStage() {
+        BsonDocument explain = BsonDocument.parse("{stages: [{$geoNearCursor: {queryPlanner: {winningPlan: "
+                + "{stage: 'GEO_NEAR_2DSPHERE', keyPattern: {location: '2dsphere'}, indexName: 'location_2dsphere'}}, "
+                + "executionStats: {nReturned: 4, totalKeysExamined: 120, totalDocsExamined: 30}}}, "
+                + "{$limit: 4}], ok: 1}");
+
+        ExplainSummary summary = ExplainSummary.of(explain);
+
+        assertEquals("GEO_NEAR_2DSPHERE(location_2dsphere)", summary.planSummary());
+        assertEquals(120, summary.keysExamined());
+        assertEquals(4, summary.nReturned());
+    }
+
+    @Test
+    public void testOf_MultipleInputStages_ShouldListAll() {
+        BsonDocument explain = BsonDocument.parse("{queryPlanner: {winningPlan: {stage: 'FETCH', inputStage: "
+                + "{stage: 'OR', inputStages: [{stage: 'IXSCAN', indexName: 'a_1'}, {stage: 'IXSCAN', "
+                + "indexName: 'b_1'}]}}}}");
+
+        assertEquals("FETCH > OR[IXSCAN(a_1), IXSCAN(b_1)]", ExplainSummary.of(explain).planSummary());
+        assertEquals(-1, ExplainSummary.of(explain).keysExamined());
+    }
+
+    @Test
+    public void testOf_NoPlanner_ShouldReturnUnknown() {
+        assertEquals("UNKNOWN", ExplainSummary.of(BsonDocument.parse("{ok: 1}")).planSummary());
+    }
+}
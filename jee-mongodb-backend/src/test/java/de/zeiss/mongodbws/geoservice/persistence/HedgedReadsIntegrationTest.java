@@ -0,0 +1,105 @@
+package de.zeiss.mongodbws.geoservice.persistence;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.model.Indexes;
+import de.zeiss.mongodbws.geoservice.config.TestConfig;
+import de.zeiss.mongodbws.geoservice.integration.DockerAvailable;
+import de.zeiss.mongodbws.geoservice.persistence.entity.GeoPoint;
+import de.zeiss.mongodbws.geoservice.persistence.entity.PointOfInterestEntity;
+import dev.morphia.Datastore;
+import dev.morphia.Morphia;
+import org.junit.jupiter.api.*;
+import org.testcontainers.mongodb.MongoDBContainer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Hedged reads against the replica set started by Testcontainers. It has a single member, so the hedges (read
+ * preference secondaryPreferred) are answered by the primary as well.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DockerAvailable
+class HedgedReadsIntegrationTest {
+    static MongoDBContainer mongoDBContainer;
+    MongoClient mongoClient;
+    PersistenceService persistenceService;
+    HedgedReads hedgedReads;
+
+    @BeforeAll
+    void startMongo() {
+        mongoDBContainer = new MongoDBContainer(TestConfig.MONGODB_IMAGE);
+        mongoDBContainer.start();
+    }
+
+    @AfterAll
+    void stopMongo() {
+        mongoDBContainer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        mongoClient = MongoClients.create(mongoDBContainer.getReplicaSetUrl());
+        Datastore datastore = Morphia.createDatastore(mongoClient, "test-db");
+        datastore.getDatabase()
+                .getCollection("point-of-interest")
+                .createIndex(Indexes.geo2dsphere("location"));
+
+        MongoDBClientProvider mongoDBClientProvider = new MongoDBClientProvider();
+        mongoDBClientProvider.mongoClient = mongoClient;
+        mongoDBClientProvider.datastore = datastore;
+
+        hedgedReads = new HedgedReads();
+        hedgedReads.executorService = Executors.newCachedThreadPool();
+        hedgedReads.enabled = true;
+        // hedges about half of the reads
+        hedgedReads.percentile = 50;
+        hedgedReads.minDelayMs = 0;
+        hedgedReads.readPreferenceName = "secondaryPreferred";
+        hedgedReads.init();
+
+        persistenceService = new PersistenceService();
+        persistenceService.mongoDBClientProvider = mongoDBClientProvider;
+        persistenceService.hedgedReads = hedgedReads;
+    }
+
+    @AfterEach
+    void tearDown() {
+        hedgedReads.executorService.shutdownNow();
+        mongoClient.close();
+    }
+
+    @Test
+    void testHedgedReads() {
+        PointOfInterestEntity entity = new PointOfInterestEntity();
+        entity.setCategory("hedged");
+        entity.setDetails("details");
+        entity.setLocation(new GeoPoint(52.0, 14.0));
+        persistenceService.createPointOfInterest(entity);
+
+        for (int i = 0; i < 3 * HedgedReads.MIN_SAMPLES; i++) {
+            PointOfInterestEntity found = persistenceService.getPointOfInterest(entity.getId(), false);
+            assertEquals(entity.getId(), found.getId());
+            assertNull(found.getDetails());
+
+            List<PointOfInterestEntity> results = persistenceService.listPOIs(52.0, 14.0, 100, true, false, 0)
+                    .results();
+            assertEquals(1, results.size());
+            assertEquals("details", results.getFirst().getDetails());
+        }
+
+        for (String kind : List.of("get", "radius")) {
+            Map<String, Number> statistics = hedgedReads.getStatistics().get(kind);
+            assertEquals(3L * HedgedReads.MIN_SAMPLES, statistics.get("reads"));
+            assertTrue(statistics.get("hedged").longValue() > 0);
+            assertTrue(statistics.get("hedgeWins").longValue() <= statistics.get("hedged").longValue());
+            assertTrue(statistics.get("p99Ms").doubleValue() >= statistics.get("p50Ms").doubleValue());
+        }
+
+        persistenceService.deletePointOfInterest(entity.getId());
+    }
+}
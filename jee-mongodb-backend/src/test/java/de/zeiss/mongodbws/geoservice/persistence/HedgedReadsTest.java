@@ -0,0 +1,189 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.persistence;
+
+import com.mongodb.ReadPreference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link HedgedReads}
+ */
+public class HedgedReadsTest {
+
+    private HedgedReads hedgedReads;
+
+    @BeforeEach
+    public void setUp() {
+        hedgedReads = new HedgedReads();
+        hedgedReads.executorService = Executors.newCachedThreadPool();
+        hedgedReads.enabled = true;
+        hedgedReads.percentile = 95;
+        hedgedReads.minDelayMs = 10;
+        hedgedReads.readPreferenceName = "secondaryPreferred";
+        hedgedReads.init();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        hedgedReads.executorService.shutdownNow();
+    }
+
+    @Test
+    public void testRead_Disabled_ShouldReadWithReadPreferenceOfClient() {
+        hedgedReads.enabled = false;
+        List<ReadPreference> readPreferences = new ArrayList<>();
+
+        String result = hedgedReads.read("get", readPreference -> {
+            readPreferences.add(readPreference);
+            return "primary";
+        });
+
+        assertEquals("primary", result);
+        assertEquals(1, readPreferences.size());
+        assertNull(readPreferences.getFirst());
+        assertTrue(hedgedReads.getStatistics().isEmpty());
+    }
+
+    @Test
+    public void testRead_TooFewSamples_ShouldNotHedge() {
+        AtomicInteger reads = new AtomicInteger();
+
+        for (int i = 0; i < HedgedReads.MIN_SAMPLES - 1; i++) {
+            hedgedReads.read("get", readPreference -> reads.incrementAndGet());
+        }
+
+        assertEquals(HedgedReads.MIN_SAMPLES - 1, reads.get());
+        assertEquals(0L, hedgedReads.getStatistics().get("get").get("hedged"));
+    }
+
+    @Test
+    public void testRead_SlowPrimary_ShouldTakeAnswerOfHedge() {
+        warmUp("get");
+
+        String result = hedgedReads.read("get", readPreference -> {
+            if (readPreference == null) {
+                sleep(5000);
+                return "primary";
+            }
+            return "hedge";
+        });
+
+        assertEquals("hedge", result);
+        Map<String, Number> statistics = hedgedReads.getStatistics().get("get");
+        assertEquals(1L, statistics.get("hedged"));
+        assertEquals(1L, statistics.get("hedgeWins"));
+        assertEquals(10.0, statistics.get("delayMs"));
+    }
+
+    @Test
+    public void testRead_PrimaryFailsBeforeDelay_ShouldThrow() {
+        hedgedReads.minDelayMs = 5000;
+        warmUp("get");
+
+        assertThrows(IllegalArgumentException.class, () -> hedgedReads.read("get", readPreference -> {
+            throw new IllegalArgumentException("primary failed");
+        }));
+        assertEquals(0L, hedgedReads.getStatistics().get("get").get("hedged"));
+    }
+
+    @Test
+    public void testRead_SlowPrimaryFails_ShouldTakeAnswerOfHedge() {
+        warmUp("get");
+
+        String result = hedgedReads.read("get", readPreference -> {
+            if (readPreference == null) {
+                sleep(50);
+                throw new IllegalStateException("primary failed");
+            }
+            sleep(100);
+            return "hedge";
+        });
+
+        assertEquals("hedge", result);
+    }
+
+    @Test
+    public void testRead_AllAttemptsFail_ShouldThrow() {
+        warmUp("get");
+
+        assertThrows(IllegalStateException.class, () -> hedgedReads.read("get", readPreference -> {
+            sleep(50);
+            throw new IllegalStateException("failed");
+        }));
+        assertEquals(1L, hedgedReads.getStatistics().get("get").get("hedged"));
+    }
+
+    /**
+     * Every 20th read of the primary takes 200 ms instead of 1 ms. Hedging cuts the p99 latency of these reads to
+     * about the hedging delay, at the cost of a few additional reads.
+     */
+    @Test
+    public void testRead_TailLatency_ShouldBeCutByHedging() {
+        hedgedReads.percentile = 90;
+        AtomicInteger primaryReads = new AtomicInteger();
+        Function<ReadPreference, String> read = readPreference -> {
+            if (readPreference == null && primaryReads.incrementAndGet() % 20 == 0) {
+                sleep(200);
+            } else {
+                sleep(1);
+            }
+            return "poi";
+        };
+
+        LatencyWindow unhedged = new LatencyWindow(200);
+        hedgedReads.enabled = false;
+        for (int i = 0; i < 200; i++) {
+            long start = System.nanoTime();
+            hedgedReads.read("radius", read);
+            unhedged.record(System.nanoTime() - start);
+        }
+
+        hedgedReads.enabled = true;
+        for (int i = 0; i < HedgedReads.MIN_SAMPLES; i++) {
+            hedgedReads.read("radius", read);
+        }
+        LatencyWindow hedged = new LatencyWindow(200);
+        for (int i = 0; i < 200; i++) {
+            long start = System.nanoTime();
+            hedgedReads.read("radius", read);
+            hedged.record(System.nanoTime() - start);
+        }
+
+        assertTrue(unhedged.percentile(99) >= TimeUnit.MILLISECONDS.toNanos(200));
+        assertTrue(hedged.percentile(99) < TimeUnit.MILLISECONDS.toNanos(100),
+                "p99 " + hedged.percentile(99) / 1_000_000 + " ms");
+
+        // about one hedge per 20 reads: the additional database load
+        long hedges = hedgedReads.getStatistics().get("radius").get("hedged").longValue();
+        assertTrue(hedges >= 10 && hedges <= 40, hedges + " hedges");
+    }
+
+    private void warmUp(String kind) {
+        for (int i = 0; i < HedgedReads.DELAY_UPDATE_INTERVAL; i++) {
+            hedgedReads.read(kind, readPreference -> "poi");
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
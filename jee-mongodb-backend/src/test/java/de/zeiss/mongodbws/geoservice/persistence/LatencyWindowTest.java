@@ -0,0 +1,46 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.persistence;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link LatencyWindow}
+ */
+public class LatencyWindowTest {
+
+    @Test
+    public void testPercentile_Empty_ShouldReturnZero() {
+        assertEquals(0, new LatencyWindow(10).percentile(99));
+    }
+
+    @Test
+    public void testPercentile_ShouldReturnNearestRank() {
+        LatencyWindow window = new LatencyWindow(100);
+        for (int i = 100; i >= 1; i--) {
+            window.record(i);
+        }
+
+        assertEquals(1, window.percentile(0));
+        assertEquals(50, window.percentile(50));
+        assertEquals(95, window.percentile(95));
+        assertEquals(100, window.percentile(100));
+    }
+
+    @Test
+    public void testRecord_WindowFull_ShouldReplaceOldest() {
+        LatencyWindow window = new LatencyWindow(3);
+        window.record(1000);
+        window.record(1);
+        window.record(2);
+        window.record(3);
+
+        assertEquals(3, window.size());
+        assertEquals(3, window.percentile(100));
+    }
+}
@@ -1,9 +1,12 @@
 package de.zeiss.mongodbws.geoservice.persistence;
 
+import dev.morphia.Datastore;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
 
 class MongoDBClientProviderTest {
 
@@ -15,4 +18,13 @@ class MongoDBClientProviderTest {
         // Call preDestroy without initializing the client
         assertDoesNotThrow(provider::preDestroy);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetDatastore_WorkloadWithoutPool_ShouldUseInteractiveDatastore() {
+        MongoDBClientProvider provider = new MongoDBClientProvider();
+        provider.datastore = mock(Datastore.class);
+
+        assertSame(provider.datastore, provider.getDatastore(Workload.WRITE));
+        assertSame(provider.datastore, provider.getDatastore(Workload.BULK));
+    }
+}
@@ -14,6 +14,7 @@ import org.junit.jupiter.api.*;
 import org.testcontainers.mongodb.MongoDBContainer;
 
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -55,6 +56,7 @@ class PersistenceServiceIntegrationTest {
         mongoDBClientProvider.datastore = datastore;
         persistenceService = new PersistenceService();
         persistenceService.mongoDBClientProvider = mongoDBClientProvider;
+        persistenceService.hedgedReads = new HedgedReads();
     }
 
     @AfterEach
@@ -131,7 +133,7 @@ class PersistenceServiceIntegrationTest {
         entity2.setDetails("details2");
         entity2.setLocation(new GeoPoint(51.0001, 13.0001));
         entity2 = persistenceService.createPointOfInterest(entity2);
-        List<PointOfInterestEntity> results = persistenceService.listPOIs(51.0, 13.0, 1000, true);
+        List<PointOfInterestEntity> results = persistenceService.listPOIs(51.0, 13.0, 1000, true, false, 0).results();
         assertTrue(results.size() >= 2);
 
         for (PointOfInterestEntity poi : results) {
@@ -158,7 +160,7 @@ class PersistenceServiceIntegrationTest {
         entity2.setDetails("details2");
         entity2.setLocation(new GeoPoint(51.0001, 13.0001));
         persistenceService.createPointOfInterest(entity2);
-        List<PointOfInterestEntity> results = persistenceService.listPOIs(51.0, 13.0, 1000, false);
+        List<PointOfInterestEntity> results = persistenceService.listPOIs(51.0, 13.0, 1000, false, false, 0).results();
         assertTrue(results.size() >= 2);
 
         for (PointOfInterestEntity poi : results) {
@@ -172,4 +174,198 @@ class PersistenceServiceIntegrationTest {
         assertNull(persistenceService.getPointOfInterest(entity1.getId(), false));
         assertNull(persistenceService.getPointOfInterest(entity2.getId(), false));
     }
+
+    @Test
+    void testListNearestPOIs() {
+        PointOfInterestEntity near = new PointOfInterestEntity();
+        near.setCategory("cash");
+        near.setDetails("near");
+        near.setLocation(new GeoPoint(10.0, 20.0));
+        persistenceService.createPointOfInterest(near);
+        PointOfInterestEntity middle = new PointOfInterestEntity();
+        middle.setCategory("pharmacy");
+        middle.setDetails("middle");
+        middle.setLocation(new GeoPoint(10.001, 20.0));
+        persistenceService.createPointOfInterest(middle);
+        PointOfInterestEntity far = new PointOfInterestEntity();
+        far.setCategory("cash");
+        far.setDetails("far");
+        far.setLocation(new GeoPoint(10.01, 20.0));
+        persistenceService.createPointOfInterest(far);
+
+        List<PointOfInterestEntity> results = persistenceService.listNearestPOIs(10.0, 20.0, 2, null, null, false);
+        assertEquals(2, results.size());
+        assertEquals(near.getId(), results.get(0).getId());
+        assertEquals(middle.getId(), results.get(1).getId());
+        assertEquals(0.0, results.get(0).getDistance(), 0.1);
+        // 0.001 degrees latitude are roughly 111 meters
+        assertEquals(111.0, results.get(1).getDistance(), 1.0);
+        assertNull(results.get(0).getDetails());
+
+        List<PointOfInterestEntity> cash = persistenceService.listNearestPOIs(10.0, 20.0, 10, 500, "cash", true);
+        assertEquals(1, cash.size());
+        assertEquals(near.getId(), cash.get(0).getId());
+        assertEquals("near", cash.get(0).getDetails());
+
+        // cleanup
+        persistenceService.deletePointOfInterest(near.getId());
+        persistenceService.deletePointOfInterest(middle.getId());
+        persistenceService.deletePointOfInterest(far.getId());
+    }
+
+    @Test
+    void testListNearestPOIsPerCategory() {
+        PointOfInterestEntity cash1 = createEntity("cash", 20.0, 30.0);
+        PointOfInterestEntity cash2 = createEntity("cash", 20.001, 30.0);
+        PointOfInterestEntity cash3 = createEntity("cash", 20.002, 30.0);
+        PointOfInterestEntity pharmacy = createEntity("pharmacy", 20.0015, 30.0);
+        PointOfInterestEntity farAway = createEntity("police", 20.1, 30.0);
+        PointOfInterestEntity withoutCategory = createEntity(null, 20.0005, 30.0);
+
+        List<PointOfInterestEntity> results = persistenceService.listNearestPOIsPerCategory(20.0, 30.0, 1000, 2,
+                null, false);
+
+        assertEquals(List.of(cash1.getId(), cash2.getId(), pharmacy.getId()),
+                results.stream().map(PointOfInterestEntity::getId).toList());
+        assertEquals(0.0, results.get(0).getDistance(), 0.1);
+        assertNull(results.get(0).getDetails());
+
+        List<PointOfInterestEntity> pharmacies = persistenceService.listNearestPOIsPerCategory(20.0, 30.0, 1000, 2,
+                List.of("pharmacy"), true);
+        assertEquals(1, pharmacies.size());
+        assertEquals("details", pharmacies.get(0).getDetails());
+
+        // cleanup
+        for (PointOfInterestEntity entity : List.of(cash1, cash2, cash3, pharmacy, farAway, withoutCategory)) {
+            persistenceService.deletePointOfInterest(entity.getId());
+        }
+    }
+
+    @Test
+    void testListPOIsByCategory() {
+        PointOfInterestEntity cash = createEntity("cash", 30.0, 40.0);
+        PointOfInterestEntity pharmacy = createEntity("pharmacy", 30.0005, 40.0);
+
+        List<PointOfInterestEntity> all = persistenceService.listPOIs(30.0, 40.0, 1000, (String) null, false);
+        List<PointOfInterestEntity> cashOnly = persistenceService.listPOIs(30.0, 40.0, 1000, "cash", false);
+
+        assertEquals(2, all.size());
+        assertEquals(1, cashOnly.size());
+        assertEquals(cash.getId(), cashOnly.get(0).getId());
+
+        // cleanup
+        persistenceService.deletePointOfInterest(cash.getId());
+        persistenceService.deletePointOfInterest(pharmacy.getId());
+    }
+
+    @Test
+    void testListPOIsAllowingPartialResultsWithinBudget() {
+        persistenceService.listMaxTimeMs = 5000;
+        persistenceService.partialBatchSize = 1;
+        PointOfInterestEntity near = createEntity("cash", 37.0, 47.0);
+        PointOfInterestEntity far = createEntity("cash", 37.001, 47.001);
+
+        QueryResult<PointOfInterestEntity> result = persistenceService.listPOIs(37.0, 47.0, 1000, false, true, 0);
+
+        assertFalse(result.partial());
+        assertEquals(List.of(near.getId(), far.getId()), result.results().stream().map(PointOfInterestEntity::getId).toList());
+
+        // cleanup
+        persistenceService.deletePointOfInterest(near.getId());
+        persistenceService.deletePointOfInterest(far.getId());
+    }
+
+    @Test
+    void testListPOIsWithLimit() {
+        PointOfInterestEntity near = createEntity("cash", 33.0, 43.0);
+        PointOfInterestEntity far = createEntity("cash", 33.001, 43.001);
+
+        QueryResult<PointOfInterestEntity> exactly = persistenceService.listPOIs(33.0, 43.0, 1000, false, false, 2);
+        QueryResult<PointOfInterestEntity> cutOff = persistenceService.listPOIs(33.0, 43.0, 1000, false, false, 1);
+
+        // as many poi's as the limit are complete, only more of them are cut off
+        assertFalse(exactly.partial());
+        assertEquals(2, exactly.results().size());
+        assertTrue(cutOff.partial());
+        assertEquals(List.of(near.getId()), cutOff.results().stream().map(PointOfInterestEntity::getId).toList());
+
+        // cleanup
+        persistenceService.deletePointOfInterest(near.getId());
+        persistenceService.deletePointOfInterest(far.getId());
+    }
+
+    @Test
+    void testListPOIsWithFields() {
+        PointOfInterestEntity entity = createEntity("cash", 35.0, 45.0);
+
+        List<PointOfInterestEntity> results = persistenceService.listPOIs(35.0, 45.0, 1000, Set.of("name", "location"), false, 0)
+                .results();
+
+        assertEquals(1, results.size());
+        assertEquals(entity.getId(), results.get(0).getId());
+        assertNotNull(results.get(0).getLocation());
+        assertNull(results.get(0).getCategory());
+        assertNull(results.get(0).getDetails());
+
+        // cleanup
+        persistenceService.deletePointOfInterest(entity.getId());
+    }
+
+    @Test
+    void testListPOIColumns() {
+        PointOfInterestEntity near = createEntity("cash", 34.0, 44.0);
+        PointOfInterestEntity middle = createEntity("pharmacy", 34.0, 44.001);
+        PointOfInterestEntity far = createEntity("cash", 34.0, 44.002);
+
+        PointOfInterestColumns columns = persistenceService.listPOIColumns(34.0, 44.0, 1000, false, 0);
+
+        assertFalse(columns.partial());
+        assertEquals(3, columns.size());
+        assertEquals(near.getId().toHexString(), columns.id(0));
+        assertEquals(middle.getId().toHexString(), columns.id(1));
+        assertEquals(44.001, columns.longitude(1));
+        assertEquals(34.0, columns.latitude(1));
+        assertEquals(List.of("cash", "pharmacy"), columns.categories());
+        assertEquals(0, columns.categoryIndex(2));
+
+        PointOfInterestColumns limited = persistenceService.listPOIColumns(34.0, 44.0, 1000, true, 2);
+
+        assertTrue(limited.partial());
+        assertEquals(2, limited.size());
+
+        PointOfInterestColumns exactly = persistenceService.listPOIColumns(34.0, 44.0, 1000, false, 3);
+
+        assertFalse(exactly.partial());
+        assertEquals(3, exactly.size());
+
+        // cleanup
+        persistenceService.deletePointOfInterest(near.getId());
+        persistenceService.deletePointOfInterest(middle.getId());
+        persistenceService.deletePointOfInterest(far.getId());
+    }
+
+    @Test
+    void testGetPointsOfInterest() {
+        PointOfInterestEntity first = createEntity("cash", 36.0, 46.0);
+        PointOfInterestEntity second = createEntity("pharmacy", 36.0, 46.001);
+
+        List<PointOfInterestEntity> results = persistenceService.getPointsOfInterest(
+                List.of(first.getId(), second.getId(), new ObjectId()), false);
+
+        assertEquals(Set.of(first.getId(), second.getId()),
+                results.stream().map(PointOfInterestEntity::getId).collect(java.util.stream.Collectors.toSet()));
+        assertNull(results.get(0).getDetails());
+
+        // cleanup
+        persistenceService.deletePointOfInterest(first.getId());
+        persistenceService.deletePointOfInterest(second.getId());
+    }
+
+    private PointOfInterestEntity createEntity(String category, double latitude, double longitude) {
+        PointOfInterestEntity entity = new PointOfInterestEntity();
+        entity.setCategory(category);
+        entity.setDetails("details");
+        entity.setLocation(new GeoPoint(latitude, longitude));
+        return persistenceService.createPointOfInterest(entity);
+    }
 }
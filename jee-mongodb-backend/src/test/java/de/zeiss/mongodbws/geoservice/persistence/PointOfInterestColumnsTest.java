@@ -0,0 +1,70 @@
+package de.zeiss.mongodbws.geoservice.persistence;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for PointOfInterestColumns.
+ */
+class PointOfInterestColumnsTest {
+
+    @Test
+    void testAdd() {
+        PointOfInterestColumns columns = new PointOfInterestColumns();
+
+        columns.add("1", 13.7, 51.05, "restaurant");
+        columns.add("2", 13.8, 51.1, null);
+
+        assertEquals(2, columns.size());
+        assertEquals("2", columns.id(1));
+        assertEquals(13.8, columns.longitude(1));
+        assertEquals(51.1, columns.latitude(1));
+        assertEquals(0, columns.categoryIndex(0));
+        assertEquals(PointOfInterestColumns.NO_CATEGORY, columns.categoryIndex(1));
+        assertFalse(columns.partial());
+    }
+
+    /**
+     * Test that each category is stored once, in the order of its first poi.
+     */
+    @Test
+    void testCategoriesAreDictionaryEncoded() {
+        PointOfInterestColumns columns = new PointOfInterestColumns();
+
+        columns.add("1", 13.7, 51.05, "restaurant");
+        columns.add("2", 13.7, 51.05, "cafe");
+        columns.add("3", 13.7, 51.05, "restaurant");
+
+        assertEquals(List.of("restaurant", "cafe"), columns.categories());
+        assertEquals(0, columns.categoryIndex(2));
+        assertEquals(1, columns.categoryIndex(1));
+    }
+
+    @Test
+    void testAddBeyondInitialCapacity() {
+        PointOfInterestColumns columns = new PointOfInterestColumns();
+
+        for (int i = 0; i < 1000; i++) {
+            columns.add(Integer.toString(i), i / 100.0, -i / 100.0, "category " + i % 3);
+        }
+
+        assertEquals(1000, columns.size());
+        assertEquals("999", columns.id(999));
+        assertEquals(9.99, columns.longitude(999));
+        assertEquals(-9.99, columns.latitude(999));
+        assertEquals(0, columns.categoryIndex(999));
+        assertEquals(3, columns.categories().size());
+    }
+
+    @Test
+    void testMarkPartial() {
+        PointOfInterestColumns columns = new PointOfInterestColumns();
+
+        columns.markPartial();
+
+        assertTrue(columns.partial());
+    }
+}
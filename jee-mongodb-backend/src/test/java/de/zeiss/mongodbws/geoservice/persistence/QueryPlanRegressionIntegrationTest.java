@@ -0,0 +1,301 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.persistence;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import de.zeiss.mongodbws.geoservice.config.TestConfig;
+import de.zeiss.mongodbws.geoservice.integration.DockerAvailable;
+import de.zeiss.mongodbws.geoservice.persistence.entity.GeoPoint;
+import de.zeiss.mongodbws.geoservice.persistence.entity.PointOfInterestEntity;
+import de.zeiss.mongodbws.geoservice.tracing.QueryShape;
+import dev.morphia.Datastore;
+import dev.morphia.Morphia;
+import dev.morphia.annotations.Entity;
+import dev.morphia.annotations.Field;
+import dev.morphia.annotations.Index;
+import dev.morphia.annotations.Indexes;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.*;
+import org.testcontainers.mongodb.MongoDBContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Guards the query plans of the {@link PersistenceService} against index regressions. Every query runs against a
+ * seeded dataset of realistic size, the commands Morphia sends are captured by a command listener and explained with
+ * executionStats. A test fails if a plan contains a COLLSCAN or examines too many documents per returned document,
+ * e.g. because an index was dropped, renamed or a query no longer matches its index.
+ * <p>
+ * {@link PersistenceService#countPOIsPerCell(double)} is not covered: it aggregates over the whole collection by
+ * design.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DockerAvailable
+class QueryPlanRegressionIntegrationTest {
+
+    /**
+     * Number of seeded poi's, spread over Saxony like a regional dataset.
+     */
+    static final int DATASET_SIZE = 20_000;
+
+    static final List<String> CATEGORIES = List.of("restaurant", "museum", "hotel", "shop", "park", "station",
+            "company", "church");
+
+    /**
+     * Documents a plan may examine per returned document. A $near search fetches the documents of the index cells
+     * covering the circle, which are more than the ones within it.
+     */
+    static final double MAX_DOCS_EXAMINED_PER_RETURNED = 10;
+
+    /**
+     * The 2dsphere index does not contain the category, so geo queries filter by category after fetching the
+     * documents. A compound index of location and category would bring this down to the default ratio.
+     */
+    static final double MAX_DOCS_EXAMINED_PER_RETURNED_BY_CATEGORY =
+            MAX_DOCS_EXAMINED_PER_RETURNED * CATEGORIES.size();
+
+    static final Set<String> EXPLAINED_COMMANDS = Set.of("find", "aggregate", "count", "distinct", "update",
+            "delete", "findAndModify");
+
+    static final double LAT = 51.05;
+    static final double LON = 13.73;
+    static final int RADIUS = 5000;
+
+    static MongoDBContainer mongoDBContainer;
+    final CommandCapture commandCapture = new CommandCapture();
+    MongoClient mongoClient;
+    Datastore datastore;
+    PersistenceService persistenceService;
+    List<ObjectId> ids;
+
+    @BeforeAll
+    void startMongo() {
+        mongoDBContainer = new MongoDBContainer(TestConfig.MONGODB_IMAGE);
+        mongoDBContainer.start();
+
+        mongoClient = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(mongoDBContainer.getConnectionString()))
+                .addCommandListener(commandCapture)
+                .build());
+        datastore = Morphia.createDatastore(mongoClient, "test-db");
+
+        createIndexes();
+
+        seed();
+
+        MongoDBClientProvider mongoDBClientProvider = new MongoDBClientProvider();
+        mongoDBClientProvider.mongoClient = mongoClient;
+        mongoDBClientProvider.datastore = datastore;
+        persistenceService = new PersistenceService();
+        persistenceService.mongoDBClientProvider = mongoDBClientProvider;
+        persistenceService.hedgedReads = new HedgedReads();
+    }
+
+    @AfterAll
+    void stopMongo() {
+        mongoClient.close();
+        mongoDBContainer.stop();
+    }
+
+    /**
+     * Creates the indexes exactly as declared by the {@link Indexes} annotation of {@link PointOfInterestEntity}, so
+     * that a changed declaration is covered as well. They are created with the driver, as the index creation of Morphia
+     * is deprecated for removal. The entity does not rename its fields, so the declared names are the stored ones.
+     */
+    private void createIndexes() {
+        MongoCollection<Document> collection = datastore.getDatabase()
+                .getCollection(PointOfInterestEntity.class.getAnnotation(Entity.class).value());
+        for (Index index : PointOfInterestEntity.class.getAnnotation(Indexes.class).value()) {
+            Document keys = new Document();
+            for (Field field : index.fields()) {
+                keys.append(field.value(), field.type().toIndexValue());
+            }
+            com.mongodb.client.model.IndexOptions options = new com.mongodb.client.model.IndexOptions()
+                    .unique(index.options().unique())
+                    .sparse(index.options().sparse());
+            if (!index.options().name().isEmpty()) {
+                options.name(index.options().name());
+            }
+            collection.createIndex(keys, options);
+        }
+    }
+
+    private void seed() {
+        Random random = new Random(42);
+        List<PointOfInterestEntity> batch = new ArrayList<>();
+        ids = new ArrayList<>();
+        for (int i = 0; i < DATASET_SIZE; i++) {
+            PointOfInterestEntity entity = new PointOfInterestEntity();
+            entity.setCategory(CATEGORIES.get(random.nextInt(CATEGORIES.size())));
+            entity.setName("poi " + i);
+            entity.setDetails("details of poi " + i);
+            entity.setLocation(new GeoPoint(50.2 + 1.5 * random.nextDouble(), 11.9 + 3.1 * random.nextDouble()));
+            batch.add(entity);
+
+            if (batch.size() == 1000) {
+                datastore.insert(batch);
+                if (ids.isEmpty()) {
+                    batch.stream().limit(10).map(PointOfInterestEntity::getId).forEach(ids::add);
+                }
+                batch.clear();
+            }
+        }
+        datastore.insert(batch);
+    }
+
+    @Test
+    void testGetPointOfInterest() {
+        assertIndexed(MAX_DOCS_EXAMINED_PER_RETURNED,
+                () -> assertNotNull(persistenceService.getPointOfInterest(ids.getFirst(), false)));
+    }
+
+    @Test
+    void testGetPointOfInterestForUpdate() {
+        assertIndexed(MAX_DOCS_EXAMINED_PER_RETURNED,
+                () -> assertNotNull(persistenceService.getPointOfInterestForUpdate(ids.getFirst())));
+    }
+
+    @Test
+    void testGetPointsOfInterest() {
+        assertIndexed(MAX_DOCS_EXAMINED_PER_RETURNED,
+                () -> assertEquals(ids.size(), persistenceService.getPointsOfInterest(ids, false).size()));
+    }
+
+    @Test
+    void testUpdatePointOfInterest() {
+        PointOfInterestEntity entity = persistenceService.getPointOfInterestForUpdate(ids.get(1));
+        entity.setName("updated");
+        assertIndexed(MAX_DOCS_EXAMINED_PER_RETURNED, () -> persistenceService.updatePointOfInterest(entity));
+    }
+
+    @Test
+    void testDeletePointOfInterest() {
+        PointOfInterestEntity entity = new PointOfInterestEntity();
+        entity.setCategory("deleted");
+        entity.setLocation(new GeoPoint(LAT, LON));
+        persistenceService.createPointOfInterest(entity);
+        assertIndexed(MAX_DOCS_EXAMINED_PER_RETURNED,
+                () -> assertNotNull(persistenceService.deletePointOfInterest(entity.getId())));
+    }
+
+    @Test
+    void testListPOIs() {
+        assertIndexed(MAX_DOCS_EXAMINED_PER_RETURNED,
+                () -> assertFalse(persistenceService.listPOIs(LAT, LON, RADIUS, false, false, 0).results().isEmpty()));
+    }
+
+    @Test
+    void testListPOIsWithLimit() {
+        assertIndexed(MAX_DOCS_EXAMINED_PER_RETURNED,
+                () -> assertEquals(10, persistenceService.listPOIs(LAT, LON, RADIUS, true, true, 10).results().size()));
+    }
+
+    @Test
+    void testListPOIsWithFields() {
+        assertIndexed(MAX_DOCS_EXAMINED_PER_RETURNED, () -> assertFalse(persistenceService.listPOIs(LAT, LON, RADIUS,
+                Set.of("name", "location"), false, 0).results().isEmpty()));
+    }
+
+    @Test
+    void testListPOIsByCategory() {
+        assertIndexed(MAX_DOCS_EXAMINED_PER_RETURNED_BY_CATEGORY, () -> assertFalse(persistenceService.listPOIs(LAT,
+                LON, RADIUS, "museum", false).isEmpty()));
+    }
+
+    @Test
+    void testListNearestPOIs() {
+        assertIndexed(MAX_DOCS_EXAMINED_PER_RETURNED, () -> assertEquals(20,
+                persistenceService.listNearestPOIs(LAT, LON, 20, RADIUS, null, false).size()));
+    }
+
+    @Test
+    void testListNearestPOIsByCategory() {
+        assertIndexed(MAX_DOCS_EXAMINED_PER_RETURNED_BY_CATEGORY, () -> assertFalse(
+                persistenceService.listNearestPOIs(LAT, LON, 5, RADIUS, "hotel", false).isEmpty()));
+    }
+
+    @Test
+    void testListNearestPOIsPerCategory() {
+        // a limit per category above the number of poi's within the radius, so every document examined is returned
+        assertIndexed(MAX_DOCS_EXAMINED_PER_RETURNED, () -> assertFalse(persistenceService.listNearestPOIsPerCategory(
+                LAT, LON, RADIUS, DATASET_SIZE, null, false).isEmpty()));
+    }
+
+    @Test
+    void testListNearestPOIsPerSelectedCategory() {
+        assertIndexed(MAX_DOCS_EXAMINED_PER_RETURNED_BY_CATEGORY, () -> assertFalse(
+                persistenceService.listNearestPOIsPerCategory(LAT, LON, RADIUS, DATASET_SIZE, List.of("park"), false)
+                        .isEmpty()));
+    }
+
+    /**
+     * Runs the query and explains every command it sent.
+     *
+     * @param maxDocsExaminedPerReturned documents the plans may examine per returned document
+     * @param query                      the query, asserting its results
+     */
+    private void assertIndexed(double maxDocsExaminedPerReturned, Runnable query) {
+        List<BsonDocument> commands = commandCapture.capture(query);
+        assertFalse(commands.isEmpty(), "no command was sent");
+
+        for (BsonDocument command : commands) {
+            BsonDocument explainCommand = new BsonDocument("explain", QueryShape.withoutDriverFields(command))
+                    .append("verbosity", new BsonString("executionStats"));
+            ExplainSummary explain = ExplainSummary.of(datastore.getDatabase()
+                    .runCommand(explainCommand, BsonDocument.class));
+
+            String message = QueryShape.of(command) + " -> " + explain.winningPlan();
+            assertNotEquals("UNKNOWN", explain.planSummary(), message);
+            assertFalse(explain.planSummary().contains("COLLSCAN"), message);
+            assertTrue(explain.docsExamined() <= maxDocsExaminedPerReturned * Math.max(explain.nReturned(), 1),
+                    explain.docsExamined() + " documents examined for " + explain.nReturned() + " returned: "
+                            + message);
+        }
+    }
+
+    /**
+     * Copies the commands of the explained kinds sent by the current thread while capturing.
+     */
+    static class CommandCapture implements CommandListener {
+
+        private final List<BsonDocument> commands = new CopyOnWriteArrayList<>();
+
+        private volatile Thread thread;
+
+        List<BsonDocument> capture(Runnable runnable) {
+            commands.clear();
+            thread = Thread.currentThread();
+            try {
+                runnable.run();
+            } finally {
+                thread = null;
+            }
+            return List.copyOf(commands);
+        }
+
+        @Override
+        public void commandStarted(CommandStartedEvent event) {
+            if (Thread.currentThread() == thread && EXPLAINED_COMMANDS.contains(event.getCommandName())) {
+                commands.add(event.getCommand().clone());
+            }
+        }
+    }
+}
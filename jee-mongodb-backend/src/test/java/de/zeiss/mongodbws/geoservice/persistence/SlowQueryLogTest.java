@@ -0,0 +1,184 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.persistence;
+
+import com.mongodb.MongoException;
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonDocument;
+import org.bson.RawBsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SlowQueryLog}
+ */
+public class SlowQueryLogTest {
+
+    private static final ConnectionDescription CONNECTION = new ConnectionDescription(
+            new ServerId(new ClusterId(), new ServerAddress("localhost", 27017)));
+
+    private static final String RADIUS_QUERY = "{find: 'poi', filter: {location: {$nearSphere: {$geometry: "
+            + "{type: 'Point', coordinates: [13.7, 51.05]}, $maxDistance: 500}}}, limit: 10, $db: 'demo-campus', "
+            + "lsid: {id: 1}}";
+
+    private final List<BsonDocument> explainCommands = new ArrayList<>();
+
+    private SlowQueryLog slowQueryLog;
+
+    @BeforeEach
+    public void setUp() {
+        slowQueryLog = new SlowQueryLog() {
+            @Override
+            BsonDocument explain(String database, BsonDocument explainCommand) {
+                explainCommands.add(explainCommand);
+                return BsonDocument.parse("{queryPlanner: {winningPlan: {stage: 'COLLSCAN'}}, "
+                        + "executionStats: {nReturned: 10, totalKeysExamined: 0, totalDocsExamined: 40000}}");
+            }
+        };
+        slowQueryLog.executorService = Runnable::run;
+        slowQueryLog.thresholdMs = 100;
+        slowQueryLog.explainSampleRate = 1.0;
+    }
+
+    @Test
+    public void testCommandSucceeded_Slow_ShouldRecordShapeAndExplain() {
+        execute(1, "find", RADIUS_QUERY, 150);
+
+        List<SlowQuery> slowQueries = slowQueryLog.getSlowQueries();
+        assertEquals(1, slowQueries.size());
+        Map<String, Object> slowQuery = slowQueries.get(0).toMap();
+        assertEquals("find", slowQuery.get("command"));
+        assertEquals("poi", slowQuery.get("collection"));
+        assertEquals(150L, slowQuery.get("durationMillis"));
+        assertEquals("{\"find\": \"poi\", \"filter\": {\"location\": {\"$nearSphere\": {\"$geometry\": "
+                + "{\"type\": \"?\", \"coordinates\": [\"?\"]}, \"$maxDistance\": \"?\"}}}, \"limit\": \"?\"}",
+                slowQuery.get("shape"));
+        assertTrue(((String) slowQuery.get("parameters")).contains("13.7"));
+
+        assertEquals(1, explainCommands.size());
+        BsonDocument explainCommand = explainCommands.get(0);
+        assertEquals("executionStats", explainCommand.getString("verbosity").getValue());
+        assertFalse(explainCommand.getDocument("explain").containsKey("lsid"));
+        assertFalse(explainCommand.getDocument("explain").containsKey("$db"));
+        assertEquals("COLLSCAN", slowQueries.get(0).getExplain().planSummary());
+        assertEquals(40000, slowQueries.get(0).getExplain().docsExamined());
+    }
+
+    @Test
+    public void testCommandSucceeded_Fast_ShouldNotRecord() {
+        execute(1, "find", RADIUS_QUERY, 20);
+
+        assertTrue(slowQueryLog.getSlowQueries().isEmpty());
+        assertTrue(explainCommands.isEmpty());
+        assertTrue(slowQueryLog.commands.isEmpty());
+    }
+
+    @Test
+    public void testCommandSucceeded_NotSampled_ShouldRecordWithoutExplain() {
+        slowQueryLog.explainSampleRate = 0;
+
+        execute(1, "find", RADIUS_QUERY, 150);
+
+        assertNull(slowQueryLog.getSlowQueries().get(0).getExplain());
+        assertTrue(explainCommands.isEmpty());
+    }
+
+    @Test
+    public void testCommandSucceeded_Insert_ShouldKeepNumberOfDocumentsAndNotExplain() {
+        execute(1, "insert", "{insert: 'poi', documents: [{name: 'a'}, {name: 'b'}], ordered: true}", 150);
+
+        SlowQuery slowQuery = slowQueryLog.getSlowQueries().get(0);
+        assertEquals("{\"insert\": \"poi\", \"documents\": \"?\", \"ordered\": \"?\"}", slowQuery.getShape());
+        assertTrue(explainCommands.isEmpty());
+    }
+
+    @Test
+    public void testCommandFailed_Slow_ShouldRecordError() {
+        slowQueryLog.commandStarted(started(1, "find", RADIUS_QUERY));
+        slowQueryLog.commandFailed(new CommandFailedEvent(null, 1, 1, CONNECTION, "demo-campus", "find",
+                TimeUnit.MILLISECONDS.toNanos(500), new MongoException("operation exceeded time limit")));
+
+        assertEquals("operation exceeded time limit", slowQueryLog.getSlowQueries().get(0).toMap().get("error"));
+    }
+
+    @Test
+    public void testGetSlowQueries_OverCapacity_ShouldKeepLatest() {
+        slowQueryLog.capacity = 3;
+
+        for (int i = 1; i <= 5; i++) {
+            execute(i, "find", RADIUS_QUERY, 100 + i);
+        }
+
+        List<SlowQuery> slowQueries = slowQueryLog.getSlowQueries();
+        assertEquals(List.of(105L, 104L, 103L), slowQueries.stream().map(SlowQuery::getDurationMillis).toList());
+        assertEquals(5L, slowQueryLog.getStatistics().get("recorded"));
+
+        slowQueryLog.clear();
+        assertTrue(slowQueryLog.getSlowQueries().isEmpty());
+    }
+
+    @Test
+    public void testCommandStarted_OtherCommand_ShouldBeIgnored() {
+        execute(1, "hello", "{hello: 1}", 500);
+        execute(2, "getMore", "{getMore: {$numberLong: '1'}, collection: 'poi'}", 500);
+
+        assertTrue(slowQueryLog.getSlowQueries().isEmpty());
+    }
+
+    @Test
+    public void testCommandStarted_Disabled_ShouldNotRecord() {
+        slowQueryLog.enabled = false;
+
+        execute(1, "find", RADIUS_QUERY, 500);
+
+        assertTrue(slowQueryLog.getSlowQueries().isEmpty());
+    }
+
+    @Test
+    public void testCopy_Command_ShouldKeepRawBytes() {
+        BsonDocument command = BsonDocument.parse(RADIUS_QUERY);
+
+        BsonDocument copy = SlowQueryLog.copy("find", command);
+        command.getDocument("filter").clear();
+
+        assertInstanceOf(RawBsonDocument.class, copy);
+        assertTrue(copy.getDocument("filter").containsKey("location"));
+        assertEquals(10, copy.getInt32("limit").getValue());
+    }
+
+    @Test
+    public void testCopy_Insert_ShouldKeepNumberOfDocuments() {
+        BsonDocument copy = SlowQueryLog.copy("insert",
+                BsonDocument.parse("{insert: 'poi', documents: [{name: 'a'}, {name: 'b'}], ordered: true}"));
+
+        assertInstanceOf(RawBsonDocument.class, copy);
+        assertEquals(2, copy.getInt32("documents").getValue());
+    }
+
+    private void execute(int requestId, String commandName, String command, long millis) {
+        slowQueryLog.commandStarted(started(requestId, commandName, command));
+        slowQueryLog.commandSucceeded(new CommandSucceededEvent(null, requestId, requestId, CONNECTION,
+                "demo-campus", commandName, BsonDocument.parse("{ok: 1}"), TimeUnit.MILLISECONDS.toNanos(millis)));
+    }
+
+    private static CommandStartedEvent started(int requestId, String commandName, String command) {
+        return new CommandStartedEvent(null, requestId, requestId, CONNECTION, "demo-campus", commandName,
+                BsonDocument.parse(command));
+    }
+}
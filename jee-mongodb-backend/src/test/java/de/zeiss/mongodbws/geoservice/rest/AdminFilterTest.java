@@ -0,0 +1,40 @@
+package de.zeiss.mongodbws.geoservice.rest;
+
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for AdminFilter.
+ */
+class AdminFilterTest {
+
+    @Test
+    void testDisabled() throws IOException {
+        AdminFilter filter = new AdminFilter();
+        ContainerRequestContext reqCtx = mock(ContainerRequestContext.class);
+        ArgumentCaptor<Response> responseCaptor = ArgumentCaptor.forClass(Response.class);
+        doNothing().when(reqCtx).abortWith(responseCaptor.capture());
+
+        filter.filter(reqCtx);
+
+        assertEquals(404, responseCaptor.getValue().getStatus());
+    }
+
+    @Test
+    void testEnabled() throws IOException {
+        AdminFilter filter = new AdminFilter();
+        filter.enabled = true;
+        ContainerRequestContext reqCtx = mock(ContainerRequestContext.class);
+
+        filter.filter(reqCtx);
+
+        verify(reqCtx, never()).abortWith(any());
+    }
+}
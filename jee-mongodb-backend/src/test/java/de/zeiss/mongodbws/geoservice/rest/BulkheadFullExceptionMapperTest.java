@@ -0,0 +1,25 @@
+package de.zeiss.mongodbws.geoservice.rest;
+
+import de.zeiss.mongodbws.geoservice.persistence.Workload;
+import de.zeiss.mongodbws.geoservice.service.BulkheadFullException;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BulkheadFullExceptionMapperTest {
+
+    @Test
+    public void testToResponse() {
+        BulkheadFullException exception = new BulkheadFullException(Workload.WRITE, 1);
+        BulkheadFullExceptionMapper mapper = new BulkheadFullExceptionMapper();
+        try (Response response = mapper.toResponse(exception)) {
+            assertEquals(Response.Status.SERVICE_UNAVAILABLE.getStatusCode(), response.getStatus());
+            assertEquals("1", response.getHeaderString(HttpHeaders.RETRY_AFTER));
+            assertEquals(Map.of("message", "Too many concurrent write requests, please retry later"), response.getEntity());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package de.zeiss.mongodbws.geoservice.rest;
+
+import de.zeiss.mongodbws.geoservice.service.CircuitBreakerOpenException;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CircuitBreakerOpenExceptionMapperTest {
+
+    @Test
+    public void testToResponse() {
+        CircuitBreakerOpenException exception = new CircuitBreakerOpenException(5);
+        CircuitBreakerOpenExceptionMapper mapper = new CircuitBreakerOpenExceptionMapper();
+        try (Response response = mapper.toResponse(exception)) {
+            assertEquals(Response.Status.SERVICE_UNAVAILABLE.getStatusCode(), response.getStatus());
+            assertEquals("5", response.getHeaderString(HttpHeaders.RETRY_AFTER));
+            assertEquals(Map.of("message", "The database is currently unavailable, please retry later"), response.getEntity());
+        }
+    }
+}
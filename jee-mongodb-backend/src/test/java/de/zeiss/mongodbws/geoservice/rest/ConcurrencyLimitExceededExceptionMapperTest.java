@@ -0,0 +1,24 @@
+package de.zeiss.mongodbws.geoservice.rest;
+
+import de.zeiss.mongodbws.geoservice.persistence.ConcurrencyLimitExceededException;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ConcurrencyLimitExceededExceptionMapperTest {
+
+    @Test
+    public void testToResponse() {
+        ConcurrencyLimitExceededException exception = new ConcurrencyLimitExceededException(2);
+        ConcurrencyLimitExceededExceptionMapper mapper = new ConcurrencyLimitExceededExceptionMapper();
+        try (Response response = mapper.toResponse(exception)) {
+            assertEquals(Response.Status.SERVICE_UNAVAILABLE.getStatusCode(), response.getStatus());
+            assertEquals("2", response.getHeaderString(HttpHeaders.RETRY_AFTER));
+            assertEquals(Map.of("message", "Too many concurrent queries, please retry later"), response.getEntity());
+        }
+    }
+}
@@ -5,12 +5,15 @@ import jakarta.ws.rs.container.ContainerResponseContext;
 import jakarta.ws.rs.core.MultivaluedHashMap;
 import jakarta.ws.rs.core.MultivaluedMap;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.ArgumentCaptor;
 
+import java.net.URI;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -40,6 +43,15 @@ class CorsFilterTest {
         );
     }
 
+    private static ContainerRequestContext mockRequestContext(String path) {
+        ContainerRequestContext reqCtx = mock(ContainerRequestContext.class);
+        UriInfo uriInfo = mock(UriInfo.class);
+        when(uriInfo.getPath()).thenReturn(path);
+        when(uriInfo.getBaseUri()).thenReturn(URI.create("http://localhost:8080/zdi-geo-service/api/"));
+        when(reqCtx.getUriInfo()).thenReturn(uriInfo);
+        return reqCtx;
+    }
+
     /**
      * Test Preflight OPTIONS request from allowed origin. Should set CORS headers and abort with OK response.
      *
@@ -49,7 +61,7 @@ class CorsFilterTest {
     @MethodSource("allowedOriginProvider")
     void testPreflightAllowedOrigin(String allowedOrigin) {
         CorsFilter filter = new CorsFilter();
-        ContainerRequestContext reqCtx = mock(ContainerRequestContext.class);
+        ContainerRequestContext reqCtx = mockRequestContext("/poi");
         when(reqCtx.getHeaderString("Origin")).thenReturn(allowedOrigin);
         when(reqCtx.getMethod()).thenReturn("OPTIONS");
 
@@ -80,7 +92,7 @@ class CorsFilterTest {
     @MethodSource("notAllowedOriginProvider")
     void testPreflightDisallowedOrigin(String notAllowedOrigin) {
         CorsFilter filter = new CorsFilter();
-        ContainerRequestContext reqCtx = mock(ContainerRequestContext.class);
+        ContainerRequestContext reqCtx = mockRequestContext("/poi");
         when(reqCtx.getHeaderString("Origin")).thenReturn(notAllowedOrigin);
         when(reqCtx.getMethod()).thenReturn("OPTIONS");
 
@@ -101,7 +113,7 @@ class CorsFilterTest {
     @Test
     void testPreflightDisallowedNullOrigin() {
         CorsFilter filter = new CorsFilter();
-        ContainerRequestContext reqCtx = mock(ContainerRequestContext.class);
+        ContainerRequestContext reqCtx = mockRequestContext("/poi");
         when(reqCtx.getHeaderString("Origin")).thenReturn(null);
         when(reqCtx.getMethod()).thenReturn("OPTIONS");
 
@@ -122,7 +134,7 @@ class CorsFilterTest {
     @Test
     void testPreflightNonOptionsMethod() {
         CorsFilter filter = new CorsFilter();
-        ContainerRequestContext reqCtx = mock(ContainerRequestContext.class);
+        ContainerRequestContext reqCtx = mockRequestContext("/poi");
         when(reqCtx.getHeaderString("Origin")).thenReturn("http://localhost:3000");
         when(reqCtx.getMethod()).thenReturn("GET");
 
@@ -144,7 +156,7 @@ class CorsFilterTest {
     @MethodSource("allowedOriginProvider")
     void testResponseAllowedOrigin(String allowedOrigin) {
         CorsFilter filter = new CorsFilter();
-        ContainerRequestContext reqCtx = mock(ContainerRequestContext.class);
+        ContainerRequestContext reqCtx = mockRequestContext("/poi");
         ContainerResponseContext respCtx = mock(ContainerResponseContext.class);
 
         when(reqCtx.getHeaderString("Origin")).thenReturn(allowedOrigin);
@@ -160,6 +172,7 @@ class CorsFilterTest {
 
         assertEquals(allowedOrigin, originHeader);
         assertEquals("true", credentialsHeader);
+        assertEquals(allowedOrigin, headers.getFirst(CorsFilter.HDR_TIMING_ALLOW_ORIGIN));
     }
 
     /**
@@ -171,7 +184,7 @@ class CorsFilterTest {
     @MethodSource("notAllowedOriginProvider")
     void testResponseDisallowedOrigin(String notAllowedOrigin) {
         CorsFilter filter = new CorsFilter();
-        ContainerRequestContext reqCtx = mock(ContainerRequestContext.class);
+        ContainerRequestContext reqCtx = mockRequestContext("/poi");
         ContainerResponseContext respCtx = mock(ContainerResponseContext.class);
 
         when(reqCtx.getHeaderString("Origin")).thenReturn(notAllowedOrigin);
@@ -191,7 +204,7 @@ class CorsFilterTest {
     @Test
     void testResponseDisallowedNullOrigin() {
         CorsFilter filter = new CorsFilter();
-        ContainerRequestContext reqCtx = mock(ContainerRequestContext.class);
+        ContainerRequestContext reqCtx = mockRequestContext("/poi");
         ContainerResponseContext respCtx = mock(ContainerResponseContext.class);
 
         when(reqCtx.getHeaderString("Origin")).thenReturn(null);
@@ -204,4 +217,100 @@ class CorsFilterTest {
         assertNull(headers.get(CorsFilter.HDR_ALLOW_ORIGIN));
         assertNull(headers.get(CorsFilter.HDR_ALLOW_CREDENTIALS));
     }
-}
\ No newline at end of file
+
+    /**
+     * Test Preflight OPTIONS request for the operational tools from allowed origin. Should not set CORS headers.
+     *
+     * @param path The path of the operational tool.
+     */
+    @ParameterizedTest(name = "Admin path #{index}: path={0}")
+    @ValueSource(strings = {"/admin/jfr/start", "admin/slow-queries", "/admin"})
+    void testPreflightAdminPath(String path) {
+        CorsFilter filter = new CorsFilter();
+        ContainerRequestContext reqCtx = mockRequestContext(path);
+        when(reqCtx.getHeaderString("Origin")).thenReturn("http://localhost:3000");
+        when(reqCtx.getMethod()).thenReturn("OPTIONS");
+
+        ArgumentCaptor<Response> responseCaptor = ArgumentCaptor.forClass(Response.class);
+        doNothing().when(reqCtx).abortWith(responseCaptor.capture());
+
+        assertDoesNotThrow(() -> filter.filter(reqCtx));
+
+        Response response = responseCaptor.getValue();
+        assertNull(response.getHeaderString(CorsFilter.HDR_ALLOW_ORIGIN));
+        assertNull(response.getHeaderString(CorsFilter.HDR_ALLOW_CREDENTIALS));
+    }
+
+    /**
+     * Test request for the operational tools from another origin, e.g. a form posted by another page. Should be
+     * rejected.
+     */
+    @Test
+    void testRequestAdminPathOtherOrigin() {
+        CorsFilter filter = new CorsFilter();
+        ContainerRequestContext reqCtx = mockRequestContext("/admin/jfr/start");
+        when(reqCtx.getHeaderString("Origin")).thenReturn("http://localhost:3000");
+        when(reqCtx.getMethod()).thenReturn("POST");
+
+        ArgumentCaptor<Response> responseCaptor = ArgumentCaptor.forClass(Response.class);
+        doNothing().when(reqCtx).abortWith(responseCaptor.capture());
+
+        assertDoesNotThrow(() -> filter.filter(reqCtx));
+
+        assertEquals(403, responseCaptor.getValue().getStatus());
+    }
+
+    /**
+     * Test request for the operational tools from the origin of the service. Should not abort the request.
+     */
+    @Test
+    void testRequestAdminPathSameOrigin() {
+        CorsFilter filter = new CorsFilter();
+        ContainerRequestContext reqCtx = mockRequestContext("/admin/jfr/start");
+        when(reqCtx.getHeaderString("Origin")).thenReturn("http://localhost:8080");
+        when(reqCtx.getMethod()).thenReturn("POST");
+
+        assertDoesNotThrow(() -> filter.filter(reqCtx));
+
+        verify(reqCtx, never()).abortWith(any(Response.class));
+    }
+
+    /**
+     * Test Response filter for the operational tools from allowed origin. Should not set CORS headers.
+     */
+    @Test
+    void testResponseAdminPath() {
+        CorsFilter filter = new CorsFilter();
+        ContainerRequestContext reqCtx = mockRequestContext("/admin/slow-queries");
+        ContainerResponseContext respCtx = mock(ContainerResponseContext.class);
+
+        when(reqCtx.getHeaderString("Origin")).thenReturn("http://localhost:3000");
+
+        MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+        when(respCtx.getHeaders()).thenReturn(headers);
+
+        assertDoesNotThrow(() -> filter.filter(reqCtx, respCtx));
+
+        assertNull(headers.get(CorsFilter.HDR_ALLOW_ORIGIN));
+        assertNull(headers.get(CorsFilter.HDR_TIMING_ALLOW_ORIGIN));
+    }
+
+    /**
+     * Test Response filter for a path only starting like the one of the operational tools. Should set CORS headers.
+     */
+    @Test
+    void testResponseAdminPrefixedPath() {
+        CorsFilter filter = new CorsFilter();
+        ContainerRequestContext reqCtx = mockRequestContext("/administration");
+        ContainerResponseContext respCtx = mock(ContainerResponseContext.class);
+
+        when(reqCtx.getHeaderString("Origin")).thenReturn("http://localhost:3000");
+
+        MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+        when(respCtx.getHeaders()).thenReturn(headers);
+
+        assertDoesNotThrow(() -> filter.filter(reqCtx, respCtx));
+
+        assertEquals("http://localhost:3000", headers.getFirst(CorsFilter.HDR_ALLOW_ORIGIN));
+    }
+}
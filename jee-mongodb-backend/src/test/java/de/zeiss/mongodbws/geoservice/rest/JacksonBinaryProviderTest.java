@@ -0,0 +1,121 @@
+package de.zeiss.mongodbws.geoservice.rest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.zeiss.mongodbws.geoservice.rest.resource.PointOfInterest;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import org.geojson.Point;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for JacksonBinaryProvider.
+ */
+class JacksonBinaryProviderTest {
+
+    private static final Type POI_LIST_TYPE = new TypeReference<List<PointOfInterest>>() {
+    }.getType();
+
+    private final JacksonBinaryProvider provider = new JacksonBinaryProvider();
+
+    private final ObjectMapper jsonMapper = ObjectMapperProvider.OBJECT_MAPPER;
+
+    static Stream<Arguments> mediaTypeProvider() {
+        return Stream.of(
+                Arguments.of(MediaType.valueOf(Constants.MEDIA_TYPE_SMILE), JacksonBinaryProvider.SMILE_MAPPER),
+                Arguments.of(MediaType.valueOf(Constants.MEDIA_TYPE_CBOR), JacksonBinaryProvider.CBOR_MAPPER)
+        );
+    }
+
+    private static PointOfInterest createPoi(String id, double longitude, double latitude) {
+        PointOfInterest poi = new PointOfInterest();
+        poi.setHref("http://localhost:8080/zdi-geo-service/api/poi/" + id);
+        poi.setId(id);
+        poi.setLocation(new Point(longitude, latitude));
+        poi.setCategory("restaurant");
+        poi.setName("Mensa");
+        poi.setDetails("Nürnberger Str. 55, 01187 Dresden");
+        return poi;
+    }
+
+    /**
+     * Test that a list of poi's is written with the structure of the JSON representation and read back.
+     */
+    @ParameterizedTest(name = "Media type: {0}")
+    @MethodSource("mediaTypeProvider")
+    void testWriteAndReadList(MediaType mediaType, ObjectMapper mapper) throws Exception {
+        List<PointOfInterest> pois = List.of(createPoi("1", 13.7284917, 51.031514), createPoi("2", 13.8, 51.1));
+        assertTrue(provider.isWriteable(pois.getClass(), POI_LIST_TYPE, new Annotation[0], mediaType));
+
+        ClosingTrackingOutputStream output = new ClosingTrackingOutputStream();
+        provider.writeTo(pois, pois.getClass(), POI_LIST_TYPE, new Annotation[0], mediaType, new MultivaluedHashMap<>(),
+                output);
+
+        assertFalse(output.closed, "the stream of the JAX-RS implementation must not be closed");
+        assertEquals(jsonMapper.valueToTree(pois), mapper.readTree(output.toByteArray()));
+
+        @SuppressWarnings("unchecked")
+        List<PointOfInterest> read = (List<PointOfInterest>) provider.readFrom((Class) List.class, POI_LIST_TYPE,
+                new Annotation[0], mediaType, new MultivaluedHashMap<>(), new ByteArrayInputStream(output.toByteArray()));
+        assertEquals(2, read.size());
+        assertInstanceOf(PointOfInterest.class, read.get(0));
+        assertEquals(jsonMapper.writeValueAsString(pois), jsonMapper.writeValueAsString(read));
+    }
+
+    /**
+     * Test that the binary formats are smaller than JSON.
+     */
+    @ParameterizedTest(name = "Media type: {0}")
+    @MethodSource("mediaTypeProvider")
+    void testSmallerThanJson(MediaType mediaType, ObjectMapper mapper) throws Exception {
+        List<PointOfInterest> pois = Stream.iterate(0, i -> i + 1).limit(100)
+                .map(i -> createPoi(Integer.toString(i), 13.7 + i / 1000.0, 51.0 + i / 1000.0)).toList();
+
+        assertTrue(mapper.writeValueAsBytes(pois).length < jsonMapper.writeValueAsBytes(pois).length);
+    }
+
+    @Test
+    void testReadInvalidBody() {
+        MediaType mediaType = MediaType.valueOf(Constants.MEDIA_TYPE_SMILE);
+
+        assertThrows(BadRequestException.class, () -> provider.readFrom((Class) PointOfInterest.class,
+                PointOfInterest.class, new Annotation[0], mediaType, new MultivaluedHashMap<>(),
+                new ByteArrayInputStream("{\"name\": \"JSON\"}".getBytes())));
+    }
+
+    @Test
+    void testOtherMediaTypes() {
+        assertNull(JacksonBinaryProvider.mapperFor(MediaType.APPLICATION_JSON_TYPE));
+        assertNull(JacksonBinaryProvider.mapperFor(MediaType.WILDCARD_TYPE));
+        assertNull(JacksonBinaryProvider.mapperFor(MediaType.valueOf("application/*")));
+        assertNull(JacksonBinaryProvider.mapperFor(MediaType.valueOf(Constants.MEDIA_TYPE_PROTOBUF)));
+        assertSame(JacksonBinaryProvider.CBOR_MAPPER, JacksonBinaryProvider.mapperFor(MediaType.valueOf("application/CBOR")));
+        assertFalse(provider.isWriteable(PointOfInterest.class, PointOfInterest.class, new Annotation[0],
+                MediaType.APPLICATION_JSON_TYPE));
+    }
+
+    private static class ClosingTrackingOutputStream extends ByteArrayOutputStream {
+
+        private boolean closed;
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
+}
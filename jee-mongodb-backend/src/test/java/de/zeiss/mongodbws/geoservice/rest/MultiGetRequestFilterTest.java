@@ -0,0 +1,78 @@
+package de.zeiss.mongodbws.geoservice.rest;
+
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.UriBuilder;
+import jakarta.ws.rs.core.UriInfo;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.net.URI;
+import java.util.stream.Stream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for MultiGetRequestFilter.
+ */
+class MultiGetRequestFilterTest {
+
+    private static final URI BASE_URI = URI.create("http://localhost:8080/zdi-geo-service/api/");
+
+    static Stream<Arguments> rewrittenProvider() {
+        return Stream.of(Arguments.of("/poi"), Arguments.of("poi"), Arguments.of("/poi/"));
+    }
+
+    static Stream<Arguments> notRewrittenProvider() {
+        return Stream.of(
+                Arguments.of("GET", "/poi", "lat=51.0&lon=13.7&radius=100"),
+                Arguments.of("POST", "/poi", "ids=a,b"),
+                Arguments.of("GET", "/poi/a", "ids=a,b"),
+                Arguments.of("GET", "/poi/nearest", "ids=a,b")
+        );
+    }
+
+    @ParameterizedTest(name = "Rewrite #{index}: path={0}")
+    @MethodSource("rewrittenProvider")
+    void testFilter_GetPoiWithIds_ShouldRewriteToMultiGet(String path) throws Exception {
+        ContainerRequestContext requestContext = mockRequest("GET", path, "ids=a,b&expand=details");
+
+        new MultiGetRequestFilter().filter(requestContext);
+
+        verify(requestContext).setRequestUri(BASE_URI,
+                URI.create("http://localhost:8080/zdi-geo-service/api/poi/_mget?ids=a,b&expand=details"));
+    }
+
+    @ParameterizedTest(name = "No rewrite #{index}: {0} {1}?{2}")
+    @MethodSource("notRewrittenProvider")
+    void testFilter_OtherRequests_ShouldNotRewrite(String method, String path, String query) throws Exception {
+        ContainerRequestContext requestContext = mockRequest(method, path, query);
+
+        new MultiGetRequestFilter().filter(requestContext);
+
+        verify(requestContext, never()).setRequestUri(any(), any());
+    }
+
+    private static ContainerRequestContext mockRequest(String method, String path, String query) {
+        ContainerRequestContext requestContext = mock(ContainerRequestContext.class);
+        UriInfo uriInfo = mock(UriInfo.class);
+        URI requestUri = URI.create(BASE_URI + path.replaceFirst("^/", "") + "?" + query);
+
+        MultivaluedMap<String, String> queryParameters = new MultivaluedHashMap<>();
+        for (String param : query.split("&")) {
+            String[] keyValue = param.split("=", 2);
+            queryParameters.add(keyValue[0], keyValue[1]);
+        }
+
+        when(requestContext.getMethod()).thenReturn(method);
+        when(requestContext.getUriInfo()).thenReturn(uriInfo);
+        lenient().when(uriInfo.getPath()).thenReturn(path);
+        lenient().when(uriInfo.getQueryParameters()).thenReturn(queryParameters);
+        lenient().when(uriInfo.getBaseUri()).thenReturn(BASE_URI);
+        lenient().when(uriInfo.getRequestUriBuilder()).thenAnswer(invocation -> UriBuilder.fromUri(requestUri));
+        return requestContext;
+    }
+}
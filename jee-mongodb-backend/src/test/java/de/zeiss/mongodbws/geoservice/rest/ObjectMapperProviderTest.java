@@ -0,0 +1,115 @@
+package de.zeiss.mongodbws.geoservice.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.zeiss.mongodbws.geoservice.rest.resource.PointOfInterest;
+import de.zeiss.mongodbws.geoservice.rest.resource.PointOfInterestMultiGetResult;
+import org.geojson.Crs;
+import org.geojson.Point;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ObjectMapperProvider and GeoJsonPointModule.
+ */
+class ObjectMapperProviderTest {
+
+    /**
+     * The ObjectMapper of RESTEasy without the provider.
+     */
+    private final ObjectMapper defaultMapper = new ObjectMapper();
+
+    private final ObjectMapper objectMapper = new ObjectMapperProvider().getContext(PointOfInterest.class);
+
+    static Stream<Arguments> pointProvider() {
+        Point withBbox = new Point(13.7, 51.05);
+        withBbox.setBbox(new double[]{13, 51, 14, 52});
+        Point withCrs = new Point(13.7, 51.05);
+        withCrs.setCrs(new Crs());
+        return Stream.of(
+                Arguments.of(new Point(13.7284917, 51.031514)),
+                Arguments.of(new Point(-122.4194, 37.7749)),
+                Arguments.of(new Point(0, 0)),
+                Arguments.of(new Point(180, -90)),
+                Arguments.of(new Point(1e-7, -1.5e-9)),
+                Arguments.of(new Point(13.7, 51.05, 112.5)),
+                Arguments.of(new Point(13.7, 51.05, 112.5, 1.0, 2.0)),
+                Arguments.of(withBbox),
+                Arguments.of(withCrs),
+                Arguments.of(new Point())
+        );
+    }
+
+    private static PointOfInterest createPoi(Point location) {
+        PointOfInterest poi = new PointOfInterest();
+        poi.setHref("http://localhost:8080/zdi-geo-service/api/poi/1");
+        poi.setId("1");
+        poi.setLocation(location);
+        poi.setCategory("restaurant");
+        poi.setName("Mensa");
+        poi.setDetails("Nürnberger Str. 55, \"01187\" Dresden");
+        poi.setDistance(12.5);
+        return poi;
+    }
+
+    /**
+     * Test that the points of interest are serialized to the same JSON as without the provider.
+     *
+     * @param location the location of the point of interest
+     */
+    @ParameterizedTest(name = "Location #{index}: {0}")
+    @MethodSource("pointProvider")
+    void testSameJson(Point location) throws Exception {
+        PointOfInterest poi = createPoi(location);
+
+        assertEquals(defaultMapper.writeValueAsString(poi), objectMapper.writeValueAsString(poi));
+        assertEquals(defaultMapper.writeValueAsString(location), objectMapper.writeValueAsString(location));
+    }
+
+    @Test
+    void testSameJsonOfLists() throws Exception {
+        List<PointOfInterest> pois = List.of(createPoi(new Point(13.7, 51.05)), createPoi(new Point(13.8, 51.1)));
+        PointOfInterestMultiGetResult result = new PointOfInterestMultiGetResult();
+        result.setPointsOfInterest(pois);
+        result.setMissingIds(List.of("2"));
+
+        assertEquals(defaultMapper.writeValueAsString(pois), objectMapper.writeValueAsString(pois));
+        assertEquals(defaultMapper.writeValueAsString(result), objectMapper.writeValueAsString(result));
+    }
+
+    @Test
+    void testPointJson() throws Exception {
+        assertEquals("{\"type\":\"Point\",\"coordinates\":[13.7,51.05]}",
+                objectMapper.writeValueAsString(new Point(13.7, 51.05)));
+    }
+
+    @Test
+    void testFastPathRegistered() throws Exception {
+        assertInstanceOf(GeoJsonPointModule.PointSerializer.class,
+                objectMapper.getSerializerProviderInstance().findValueSerializer(Point.class));
+    }
+
+    @Test
+    void testReadJson() throws Exception {
+        String json = defaultMapper.writeValueAsString(createPoi(new Point(13.7, 51.05)));
+
+        PointOfInterest poi = objectMapper.readValue(json, PointOfInterest.class);
+
+        assertEquals(new Point(13.7, 51.05), poi.getLocation());
+        assertEquals("Mensa", poi.getName());
+        assertEquals(12.5, poi.getDistance());
+    }
+
+    @Test
+    void testSameObjectMapperForAllTypes() {
+        ObjectMapperProvider provider = new ObjectMapperProvider();
+
+        assertSame(provider.getContext(PointOfInterest.class), provider.getContext(List.class));
+    }
+}
@@ -0,0 +1,167 @@
+package de.zeiss.mongodbws.geoservice.rest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.UnknownFieldSet;
+import de.zeiss.mongodbws.geoservice.rest.resource.PointOfInterest;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import org.geojson.Point;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for PointOfInterestProtobufProvider and PointOfInterestProtobuf.
+ */
+class PointOfInterestProtobufProviderTest {
+
+    private static final MediaType PROTOBUF = MediaType.valueOf(Constants.MEDIA_TYPE_PROTOBUF);
+
+    private final PointOfInterestProtobufProvider provider = new PointOfInterestProtobufProvider();
+
+    static Stream<Arguments> poiProvider() {
+        PointOfInterest withoutOptionalFields = new PointOfInterest();
+        withoutOptionalFields.setName("Mensa");
+        withoutOptionalFields.setCategory("restaurant");
+
+        PointOfInterest withAltitude = createPoi("2", new Point(13.7, 51.05, 112.5));
+        withAltitude.setDistance(0.0);
+
+        return Stream.of(
+                Arguments.of(createPoi("1", new Point(13.7284917, 51.031514))),
+                Arguments.of(createPoi("3", new Point(-180, -90))),
+                Arguments.of(withAltitude),
+                Arguments.of(withoutOptionalFields)
+        );
+    }
+
+    private static PointOfInterest createPoi(String id, Point location) {
+        PointOfInterest poi = new PointOfInterest();
+        poi.setHref("http://localhost:8080/zdi-geo-service/api/poi/" + id);
+        poi.setId(id);
+        poi.setLocation(location);
+        poi.setCategory("restaurant");
+        poi.setName("Mensa");
+        poi.setDetails("Nürnberger Str. 55, 01187 Dresden");
+        poi.setDistance(12.5);
+        return poi;
+    }
+
+    private byte[] write(Object value, Type genericType) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        provider.writeTo(value, value.getClass(), genericType, new Annotation[0], PROTOBUF, new MultivaluedHashMap<>(),
+                output);
+        return output.toByteArray();
+    }
+
+    private PointOfInterest read(byte[] bytes) throws Exception {
+        return provider.readFrom(PointOfInterest.class, PointOfInterest.class, new Annotation[0], PROTOBUF,
+                new MultivaluedHashMap<>(), new ByteArrayInputStream(bytes));
+    }
+
+    private static void assertSamePoi(PointOfInterest expected, PointOfInterest actual) throws Exception {
+        // the id is not part of the representation, like in JSON
+        assertEquals(ObjectMapperProvider.OBJECT_MAPPER.writeValueAsString(expected),
+                ObjectMapperProvider.OBJECT_MAPPER.writeValueAsString(actual));
+    }
+
+    /**
+     * Test that a poi is written and read back with all fields of its JSON representation.
+     *
+     * @param poi the poi
+     */
+    @ParameterizedTest(name = "Point of interest #{index}")
+    @MethodSource("poiProvider")
+    void testWriteAndRead(PointOfInterest poi) throws Exception {
+        byte[] bytes = write(poi, PointOfInterest.class);
+
+        assertEquals(PointOfInterestProtobuf.computeSize(poi), bytes.length);
+        assertSamePoi(poi, read(bytes));
+    }
+
+    /**
+     * Test that a list is written as PointOfInterestList, a repeated message field.
+     */
+    @Test
+    void testWriteList() throws Exception {
+        List<PointOfInterest> pois = List.of(createPoi("1", new Point(13.7, 51.05)), createPoi("2", new Point(13.8, 51.1)));
+
+        byte[] bytes = write(pois, pois.getClass());
+
+        List<ByteString> messages = UnknownFieldSet.parseFrom(bytes)
+                .getField(PointOfInterestProtobuf.POINTS_OF_INTEREST).getLengthDelimitedList();
+        assertEquals(2, messages.size());
+        assertSamePoi(pois.get(0), read(messages.get(0).toByteArray()));
+        assertSamePoi(pois.get(1), read(messages.get(1).toByteArray()));
+    }
+
+    @Test
+    void testWriteEmptyList() throws Exception {
+        assertEquals(0, write(new ArrayList<>(), ArrayList.class).length);
+    }
+
+    @Test
+    void testSmallerThanJson() throws Exception {
+        List<PointOfInterest> pois = Stream.iterate(0, i -> i + 1).limit(100)
+                .map(i -> createPoi(Integer.toString(i), new Point(13.7 + i / 1000.0, 51.0 + i / 1000.0))).toList();
+
+        assertTrue(write(pois, pois.getClass()).length
+                < ObjectMapperProvider.OBJECT_MAPPER.writeValueAsBytes(pois).length);
+    }
+
+    /**
+     * Test that fields of a newer schema and fields with an unexpected wire type are skipped.
+     */
+    @Test
+    void testReadSkipsUnknownFields() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        output.writeString(PointOfInterestProtobuf.NAME, "Mensa");
+        output.writeInt64(PointOfInterestProtobuf.CATEGORY, 42);
+        output.writeString(99, "unknown");
+        output.writeDouble(98, 1.5);
+        output.flush();
+
+        PointOfInterest poi = read(bytes.toByteArray());
+
+        assertEquals("Mensa", poi.getName());
+        assertNull(poi.getCategory());
+        assertNull(poi.getLocation());
+        assertNull(poi.getDistance());
+    }
+
+    @Test
+    void testReadInvalidBody() {
+        assertThrows(BadRequestException.class, () -> read(new byte[]{0x12, 0x7f, 'M'}));
+    }
+
+    @Test
+    void testWriteableTypes() {
+        Type poiListType = new TypeReference<List<PointOfInterest>>() {
+        }.getType();
+        Type stringListType = new TypeReference<List<String>>() {
+        }.getType();
+
+        assertTrue(provider.isWriteable(PointOfInterest.class, PointOfInterest.class, new Annotation[0], PROTOBUF));
+        assertTrue(provider.isWriteable(List.class, poiListType, new Annotation[0], PROTOBUF));
+        assertTrue(provider.isWriteable(ArrayList.class, ArrayList.class, new Annotation[0], PROTOBUF));
+        assertFalse(provider.isWriteable(List.class, stringListType, new Annotation[0], PROTOBUF));
+        assertFalse(provider.isWriteable(Map.class, Map.class, new Annotation[0], PROTOBUF));
+        assertFalse(provider.isReadable(List.class, poiListType, new Annotation[0], PROTOBUF));
+    }
+}
@@ -0,0 +1,22 @@
+package de.zeiss.mongodbws.geoservice.rest;
+
+import com.mongodb.MongoExecutionTimeoutException;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class QueryTimeoutExceptionMapperTest {
+
+    @Test
+    public void testToResponse() {
+        MongoExecutionTimeoutException exception = new MongoExecutionTimeoutException(50, "operation exceeded time limit");
+        QueryTimeoutExceptionMapper mapper = new QueryTimeoutExceptionMapper();
+        try (Response response = mapper.toResponse(exception)) {
+            assertEquals(Response.Status.SERVICE_UNAVAILABLE.getStatusCode(), response.getStatus());
+            assertEquals(Map.of("message", "The query exceeded its time budget"), response.getEntity());
+        }
+    }
+}
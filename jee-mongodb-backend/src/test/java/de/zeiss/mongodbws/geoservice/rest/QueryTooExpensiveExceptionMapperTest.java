@@ -0,0 +1,25 @@
+package de.zeiss.mongodbws.geoservice.rest;
+
+import de.zeiss.mongodbws.geoservice.service.QueryTooExpensiveException;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class QueryTooExpensiveExceptionMapperTest {
+
+    @Test
+    public void testToResponse() {
+        QueryTooExpensiveException exception = new QueryTooExpensiveException(20000, 5000);
+        QueryTooExpensiveExceptionMapper mapper = new QueryTooExpensiveExceptionMapper();
+        try (Response response = mapper.toResponse(exception)) {
+            assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
+            Map<?, ?> entity = (Map<?, ?>) response.getEntity();
+            assertEquals(exception.getMessage(), entity.get("message"));
+            assertEquals(20000L, entity.get("estimatedResults"));
+            assertEquals(5000L, entity.get("maxEstimatedResults"));
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package de.zeiss.mongodbws.geoservice.rest;
+
+import de.zeiss.mongodbws.geoservice.timing.Layer;
+import de.zeiss.mongodbws.geoservice.timing.ServerTiming;
+import de.zeiss.mongodbws.geoservice.timing.ServerTimingStatistics;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for ServerTimingFilter.
+ */
+class ServerTimingFilterTest {
+
+    private ServerTimingFilter filter;
+
+    private final MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        filter = new ServerTimingFilter();
+        filter.serverTiming = new ServerTiming();
+        filter.statistics = new ServerTimingStatistics();
+    }
+
+    @Test
+    void testResponseWithBody() throws IOException {
+        ContainerResponseContext resCtx = mock(ContainerResponseContext.class);
+        when(resCtx.getHeaders()).thenReturn(headers);
+        when(resCtx.getEntity()).thenReturn(List.of());
+        WriterInterceptorContext context = mock(WriterInterceptorContext.class);
+        when(context.getEntity()).thenReturn(List.of());
+
+        filter.filter(mock(ContainerRequestContext.class));
+        filter.serverTiming.enter(Layer.CONTROLLER);
+        filter.serverTiming.exit(Layer.CONTROLLER);
+        filter.filter(mock(ContainerRequestContext.class), resCtx);
+        filter.aroundWriteTo(context);
+
+        String serverTiming = (String) headers.getFirst(Constants.SERVER_TIMING_HEADER);
+        assertTrue(serverTiming.startsWith("total;dur="));
+        assertTrue(serverTiming.contains("ctrl;dur="));
+        assertFalse(serverTiming.contains("ser;dur="));
+        // the body is written to the client directly
+        verify(context).proceed();
+        verify(context, never()).setOutputStream(any());
+    }
+
+    @Test
+    void testResponseWithBodySerializationTimed() throws IOException {
+        filter.serialization = true;
+        ContainerResponseContext resCtx = mock(ContainerResponseContext.class);
+        when(resCtx.getEntity()).thenReturn(List.of());
+        ByteArrayOutputStream client = new ByteArrayOutputStream();
+        AtomicReference<OutputStream> out = new AtomicReference<>(client);
+        WriterInterceptorContext context = mock(WriterInterceptorContext.class);
+        when(context.getEntity()).thenReturn(List.of());
+        when(context.getHeaders()).thenReturn(headers);
+        when(context.getOutputStream()).thenAnswer(inv -> out.get());
+        doAnswer(inv -> {
+            out.set(inv.getArgument(0));
+            return null;
+        }).when(context).setOutputStream(any());
+        doAnswer(inv -> {
+            // the header has to be set before anything is sent to the client
+            assertNull(headers.getFirst(Constants.SERVER_TIMING_HEADER));
+            out.get().write("{}".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(context).proceed();
+
+        filter.filter(mock(ContainerRequestContext.class));
+        filter.serverTiming.enter(Layer.CONTROLLER);
+        filter.serverTiming.exit(Layer.CONTROLLER);
+        filter.filter(mock(ContainerRequestContext.class), resCtx);
+        filter.aroundWriteTo(context);
+
+        String serverTiming = (String) headers.getFirst(Constants.SERVER_TIMING_HEADER);
+        assertTrue(serverTiming.startsWith("total;dur="));
+        assertTrue(serverTiming.contains("ctrl;dur="));
+        assertTrue(serverTiming.contains("ser;dur="));
+        verify(resCtx, never()).getHeaders();
+        assertEquals("{}", client.toString(StandardCharsets.UTF_8));
+        assertSame(client, out.get());
+        assertEquals(1L, filter.statistics.getStatistics().get("ser").get("count"));
+    }
+
+    @Test
+    void testResponseWithoutBody() throws IOException {
+        ContainerResponseContext resCtx = mock(ContainerResponseContext.class);
+        when(resCtx.getHeaders()).thenReturn(headers);
+
+        filter.filter(mock(ContainerRequestContext.class));
+        filter.filter(mock(ContainerRequestContext.class), resCtx);
+
+        assertTrue(((String) headers.getFirst(Constants.SERVER_TIMING_HEADER)).startsWith("total;dur="));
+        assertEquals(1L, filter.statistics.getStatistics().get("total").get("count"));
+    }
+
+    @Test
+    void testDisabled() throws IOException {
+        filter.enabled = false;
+        ContainerResponseContext resCtx = mock(ContainerResponseContext.class);
+        WriterInterceptorContext context = mock(WriterInterceptorContext.class);
+
+        filter.filter(mock(ContainerRequestContext.class));
+        filter.filter(mock(ContainerRequestContext.class), resCtx);
+        filter.aroundWriteTo(context);
+
+        verify(context).proceed();
+        verify(context, never()).setOutputStream(any());
+        verify(resCtx, never()).getHeaders();
+    }
+}
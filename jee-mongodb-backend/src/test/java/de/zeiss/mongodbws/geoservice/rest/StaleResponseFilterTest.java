@@ -0,0 +1,46 @@
+package de.zeiss.mongodbws.geoservice.rest;
+
+import de.zeiss.mongodbws.geoservice.service.StaleResponse;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.MultivaluedMap;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for StaleResponseFilter.
+ */
+class StaleResponseFilterTest {
+
+    @Test
+    void testStaleResponse() throws IOException {
+        StaleResponseFilter filter = new StaleResponseFilter();
+        filter.staleResponse = new StaleResponse();
+        filter.staleResponse.markStale(42);
+        MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+        ContainerResponseContext resCtx = mock(ContainerResponseContext.class);
+        when(resCtx.getHeaders()).thenReturn(headers);
+
+        filter.filter(mock(ContainerRequestContext.class), resCtx);
+
+        assertEquals(StaleResponseFilter.STALE_WARNING, headers.getFirst("Warning"));
+        assertEquals(42L, headers.getFirst("Age"));
+        assertEquals(true, headers.getFirst(Constants.STALE_HEADER));
+    }
+
+    @Test
+    void testFreshResponse() throws IOException {
+        StaleResponseFilter filter = new StaleResponseFilter();
+        filter.staleResponse = new StaleResponse();
+        ContainerResponseContext resCtx = mock(ContainerResponseContext.class);
+
+        filter.filter(mock(ContainerRequestContext.class), resCtx);
+
+        verify(resCtx, never()).getHeaders();
+    }
+}
@@ -0,0 +1,127 @@
+package de.zeiss.mongodbws.geoservice.rest;
+
+import de.zeiss.mongodbws.geoservice.rest.resource.PointOfInterestResourceController;
+import de.zeiss.mongodbws.geoservice.tracing.Tracing;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.UriInfo;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for TracingFilter.
+ */
+class TracingFilterTest {
+
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+
+    private final InMemorySpanExporter exporter = InMemorySpanExporter.create();
+
+    private final Map<String, Object> properties = new HashMap<>();
+
+    private final MultivaluedMap<String, String> headers = new MultivaluedHashMap<>();
+
+    private TracingFilter filter;
+
+    private ContainerRequestContext requestContext;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        filter = new TracingFilter();
+        filter.tracing = new Tracing();
+        filter.tracing.start(SimpleSpanProcessor.create(exporter));
+        filter.resourceInfo = mock(ResourceInfo.class);
+        doReturn(PointOfInterestResourceController.class).when(filter.resourceInfo).getResourceClass();
+        when(filter.resourceInfo.getResourceMethod()).thenReturn(PointOfInterestResourceController.class
+                .getMethod("deletePOI", String.class));
+
+        UriInfo uriInfo = mock(UriInfo.class);
+        when(uriInfo.getRequestUri()).thenReturn(URI.create("http://localhost:8080/zdi-geo-service/api/poi/42"));
+        requestContext = mock(ContainerRequestContext.class);
+        when(requestContext.getMethod()).thenReturn("DELETE");
+        when(requestContext.getUriInfo()).thenReturn(uriInfo);
+        when(requestContext.getHeaders()).thenReturn(headers);
+        doAnswer(inv -> properties.put(inv.getArgument(0), inv.getArgument(1)))
+                .when(requestContext).setProperty(anyString(), any());
+        when(requestContext.getProperty(anyString())).thenAnswer(inv -> properties.get(inv.<String>getArgument(0)));
+        doAnswer(inv -> properties.remove(inv.<String>getArgument(0)))
+                .when(requestContext).removeProperty(anyString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        filter.tracing.close();
+    }
+
+    @Test
+    void testResponseWithoutBody() throws IOException {
+        headers.putSingle("traceparent", "00-" + TRACE_ID + "-00f067aa0ba902b7-01");
+
+        filter.filter(requestContext);
+        assertTrue(Span.current().getSpanContext().isValid());
+        filter.filter(requestContext, response(204, false));
+
+        assertFalse(Span.current().getSpanContext().isValid());
+        SpanData span = exporter.getFinishedSpanItems().get(0);
+        assertEquals("DELETE /api/poi/{id}", span.getName());
+        assertEquals(SpanKind.SERVER, span.getKind());
+        assertEquals(TRACE_ID, span.getTraceId());
+        assertEquals("00f067aa0ba902b7", span.getParentSpanId());
+        assertEquals(204L, span.getAttributes().get(AttributeKey.longKey("http.response.status_code")));
+        assertEquals("/api/poi/{id}", span.getAttributes().get(AttributeKey.stringKey("http.route")));
+    }
+
+    @Test
+    void testResponseWithBody() throws IOException {
+        WriterInterceptorContext context = mock(WriterInterceptorContext.class);
+        when(context.getProperty(anyString())).thenAnswer(inv -> properties.get(inv.<String>getArgument(0)));
+        doAnswer(inv -> properties.remove(inv.<String>getArgument(0))).when(context).removeProperty(anyString());
+
+        filter.filter(requestContext);
+        filter.filter(requestContext, response(200, true));
+        assertTrue(exporter.getFinishedSpanItems().isEmpty());
+        filter.aroundWriteTo(context);
+
+        verify(context).proceed();
+        SpanData span = exporter.getFinishedSpanItems().get(0);
+        assertFalse(span.getParentSpanContext().isValid());
+        assertTrue(properties.isEmpty());
+    }
+
+    @Test
+    void testDisabled() throws IOException {
+        filter.tracing.close();
+
+        filter.filter(requestContext);
+        filter.filter(requestContext, response(200, false));
+
+        assertTrue(properties.isEmpty());
+        assertTrue(exporter.getFinishedSpanItems().isEmpty());
+    }
+
+    private static ContainerResponseContext response(int status, boolean entity) {
+        ContainerResponseContext responseContext = mock(ContainerResponseContext.class);
+        when(responseContext.getStatus()).thenReturn(status);
+        when(responseContext.hasEntity()).thenReturn(entity);
+        return responseContext;
+    }
+}
@@ -0,0 +1,155 @@
+package de.zeiss.mongodbws.geoservice.rest.resource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.google.protobuf.UnknownFieldSet;
+import de.zeiss.mongodbws.geoservice.persistence.PointOfInterestColumns;
+import de.zeiss.mongodbws.geoservice.persistence.QueryResult;
+import de.zeiss.mongodbws.geoservice.rest.Constants;
+import de.zeiss.mongodbws.geoservice.rest.JacksonBinaryProvider;
+import de.zeiss.mongodbws.geoservice.rest.PointOfInterestProtobufProvider;
+import de.zeiss.mongodbws.geoservice.service.GeoDataService;
+import org.geojson.Point;
+import org.jboss.resteasy.mock.MockDispatcherFactory;
+import org.jboss.resteasy.mock.MockHttpRequest;
+import org.jboss.resteasy.mock.MockHttpResponse;
+import org.jboss.resteasy.spi.Dispatcher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests of the binary formats of PointOfInterestResourceController, selected by the Accept and Content-Type headers.
+ */
+@ExtendWith(MockitoExtension.class)
+class PointOfInterestResourceControllerContentNegotiationTest {
+
+    @Mock
+    private GeoDataService geoDataService;
+
+    @InjectMocks
+    private PointOfInterestResourceController controller;
+
+    private Dispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = MockDispatcherFactory.createDispatcher();
+        dispatcher.getProviderFactory().registerProvider(JacksonBinaryProvider.class);
+        dispatcher.getProviderFactory().registerProvider(PointOfInterestProtobufProvider.class);
+        dispatcher.getRegistry().addSingletonResource(controller);
+    }
+
+    private static PointOfInterest createPoi(String id) {
+        PointOfInterest poi = new PointOfInterest();
+        poi.setId(id);
+        poi.setLocation(new Point(13.7373, 51.0504));
+        poi.setCategory("restaurant");
+        poi.setName("Restaurant " + id);
+        return poi;
+    }
+
+    private MockHttpResponse invoke(MockHttpRequest request) {
+        MockHttpResponse response = new MockHttpResponse();
+        dispatcher.invoke(request, response);
+        return response;
+    }
+
+    @ParameterizedTest(name = "Accept: {0}")
+    @ValueSource(strings = {Constants.MEDIA_TYPE_SMILE, Constants.MEDIA_TYPE_CBOR, Constants.MEDIA_TYPE_PROTOBUF})
+    void testListPOIsInBinaryFormat(String mediaType) throws Exception {
+        when(geoDataService.listPOIs(51.05, 13.73, 500, false, false))
+                .thenReturn(QueryResult.complete(List.of(createPoi("1"), createPoi("2"))));
+
+        MockHttpResponse response = invoke(MockHttpRequest.get("/poi?lat=51.05&lon=13.73&radius=500")
+                .accept(mediaType + ", " + Constants.MEDIA_TYPE_JSON + ";q=0.5"));
+
+        assertEquals(200, response.getStatus());
+        assertEquals(mediaType, response.getOutputHeaders().getFirst("Content-Type").toString());
+        assertTrue(response.getOutput().length > 0);
+    }
+
+    @Test
+    void testListPOIsAsProtobuf() throws Exception {
+        when(geoDataService.listPOIs(51.05, 13.73, 500, false, false))
+                .thenReturn(QueryResult.complete(List.of(createPoi("1"), createPoi("2"))));
+
+        MockHttpResponse response = invoke(MockHttpRequest.get("/poi?lat=51.05&lon=13.73&radius=500")
+                .accept(Constants.MEDIA_TYPE_PROTOBUF));
+
+        // PointOfInterestList with two PointOfInterest messages
+        assertEquals(2, UnknownFieldSet.parseFrom(response.getOutput()).getField(1).getLengthDelimitedList().size());
+    }
+
+    /**
+     * Test that the columnar format is JSON for any accepted media type.
+     */
+    @Test
+    void testListPOIsAsColumns() throws Exception {
+        PointOfInterestColumns columns = new PointOfInterestColumns();
+        columns.add("1", 13.7373, 51.0504, "restaurant");
+        when(geoDataService.listPOIColumns(51.05, 13.73, 500, false)).thenReturn(columns);
+
+        MockHttpResponse response = invoke(MockHttpRequest.get("/poi?lat=51.05&lon=13.73&radius=500&format=columnar&precision=2")
+                .accept("*/*"));
+
+        assertEquals(200, response.getStatus());
+        assertEquals(Constants.MEDIA_TYPE_JSON, response.getOutputHeaders().getFirst("Content-Type").toString());
+        assertEquals("{\"ids\":[\"1\"],\"lon\":[13.74],\"lat\":[51.05],\"cat\":[0],\"categories\":[\"restaurant\"]}",
+                response.getContentAsString());
+    }
+
+    @Test
+    void testCreatePOIFromCbor() throws Exception {
+        PointOfInterest poi = createPoi(null);
+        PointOfInterest created = createPoi("507f1f77bcf86cd799439011");
+        when(geoDataService.createPOI(any())).thenReturn(created);
+
+        MockHttpResponse response = invoke(MockHttpRequest.post("/poi")
+                .contentType(Constants.MEDIA_TYPE_CBOR)
+                .content(new ObjectMapper(new CBORFactory()).writeValueAsBytes(poi)));
+
+        assertEquals(201, response.getStatus());
+        ArgumentCaptor<PointOfInterest> captor = ArgumentCaptor.forClass(PointOfInterest.class);
+        verify(geoDataService).createPOI(captor.capture());
+        assertEquals("Restaurant null", captor.getValue().getName());
+        assertEquals(51.0504, captor.getValue().getLocation().getCoordinates().getLatitude());
+    }
+
+    /**
+     * Test that Protobuf is not offered for results without a schema, e.g. the poi's by category.
+     */
+    @Test
+    void testPerCategoryNotAcceptableAsProtobuf() throws Exception {
+        MockHttpResponse response = invoke(MockHttpRequest.get("/poi/nearest/per-category?lat=51.05&lon=13.73&radius=500&n=3")
+                .accept(Constants.MEDIA_TYPE_PROTOBUF));
+
+        assertEquals(406, response.getStatus());
+        verifyNoInteractions(geoDataService);
+    }
+
+    @Test
+    void testPerCategoryAsSmile() throws Exception {
+        when(geoDataService.listNearestPOIsPerCategory(eq(51.05), eq(13.73), eq(500), eq(3), any(), eq(false)))
+                .thenReturn(Map.of("restaurant", List.of(createPoi("1"))));
+
+        MockHttpResponse response = invoke(MockHttpRequest.get("/poi/nearest/per-category?lat=51.05&lon=13.73&radius=500&n=3")
+                .accept(Constants.MEDIA_TYPE_SMILE));
+
+        assertEquals(200, response.getStatus());
+        assertEquals(Constants.MEDIA_TYPE_SMILE, response.getOutputHeaders().getFirst("Content-Type").toString());
+    }
+}
@@ -5,6 +5,9 @@
  */
 package de.zeiss.mongodbws.geoservice.rest.resource;
 
+import de.zeiss.mongodbws.geoservice.persistence.PointOfInterestColumns;
+import de.zeiss.mongodbws.geoservice.persistence.QueryResult;
+import de.zeiss.mongodbws.geoservice.rest.Constants;
 import de.zeiss.mongodbws.geoservice.service.GeoDataService;
 import jakarta.ws.rs.NotFoundException;
 import jakarta.ws.rs.core.Response;
@@ -20,6 +23,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.net.URI;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -167,10 +172,10 @@ public class PointOfInterestResourceControllerTest {
         poi2.setLocation(new Point(13.7400, 51.0600));
 
         List<PointOfInterest> poiList = Arrays.asList(testPoi, poi2);
-        when(geoDataService.listPOIs(lat, lon, radius, false)).thenReturn(poiList);
+        when(geoDataService.listPOIs(lat, lon, radius, false, false)).thenReturn(QueryResult.complete(poiList));
 
         // When
-        Response response = controller.listPOIs(lat, lon, radius, null);
+        Response response = controller.listPOIs(lat, lon, radius, null, null, false, null, 5);
 
         // Then
         assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
@@ -187,7 +192,7 @@ public class PointOfInterestResourceControllerTest {
             assertTrue(poi.getHref().contains(poi.getId()));
         }
 
-        verify(geoDataService).listPOIs(lat, lon, radius, false);
+        verify(geoDataService).listPOIs(lat, lon, radius, false, false);
     }
 
     @Test
@@ -198,14 +203,14 @@ public class PointOfInterestResourceControllerTest {
         int radius = 500;
 
         List<PointOfInterest> poiList = Arrays.asList(testPoi);
-        when(geoDataService.listPOIs(lat, lon, radius, true)).thenReturn(poiList);
+        when(geoDataService.listPOIs(lat, lon, radius, true, false)).thenReturn(QueryResult.complete(poiList));
 
         // When
-        Response response = controller.listPOIs(lat, lon, radius, "details");
+        Response response = controller.listPOIs(lat, lon, radius, "details", null, false, null, 5);
 
         // Then
         assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
-        verify(geoDataService).listPOIs(lat, lon, radius, true);
+        verify(geoDataService).listPOIs(lat, lon, radius, true, false);
     }
 
     @Test
@@ -215,11 +220,11 @@ public class PointOfInterestResourceControllerTest {
         double lon = 13.7373;
         int radius = 100;
 
-        when(geoDataService.listPOIs(lat, lon, radius, false)).thenReturn(Arrays.asList());
+        when(geoDataService.listPOIs(lat, lon, radius, false, false)).thenReturn(QueryResult.complete(Arrays.asList()));
 
         // When
         List<PointOfInterest> returnedList;
-        try (Response response = controller.listPOIs(lat, lon, radius, null)) {
+        try (Response response = controller.listPOIs(lat, lon, radius, null, null, false, null, 5)) {
 
             // Then
             assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
@@ -230,14 +235,225 @@ public class PointOfInterestResourceControllerTest {
         }
         assertTrue(returnedList.isEmpty());
 
-        verify(geoDataService).listPOIs(lat, lon, radius, false);
+        verify(geoDataService).listPOIs(lat, lon, radius, false, false);
+    }
+
+    @Test
+    public void testListPOIs_WithFields_ShouldUseFieldProjection() {
+        // Given
+        double lat = 51.0504;
+        double lon = 13.7373;
+        int radius = 1000;
+
+        when(geoDataService.listPOIs(lat, lon, radius, Set.of("name", "location"), false))
+                .thenReturn(QueryResult.complete(List.of(testPoi)));
+
+        // When
+        try (Response response = controller.listPOIs(lat, lon, radius, "details", "name,location", false, null, 5)) {
+
+            // Then
+            assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+
+            @SuppressWarnings("unchecked")
+            List<PointOfInterest> returnedList = (List<PointOfInterest>) response.getEntity();
+            assertEquals(1, returnedList.size());
+            assertTrue(returnedList.get(0).getHref().contains(testId));
+        }
+
+        verify(geoDataService).listPOIs(lat, lon, radius, Set.of("name", "location"), false);
+        verify(geoDataService, never()).listPOIs(anyDouble(), anyDouble(), anyInt(), anyBoolean(), anyBoolean());
+    }
+
+    @Test
+    public void testListPOIs_PartialResult_ShouldSetPartialResultHeader() {
+        // Given
+        double lat = 51.0504;
+        double lon = 13.7373;
+        int radius = 100000;
+
+        when(geoDataService.listPOIs(lat, lon, radius, false, true)).thenReturn(new QueryResult<>(List.of(testPoi), true));
+
+        // When
+        try (Response response = controller.listPOIs(lat, lon, radius, null, null, true, null, 5)) {
+
+            // Then
+            assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+            assertEquals("true", response.getHeaderString(Constants.PARTIAL_RESULT_HEADER));
+
+            @SuppressWarnings("unchecked")
+            List<PointOfInterest> returnedList = (List<PointOfInterest>) response.getEntity();
+            assertEquals(1, returnedList.size());
+        }
+    }
+
+    @Test
+    public void testListPOIs_CompleteResult_ShouldNotSetPartialResultHeader() {
+        // Given
+        when(geoDataService.listPOIs(51.0, 13.0, 1000, false, true)).thenReturn(QueryResult.complete(List.of(testPoi)));
+
+        // When
+        try (Response response = controller.listPOIs(51.0, 13.0, 1000, null, null, true, null, 5)) {
+
+            // Then
+            assertNull(response.getHeaderString(Constants.PARTIAL_RESULT_HEADER));
+        }
+    }
+
+    @Test
+    public void testListPOIs_ColumnarFormat_ShouldReturnColumnsAsJson() {
+        // Given
+        PointOfInterestColumns columns = new PointOfInterestColumns();
+        columns.add(testId, 13.7373, 51.0504, "restaurant");
+        when(geoDataService.listPOIColumns(51.0, 13.0, 1000, false)).thenReturn(columns);
+
+        // When
+        try (Response response = controller.listPOIs(51.0, 13.0, 1000, "details", "name", false, "columnar", 5)) {
+
+            // Then
+            assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+            assertEquals(Constants.MEDIA_TYPE_JSON, response.getMediaType().toString());
+            assertInstanceOf(PointOfInterestColumnsOutput.class, response.getEntity());
+            assertNull(response.getHeaderString(Constants.PARTIAL_RESULT_HEADER));
+            verify(geoDataService, never()).listPOIs(anyDouble(), anyDouble(), anyInt(), anyBoolean(), anyBoolean());
+        }
+    }
+
+    @Test
+    public void testListPOIs_ColumnarFormatPartialResult_ShouldSetPartialResultHeader() {
+        // Given
+        PointOfInterestColumns columns = new PointOfInterestColumns();
+        columns.markPartial();
+        when(geoDataService.listPOIColumns(51.0, 13.0, 1000, true)).thenReturn(columns);
+
+        // When
+        try (Response response = controller.listPOIs(51.0, 13.0, 1000, null, null, true, "columnar", 5)) {
+
+            // Then
+            assertEquals("true", response.getHeaderString(Constants.PARTIAL_RESULT_HEADER));
+        }
+    }
+
+    @Test
+    public void testListNearestPOIs_ValidParameters_ShouldReturnPOIListWithDistance() {
+        // Given
+        double lat = 51.0504;
+        double lon = 13.7373;
+        testPoi.setDistance(42.5);
+
+        when(geoDataService.listNearestPOIs(lat, lon, 5, 2000, "restaurant", false)).thenReturn(List.of(testPoi));
+
+        // When
+        try (Response response = controller.listNearestPOIs(lat, lon, 5, 2000, "restaurant", null)) {
+
+            // Then
+            assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+
+            @SuppressWarnings("unchecked")
+            List<PointOfInterest> returnedList = (List<PointOfInterest>) response.getEntity();
+            assertEquals(1, returnedList.size());
+            assertEquals(42.5, returnedList.get(0).getDistance());
+            assertTrue(returnedList.get(0).getHref().contains(testId));
+        }
+
+        verify(geoDataService).listNearestPOIs(lat, lon, 5, 2000, "restaurant", false);
+    }
+
+    @Test
+    public void testListNearestPOIsPerCategory_ShouldReturnPOIsByCategoryWithHref() {
+        // Given
+        double lat = 51.0504;
+        double lon = 13.7373;
+
+        when(geoDataService.listNearestPOIsPerCategory(lat, lon, 1000, 3, null, false))
+                .thenReturn(Map.of("restaurant", List.of(testPoi)));
+
+        // When
+        try (Response response = controller.listNearestPOIsPerCategory(lat, lon, 1000, 3, null, null)) {
+
+            // Then
+            assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+
+            @SuppressWarnings("unchecked")
+            Map<String, List<PointOfInterest>> returned = (Map<String, List<PointOfInterest>>) response.getEntity();
+            assertEquals(1, returned.get("restaurant").size());
+            assertTrue(returned.get("restaurant").get(0).getHref().contains(testId));
+        }
+
+        verify(geoDataService).listNearestPOIsPerCategory(lat, lon, 1000, 3, null, false);
+    }
+
+    @Test
+    public void testGetPOIsByIds_ShouldSplitIdsAndReturnResultWithHrefs() {
+        // Given
+        PointOfInterestMultiGetResult multiGetResult = new PointOfInterestMultiGetResult();
+        multiGetResult.getPointsOfInterest().add(testPoi);
+        multiGetResult.getMissingIds().add("unknown");
+
+        when(geoDataService.getPOIs(List.of(testId, "unknown"), false)).thenReturn(multiGetResult);
+
+        // When
+        try (Response response = controller.getPOIsByIds(testId + ",unknown", null)) {
+
+            // Then
+            assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+
+            PointOfInterestMultiGetResult returned = (PointOfInterestMultiGetResult) response.getEntity();
+            assertEquals(1, returned.getPointsOfInterest().size());
+            assertTrue(returned.getPointsOfInterest().get(0).getHref().contains(testId));
+            assertEquals(List.of("unknown"), returned.getMissingIds());
+        }
+    }
+
+    @Test
+    public void testMultiGetPOIs_ShouldReturnResult() {
+        // Given
+        PointOfInterestMultiGetResult multiGetResult = new PointOfInterestMultiGetResult();
+        multiGetResult.getPointsOfInterest().add(testPoi);
+
+        when(geoDataService.getPOIs(List.of(testId), true)).thenReturn(multiGetResult);
+
+        // When
+        try (Response response = controller.multiGetPOIs(List.of(testId), "details")) {
+
+            // Then
+            assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+            assertSame(multiGetResult, response.getEntity());
+        }
+
+        verify(geoDataService).getPOIs(List.of(testId), true);
+    }
+
+    @Test
+    public void testSearchPOIs_ShouldReturnSearchResultWithHrefs() {
+        // Given
+        List<PointOfInterestQuery> queries = List.of(new PointOfInterestQuery(51.0504, 13.7373, 500, null),
+                new PointOfInterestQuery(51.0510, 13.7380, 500, "restaurant"));
+        PointOfInterestSearchResult searchResult = new PointOfInterestSearchResult();
+        searchResult.getPointsOfInterest().add(testPoi);
+        searchResult.getResults().add(List.of(0));
+        searchResult.getResults().add(List.of(0));
+
+        when(geoDataService.searchPOIs(queries, true)).thenReturn(searchResult);
+
+        // When
+        try (Response response = controller.searchPOIs(queries, "details")) {
+
+            // Then
+            assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+
+            PointOfInterestSearchResult returned = (PointOfInterestSearchResult) response.getEntity();
+            assertEquals(1, returned.getPointsOfInterest().size());
+            assertTrue(returned.getPointsOfInterest().get(0).getHref().contains(testId));
+            assertEquals(List.of(List.of(0), List.of(0)), returned.getResults());
+        }
+
+        verify(geoDataService).searchPOIs(queries, true);
     }
 
     @Test
     public void testDeletePOI_ExistingId_ShouldReturnNoContentResponse() {
         // Given
-        when(geoDataService.getPOI(testId, false)).thenReturn(testPoi);
-        doNothing().when(geoDataService).deletePOI(testId);
+        when(geoDataService.deletePOI(testId)).thenReturn(true);
 
         // When
         try (Response response = controller.deletePOI(testId)) {
@@ -245,18 +461,18 @@ public class PointOfInterestResourceControllerTest {
             // Then
             assertEquals(Response.Status.NO_CONTENT.getStatusCode(), response.getStatus());
         }
-        verify(geoDataService).getPOI(testId, false);
         verify(geoDataService).deletePOI(testId);
+        verify(geoDataService, never()).getPOI(any(), anyBoolean());
     }
 
     @Test
     public void testDeletePOI_NonExistingId_ShouldThrowNotFoundException() {
         // Given
-        when(geoDataService.getPOI(testId, false)).thenReturn(null);
+        when(geoDataService.deletePOI(testId)).thenReturn(false);
 
         // When / Then
         assertThrows(NotFoundException.class, () -> controller.deletePOI(testId));
-        verify(geoDataService).getPOI(testId, false);
+        verify(geoDataService).deletePOI(testId);
     }
 
     @Test
@@ -267,7 +483,7 @@ public class PointOfInterestResourceControllerTest {
         inputPoi.setDetails("New cafe");
         inputPoi.setLocation(new Point(13.7373, 51.0504));
 
-        when(geoDataService.getPOI(testId, true)).thenReturn(null);
+        when(geoDataService.updatePOI(inputPoi)).thenReturn(null);
 
         PointOfInterest createdPoi = new PointOfInterest();
         createdPoi.setId(testId);
@@ -285,8 +501,9 @@ public class PointOfInterestResourceControllerTest {
             assertNotNull(response.getLocation());
             assertTrue(response.getLocation().toString().contains(testId));
         }
-        verify(geoDataService).getPOI(testId, true);
+        verify(geoDataService).updatePOI(inputPoi);
         verify(geoDataService).createPOI(inputPoi);
+        verify(geoDataService, never()).getPOI(any(), anyBoolean());
     }
 
     @Test
@@ -299,8 +516,6 @@ public class PointOfInterestResourceControllerTest {
         inputPoi.setDetails("New cafe");
         inputPoi.setLocation(new Point(13.7373, 51.0504));
 
-        when(geoDataService.getPOI(updateId, true)).thenReturn(inputPoi);
-
         PointOfInterest updatePoi = new PointOfInterest();
         updatePoi.setId(updateId);
         updatePoi.setName("Updated Cafe");
@@ -317,8 +532,9 @@ public class PointOfInterestResourceControllerTest {
             assertEquals(Response.Status.NO_CONTENT.getStatusCode(), response.getStatus());
         }
 
-        verify(geoDataService).getPOI(updateId, true);
         verify(geoDataService).updatePOI(updatePoi);
+        verify(geoDataService, never()).createPOI(any());
+        verify(geoDataService, never()).getPOI(any(), anyBoolean());
     }
 
     @Test
@@ -10,9 +10,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.Mockito;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Stream;
 
@@ -76,8 +80,8 @@ public class PointOfInterestResourceControllerValidationTest {
         // Validate parameters
         Set<ConstraintViolation<PointOfInterestResourceController>> violations = validator.forExecutables()
                 .validateParameters(controller,
-                        PointOfInterestResourceController.class.getDeclaredMethod("listPOIs", double.class, double.class, int.class, String.class),
-                        new Object[]{latitude, longitude, radius, null});
+                        PointOfInterestResourceController.class.getDeclaredMethod("listPOIs", double.class, double.class, int.class, String.class, String.class, boolean.class, String.class, int.class),
+                        new Object[]{latitude, longitude, radius, null, null, false, null, 5});
         assertTrue(violations.isEmpty(), "Expected no validation violations for valid parameters");
     }
 
@@ -86,8 +90,8 @@ public class PointOfInterestResourceControllerValidationTest {
     public void testListPOIs_InvalidParameters_ShouldFailValidation(double latitude, double longitude, int radius, String description) throws NoSuchMethodException {
         Set<ConstraintViolation<PointOfInterestResourceController>> violations = validator.forExecutables()
                 .validateParameters(controller,
-                        PointOfInterestResourceController.class.getDeclaredMethod("listPOIs", double.class, double.class, int.class, String.class),
-                        new Object[]{latitude, longitude, radius, null});
+                        PointOfInterestResourceController.class.getDeclaredMethod("listPOIs", double.class, double.class, int.class, String.class, String.class, boolean.class, String.class, int.class),
+                        new Object[]{latitude, longitude, radius, null, null, false, null, 5});
         assertFalse(violations.isEmpty(), "Expected validation violation");
     }
 
@@ -198,5 +202,122 @@ public class PointOfInterestResourceControllerValidationTest {
                         new Object[]{"testID", poi});
         assertFalse(violations.isEmpty(), "Expected validation violation");
     }
-}
 
+    @ParameterizedTest(name = "Valid fields #{index}: {0}")
+    @ValueSource(strings = {"name", "name,location", "category,details,location,name"})
+    public void testListPOIs_ValidFields_ShouldPassValidation(String fields) throws NoSuchMethodException {
+        Set<ConstraintViolation<PointOfInterestResourceController>> violations = validator.forExecutables()
+                .validateParameters(controller,
+                        PointOfInterestResourceController.class.getDeclaredMethod("listPOIs", double.class, double.class, int.class, String.class, String.class, boolean.class, String.class, int.class),
+                        new Object[]{51.0, 13.7, 1000, null, fields, false, null, 5});
+        assertTrue(violations.isEmpty(), "Expected no validation violations for valid fields");
+    }
+
+    @ParameterizedTest(name = "Invalid fields #{index}: {0}")
+    @ValueSource(strings = {"", "name,", "id", "name,secret", "name location"})
+    public void testListPOIs_InvalidFields_ShouldFailValidation(String fields) throws NoSuchMethodException {
+        Set<ConstraintViolation<PointOfInterestResourceController>> violations = validator.forExecutables()
+                .validateParameters(controller,
+                        PointOfInterestResourceController.class.getDeclaredMethod("listPOIs", double.class, double.class, int.class, String.class, String.class, boolean.class, String.class, int.class),
+                        new Object[]{51.0, 13.7, 1000, null, fields, false, null, 5});
+        assertFalse(violations.isEmpty(), "Expected validation violation");
+    }
+
+    @ParameterizedTest(name = "Valid format #{index}: format={0}, precision={1}")
+    @CsvSource(value = {"NULL, 5", "columnar, 0", "columnar, 5", "columnar, 7"}, nullValues = "NULL")
+    public void testListPOIs_ValidFormat_ShouldPassValidation(String format, int precision) throws NoSuchMethodException {
+        Set<ConstraintViolation<PointOfInterestResourceController>> violations = validator.forExecutables()
+                .validateParameters(controller,
+                        PointOfInterestResourceController.class.getDeclaredMethod("listPOIs", double.class, double.class, int.class, String.class, String.class, boolean.class, String.class, int.class),
+                        new Object[]{51.0, 13.7, 1000, null, null, false, format, precision});
+        assertTrue(violations.isEmpty(), "Expected no validation violations for valid format");
+    }
+
+    @ParameterizedTest(name = "Invalid format #{index}: format={0}, precision={1}")
+    @CsvSource({"columns, 5", "'', 5", "columnar, -1", "columnar, 8"})
+    public void testListPOIs_InvalidFormat_ShouldFailValidation(String format, int precision) throws NoSuchMethodException {
+        Set<ConstraintViolation<PointOfInterestResourceController>> violations = validator.forExecutables()
+                .validateParameters(controller,
+                        PointOfInterestResourceController.class.getDeclaredMethod("listPOIs", double.class, double.class, int.class, String.class, String.class, boolean.class, String.class, int.class),
+                        new Object[]{51.0, 13.7, 1000, null, null, false, format, precision});
+        assertFalse(violations.isEmpty(), "Expected validation violation");
+    }
+
+    @ParameterizedTest(name = "Valid ids #{index}: {0}")
+    @ValueSource(strings = {"507f1f77bcf86cd799439011", "507f1f77bcf86cd799439011,507f1f77bcf86cd799439012"})
+    public void testGetPOIsByIds_ValidIds_ShouldPassValidation(String ids) throws NoSuchMethodException {
+        Set<ConstraintViolation<PointOfInterestResourceController>> violations = validator.forExecutables()
+                .validateParameters(controller,
+                        PointOfInterestResourceController.class.getDeclaredMethod("getPOIsByIds", String.class, String.class),
+                        new Object[]{ids, null});
+        assertTrue(violations.isEmpty(), "Expected no validation violations for valid ids");
+    }
+
+    @ParameterizedTest(name = "Invalid ids #{index}: {0}")
+    @ValueSource(strings = {"", ",", "a,,b", "a,"})
+    public void testGetPOIsByIds_InvalidIds_ShouldFailValidation(String ids) throws NoSuchMethodException {
+        Set<ConstraintViolation<PointOfInterestResourceController>> violations = validator.forExecutables()
+                .validateParameters(controller,
+                        PointOfInterestResourceController.class.getDeclaredMethod("getPOIsByIds", String.class, String.class),
+                        new Object[]{ids, null});
+        assertFalse(violations.isEmpty(), "Expected validation violation");
+    }
+
+    @Test
+    public void testGetPOIsByIds_TooManyIds_ShouldFailValidation() throws NoSuchMethodException {
+        String ids = String.join(",", Collections.nCopies(101, "507f1f77bcf86cd799439011"));
+
+        Set<ConstraintViolation<PointOfInterestResourceController>> violations = validator.forExecutables()
+                .validateParameters(controller,
+                        PointOfInterestResourceController.class.getDeclaredMethod("getPOIsByIds", String.class, String.class),
+                        new Object[]{ids, null});
+        assertFalse(violations.isEmpty(), "Expected validation violation");
+    }
+
+    @Test
+    public void testMultiGetPOIs_TooManyIds_ShouldFailValidation() throws NoSuchMethodException {
+        List<String> ids = Collections.nCopies(101, "507f1f77bcf86cd799439011");
+
+        Set<ConstraintViolation<PointOfInterestResourceController>> violations = validator.forExecutables()
+                .validateParameters(controller,
+                        PointOfInterestResourceController.class.getDeclaredMethod("multiGetPOIs", List.class, String.class),
+                        new Object[]{ids, null});
+        assertFalse(violations.isEmpty(), "Expected validation violation");
+    }
+
+    @Test
+    public void testSearchPOIs_ValidQueries_ShouldPassValidation() throws NoSuchMethodException {
+        List<PointOfInterestQuery> queries = List.of(new PointOfInterestQuery(51.0, 13.7, 1000, null),
+                new PointOfInterestQuery(-90.0, 180.0, 100000, "cash"));
+
+        Set<ConstraintViolation<PointOfInterestResourceController>> violations = validator.forExecutables()
+                .validateParameters(controller,
+                        PointOfInterestResourceController.class.getDeclaredMethod("searchPOIs", List.class, String.class),
+                        new Object[]{queries, null});
+        assertTrue(violations.isEmpty(), "Expected no validation violations for valid parameters");
+    }
+
+    @ParameterizedTest(name = "Invalid query #{index}: latitude={0}, longitude={1}, radius={2}, description={3}")
+    @MethodSource("invalidFindParametersProvider")
+    public void testSearchPOIs_InvalidQuery_ShouldFailValidation(double latitude, double longitude, int radius, String description) throws NoSuchMethodException {
+        List<PointOfInterestQuery> queries = List.of(new PointOfInterestQuery(51.0, 13.7, 1000, null),
+                new PointOfInterestQuery(latitude, longitude, radius, null));
+
+        Set<ConstraintViolation<PointOfInterestResourceController>> violations = validator.forExecutables()
+                .validateParameters(controller,
+                        PointOfInterestResourceController.class.getDeclaredMethod("searchPOIs", List.class, String.class),
+                        new Object[]{queries, null});
+        assertFalse(violations.isEmpty(), "Expected validation violation");
+    }
+
+    @Test
+    public void testSearchPOIs_TooManyQueries_ShouldFailValidation() throws NoSuchMethodException {
+        List<PointOfInterestQuery> queries = Collections.nCopies(51, new PointOfInterestQuery(51.0, 13.7, 1000, null));
+
+        Set<ConstraintViolation<PointOfInterestResourceController>> violations = validator.forExecutables()
+                .validateParameters(controller,
+                        PointOfInterestResourceController.class.getDeclaredMethod("searchPOIs", List.class, String.class),
+                        new Object[]{queries, null});
+        assertFalse(violations.isEmpty(), "Expected validation violation");
+    }
+}
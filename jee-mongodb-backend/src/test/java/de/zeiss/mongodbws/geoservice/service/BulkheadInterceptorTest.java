@@ -0,0 +1,97 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.service;
+
+import de.zeiss.mongodbws.geoservice.persistence.Workload;
+import jakarta.enterprise.context.ContextNotActiveException;
+import jakarta.interceptor.InvocationContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link BulkheadInterceptor}
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class BulkheadInterceptorTest {
+
+    @Mock
+    private RequestPriority requestPriority;
+
+    @Mock
+    private InvocationContext context;
+
+    private final Bulkheads bulkheads = new Bulkheads();
+
+    @InjectMocks
+    private BulkheadInterceptor interceptor;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        bulkheads.interactiveMaxConcurrent = 0;
+        bulkheads.writeMaxConcurrent = 1;
+        bulkheads.bulkMaxConcurrent = 1;
+        bulkheads.maxWaitMs = 0;
+        bulkheads.retryAfterSeconds = 2;
+        bulkheads.init();
+        interceptor.bulkheads = bulkheads;
+
+        when(context.getMethod()).thenReturn(GeoDataService.class.getMethod("createPOI",
+                de.zeiss.mongodbws.geoservice.rest.resource.PointOfInterest.class));
+        when(context.proceed()).thenReturn("result");
+    }
+
+    @Test
+    public void testIsolate_FreePermit_ShouldProceedAndRelease() throws Exception {
+        assertEquals("result", interceptor.isolate(context));
+        assertEquals("result", interceptor.isolate(context));
+
+        assertEquals(0L, bulkheads.getStatistics().get("write").get("inFlight"));
+    }
+
+    @Test
+    public void testIsolate_BulkheadFull_ShouldReject() throws Exception {
+        // Given: a write in flight
+        bulkheads.acquire(Workload.WRITE);
+
+        // When
+        BulkheadFullException exception = assertThrows(BulkheadFullException.class, () -> interceptor.isolate(context));
+
+        // Then
+        assertEquals(Workload.WRITE, exception.getWorkload());
+        assertEquals(2, exception.getRetryAfterSeconds());
+        verify(context, never()).proceed();
+    }
+
+    @Test
+    public void testIsolate_LowPriorityRequest_ShouldUseBulkBulkhead() throws Exception {
+        // Given: a write in flight, but low priority requests are isolated in the bulk bulkhead
+        bulkheads.acquire(Workload.WRITE);
+        when(requestPriority.isLow()).thenReturn(true);
+
+        // When / Then
+        assertEquals("result", interceptor.isolate(context));
+        bulkheads.acquire(Workload.BULK);
+        assertThrows(BulkheadFullException.class, () -> interceptor.isolate(context));
+    }
+
+    @Test
+    public void testIsolate_OutsideOfRequest_ShouldUseAnnotatedWorkload() throws Exception {
+        when(requestPriority.isLow()).thenThrow(new ContextNotActiveException());
+        bulkheads.acquire(Workload.WRITE);
+
+        assertThrows(BulkheadFullException.class, () -> interceptor.isolate(context));
+    }
+}
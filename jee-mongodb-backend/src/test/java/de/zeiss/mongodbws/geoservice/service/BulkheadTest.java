@@ -0,0 +1,45 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link Bulkhead}
+ */
+public class BulkheadTest {
+
+    @Test
+    public void testTryAcquire_Full_ShouldRejectAfterWaiting() {
+        // Given
+        Bulkhead bulkhead = new Bulkhead(2, 10);
+        assertTrue(bulkhead.tryAcquire());
+        assertTrue(bulkhead.tryAcquire());
+
+        // When / Then
+        assertFalse(bulkhead.tryAcquire());
+        assertEquals(1L, bulkhead.getStatistics().get("rejected"));
+        assertEquals(2L, bulkhead.getStatistics().get("inFlight"));
+
+        bulkhead.release();
+        assertTrue(bulkhead.tryAcquire());
+    }
+
+    @Test
+    public void testTryAcquire_Unlimited_ShouldNeverReject() {
+        Bulkhead bulkhead = new Bulkhead(0, 10);
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(bulkhead.tryAcquire());
+        }
+        bulkhead.release();
+
+        assertEquals(0L, bulkhead.getStatistics().get("maxConcurrent"));
+        assertEquals(0L, bulkhead.getStatistics().get("rejected"));
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link CircuitBreaker}
+ */
+public class CircuitBreakerTest {
+
+    @Test
+    public void testOnFailure_ThresholdReached_ShouldOpen() {
+        CircuitBreaker breaker = new CircuitBreaker(3, 60000);
+
+        for (int i = 0; i < 2; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onFailure();
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(1L, breaker.getStatistics().get("opened"));
+        assertEquals(1L, breaker.getStatistics().get("rejected"));
+    }
+
+    @Test
+    public void testOnSuccess_ShouldResetConsecutiveFailures() {
+        CircuitBreaker breaker = new CircuitBreaker(2, 60000);
+
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void testTryAcquire_OpenDurationElapsed_ShouldLetOneTrialThrough() {
+        CircuitBreaker breaker = new CircuitBreaker(1, 0);
+        breaker.onFailure();
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    public void testOnIgnored_Trial_ShouldLetNextTrialThrough() {
+        CircuitBreaker breaker = new CircuitBreaker(1, 0);
+        breaker.onFailure();
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onIgnored();
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    public void testOnFailure_TrialFails_ShouldOpenAgain() {
+        CircuitBreaker breaker = new CircuitBreaker(1, 0);
+        breaker.onFailure();
+        assertTrue(breaker.tryAcquire());
+
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(2L, breaker.getStatistics().get("opened"));
+    }
+
+    @Test
+    public void testOnSuccess_WhileOpen_ShouldStayOpen() {
+        CircuitBreaker breaker = new CircuitBreaker(1, 60000);
+        breaker.onFailure();
+
+        breaker.onSuccess();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+}
@@ -6,9 +6,15 @@
 package de.zeiss.mongodbws.geoservice.service;
 
 import de.zeiss.mongodbws.geoservice.persistence.PersistenceService;
+import de.zeiss.mongodbws.geoservice.persistence.PointOfInterestColumns;
+import de.zeiss.mongodbws.geoservice.persistence.QueryResult;
 import de.zeiss.mongodbws.geoservice.persistence.entity.GeoPoint;
 import de.zeiss.mongodbws.geoservice.persistence.entity.PointOfInterestEntity;
 import de.zeiss.mongodbws.geoservice.rest.resource.PointOfInterest;
+import de.zeiss.mongodbws.geoservice.rest.resource.PointOfInterestMultiGetResult;
+import de.zeiss.mongodbws.geoservice.rest.resource.PointOfInterestQuery;
+import de.zeiss.mongodbws.geoservice.rest.resource.PointOfInterestSearchResult;
+import jakarta.enterprise.concurrent.ManagedExecutorService;
 import org.bson.types.ObjectId;
 import org.geojson.Point;
 import org.junit.jupiter.api.BeforeEach;
@@ -20,6 +26,13 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -35,6 +48,12 @@ public class GeoDataServiceTest {
     @Mock
     private PersistenceService persistenceService;
 
+    @Mock
+    private PointOfInterestBatchLoader batchLoader;
+
+    @Mock
+    private QueryCostGuard costGuard;
+
     @InjectMocks
     private GeoDataService geoDataService;
 
@@ -49,6 +68,9 @@ public class GeoDataServiceTest {
 
     @BeforeEach
     public void setUp() {
+        // disabled, reads pass through
+        geoDataService.staleWhileRevalidate = new StaleWhileRevalidate();
+
         testObjectId = new ObjectId();
 
         // Setup test entity
@@ -98,6 +120,22 @@ public class GeoDataServiceTest {
         verify(persistenceService).getPointOfInterest(testObjectId, false);
     }
 
+    @Test
+    public void testGetPOI_BatchingEnabled_ShouldLoadThroughBatchLoader() {
+        // Given
+        when(batchLoader.isEnabled()).thenReturn(true);
+        when(batchLoader.load(testObjectId, true)).thenReturn(testEntity);
+
+        // When
+        PointOfInterest result = geoDataService.getPOI(testObjectId.toString(), true);
+
+        // Then
+        assertNotNull(result);
+        assertEquals(testObjectId.toString(), result.getId());
+        verify(batchLoader).load(testObjectId, true);
+        verifyNoInteractions(persistenceService);
+    }
+
     @Test
     public void testGetPOI_NonExistentId_ShouldReturnNull() {
         // Given
@@ -151,6 +189,33 @@ public class GeoDataServiceTest {
         assertEquals("pharmacy", result.getCategory());
         assertEquals("City pharmacy", result.getDetails());
         verify(persistenceService).createPointOfInterest(any(PointOfInterestEntity.class));
+        verify(costGuard).added(point);
+    }
+
+    @Test
+    public void testDeletePOI_ExistingPOI_ShouldUpdateCostGuard() {
+        // Given
+        when(persistenceService.deletePointOfInterest(testObjectId)).thenReturn(testEntity);
+
+        // When
+        boolean deleted = geoDataService.deletePOI(testObjectId.toString());
+
+        // Then
+        assertTrue(deleted);
+        verify(costGuard).removed(testEntity.getLocation());
+    }
+
+    @Test
+    public void testDeletePOI_NonExistingPOI_ShouldReturnFalse() {
+        // Given
+        when(persistenceService.deletePointOfInterest(testObjectId)).thenReturn(null);
+
+        // When
+        boolean deleted = geoDataService.deletePOI(testObjectId.toString());
+
+        // Then
+        assertFalse(deleted);
+        verifyNoInteractions(costGuard);
     }
 
     @Test
@@ -171,10 +236,10 @@ public class GeoDataServiceTest {
         entity2.setLocation(point);
 
         List<PointOfInterestEntity> entityList = Arrays.asList(testEntity, entity2);
-        when(persistenceService.listPOIs(lat, lon, radius, expandDetails)).thenReturn(entityList);
+        when(persistenceService.listPOIs(lat, lon, radius, expandDetails, false, 0)).thenReturn(QueryResult.complete(entityList));
 
         // When
-        List<PointOfInterest> result = geoDataService.listPOIs(lat, lon, radius, expandDetails);
+        List<PointOfInterest> result = geoDataService.listPOIs(lat, lon, radius, expandDetails, false).results();
 
         // Then
         assertNotNull(result);
@@ -188,7 +253,7 @@ public class GeoDataServiceTest {
         assertEquals(objectId2.toString(), poi2.getId());
         assertEquals("pharmacy", poi2.getCategory());
 
-        verify(persistenceService).listPOIs(lat, lon, radius, expandDetails);
+        verify(persistenceService).listPOIs(lat, lon, radius, expandDetails, false, 0);
     }
 
     @Test
@@ -200,15 +265,296 @@ public class GeoDataServiceTest {
         boolean expandDetails = false;
 
         List<PointOfInterestEntity> entityList = Arrays.asList(testEntity);
-        when(persistenceService.listPOIs(lat, lon, radius, expandDetails)).thenReturn(entityList);
+        when(persistenceService.listPOIs(lat, lon, radius, expandDetails, false, 0)).thenReturn(QueryResult.complete(entityList));
 
         // When
-        List<PointOfInterest> result = geoDataService.listPOIs(lat, lon, radius, expandDetails);
+        List<PointOfInterest> result = geoDataService.listPOIs(lat, lon, radius, expandDetails, false).results();
 
         // Then
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(persistenceService).listPOIs(lat, lon, radius, expandDetails);
+        verify(persistenceService).listPOIs(lat, lon, radius, expandDetails, false, 0);
+    }
+
+    @Test
+    public void testListPOIs_IdenticalQueriesInFlight_ShouldShareOneDatabaseQuery() throws Exception {
+        // Given
+        geoDataService.coalescingEnabled = true;
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(persistenceService.listPOIs(LATITUDE_RESTAURANT, LONGITUDE_RESTAURANT, 500, false, false, 0)).thenAnswer(invocation -> {
+            started.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return QueryResult.complete(List.of(testEntity));
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<QueryResult<PointOfInterest>> first = executor.submit(
+                    () -> geoDataService.listPOIs(LATITUDE_RESTAURANT, LONGITUDE_RESTAURANT, 500, false, false));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            // When
+            Future<QueryResult<PointOfInterest>> second = executor.submit(
+                    () -> geoDataService.listPOIs(LATITUDE_RESTAURANT, LONGITUDE_RESTAURANT, 500, false, false));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (geoDataService.getCoalescingStatistics().get("sharedResults") == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            // Then
+            assertEquals(1, first.get(5, TimeUnit.SECONDS).results().size());
+            assertEquals(1, second.get(5, TimeUnit.SECONDS).results().size());
+            verify(persistenceService, times(1)).listPOIs(LATITUDE_RESTAURANT, LONGITUDE_RESTAURANT, 500, false, false, 0);
+            assertEquals(Map.of("executions", 1L, "sharedResults", 1L), geoDataService.getCoalescingStatistics());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testListPOIs_DifferentParameters_ShouldNotBeCoalesced() {
+        // Given
+        geoDataService.coalescingEnabled = true;
+        when(persistenceService.listPOIs(LATITUDE_RESTAURANT, LONGITUDE_RESTAURANT, 500, false, false, 0))
+                .thenReturn(QueryResult.complete(List.of()));
+        when(persistenceService.listPOIs(LATITUDE_RESTAURANT, LONGITUDE_RESTAURANT, 500, false, true, 0))
+                .thenReturn(new QueryResult<>(List.of(), true));
+
+        // When
+        geoDataService.listPOIs(LATITUDE_RESTAURANT, LONGITUDE_RESTAURANT, 500, false, false);
+        QueryResult<PointOfInterest> partial = geoDataService.listPOIs(LATITUDE_RESTAURANT, LONGITUDE_RESTAURANT, 500, false, true);
+
+        // Then
+        assertTrue(partial.partial());
+        assertEquals(Map.of("executions", 2L, "sharedResults", 0L), geoDataService.getCoalescingStatistics());
+    }
+
+    @Test
+    public void testListPOIs_ExpensiveQuery_ShouldBeCappedByCostGuard() {
+        // Given
+        when(costGuard.limitFor(LATITUDE_RESTAURANT, LONGITUDE_RESTAURANT, 100000)).thenReturn(5000);
+        when(persistenceService.listPOIs(LATITUDE_RESTAURANT, LONGITUDE_RESTAURANT, 100000, false, false, 5000))
+                .thenReturn(new QueryResult<>(List.of(testEntity), true));
+
+        // When
+        QueryResult<PointOfInterest> result = geoDataService.listPOIs(LATITUDE_RESTAURANT, LONGITUDE_RESTAURANT, 100000,
+                false, false);
+
+        // Then
+        assertTrue(result.partial());
+        assertEquals(1, result.results().size());
+    }
+
+    @Test
+    public void testListPOIs_RejectedQuery_ShouldNotQueryDatabase() {
+        // Given
+        when(costGuard.limitFor(LATITUDE_RESTAURANT, LONGITUDE_RESTAURANT, 100000))
+                .thenThrow(new QueryTooExpensiveException(20000, 5000));
+
+        // When / Then
+        assertThrows(QueryTooExpensiveException.class, () -> geoDataService.listPOIs(LATITUDE_RESTAURANT,
+                LONGITUDE_RESTAURANT, 100000, Set.of("name"), false));
+        verifyNoInteractions(persistenceService);
+    }
+
+    @Test
+    public void testListPOIColumns_ExpensiveQuery_ShouldBeCappedByCostGuard() {
+        // Given
+        PointOfInterestColumns columns = new PointOfInterestColumns();
+        when(costGuard.limitFor(LATITUDE_RESTAURANT, LONGITUDE_RESTAURANT, 100000)).thenReturn(5000);
+        when(persistenceService.listPOIColumns(LATITUDE_RESTAURANT, LONGITUDE_RESTAURANT, 100000, true, 5000))
+                .thenReturn(columns);
+
+        // When
+        PointOfInterestColumns result = geoDataService.listPOIColumns(LATITUDE_RESTAURANT, LONGITUDE_RESTAURANT, 100000,
+                true);
+
+        // Then
+        assertSame(columns, result);
+    }
+
+    @Test
+    public void testListPOIColumns_RejectedQuery_ShouldNotQueryDatabase() {
+        // Given
+        when(costGuard.limitFor(LATITUDE_RESTAURANT, LONGITUDE_RESTAURANT, 100000))
+                .thenThrow(new QueryTooExpensiveException(20000, 5000));
+
+        // When / Then
+        assertThrows(QueryTooExpensiveException.class, () -> geoDataService.listPOIColumns(LATITUDE_RESTAURANT,
+                LONGITUDE_RESTAURANT, 100000, false));
+        verifyNoInteractions(persistenceService);
+    }
+
+    @Test
+    public void testListNearestPOIs_ShouldMapDistance() {
+        // Given
+        testEntity.setDistance(123.4);
+        when(persistenceService.listNearestPOIs(LATITUDE_RESTAURANT, LONGITUDE_RESTAURANT, 3, null, null, true))
+                .thenReturn(List.of(testEntity));
+
+        // When
+        List<PointOfInterest> result = geoDataService.listNearestPOIs(LATITUDE_RESTAURANT, LONGITUDE_RESTAURANT, 3,
+                null, null, true);
+
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(testObjectId.toString(), result.get(0).getId());
+        assertEquals(123.4, result.get(0).getDistance(), 0.0001);
+        verify(persistenceService).listNearestPOIs(LATITUDE_RESTAURANT, LONGITUDE_RESTAURANT, 3, null, null, true);
+    }
+
+    @Test
+    public void testListNearestPOIsPerCategory_ShouldGroupByCategoryKeepingOrder() {
+        // Given
+        PointOfInterestEntity cash1 = new PointOfInterestEntity();
+        cash1.setId(new ObjectId());
+        cash1.setCategory("cash");
+        cash1.setDistance(10.0);
+        PointOfInterestEntity cash2 = new PointOfInterestEntity();
+        cash2.setId(new ObjectId());
+        cash2.setCategory("cash");
+        cash2.setDistance(20.0);
+        testEntity.setDistance(5.0);
+
+        List<String> categories = List.of("cash", CATEGORY_RESTAURANT);
+        when(persistenceService.listNearestPOIsPerCategory(LATITUDE_RESTAURANT, LONGITUDE_RESTAURANT, 500, 2, categories, false))
+                .thenReturn(List.of(cash1, cash2, testEntity));
+
+        // When
+        Map<String, List<PointOfInterest>> result = geoDataService.listNearestPOIsPerCategory(LATITUDE_RESTAURANT,
+                LONGITUDE_RESTAURANT, 500, 2, categories, false);
+
+        // Then
+        assertEquals(List.of("cash", CATEGORY_RESTAURANT), List.copyOf(result.keySet()));
+        assertEquals(2, result.get("cash").size());
+        assertEquals(cash1.getId().toString(), result.get("cash").get(0).getId());
+        assertEquals(20.0, result.get("cash").get(1).getDistance(), 0.0001);
+        assertEquals(testObjectId.toString(), result.get(CATEGORY_RESTAURANT).get(0).getId());
+    }
+
+    @Test
+    public void testGetPOIs_ShouldPreserveOrderAndReportMissingIds() {
+        // Given
+        PointOfInterestEntity otherEntity = new PointOfInterestEntity();
+        otherEntity.setId(new ObjectId());
+        otherEntity.setName("Cash Point");
+        String missingId = new ObjectId().toHexString();
+
+        // the database returns the entities in any order
+        when(persistenceService.getPointsOfInterest(Set.of(otherEntity.getId(), testObjectId, new ObjectId(missingId)), false))
+                .thenReturn(List.of(testEntity, otherEntity));
+
+        // When
+        PointOfInterestMultiGetResult result = geoDataService.getPOIs(
+                List.of(otherEntity.getId().toHexString(), "invalid", missingId, testObjectId.toHexString()), false);
+
+        // Then
+        assertEquals(2, result.getPointsOfInterest().size());
+        assertEquals(otherEntity.getId().toHexString(), result.getPointsOfInterest().get(0).getId());
+        assertEquals(testObjectId.toHexString(), result.getPointsOfInterest().get(1).getId());
+        assertEquals(List.of("invalid", missingId), result.getMissingIds());
+        verify(persistenceService, times(1)).getPointsOfInterest(anyCollection(), anyBoolean());
+    }
+
+    @Test
+    public void testGetPOIs_UpperCaseId_ShouldFindPOI() {
+        // Given
+        when(persistenceService.getPointsOfInterest(Set.of(testObjectId), false)).thenReturn(List.of(testEntity));
+
+        // When
+        PointOfInterestMultiGetResult result = geoDataService.getPOIs(
+                List.of(testObjectId.toHexString().toUpperCase()), false);
+
+        // Then
+        assertEquals(1, result.getPointsOfInterest().size());
+        assertEquals(testObjectId.toHexString(), result.getPointsOfInterest().get(0).getId());
+        assertTrue(result.getMissingIds().isEmpty());
+    }
+
+    @Test
+    public void testGetPOIs_OnlyInvalidIds_ShouldNotQueryDatabase() {
+        // When
+        PointOfInterestMultiGetResult result = geoDataService.getPOIs(List.of("invalid"), true);
+
+        // Then
+        assertTrue(result.getPointsOfInterest().isEmpty());
+        assertEquals(List.of("invalid"), result.getMissingIds());
+        verifyNoInteractions(persistenceService);
+    }
+
+    @Test
+    public void testListPOIs_WithFields_ShouldMapOnlyLoadedFields() {
+        // Given
+        PointOfInterestEntity projected = new PointOfInterestEntity();
+        projected.setId(testObjectId);
+        projected.setName(NAME_RESTAURANT);
+        Set<String> fields = Set.of("name");
+
+        when(persistenceService.listPOIs(LATITUDE_RESTAURANT, LONGITUDE_RESTAURANT, 1000, fields, false, 0))
+                .thenReturn(QueryResult.complete(List.of(projected)));
+
+        // When
+        List<PointOfInterest> result = geoDataService.listPOIs(LATITUDE_RESTAURANT, LONGITUDE_RESTAURANT, 1000, fields, false)
+                .results();
+
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(testObjectId.toString(), result.get(0).getId());
+        assertEquals(NAME_RESTAURANT, result.get(0).getName());
+        assertNull(result.get(0).getLocation());
+        assertNull(result.get(0).getCategory());
+        assertNull(result.get(0).getDetails());
+    }
+
+    @Test
+    public void testSearchPOIs_ShouldDeduplicatePOIsAcrossQueries() throws Exception {
+        // Given
+        PointOfInterestEntity otherEntity = new PointOfInterestEntity();
+        otherEntity.setId(new ObjectId());
+        otherEntity.setName("Cash Point");
+        otherEntity.setCategory("cash");
+        otherEntity.setLocation(new GeoPoint(LATITUDE_RESTAURANT, LONGITUDE_RESTAURANT));
+
+        when(persistenceService.listPOIs(51.0, 13.0, 500, (String) null, false)).thenReturn(List.of(testEntity, otherEntity));
+        when(persistenceService.listPOIs(51.1, 13.1, 500, "cash", false)).thenReturn(List.of(otherEntity));
+        when(persistenceService.listPOIs(51.2, 13.2, 500, (String) null, false)).thenReturn(List.of());
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            geoDataService.executorService = mock(ManagedExecutorService.class);
+            when(geoDataService.executorService.invokeAll(anyCollection()))
+                    .thenAnswer(invocation -> executor.invokeAll(invocation.getArgument(0)));
+
+            // When
+            PointOfInterestSearchResult result = geoDataService.searchPOIs(List.of(
+                    new PointOfInterestQuery(51.0, 13.0, 500, null),
+                    new PointOfInterestQuery(51.1, 13.1, 500, "cash"),
+                    new PointOfInterestQuery(51.2, 13.2, 500, null)), false);
+
+            // Then
+            assertEquals(2, result.getPointsOfInterest().size());
+            assertEquals(testObjectId.toString(), result.getPointsOfInterest().get(0).getId());
+            assertEquals(otherEntity.getId().toString(), result.getPointsOfInterest().get(1).getId());
+            assertEquals(List.of(List.of(0, 1), List.of(1), List.of()), result.getResults());
+        }
+    }
+
+    @Test
+    public void testSearchPOIs_FailingQuery_ShouldRethrowCause() throws Exception {
+        // Given
+        when(persistenceService.listPOIs(51.0, 13.0, 500, (String) null, false)).thenThrow(new IllegalStateException("boom"));
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            geoDataService.executorService = mock(ManagedExecutorService.class);
+            when(geoDataService.executorService.invokeAll(anyCollection()))
+                    .thenAnswer(invocation -> executor.invokeAll(invocation.getArgument(0)));
+
+            // When / Then
+            IllegalStateException exception = assertThrows(IllegalStateException.class,
+                    () -> geoDataService.searchPOIs(List.of(new PointOfInterestQuery(51.0, 13.0, 500, null)), false));
+            assertEquals("boom", exception.getMessage());
+        }
     }
 
     @Test
@@ -287,7 +633,7 @@ public class GeoDataServiceTest {
         updatedEntity.setDetails("Updated details");
         updatedEntity.setLocation(new GeoPoint(51.5555, 13.9999));
 
-        when(persistenceService.getPointOfInterest(testObjectId, true)).thenReturn(existingEntity);
+        when(persistenceService.getPointOfInterestForUpdate(testObjectId)).thenReturn(existingEntity);
         when(persistenceService.updatePointOfInterest(existingEntity)).thenReturn(updatedEntity);
 
         // When
@@ -301,7 +647,7 @@ public class GeoDataServiceTest {
         assertNotNull(result.getLocation());
         assertEquals(13.9999, result.getLocation().getCoordinates().getLongitude(), 0.0001);
         assertEquals(51.5555, result.getLocation().getCoordinates().getLatitude(), 0.0001);
-        verify(persistenceService).getPointOfInterest(testObjectId, true);
+        verify(persistenceService).getPointOfInterestForUpdate(testObjectId);
         verify(persistenceService).updatePointOfInterest(existingEntity);
     }
 
@@ -336,12 +682,12 @@ public class GeoDataServiceTest {
         inputPoi.setDetails("Updated details");
         inputPoi.setLocation(new Point(13.7373, 51.0504));
 
-        when(persistenceService.getPointOfInterest(testObjectId, true)).thenReturn(null);
+        when(persistenceService.getPointOfInterestForUpdate(testObjectId)).thenReturn(null);
 
         PointOfInterest result = geoDataService.updatePOI(inputPoi);
 
         assertNull(result);
-        verify(persistenceService).getPointOfInterest(testObjectId, true);
+        verify(persistenceService).getPointOfInterestForUpdate(testObjectId);
         verify(persistenceService, never()).updatePointOfInterest(any());
     }
 
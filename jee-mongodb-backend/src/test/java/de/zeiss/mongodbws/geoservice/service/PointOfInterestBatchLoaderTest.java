@@ -0,0 +1,204 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.service;
+
+import com.mongodb.MongoExecutionTimeoutException;
+import de.zeiss.mongodbws.geoservice.persistence.PersistenceService;
+import de.zeiss.mongodbws.geoservice.persistence.entity.PointOfInterestEntity;
+import de.zeiss.mongodbws.geoservice.timing.Layer;
+import de.zeiss.mongodbws.geoservice.timing.ServerTiming;
+import jakarta.enterprise.concurrent.ManagedExecutorService;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link PointOfInterestBatchLoader}
+ */
+@ExtendWith(MockitoExtension.class)
+public class PointOfInterestBatchLoaderTest {
+
+    @Mock
+    private PersistenceService persistenceService;
+
+    @Mock
+    private ManagedExecutorService executorService;
+
+    @Mock
+    private ServerTiming serverTiming;
+
+    @InjectMocks
+    private PointOfInterestBatchLoader batchLoader;
+
+    private ScheduledExecutorService scheduler;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        executor = Executors.newSingleThreadExecutor();
+        lenient().doAnswer(invocation -> {
+            executor.execute(invocation.getArgument(0));
+            return null;
+        }).when(executorService).execute(any());
+        batchLoader.scheduler = scheduler;
+        batchLoader.enabled = true;
+        batchLoader.windowMicros = TimeUnit.MILLISECONDS.toMicros(50);
+        batchLoader.maxBatchSize = 64;
+        batchLoader.getMaxTimeMs = 1000;
+    }
+
+    @AfterEach
+    public void tearDown() {
+        scheduler.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testLoadAsync_LookupsWithinWindow_ShouldBeLoadedByOneQuery() throws Exception {
+        // Given
+        PointOfInterestEntity first = createEntity();
+        PointOfInterestEntity second = createEntity();
+        ObjectId missing = new ObjectId();
+        when(persistenceService.getPointsOfInterest(any(), eq(false))).thenReturn(List.of(second, first));
+
+        // When
+        CompletableFuture<PointOfInterestEntity> firstFuture = batchLoader.loadAsync(first.getId(), false);
+        CompletableFuture<PointOfInterestEntity> secondFuture = batchLoader.loadAsync(second.getId(), false);
+        CompletableFuture<PointOfInterestEntity> duplicateFuture = batchLoader.loadAsync(first.getId(), false);
+        CompletableFuture<PointOfInterestEntity> missingFuture = batchLoader.loadAsync(missing, false);
+
+        // Then
+        assertSame(first, firstFuture.get(5, TimeUnit.SECONDS));
+        assertSame(second, secondFuture.get(5, TimeUnit.SECONDS));
+        assertSame(first, duplicateFuture.get(5, TimeUnit.SECONDS));
+        assertNull(missingFuture.get(5, TimeUnit.SECONDS));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<ObjectId>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(persistenceService).getPointsOfInterest(ids.capture(), eq(false));
+        assertEquals(List.of(first.getId(), second.getId(), missing), List.copyOf(ids.getValue()));
+
+        assertEquals(1, batchLoader.getStatistics().getBatches());
+        assertEquals(3, batchLoader.getStatistics().getKeys());
+    }
+
+    @Test
+    public void testLoadAsync_WithAndWithoutDetails_ShouldBeBatchedSeparately() throws Exception {
+        // Given
+        PointOfInterestEntity entity = createEntity();
+        when(persistenceService.getPointsOfInterest(any(), anyBoolean())).thenReturn(List.of(entity));
+
+        // When
+        CompletableFuture<PointOfInterestEntity> withoutDetails = batchLoader.loadAsync(entity.getId(), false);
+        CompletableFuture<PointOfInterestEntity> withDetails = batchLoader.loadAsync(entity.getId(), true);
+
+        // Then
+        assertSame(entity, withoutDetails.get(5, TimeUnit.SECONDS));
+        assertSame(entity, withDetails.get(5, TimeUnit.SECONDS));
+        verify(persistenceService).getPointsOfInterest(any(), eq(false));
+        verify(persistenceService).getPointsOfInterest(any(), eq(true));
+    }
+
+    @Test
+    public void testLoadAsync_MaxBatchSizeReached_ShouldDispatchWithoutWaitingForWindow() {
+        // Given
+        batchLoader.windowMicros = TimeUnit.MINUTES.toMicros(1);
+        batchLoader.maxBatchSize = 3;
+        when(persistenceService.getPointsOfInterest(any(), eq(true))).thenReturn(List.of());
+
+        // When
+        List<CompletableFuture<PointOfInterestEntity>> futures = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            futures.add(batchLoader.loadAsync(new ObjectId(), true));
+        }
+
+        // Then
+        verify(executorService).execute(any());
+        futures.forEach(future -> assertDoesNotThrow(() -> future.get(5, TimeUnit.SECONDS)));
+        verify(persistenceService).getPointsOfInterest(any(), eq(true));
+        assertEquals(3, batchLoader.getStatistics().getMaxBatchSize());
+        assertEquals(1L, batchLoader.getStatistics().getHistogram().get("<=4"));
+    }
+
+    @Test
+    public void testLoad_QueryFails_ShouldPropagateExceptionToAllLookups() {
+        // Given
+        IllegalStateException failure = new IllegalStateException("database down");
+        when(persistenceService.getPointsOfInterest(any(), eq(false))).thenThrow(failure);
+        CompletableFuture<PointOfInterestEntity> other = batchLoader.loadAsync(new ObjectId(), false);
+
+        // When
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> batchLoader.load(new ObjectId(), false));
+
+        // Then
+        assertSame(failure, exception);
+        ExecutionException otherException = assertThrows(ExecutionException.class,
+                () -> other.get(5, TimeUnit.SECONDS));
+        assertSame(failure, otherException.getCause());
+    }
+
+    @Test
+    public void testLoad_ShouldQueryOnExecutorAndAddDatabaseTime() {
+        // Given
+        PointOfInterestEntity entity = createEntity();
+        Thread[] queryThread = new Thread[1];
+        when(persistenceService.getPointsOfInterest(any(), eq(false))).thenAnswer(invocation -> {
+            queryThread[0] = Thread.currentThread();
+            return List.of(entity);
+        });
+
+        // When
+        PointOfInterestEntity result = batchLoader.load(entity.getId(), false);
+
+        // Then
+        assertSame(entity, result);
+        verify(executorService).execute(any());
+        assertNotSame(Thread.currentThread(), queryThread[0]);
+        verify(serverTiming).add(eq(Layer.DATABASE), anyLong());
+    }
+
+    @Test
+    public void testLoad_BatchNotCompletedInTime_ShouldThrowTimeout() {
+        // Given
+        batchLoader.getMaxTimeMs = 10;
+        doNothing().when(executorService).execute(any());
+
+        // When / Then
+        assertThrows(MongoExecutionTimeoutException.class, () -> batchLoader.load(new ObjectId(), false));
+        verifyNoInteractions(persistenceService);
+    }
+
+    private static PointOfInterestEntity createEntity() {
+        PointOfInterestEntity entity = new PointOfInterestEntity();
+        entity.setId(new ObjectId());
+        return entity;
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.service;
+
+import de.zeiss.mongodbws.geoservice.persistence.GridCellCount;
+import de.zeiss.mongodbws.geoservice.persistence.PersistenceService;
+import de.zeiss.mongodbws.geoservice.persistence.entity.GeoPoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link QueryCostGuard}
+ */
+@ExtendWith(MockitoExtension.class)
+public class QueryCostGuardTest {
+
+    @Mock
+    private PersistenceService persistenceService;
+
+    @InjectMocks
+    private QueryCostGuard costGuard;
+
+    @BeforeEach
+    public void setUp() {
+        costGuard.enabled = true;
+        costGuard.cellSize = 0.1;
+        costGuard.maxEstimatedResults = 1000;
+        costGuard.mode = "cap";
+    }
+
+    @Test
+    public void testLimitFor_NoGrid_ShouldNotLimit() {
+        assertEquals(0, costGuard.limitFor(51.05, 13.73, 100_000));
+    }
+
+    @Test
+    public void testLimitFor_CheapQuery_ShouldNotLimit() {
+        // Given
+        givenDenseCell();
+
+        // When / Then: 1 km covers only a small part of the cell
+        assertEquals(0, costGuard.limitFor(51.05, 13.75, 1_000));
+    }
+
+    @Test
+    public void testLimitFor_ExpensiveQuery_ShouldCap() {
+        // Given
+        givenDenseCell();
+
+        // When / Then
+        assertEquals(1000, costGuard.limitFor(51.05, 13.75, 100_000));
+    }
+
+    @Test
+    public void testLimitFor_ExpensiveQueryInRejectMode_ShouldThrow() {
+        // Given
+        costGuard.mode = "reject";
+        givenDenseCell();
+
+        // When
+        QueryTooExpensiveException exception = assertThrows(QueryTooExpensiveException.class,
+                () -> costGuard.limitFor(51.05, 13.75, 100_000));
+
+        // Then
+        assertEquals(1000, exception.getMaxEstimatedResults());
+        assertTrue(exception.getEstimatedResults() > 1000);
+    }
+
+    @Test
+    public void testLimitFor_Disabled_ShouldNotLimit() {
+        // Given
+        givenDenseCell();
+        costGuard.enabled = false;
+
+        // When / Then
+        assertEquals(0, costGuard.limitFor(51.05, 13.75, 100_000));
+    }
+
+    @Test
+    public void testRebuild_DatabaseFailure_ShouldNotLimit() {
+        // Given
+        when(persistenceService.countPOIsPerCell(0.1)).thenThrow(new IllegalStateException("no database"));
+
+        // When
+        costGuard.rebuild();
+
+        // Then
+        assertEquals(0, costGuard.limitFor(51.05, 13.75, 100_000));
+    }
+
+    @Test
+    public void testAdded_ShouldBeCountedInEstimate() {
+        // Given
+        when(persistenceService.countPOIsPerCell(0.1)).thenReturn(List.of(new GridCellCount(510, 137, 1000)));
+        costGuard.rebuild();
+        assertEquals(0, costGuard.limitFor(51.05, 13.75, 100_000));
+
+        // When
+        for (int i = 0; i < 500; i++) {
+            costGuard.added(new GeoPoint(51.05, 13.75));
+        }
+
+        // Then
+        assertEquals(1000, costGuard.limitFor(51.05, 13.75, 100_000));
+    }
+
+    private void givenDenseCell() {
+        when(persistenceService.countPOIsPerCell(0.1)).thenReturn(List.of(new GridCellCount(510, 137, 10_000)));
+        costGuard.rebuild();
+    }
+}
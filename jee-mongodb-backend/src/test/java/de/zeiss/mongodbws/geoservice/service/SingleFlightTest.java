@@ -0,0 +1,141 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SingleFlight}
+ */
+public class SingleFlightTest {
+
+    private final SingleFlight<String, List<String>> singleFlight = new SingleFlight<>();
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testExecute_IdenticalCallInFlight_ShouldShareResult() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        List<String> result = List.of("a", "b");
+
+        Future<List<String>> first = executor.submit(() -> singleFlight.execute("key", () -> {
+            calls.incrementAndGet();
+            started.countDown();
+            await(release);
+            return result;
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // When
+        Future<List<String>> second = executor.submit(() -> singleFlight.execute("key", () -> {
+            calls.incrementAndGet();
+            return List.of();
+        }));
+        waitForSharedResult();
+        release.countDown();
+
+        // Then
+        assertSame(result, first.get(5, TimeUnit.SECONDS));
+        assertSame(result, second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, calls.get());
+        assertEquals(1, singleFlight.getExecutions());
+        assertEquals(1, singleFlight.getSharedResults());
+    }
+
+    @Test
+    public void testExecute_CallsAfterCompletion_ShouldExecuteAgain() {
+        // When
+        List<String> first = singleFlight.execute("key", () -> List.of("first"));
+        List<String> second = singleFlight.execute("key", () -> List.of("second"));
+
+        // Then
+        assertEquals(List.of("first"), first);
+        assertEquals(List.of("second"), second);
+        assertEquals(2, singleFlight.getExecutions());
+        assertEquals(0, singleFlight.getSharedResults());
+    }
+
+    @Test
+    public void testExecute_DifferentKeys_ShouldNotBeCoalesced() {
+        // When
+        List<String> first = singleFlight.execute("key", () -> List.of("first"));
+        List<String> second = singleFlight.execute("other", () -> List.of("second"));
+
+        // Then
+        assertEquals(List.of("first"), first);
+        assertEquals(List.of("second"), second);
+    }
+
+    @Test
+    public void testExecute_CallFails_ShouldPropagateExceptionToWaitingCalls() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("database down");
+
+        Future<List<String>> first = executor.submit(() -> singleFlight.execute("key", () -> {
+            started.countDown();
+            await(release);
+            throw failure;
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // When
+        Future<List<String>> second = executor.submit(() -> singleFlight.execute("key", List::of));
+        waitForSharedResult();
+        release.countDown();
+
+        // Then
+        assertSame(failure, assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS)).getCause());
+        assertSame(failure, assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS)).getCause());
+
+        // the failed call is not remembered
+        assertEquals(List.of("retry"), singleFlight.execute("key", () -> List.of("retry")));
+    }
+
+    private void waitForSharedResult() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.getSharedResults() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(1, singleFlight.getSharedResults());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link StaleResultCache}
+ */
+public class StaleResultCacheTest {
+
+    private StaleResultCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        cache = new StaleResultCache(2, 60000);
+    }
+
+    @Test
+    public void testPut_WeightExceeded_ShouldEvictFirstCachedResult() {
+        cache.put("a", "a", 1);
+        cache.put("b", "b", 1);
+        cache.put("a", "a2", 1);
+        cache.put("c", "c", 1);
+
+        // replacing a result does not move its key
+        assertNull(cache.get("a"));
+        assertEquals("b", cache.get("b").value());
+        assertEquals("c", cache.get("c").value());
+        assertEquals(2L, cache.weight());
+    }
+
+    @Test
+    public void testInvalidate_ShouldRemoveResult() {
+        cache.put("a", "a", 2);
+        cache.invalidate("a");
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+        assertEquals(0L, cache.weight());
+    }
+
+    @Test
+    public void testPut_InvalidatedKeyCachedAgain_ShouldEvictByItsNewPosition() {
+        cache.put("a", "a", 1);
+        cache.invalidate("a");
+        cache.put("b", "b", 1);
+        cache.put("a", "a2", 1);
+        cache.put("c", "c", 1);
+
+        assertNull(cache.get("b"));
+        assertEquals("a2", cache.get("a").value());
+        assertEquals("c", cache.get("c").value());
+        assertEquals(2L, cache.weight());
+    }
+
+    @Test
+    public void testGet_Expired_ShouldRemoveResult() {
+        cache = new StaleResultCache(2, 0);
+        cache.put("a", "a", 1);
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+        assertEquals(0L, cache.weight());
+    }
+}
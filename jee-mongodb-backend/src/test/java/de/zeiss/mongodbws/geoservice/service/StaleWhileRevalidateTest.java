@@ -0,0 +1,234 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.service;
+
+import com.mongodb.MongoExecutionTimeoutException;
+import com.mongodb.MongoTimeoutException;
+import de.zeiss.mongodbws.geoservice.persistence.ConcurrencyLimitExceededException;
+import de.zeiss.mongodbws.geoservice.persistence.QueryResult;
+import jakarta.enterprise.concurrent.ManagedExecutorService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link StaleWhileRevalidate}
+ */
+@ExtendWith(MockitoExtension.class)
+public class StaleWhileRevalidateTest {
+
+    @Mock
+    private ManagedExecutorService executorService;
+
+    private StaleWhileRevalidate staleWhileRevalidate;
+
+    private StaleResponse staleResponse;
+
+    @BeforeEach
+    public void setUp() {
+        staleResponse = new StaleResponse();
+        staleWhileRevalidate = new StaleWhileRevalidate();
+        staleWhileRevalidate.executorService = executorService;
+        staleWhileRevalidate.staleResponse = staleResponse;
+        staleWhileRevalidate.enabled = true;
+        staleWhileRevalidate.maxWeight = 3;
+        staleWhileRevalidate.maxResultWeight = 2;
+        staleWhileRevalidate.ttlMs = 60000;
+        staleWhileRevalidate.failureThreshold = 2;
+        staleWhileRevalidate.openDurationMs = 60000;
+        staleWhileRevalidate.slowCallThresholdMs = 60000;
+        staleWhileRevalidate.init();
+    }
+
+    @Test
+    public void testRead_DatabaseUp_ShouldReturnFreshResult() {
+        assertEquals("fresh", staleWhileRevalidate.read("key", () -> "fresh"));
+
+        assertFalse(staleResponse.isStale());
+        verifyNoInteractions(executorService);
+    }
+
+    @Test
+    public void testRead_DatabaseDown_ShouldServeStaleResultAndRefresh() {
+        staleWhileRevalidate.read("key", () -> "cached");
+        AtomicBoolean down = new AtomicBoolean(true);
+        Supplier<String> read = () -> {
+            if (down.get()) {
+                throw new MongoTimeoutException("down");
+            }
+            return "refreshed";
+        };
+
+        assertEquals("cached", staleWhileRevalidate.read("key", read));
+        assertTrue(staleResponse.isStale());
+
+        // the background refresh updates the cache once the database is back
+        ArgumentCaptor<Runnable> refresh = ArgumentCaptor.forClass(Runnable.class);
+        verify(executorService).execute(refresh.capture());
+        down.set(false);
+        refresh.getValue().run();
+        down.set(true);
+
+        assertEquals("refreshed", staleWhileRevalidate.read("key", read));
+        assertEquals(2L, staleWhileRevalidate.getStatistics().get("staleResponses"));
+        assertEquals(1L, staleWhileRevalidate.getStatistics().get("refreshes"));
+    }
+
+    @Test
+    public void testRead_DatabaseDownWithoutCachedResult_ShouldThrow() {
+        assertThrows(MongoTimeoutException.class, () -> staleWhileRevalidate.read("key", () -> {
+            throw new MongoTimeoutException("down");
+        }));
+        assertFalse(staleResponse.isStale());
+    }
+
+    @Test
+    public void testRead_InvalidRequest_ShouldNotServeStaleResult() {
+        staleWhileRevalidate.read("key", () -> "cached");
+
+        assertThrows(IllegalArgumentException.class, () -> staleWhileRevalidate.read("key", () -> {
+            throw new IllegalArgumentException("invalid");
+        }));
+        assertEquals("closed", staleWhileRevalidate.getStatistics().get("state"));
+    }
+
+    @Test
+    public void testRead_BreakerOpen_ShouldNotCallDatabase() {
+        staleWhileRevalidate.read("key", () -> "cached");
+        for (int i = 0; i < 2; i++) {
+            staleWhileRevalidate.read("key", () -> {
+                throw new MongoTimeoutException("down");
+            });
+        }
+        assertEquals("open", staleWhileRevalidate.getStatistics().get("state"));
+
+        AtomicInteger calls = new AtomicInteger();
+        assertEquals("cached", staleWhileRevalidate.read("key", () -> "fresh" + calls.incrementAndGet()));
+        assertEquals(0, calls.get());
+
+        CircuitBreakerOpenException exception = assertThrows(CircuitBreakerOpenException.class,
+                () -> staleWhileRevalidate.read("unknown", () -> "fresh"));
+        assertEquals(60, exception.getRetryAfterSeconds());
+    }
+
+    @Test
+    public void testRead_ConcurrencyLimitExceeded_ShouldServeStaleResultWithoutOpeningBreaker() {
+        staleWhileRevalidate.read("key", () -> "cached");
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("cached", staleWhileRevalidate.read("key", () -> {
+                throw new ConcurrencyLimitExceededException(1);
+            }));
+        }
+        assertEquals("closed", staleWhileRevalidate.getStatistics().get("state"));
+    }
+
+    @Test
+    public void testRead_ExecutionTimeout_ShouldNotOpenBreaker() {
+        for (int i = 0; i < 3; i++) {
+            assertThrows(MongoExecutionTimeoutException.class, () -> staleWhileRevalidate.read("key", () -> {
+                throw new MongoExecutionTimeoutException(50, "operation exceeded time limit");
+            }));
+        }
+        assertEquals("closed", staleWhileRevalidate.getStatistics().get("state"));
+    }
+
+    @Test
+    public void testRead_SlowWithinBudget_ShouldNotOpenBreaker() {
+        staleWhileRevalidate.slowCallThresholdMs = 1;
+        Supplier<String> slowRead = () -> {
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "slow";
+        };
+
+        for (int i = 0; i < 2; i++) {
+            staleWhileRevalidate.read("key", 60000, slowRead);
+        }
+        assertEquals("closed", staleWhileRevalidate.getStatistics().get("state"));
+
+        for (int i = 0; i < 2; i++) {
+            staleWhileRevalidate.read("key", slowRead);
+        }
+        assertEquals("open", staleWhileRevalidate.getStatistics().get("state"));
+    }
+
+    @Test
+    public void testRead_CacheFull_ShouldEvictFirstCachedResult() {
+        staleWhileRevalidate.read("a", () -> "a");
+        staleWhileRevalidate.read("b", () -> List.of("b1", "b2"));
+        staleWhileRevalidate.read("c", () -> "c");
+
+        assertEquals(2, staleWhileRevalidate.getStatistics().get("cachedResults"));
+        assertEquals(3L, staleWhileRevalidate.getStatistics().get("cachedWeight"));
+        assertThrows(MongoTimeoutException.class, () -> staleWhileRevalidate.read("a", () -> {
+            throw new MongoTimeoutException("down");
+        }));
+    }
+
+    @Test
+    public void testRead_LargeResult_ShouldNotBeCached() {
+        staleWhileRevalidate.read("key", () -> QueryResult.complete(List.of("a", "b", "c")));
+
+        assertEquals(0, staleWhileRevalidate.getStatistics().get("cachedResults"));
+        assertThrows(MongoTimeoutException.class, () -> staleWhileRevalidate.read("key", () -> {
+            throw new MongoTimeoutException("down");
+        }));
+    }
+
+    @Test
+    public void testRead_ResultExpired_ShouldNotServeStaleResult() {
+        staleWhileRevalidate.ttlMs = 0;
+        staleWhileRevalidate.init();
+        staleWhileRevalidate.read("key", () -> "cached");
+
+        assertThrows(MongoTimeoutException.class, () -> staleWhileRevalidate.read("key", () -> {
+            throw new MongoTimeoutException("down");
+        }));
+        assertEquals(0, staleWhileRevalidate.getStatistics().get("cachedResults"));
+    }
+
+    @Test
+    public void testInvalidate_ShouldNotServeStaleResult() {
+        staleWhileRevalidate.read("key", () -> "cached");
+        staleWhileRevalidate.invalidate("key");
+
+        assertThrows(MongoTimeoutException.class, () -> staleWhileRevalidate.read("key", () -> {
+            throw new MongoTimeoutException("down");
+        }));
+        assertEquals(0, staleWhileRevalidate.getStatistics().get("cachedResults"));
+    }
+
+    @Test
+    public void testNormalizeCoordinate() {
+        assertEquals(51.0504, StaleWhileRevalidate.normalizeCoordinate(51.0504));
+        assertNotEquals(StaleWhileRevalidate.normalizeCoordinate(51.0504), StaleWhileRevalidate.normalizeCoordinate(51.0501));
+        assertEquals(Double.valueOf(0.0), Double.valueOf(StaleWhileRevalidate.normalizeCoordinate(-0.0)));
+    }
+
+    @Test
+    public void testRead_Disabled_ShouldPassFailuresThrough() {
+        staleWhileRevalidate.enabled = false;
+
+        assertThrows(MongoTimeoutException.class, () -> staleWhileRevalidate.read("key", () -> {
+            throw new MongoTimeoutException("down");
+        }));
+    }
+}
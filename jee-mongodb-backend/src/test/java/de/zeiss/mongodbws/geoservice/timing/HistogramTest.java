@@ -0,0 +1,34 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.timing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link Histogram}
+ */
+public class HistogramTest {
+
+    @Test
+    public void testRecord_ShouldCountValueInFirstBucketNotBelow() {
+        Histogram histogram = new Histogram(0.5, 1, 10);
+
+        histogram.record(0.1);
+        histogram.record(1);
+        histogram.record(1.5);
+        histogram.record(10);
+        histogram.record(11);
+
+        assertEquals(5, histogram.getCount());
+        Map<String, Object> statistics = histogram.getStatistics();
+        assertEquals(23.6, (double) statistics.get("sum"), 0.001);
+        assertEquals(Map.of("0.5", 1L, "1", 1L, "10", 2L, "+Inf", 1L), statistics.get("buckets"));
+    }
+}
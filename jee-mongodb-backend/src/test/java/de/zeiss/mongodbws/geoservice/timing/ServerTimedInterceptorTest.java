@@ -0,0 +1,70 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.timing;
+
+import de.zeiss.mongodbws.geoservice.service.GeoDataService;
+import jakarta.enterprise.context.ContextNotActiveException;
+import jakarta.interceptor.InvocationContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link ServerTimedInterceptor}
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class ServerTimedInterceptorTest {
+
+    @Mock
+    private InvocationContext context;
+
+    private final ServerTimedInterceptor interceptor = new ServerTimedInterceptor();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        when(context.getMethod()).thenReturn(GeoDataService.class.getMethod("deletePOI", String.class));
+        when(context.proceed()).thenReturn("result");
+    }
+
+    @Test
+    public void testTime_WithinRequest_ShouldAddTimeToLayerOfBean() throws Exception {
+        interceptor.serverTiming = new ServerTiming();
+        interceptor.serverTiming.start(false);
+
+        assertEquals("result", interceptor.time(context));
+
+        assertTrue(interceptor.serverTiming.finish().layerNanos().containsKey(Layer.SERVICE));
+    }
+
+    @Test
+    public void testTime_FailingCall_ShouldAddTimeToLayer() throws Exception {
+        interceptor.serverTiming = new ServerTiming();
+        interceptor.serverTiming.start(false);
+        when(context.proceed()).thenThrow(new IllegalStateException("failed"));
+
+        assertThrows(IllegalStateException.class, () -> interceptor.time(context));
+
+        assertTrue(interceptor.serverTiming.finish().layerNanos().containsKey(Layer.SERVICE));
+    }
+
+    @Test
+    public void testTime_OutsideOfRequest_ShouldProceed() throws Exception {
+        interceptor.serverTiming = mock(ServerTiming.class);
+        when(interceptor.serverTiming.enter(any())).thenThrow(new ContextNotActiveException());
+
+        assertEquals("result", interceptor.time(context));
+
+        verify(interceptor.serverTiming, never()).exit(any());
+    }
+}
@@ -0,0 +1,36 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.timing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ServerTimingStatistics}
+ */
+public class ServerTimingStatisticsTest {
+
+    @Test
+    public void testRecord_ShouldCountRequestsPerBucket() {
+        ServerTimingStatistics statistics = new ServerTimingStatistics();
+
+        statistics.record(new RequestTimings(3_000_000, Map.of(Layer.DATABASE, 400_000L), -1, -1));
+        statistics.record(new RequestTimings(20_000_000, Map.of(), -1, -1));
+
+        Map<String, Object> total = statistics.getStatistics().get("total");
+        assertEquals(2L, total.get("count"));
+        assertEquals(23.0, (double) total.get("sum"), 0.001);
+        Map<?, ?> buckets = (Map<?, ?>) total.get("buckets");
+        assertEquals(1L, buckets.get("5"));
+        assertEquals(1L, buckets.get("25"));
+        assertEquals(0L, buckets.get("+Inf"));
+        assertEquals(1L, statistics.getStatistics().get("db").get("count"));
+        assertEquals(0L, statistics.getStatistics().get("cpu").get("count"));
+    }
+}
@@ -0,0 +1,73 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.timing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ServerTiming}
+ */
+public class ServerTimingTest {
+
+    @Test
+    public void testEnter_NotStarted_ShouldNotMeasure() {
+        ServerTiming serverTiming = new ServerTiming();
+
+        assertFalse(serverTiming.enter(Layer.SERVICE));
+        serverTiming.add(Layer.DATABASE, 1000);
+
+        assertFalse(serverTiming.isStarted());
+    }
+
+    @Test
+    public void testFinish_NestedCalls_ShouldCountLayerOnce() throws Exception {
+        ServerTiming serverTiming = new ServerTiming();
+        serverTiming.start(false);
+
+        assertTrue(serverTiming.enter(Layer.SERVICE));
+        assertTrue(serverTiming.enter(Layer.SERVICE));
+        Thread.sleep(5);
+        serverTiming.exit(Layer.SERVICE);
+        serverTiming.exit(Layer.SERVICE);
+        serverTiming.add(Layer.DATABASE, 1_000_000);
+        serverTiming.add(Layer.DATABASE, 2_000_000);
+
+        RequestTimings timings = serverTiming.finish();
+        long serviceNanos = timings.layerNanos().get(Layer.SERVICE);
+        assertTrue(serviceNanos >= 5_000_000 && serviceNanos < timings.totalNanos());
+        assertEquals(3_000_000L, timings.layerNanos().get(Layer.DATABASE));
+        assertFalse(timings.layerNanos().containsKey(Layer.CONTROLLER));
+        assertEquals(-1, timings.cpuNanos());
+        assertEquals(-1, timings.allocatedBytes());
+    }
+
+    @Test
+    public void testFinish_ResourceUsage_ShouldMeasureCpuAndAllocations() {
+        ServerTiming serverTiming = new ServerTiming();
+        serverTiming.start(true);
+
+        byte[][] garbage = new byte[100][];
+        for (int i = 0; i < garbage.length; i++) {
+            garbage[i] = new byte[1024];
+        }
+
+        RequestTimings timings = serverTiming.finish();
+        assertTrue(timings.cpuNanos() >= 0);
+        assertTrue(timings.allocatedBytes() >= 100 * 1024);
+    }
+
+    @Test
+    public void testToHeaderValue_ShouldListMetricsWithDurationsInMillis() {
+        RequestTimings timings = new RequestTimings(12_345_678, Map.of(Layer.DATABASE, 8_100_000L), 2_000_000, 4096);
+
+        assertEquals("total;dur=12.35;desc=\"Total\", db;dur=8.10;desc=\"MongoDB\", cpu;dur=2.00;desc=\"CPU time\", "
+                + "alloc;desc=\"4096 bytes allocated\"", timings.toHeaderValue());
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.tracing;
+
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link QueryShape}
+ */
+public class QueryShapeTest {
+
+    @Test
+    public void testOf_Find_ShouldReplaceValuesAndKeepCollection() {
+        BsonDocument command = BsonDocument.parse("{find: 'poi', filter: {location: {$nearSphere: "
+                + "{$geometry: {type: 'Point', coordinates: [13.7, 51.05]}, $maxDistance: 500}}, category: 'CAFE'}, "
+                + "limit: 10, lsid: {id: 1}, $db: 'demo-campus'}");
+
+        assertEquals("{\"find\": \"poi\", \"filter\": {\"location\": {\"$nearSphere\": {\"$geometry\": "
+                        + "{\"type\": \"?\", \"coordinates\": [\"?\"]}, \"$maxDistance\": \"?\"}}, \"category\": \"?\"}, "
+                        + "\"limit\": \"?\"}",
+                QueryShape.of(command));
+    }
+
+    @Test
+    public void testOf_Pipeline_ShouldKeepAllStages() {
+        BsonDocument command = BsonDocument.parse("{aggregate: 'poi', pipeline: [{$match: {category: 'CAFE'}}, "
+                + "{$limit: 5}], cursor: {}}");
+
+        assertEquals("{\"aggregate\": \"poi\", \"pipeline\": [{\"$match\": {\"category\": \"?\"}}, "
+                + "{\"$limit\": \"?\"}], \"cursor\": {}}", QueryShape.of(command));
+    }
+
+    @Test
+    public void testOf_InsertedDocuments_ShouldCollapseToDistinctShapes() {
+        BsonDocument command = BsonDocument.parse("{insert: 'poi', documents: [{name: 'a'}, {name: 'b'}, "
+                + "{name: 'c', category: 'CAFE'}], ordered: true}");
+
+        assertEquals("{\"insert\": \"poi\", \"documents\": [{\"name\": \"?\"}, {\"name\": \"?\", "
+                + "\"category\": \"?\"}], \"ordered\": \"?\"}", QueryShape.of(command));
+    }
+
+    @Test
+    public void testOf_GetMore_ShouldReplaceCursorId() {
+        BsonDocument command = BsonDocument.parse("{getMore: {$numberLong: '42'}, collection: 'poi'}");
+
+        assertEquals("{\"getMore\": \"?\", \"collection\": \"?\"}", QueryShape.of(command));
+    }
+
+    @Test
+    public void testOf_HugeCommand_ShouldTruncate() {
+        StringBuilder fields = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            fields.append(", field").append(i).append(": 1");
+        }
+        BsonDocument command = BsonDocument.parse("{find: 'poi'" + fields + "}");
+
+        String shape = QueryShape.of(command);
+
+        assertEquals(QueryShape.MAX_LENGTH, shape.length());
+        assertTrue(shape.endsWith("..."));
+    }
+}
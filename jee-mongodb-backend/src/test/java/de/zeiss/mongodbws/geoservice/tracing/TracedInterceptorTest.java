@@ -0,0 +1,92 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.tracing;
+
+import de.zeiss.mongodbws.geoservice.service.GeoDataService;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import jakarta.interceptor.InvocationContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link TracedInterceptor}
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class TracedInterceptorTest {
+
+    @Mock
+    private InvocationContext context;
+
+    private final InMemorySpanExporter exporter = InMemorySpanExporter.create();
+
+    private final TracedInterceptor interceptor = new TracedInterceptor();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        interceptor.tracing = new Tracing();
+        when(context.getMethod()).thenReturn(GeoDataService.class.getMethod("deletePOI", String.class));
+        when(context.proceed()).thenReturn("result");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        interceptor.tracing.close();
+    }
+
+    @Test
+    public void testTrace_Enabled_ShouldRecordSpanNamedAfterMethod() throws Exception {
+        interceptor.tracing.start(SimpleSpanProcessor.create(exporter));
+        AtomicReference<Span> current = new AtomicReference<>();
+        when(context.proceed()).thenAnswer(inv -> {
+            current.set(Span.current());
+            return "result";
+        });
+
+        assertEquals("result", interceptor.trace(context));
+
+        List<SpanData> spans = exporter.getFinishedSpanItems();
+        assertEquals(1, spans.size());
+        assertEquals("GeoDataService.deletePOI", spans.get(0).getName());
+        assertEquals(spans.get(0).getSpanId(), current.get().getSpanContext().getSpanId());
+    }
+
+    @Test
+    public void testTrace_FailingCall_ShouldRecordError() throws Exception {
+        interceptor.tracing.start(SimpleSpanProcessor.create(exporter));
+        when(context.proceed()).thenThrow(new IllegalStateException("failed"));
+
+        assertThrows(IllegalStateException.class, () -> interceptor.trace(context));
+
+        SpanData span = exporter.getFinishedSpanItems().get(0);
+        assertEquals(StatusCode.ERROR, span.getStatus().getStatusCode());
+        assertEquals(1, span.getEvents().size());
+    }
+
+    @Test
+    public void testTrace_Disabled_ShouldProceed() throws Exception {
+        assertEquals("result", interceptor.trace(context));
+
+        assertFalse(interceptor.tracing.isEnabled());
+        assertTrue(exporter.getFinishedSpanItems().isEmpty());
+    }
+}
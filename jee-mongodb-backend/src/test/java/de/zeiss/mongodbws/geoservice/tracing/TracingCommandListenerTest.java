@@ -0,0 +1,125 @@
+/**
+ * This file is part of a demo application showing MongoDB usage with Morphia library.
+ * <p>
+ * Copyright (C) 2025 Carl Zeiss Digital Innovation GmbH
+ */
+package de.zeiss.mongodbws.geoservice.tracing;
+
+import com.mongodb.MongoException;
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link TracingCommandListener}
+ */
+public class TracingCommandListenerTest {
+
+    private static final ConnectionDescription CONNECTION = new ConnectionDescription(
+            new ServerId(new ClusterId(), new ServerAddress("mongo", 27017)));
+
+    private static final BsonDocument FIND = BsonDocument.parse(
+            "{find: 'poi', filter: {category: 'CAFE'}, limit: 10, $db: 'demo-campus'}");
+
+    private final InMemorySpanExporter exporter = InMemorySpanExporter.create();
+
+    private final TracingCommandListener listener = new TracingCommandListener();
+
+    @BeforeEach
+    public void setUp() {
+        listener.tracing = new Tracing();
+        listener.tracing.start(SimpleSpanProcessor.create(exporter));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        listener.tracing.close();
+    }
+
+    @Test
+    public void testCommandSucceeded_Find_ShouldRecordClientSpanWithShapeAndCount() {
+        Span parent = listener.tracing.getTracer().spanBuilder("PersistenceService.listPOIs").startSpan();
+        try (Scope ignored = parent.makeCurrent()) {
+            listener.commandStarted(started(1, "find", FIND));
+        }
+        listener.commandSucceeded(new CommandSucceededEvent(null, 1, 1, CONNECTION, "demo-campus", "find",
+                BsonDocument.parse("{cursor: {id: 0, ns: 'demo-campus.poi', firstBatch: [{}, {}, {}]}, ok: 1}"),
+                1000));
+        parent.end();
+
+        SpanData span = exporter.getFinishedSpanItems().get(0);
+        assertEquals("find poi", span.getName());
+        assertEquals(SpanKind.CLIENT, span.getKind());
+        assertEquals(parent.getSpanContext().getSpanId(), span.getParentSpanId());
+        assertEquals("mongodb", span.getAttributes().get(AttributeKey.stringKey("db.system")));
+        assertEquals("poi", span.getAttributes().get(AttributeKey.stringKey("db.collection.name")));
+        assertEquals("{\"find\": \"poi\", \"filter\": {\"category\": \"?\"}, \"limit\": \"?\"}",
+                span.getAttributes().get(AttributeKey.stringKey("db.query.text")));
+        assertEquals(3L, span.getAttributes().get(AttributeKey.longKey("db.response.returned_rows")));
+        assertEquals("mongo", span.getAttributes().get(AttributeKey.stringKey("server.address")));
+        assertTrue(listener.spans.isEmpty());
+    }
+
+    @Test
+    public void testCommandSucceeded_Delete_ShouldRecordNumberOfDeletedDocuments() {
+        listener.commandStarted(started(2, "delete",
+                BsonDocument.parse("{delete: 'poi', deletes: [{q: {_id: 1}, limit: 1}]}")));
+        listener.commandSucceeded(new CommandSucceededEvent(null, 2, 2, CONNECTION, "demo-campus", "delete",
+                BsonDocument.parse("{n: 1, ok: 1}"), 1000));
+
+        SpanData span = exporter.getFinishedSpanItems().get(0);
+        assertEquals(1L, span.getAttributes().get(AttributeKey.longKey("db.response.returned_rows")));
+    }
+
+    @Test
+    public void testCommandFailed_ShouldRecordError() {
+        listener.commandStarted(started(3, "find", FIND));
+        listener.commandFailed(new CommandFailedEvent(null, 3, 3, CONNECTION, "demo-campus", "find", 1000,
+                new MongoException("timeout")));
+
+        SpanData span = exporter.getFinishedSpanItems().get(0);
+        assertEquals(StatusCode.ERROR, span.getStatus().getStatusCode());
+        assertTrue(listener.spans.isEmpty());
+    }
+
+    @Test
+    public void testCommandStarted_Disabled_ShouldNotRecordSpans() {
+        listener.tracing.close();
+
+        listener.commandStarted(started(4, "find", FIND));
+        listener.commandSucceeded(new CommandSucceededEvent(null, 4, 4, CONNECTION, "demo-campus", "find",
+                BsonDocument.parse("{ok: 1}"), 1000));
+
+        assertTrue(exporter.getFinishedSpanItems().isEmpty());
+    }
+
+    @Test
+    public void testResultCount_ShouldReadBatchesAndWrites() {
+        assertEquals(2, TracingCommandListener.resultCount(BsonDocument.parse("{cursor: {nextBatch: [{}, {}]}}")));
+        assertEquals(1, TracingCommandListener.resultCount(BsonDocument.parse("{value: {_id: 1}, ok: 1}")));
+        assertEquals(0, TracingCommandListener.resultCount(BsonDocument.parse("{value: null, ok: 1}")));
+        assertEquals(-1, TracingCommandListener.resultCount(BsonDocument.parse("{ok: 1}")));
+    }
+
+    private static CommandStartedEvent started(int requestId, String commandName, BsonDocument command) {
+        return new CommandStartedEvent(null, requestId, requestId, CONNECTION, "demo-campus", commandName, command);
+    }
+}
@@ -0,0 +1,46 @@
+package de.zeiss.mongodb_ws.spring_geo_service.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import de.zeiss.mongodb_ws.spring_geo_service.rest.PointOfInterestProtobufHttpMessageConverter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Binary formats of the responses and request bodies besides JSON, selected by the Accept and Content-Type headers:
+ * Smile and CBOR for all types, Protobuf for points of interest and their lists.
+ * <p>
+ * Spring MVC registers Smile and CBOR converters on its own when their Jackson modules are present, but with a plain
+ * ObjectMapper. They are replaced by ones with the ObjectMapper configuration of Spring Boot, including
+ * {@link JacksonConfig}. All binary converters come after the JSON one, so JSON stays the default for clients which
+ * accept any media type.
+ */
+@Configuration
+public class BinaryFormatsConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+
+    public BinaryFormatsConfig(ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder) {
+        this.objectMapperBuilder = objectMapperBuilder;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2SmileHttpMessageConverter
+                || converter instanceof MappingJackson2CborHttpMessageConverter);
+
+        // the builder of Spring Boot is a prototype, each call returns a new one
+        converters.add(new MappingJackson2SmileHttpMessageConverter(
+                objectMapperBuilder.getObject().factory(new SmileFactory()).build()));
+        converters.add(new MappingJackson2CborHttpMessageConverter(
+                objectMapperBuilder.getObject().factory(new CBORFactory()).build()));
+        converters.add(new PointOfInterestProtobufHttpMessageConverter());
+    }
+}
@@ -0,0 +1,78 @@
+package de.zeiss.mongodb_ws.spring_geo_service.config;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executes each task on a new virtual thread, at most {@code parallelism} tasks run at the same time. Virtual threads
+ * are cheap and must not be pooled, so the bound is kept by a semaphore: tasks beyond it wait for a permit on their
+ * virtual thread without blocking a carrier thread. At most {@code maxWaiting} tasks wait, further tasks are rejected
+ * right away, so that an overload does not pile up an unbounded backlog of parked threads.
+ */
+public class BoundedVirtualThreadExecutor implements Executor, AutoCloseable {
+
+    private final String name;
+
+    private final ExecutorService executorService;
+
+    private final Semaphore permits;
+
+    private final int maxPending;
+
+    /**
+     * Number of tasks accepted and not finished yet, running or waiting for a permit.
+     */
+    private final AtomicInteger pending = new AtomicInteger();
+
+    /**
+     * @param name        prefix of the thread names
+     * @param parallelism maximum number of tasks running at the same time
+     * @param maxWaiting  maximum number of tasks waiting for a running one to finish
+     */
+    public BoundedVirtualThreadExecutor(String name, int parallelism, int maxWaiting) {
+        this.name = name;
+        this.executorService = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name, 0).factory());
+        this.permits = new Semaphore(parallelism);
+        this.maxPending = parallelism + maxWaiting;
+    }
+
+    /**
+     * @throws RejectedExecutionException if the maximum number of tasks is waiting already
+     */
+    @Override
+    public void execute(Runnable task) {
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            throw new RejectedExecutionException("Too many tasks waiting for the " + name + " executor");
+        }
+
+        try {
+            executorService.execute(() -> {
+                // not interruptible, a task of a CompletableFuture which never runs would never complete it
+                permits.acquireUninterruptibly();
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                    pending.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // closed
+            pending.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Waits for the submitted tasks and stops the executor.
+     */
+    @Override
+    public void close() {
+        executorService.close();
+    }
+}
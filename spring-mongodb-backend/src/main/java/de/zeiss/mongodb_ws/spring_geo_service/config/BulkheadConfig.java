@@ -0,0 +1,22 @@
+package de.zeiss.mongodb_ws.spring_geo_service.config;
+
+import de.zeiss.mongodb_ws.spring_geo_service.rest.BulkheadInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers the bulkheads isolating interactive reads, writes and bulk work for the REST API.
+ */
+@Configuration
+public class BulkheadConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private BulkheadInterceptor bulkheadInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(bulkheadInterceptor).addPathPatterns("/api/**");
+    }
+}
@@ -5,18 +5,22 @@ import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 /**
- * Sets up CORS configuration to allow requests from localhost for development purposes.
+ * Sets up CORS configuration to allow requests from localhost for development purposes. Only the POI endpoints are
+ * allowed, CORS requests of the admin endpoints are rejected, so pages of other origins cannot start flight recordings
+ * or read slow queries.
  */
 @Configuration
 public class CorsConfig implements WebMvcConfigurer {
 
     @Override
     public void addCorsMappings(CorsRegistry registry) {
-        registry.addMapping("/**")
+        registry.addMapping("/api/poi/**")
                 .allowedOriginPatterns("http://localhost:*", "http://127.0.0.1:*")
                 .allowedMethods("*")
                 .allowedHeaders("*")
                 .allowCredentials(true)
                 .maxAge(3600);
+        registry.addMapping("/api/admin/**")
+                .allowedOrigins();
     }
 }
@@ -0,0 +1,42 @@
+package de.zeiss.mongodb_ws.spring_geo_service.config;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import de.zeiss.mongodb_ws.spring_geo_service.rest.GeoJsonPointModule;
+import de.zeiss.mongodb_ws.spring_geo_service.rest.model.PointOfInterest;
+import de.zeiss.mongodb_ws.spring_geo_service.rest.model.PointOfInterestMultiGetResult;
+import de.zeiss.mongodb_ws.spring_geo_service.rest.model.PointOfInterestSearchResult;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Adds the fast path for GeoJSON points, see {@link GeoJsonPointModule}, and the Blackbird module, which accesses the
+ * properties with generated lambdas instead of reflection, to the ObjectMapper of Spring Boot.
+ * <p>
+ * The writers of the response types are built once at startup, so the serializers are introspected and cached before
+ * the first request instead of during it.
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fastJsonCustomizer() {
+        return builder -> builder
+                // adds to the modules of Spring Boot instead of replacing them
+                .modulesToInstall(modules -> {
+                    modules.add(new GeoJsonPointModule());
+                    modules.add(new BlackbirdModule());
+                })
+                .postConfigurer(objectMapper -> {
+                    // with SerializationFeature.EAGER_SERIALIZER_FETCH the writers resolve and cache the serializers
+                    objectMapper.writerFor(PointOfInterest.class);
+                    objectMapper.writerFor(new TypeReference<List<PointOfInterest>>() {
+                    });
+                    objectMapper.writerFor(PointOfInterestMultiGetResult.class);
+                    objectMapper.writerFor(PointOfInterestSearchResult.class);
+                });
+    }
+}
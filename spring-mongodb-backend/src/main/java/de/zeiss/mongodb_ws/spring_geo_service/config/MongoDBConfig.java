@@ -1,14 +1,22 @@
 package de.zeiss.mongodb_ws.spring_geo_service.config;
 
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.SlowQueryLog;
+import de.zeiss.mongodb_ws.spring_geo_service.timing.ServerTimingCommandListener;
+import de.zeiss.mongodb_ws.spring_geo_service.tracing.TracingCommandListener;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.data.mongodb.core.convert.DefaultMongoTypeMapper;
 import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
 
 /**
- * Suppresing the _class field in MongoDB documents.
+ * Suppresing the _class field in MongoDB documents, sizing the connection pool of interactive reads, measuring the
+ * MongoDB commands for the Server-Timing header, tracing them and recording the slow ones. Writes and bulk work have pools of their own, see
+ * {@link de.zeiss.mongodb_ws.spring_geo_service.persistence.WorkloadMongoTemplates}.
  *
  * @see <a href="https://stackoverflow.com/a/53435244">StackOverflow Discussion</a>
  */
@@ -23,4 +31,25 @@ public class MongoDBConfig implements InitializingBean {
     public void afterPropertiesSet() throws Exception {
         mappingMongoConverter.setTypeMapper(new DefaultMongoTypeMapper(null));
     }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer interactivePoolSizeCustomizer(
+            @Value("${geo-service.mongodb.pool-size.interactive:100}") int poolSize) {
+        return settings -> settings.applyToConnectionPoolSettings(pool -> pool.maxSize(poolSize));
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer serverTimingCustomizer(ServerTimingCommandListener listener) {
+        return settings -> settings.addCommandListener(listener);
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer tracingCustomizer(TracingCommandListener listener) {
+        return settings -> settings.addCommandListener(listener);
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer slowQueryCustomizer(SlowQueryLog slowQueryLog) {
+        return settings -> settings.addCommandListener(slowQueryLog);
+    }
 }
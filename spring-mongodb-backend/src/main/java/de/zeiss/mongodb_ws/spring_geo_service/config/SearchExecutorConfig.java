@@ -0,0 +1,29 @@
+package de.zeiss.mongodb_ws.spring_geo_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Executors running work on virtual threads. The search executor runs the queries of a batch search, its parallelism
+ * bounds the number of queries executed concurrently so that a single batch cannot take all connections of the
+ * MongoDB connection pool. The background executor runs maintenance work, e.g. building the density grid and
+ * refreshing stale results, so that it does not compete with batch searches. Both reject tasks beyond a bounded number
+ * of waiting ones, which is answered with 503 and Retry-After.
+ */
+@Configuration
+public class SearchExecutorConfig {
+
+    @Bean(destroyMethod = "close")
+    public BoundedVirtualThreadExecutor searchExecutor(@Value("${geo-service.search.parallelism:16}") int parallelism,
+                                                       @Value("${geo-service.search.max-waiting:500}") int maxWaiting) {
+        return new BoundedVirtualThreadExecutor("poi-search-", parallelism, maxWaiting);
+    }
+
+    @Bean(destroyMethod = "close")
+    public BoundedVirtualThreadExecutor backgroundExecutor(
+            @Value("${geo-service.background.parallelism:2}") int parallelism,
+            @Value("${geo-service.background.max-waiting:100}") int maxWaiting) {
+        return new BoundedVirtualThreadExecutor("poi-background-", parallelism, maxWaiting);
+    }
+}
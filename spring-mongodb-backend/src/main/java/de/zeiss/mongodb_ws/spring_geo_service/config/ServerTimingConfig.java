@@ -0,0 +1,45 @@
+package de.zeiss.mongodb_ws.spring_geo_service.config;
+
+import de.zeiss.mongodb_ws.spring_geo_service.rest.ServerTimingInterceptor;
+import de.zeiss.mongodb_ws.spring_geo_service.service.PointOfInterestService;
+import de.zeiss.mongodb_ws.spring_geo_service.timing.Layer;
+import de.zeiss.mongodb_ws.spring_geo_service.timing.ServerTimedMethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers the measurement of the controller layer and proxies the {@link PointOfInterestService} to measure the
+ * service layer for the Server-Timing header.
+ */
+@Configuration
+public class ServerTimingConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private ServerTimingInterceptor serverTimingInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(serverTimingInterceptor).addPathPatterns("/api/**");
+    }
+
+    @Bean
+    public static BeanPostProcessor serviceTimingPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof PointOfInterestService)) {
+                    return bean;
+                }
+                ProxyFactory proxyFactory = new ProxyFactory(bean);
+                proxyFactory.setProxyTargetClass(true);
+                proxyFactory.addAdvice(new ServerTimedMethodInterceptor(Layer.SERVICE));
+                return proxyFactory.getProxy(bean.getClass().getClassLoader());
+            }
+        };
+    }
+}
@@ -0,0 +1,54 @@
+package de.zeiss.mongodb_ws.spring_geo_service.config;
+
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.IPointOfInterestRepository;
+import de.zeiss.mongodb_ws.spring_geo_service.rest.TracingInterceptor;
+import de.zeiss.mongodb_ws.spring_geo_service.service.PointOfInterestService;
+import de.zeiss.mongodb_ws.spring_geo_service.tracing.TracedMethodInterceptor;
+import de.zeiss.mongodb_ws.spring_geo_service.tracing.Tracing;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers the spans of the controller methods and proxies the {@link PointOfInterestService} and the
+ * {@link IPointOfInterestRepository} to record spans of the service and repository layer.
+ */
+@Configuration
+public class TracingConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private TracingInterceptor tracingInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(tracingInterceptor).addPathPatterns("/api/**");
+    }
+
+    @Bean
+    public static BeanPostProcessor tracingPostProcessor(ObjectProvider<Tracing> tracing) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof PointOfInterestService) {
+                    ProxyFactory proxyFactory = new ProxyFactory(bean);
+                    proxyFactory.setProxyTargetClass(true);
+                    proxyFactory.addAdvice(new TracedMethodInterceptor(tracing.getObject(), "PointOfInterestService"));
+                    return proxyFactory.getProxy(bean.getClass().getClassLoader());
+                }
+                if (bean instanceof IPointOfInterestRepository) {
+                    // the repository is a proxy of Spring Data already, the spans wrap its interfaces
+                    ProxyFactory proxyFactory = new ProxyFactory(bean);
+                    proxyFactory.addAdvice(new TracedMethodInterceptor(tracing.getObject(),
+                            "IPointOfInterestRepository"));
+                    return proxyFactory.getProxy(bean.getClass().getClassLoader());
+                }
+                return bean;
+            }
+        };
+    }
+}
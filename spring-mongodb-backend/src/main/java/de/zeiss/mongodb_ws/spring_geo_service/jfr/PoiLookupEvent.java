@@ -0,0 +1,34 @@
+package de.zeiss.mongodb_ws.spring_geo_service.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Lookup of poi's by their ids.
+ */
+@Name("de.zeiss.geoservice.PoiLookup")
+@Label("POI Lookup")
+@Description("Lookup of points of interest by their ids")
+public class PoiLookupEvent extends PoiEvent {
+
+    @Label("Requested")
+    @Description("Number of requested ids")
+    int requested;
+
+    @Label("Found")
+    int found;
+
+    @Label("Projection")
+    @Description("Fields read from the database")
+    String projection;
+
+    public PoiLookupEvent(int requested, String projection) {
+        this.requested = requested;
+        this.projection = projection;
+    }
+
+    public void setFound(int found) {
+        this.found = found;
+    }
+}
@@ -0,0 +1,62 @@
+package de.zeiss.mongodb_ws.spring_geo_service.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Geo query around a position: a radius query or a query for the nearest poi's.
+ */
+@Name("de.zeiss.geoservice.PoiRadiusQuery")
+@Label("POI Radius Query")
+@Description("Query of the points of interest around a position")
+public class PoiRadiusQueryEvent extends PoiEvent {
+
+    @Label("Query Type")
+    @Description("radius, nearest or per-category")
+    String queryType;
+
+    @Label("Latitude")
+    double latitude;
+
+    @Label("Longitude")
+    double longitude;
+
+    @Label("Radius")
+    @Description("Maximum distance in meters, 0 if unlimited")
+    int radius;
+
+    @Label("Limit")
+    @Description("Maximum number of results (per category), 0 if unlimited")
+    int limit;
+
+    @Label("Category")
+    String category;
+
+    @Label("Projection")
+    @Description("Fields read from the database")
+    String projection;
+
+    @Label("Result Count")
+    int resultCount;
+
+    @Label("Partial")
+    @Description("True if the result was cut off by the time budget or the limit")
+    boolean partial;
+
+    public PoiRadiusQueryEvent(String queryType, double latitude, double longitude, int radius, int limit,
+                               String category, String projection) {
+        this.queryType = queryType;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.radius = radius;
+        this.limit = limit;
+        this.category = category;
+        this.projection = projection;
+    }
+
+    public void setResult(int resultCount, boolean partial) {
+        this.resultCount = resultCount;
+        this.partial = partial;
+    }
+}
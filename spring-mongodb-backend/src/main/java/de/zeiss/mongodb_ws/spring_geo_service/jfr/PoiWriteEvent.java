@@ -0,0 +1,38 @@
+package de.zeiss.mongodb_ws.spring_geo_service.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Write of a poi.
+ */
+@Name("de.zeiss.geoservice.PoiWrite")
+@Label("POI Write")
+@Description("Creation, update or deletion of a point of interest")
+public class PoiWriteEvent extends PoiEvent {
+
+    @Label("Operation")
+    @Description("create, update or delete")
+    String operation;
+
+    @Label("Id")
+    String id;
+
+    @Label("Applied")
+    @Description("False if the point of interest to delete did not exist")
+    boolean applied;
+
+    public PoiWriteEvent(String operation, String id) {
+        this.operation = operation;
+        this.id = id;
+    }
+
+    public void setApplied(boolean applied) {
+        this.applied = applied;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+}
@@ -0,0 +1,21 @@
+package de.zeiss.mongodb_ws.spring_geo_service.persistence;
+
+/**
+ * Thrown if a database call is shed because the adaptive concurrency limit is reached.
+ */
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ConcurrencyLimitExceededException(long retryAfterSeconds) {
+        super("Too many concurrent queries, please retry later");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * @return the number of seconds the client should wait before retrying
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,110 @@
+package de.zeiss.mongodb_ws.spring_geo_service.persistence;
+
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The essentials of an explain("executionStats") output: how many index keys and documents were examined to return
+ * how many documents, and the winning plan. A COLLSCAN or many more documents examined than returned point to a
+ * missing or badly chosen index.
+ *
+ * @param keysExamined  index keys examined
+ * @param docsExamined  documents examined
+ * @param nReturned     documents returned
+ * @param executionTime execution time of the winning plan in milliseconds
+ * @param planSummary   stages of the winning plan from the top, e.g. "LIMIT > FETCH > IXSCAN(category_1)"
+ * @param winningPlan   JSON of the winning plan
+ */
+public record ExplainSummary(long keysExamined, long docsExamined, long nReturned, long executionTime,
+                             String planSummary, String winningPlan) {
+
+    /**
+     * Parses the output of explain. Aggregations nest the query planner in their first stage, e.g. in
+     * "$geoNearCursor", so the first "queryPlanner" found is used.
+     *
+     * @param explain the output of the explain command
+     * @return the summary
+     */
+    public static ExplainSummary of(BsonDocument explain) {
+        BsonDocument planned = findParent(explain, "queryPlanner");
+        if (planned == null) {
+            return new ExplainSummary(-1, -1, -1, -1, "UNKNOWN", null);
+        }
+
+        BsonDocument winningPlan = planned.getDocument("queryPlanner").getDocument("winningPlan", new BsonDocument());
+        // slot based execution wraps the classic plan
+        if (winningPlan.isDocument("queryPlan")) {
+            winningPlan = winningPlan.getDocument("queryPlan");
+        }
+        BsonDocument stats = planned.getDocument("executionStats", new BsonDocument());
+        return new ExplainSummary(number(stats, "totalKeysExamined"), number(stats, "totalDocsExamined"),
+                number(stats, "nReturned"), number(stats, "executionTimeMillis"), summarize(winningPlan),
+                winningPlan.toJson());
+    }
+
+    /**
+     * @return the fields of the summary for JSON output
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("keysExamined", keysExamined);
+        map.put("docsExamined", docsExamined);
+        map.put("nReturned", nReturned);
+        map.put("executionTimeMillis", executionTime);
+        map.put("planSummary", planSummary);
+        map.put("winningPlan", winningPlan);
+        return map;
+    }
+
+    /**
+     * @param plan a stage of a plan
+     * @return the stage and its input stages, e.g. "FETCH > IXSCAN(category_1)"
+     */
+    static String summarize(BsonDocument plan) {
+        String stage = plan.isString("stage") ? plan.getString("stage").getValue() : "UNKNOWN";
+        if (plan.isString("indexName")) {
+            stage += "(" + plan.getString("indexName").getValue() + ")";
+        }
+        if (plan.isDocument("inputStage")) {
+            return stage + " > " + summarize(plan.getDocument("inputStage"));
+        }
+        if (plan.isArray("inputStages")) {
+            return stage + plan.getArray("inputStages").stream()
+                    .filter(BsonValue::isDocument)
+                    .map(input -> summarize(input.asDocument()))
+                    .collect(Collectors.joining(", ", "[", "]"));
+        }
+        return stage;
+    }
+
+    private static BsonDocument findParent(BsonValue value, String key) {
+        if (value.isDocument()) {
+            BsonDocument document = value.asDocument();
+            if (document.isDocument(key)) {
+                return document;
+            }
+            for (BsonValue nested : document.values()) {
+                BsonDocument found = findParent(nested, key);
+                if (found != null) {
+                    return found;
+                }
+            }
+        } else if (value.isArray()) {
+            for (BsonValue element : value.asArray()) {
+                BsonDocument found = findParent(element, key);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static long number(BsonDocument document, String key) {
+        return document.isNumber(key) ? document.getNumber(key).longValue() : -1;
+    }
+}
@@ -0,0 +1,11 @@
+package de.zeiss.mongodb_ws.spring_geo_service.persistence;
+
+/**
+ * Number of POIs within a grid cell.
+ *
+ * @param latIndex index of the cell in latitude direction, floor(latitude / cellSize)
+ * @param lonIndex index of the cell in longitude direction, floor(longitude / cellSize)
+ * @param count    number of POIs in the cell
+ */
+public record GridCellCount(int latIndex, int lonIndex, long count) {
+}
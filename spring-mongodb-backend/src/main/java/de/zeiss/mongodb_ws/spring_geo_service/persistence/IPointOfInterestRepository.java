@@ -7,7 +7,7 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 
 import java.util.List;
 
-public interface IPointOfInterestRepository extends MongoRepository<PointOfInterestEntity, String> {
+public interface IPointOfInterestRepository extends MongoRepository<PointOfInterestEntity, String>, IPointOfInterestRepositoryCustom {
 
     List<PointOfInterestEntity> findByLocationNear(Point location, Distance distance);
 }
@@ -0,0 +1,139 @@
+package de.zeiss.mongodb_ws.spring_geo_service.persistence;
+
+import com.mongodb.ReadPreference;
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.entity.PointOfInterestEntity;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.GeoResults;
+import org.springframework.data.geo.Point;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Custom repository fragment for queries which cannot be expressed as derived query methods. All queries have a time
+ * budget (maxTimeMS) per endpoint, exceeding it results in a {@link org.springframework.dao.QueryTimeoutException}.
+ * Writes and bulk queries use the connection pools of their {@link Workload}. Reads which may be {@link HedgedReads
+ * hedged} take the read preference to use.
+ *
+ * @see IPointOfInterestRepositoryCustomImpl
+ */
+public interface IPointOfInterestRepositoryCustom {
+
+    /**
+     * Finds the POI with the given id.
+     *
+     * @param id             the id
+     * @param readPreference the read preference of a hedged read, null for the one of the client
+     * @return the POI if found
+     */
+    Optional<PointOfInterestEntity> findById(String id, ReadPreference readPreference);
+
+    /**
+     * Finds the POIs with the given ids using a single {@code $in} query.
+     *
+     * @param ids            the ids
+     * @param expandDetails  if false the details field is excluded by the database
+     * @param readPreference the read preference of a hedged read, null for the one of the client
+     * @return the found POIs in no particular order
+     */
+    List<PointOfInterestEntity> findByIds(Collection<String> ids, boolean expandDetails, ReadPreference readPreference);
+
+    /**
+     * Inserts or replaces the POI using the connection pool of writes.
+     *
+     * @param entity the POI to insert or update
+     * @return the saved POI, with its id if it was inserted
+     */
+    PointOfInterestEntity upsert(PointOfInterestEntity entity);
+
+    /**
+     * Deletes the POI with the given id using a single {@code findAndModify} command on the connection pool of writes.
+     *
+     * @param id the id
+     * @return the deleted POI or null if there was none
+     */
+    PointOfInterestEntity findAndRemoveById(String id);
+
+    /**
+     * Finds the POIs within the distance, ordered by distance. Only the requested fields are read from the database.
+     * Used by the batch search, so executed on the connection pool of bulk work.
+     *
+     * @param location      the center point
+     * @param distance      the maximum distance
+     * @param category      optional category filter, may be null
+     * @param fields        the fields to read besides the id, may be null to read all fields
+     * @param expandDetails if false and no fields are given the details field is excluded by the database
+     * @return the POIs ordered by distance
+     */
+    List<PointOfInterestEntity> findNear(Point location, Distance distance, String category, Collection<String> fields,
+                                         boolean expandDetails);
+
+    /**
+     * Finds the POIs within the distance, ordered by distance. If allowed, the POIs read until the query exceeded its
+     * time budget are returned as partial result instead of an error. As they are ordered by distance these are the
+     * nearest ones.
+     *
+     * @param location       the center point
+     * @param distance       the maximum distance
+     * @param fields         the fields to read besides the id, may be null to read all fields
+     * @param expandDetails  if false and no fields are given the details field is excluded by the database
+     * @param allowPartial   if true a query exceeding its time budget returns the POIs read so far
+     * @param limit          maximum number of POIs to return, 0 for no limit. A result cut off by the limit is partial.
+     * @param readPreference the read preference of a hedged read, null for the one of the client
+     * @return the POIs ordered by distance
+     */
+    QueryResult<PointOfInterestEntity> findNear(Point location, Distance distance, Collection<String> fields,
+                                                boolean expandDetails, boolean allowPartial, int limit,
+                                                ReadPreference readPreference);
+
+    /**
+     * Finds the ids, coordinates and categories of the POIs within the distance as columns, ordered by distance. Only
+     * these fields are read and the columns are filled while iterating the cursor once, without mapping entities.
+     *
+     * @param location       the center point
+     * @param distance       the maximum distance
+     * @param allowPartial   if true a query exceeding its time budget returns the POIs read so far
+     * @param limit          maximum number of POIs to return, 0 for no limit. A result cut off by the limit is partial.
+     * @param readPreference the read preference of a hedged read, null for the one of the client
+     * @return the columns of the POIs ordered by distance
+     */
+    PointOfInterestColumns findNearAsColumns(Point location, Distance distance, boolean allowPartial, int limit,
+                                             ReadPreference readPreference);
+
+    /**
+     * Counts the POIs per cell of a grid of cellSize degrees latitude and longitude, on the connection pool of bulk
+     * work.
+     *
+     * @param cellSize edge length of the cells in degrees
+     * @return the counts of the cells containing POIs
+     */
+    List<GridCellCount> countPOIsPerCell(double cellSize);
+
+    /**
+     * Finds the nearest POIs to the given location using a {@code $geoNear} aggregation.
+     *
+     * @param location      the center point
+     * @param maxDistance   optional maximum distance, may be null
+     * @param limit         maximum number of results
+     * @param category      optional category filter, may be null
+     * @param expandDetails if false the details field is excluded by the database
+     * @return the POIs ordered by distance, each annotated with its distance in kilometers
+     */
+    GeoResults<PointOfInterestEntity> findNearest(Point location, Distance maxDistance, int limit, String category,
+                                                  boolean expandDetails);
+
+    /**
+     * Finds the nearest POIs of each category within the max distance using a single {@code $geoNear} aggregation
+     * grouped by category with {@code $topN}.
+     *
+     * @param location         the center point
+     * @param maxDistance      the maximum distance
+     * @param limitPerCategory maximum number of results per category
+     * @param categories       optional categories to restrict the query to, may be null or empty
+     * @param expandDetails    if false the details field is excluded by the database
+     * @return the POIs ordered by category and distance, each annotated with its distance in kilometers
+     */
+    List<PointOfInterestEntity> findNearestPerCategory(Point location, Distance maxDistance, int limitPerCategory,
+                                                       Collection<String> categories, boolean expandDetails);
+}
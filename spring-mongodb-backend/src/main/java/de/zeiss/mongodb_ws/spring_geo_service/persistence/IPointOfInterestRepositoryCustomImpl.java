@@ -0,0 +1,327 @@
+package de.zeiss.mongodb_ws.spring_geo_service.persistence;
+
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.entity.PointOfInterestEntity;
+import com.mongodb.MongoExecutionTimeoutException;
+import com.mongodb.ReadPreference;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.GeoResult;
+import org.springframework.data.geo.GeoResults;
+import org.springframework.data.geo.Metrics;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.NearQuery;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Implementation of {@link IPointOfInterestRepositoryCustom} based on {@link MongoTemplate}. Spring Data picks it up
+ * by its name and merges it into {@link IPointOfInterestRepository}. Commands exceeding a threshold are recorded with
+ * their explain plan by the {@link SlowQueryLog}.
+ */
+public class IPointOfInterestRepositoryCustomImpl implements IPointOfInterestRepositoryCustom {
+
+    static final String DISTANCE_FIELD = "distance";
+
+    private static final List<String> COLUMN_FIELDS = List.of("location.coordinates", "category");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private WorkloadMongoTemplates workloadTemplates;
+
+    @Value("${geo-service.query.max-time.get:1s}")
+    private Duration getMaxTime;
+
+    @Value("${geo-service.query.max-time.list:2s}")
+    private Duration listMaxTime;
+
+    @Value("${geo-service.query.max-time.nearest:2s}")
+    private Duration nearestMaxTime;
+
+    @Value("${geo-service.query.max-time.per-category:5s}")
+    private Duration perCategoryMaxTime;
+
+    @Value("${geo-service.query.partial-batch-size:100}")
+    private int partialBatchSize;
+
+    @Override
+    public Optional<PointOfInterestEntity> findById(String id, ReadPreference readPreference) {
+        Query query = withReadPreference(Query.query(Criteria.where("id").is(id)).maxTime(getMaxTime), readPreference);
+
+        return Optional.ofNullable(withinBudget(() -> mongoTemplate.findOne(query, PointOfInterestEntity.class)));
+    }
+
+    @Override
+    public List<PointOfInterestEntity> findByIds(Collection<String> ids, boolean expandDetails,
+                                                 ReadPreference readPreference) {
+        Query query = withReadPreference(Query.query(Criteria.where("id").in(ids)).maxTime(getMaxTime), readPreference);
+        if (!expandDetails) {
+            query.fields().exclude("details");
+        }
+
+        return withinBudget(() -> mongoTemplate.find(query, PointOfInterestEntity.class));
+    }
+
+    @Override
+    public PointOfInterestEntity upsert(PointOfInterestEntity entity) {
+        return workloadTemplates.get(Workload.WRITE).save(entity);
+    }
+
+    @Override
+    public PointOfInterestEntity findAndRemoveById(String id) {
+        return workloadTemplates.get(Workload.WRITE).findAndRemove(Query.query(Criteria.where("id").is(id)), PointOfInterestEntity.class);
+    }
+
+    @Override
+    public List<PointOfInterestEntity> findNear(Point location, Distance distance, String category,
+                                                Collection<String> fields, boolean expandDetails) {
+        Query query = nearQuery(location, distance, category, fields, expandDetails);
+
+        return withinBudget(() -> workloadTemplates.get(Workload.BULK).find(query, PointOfInterestEntity.class));
+    }
+
+    @Override
+    public QueryResult<PointOfInterestEntity> findNear(Point location, Distance distance, Collection<String> fields,
+                                                       boolean expandDetails, boolean allowPartial, int limit,
+                                                       ReadPreference readPreference) {
+        Query query = withReadPreference(nearQuery(location, distance, null, fields, expandDetails), readPreference)
+                .limit(queryLimit(limit));
+        if (!allowPartial) {
+            return limited(withinBudget(() -> mongoTemplate.find(query, PointOfInterestEntity.class)), limit);
+        }
+
+        // results are only available batch by batch, so smaller batches keep more of them if the budget is exceeded
+        query.cursorBatchSize(partialBatchSize);
+
+        List<PointOfInterestEntity> results = new ArrayList<>();
+        try (Stream<PointOfInterestEntity> stream = mongoTemplate.stream(query, PointOfInterestEntity.class)) {
+            stream.forEach(results::add);
+        } catch (DataAccessException e) {
+            if (!isTimeout(e)) {
+                throw e;
+            }
+            return new QueryResult<>(results, true);
+        }
+
+        return limited(results, limit);
+    }
+
+    @Override
+    public PointOfInterestColumns findNearAsColumns(Point location, Distance distance, boolean allowPartial, int limit,
+                                                    ReadPreference readPreference) {
+        Query query = withReadPreference(nearQuery(location, distance, null, COLUMN_FIELDS, false), readPreference)
+                .limit(queryLimit(limit));
+        if (allowPartial) {
+            query.cursorBatchSize(partialBatchSize);
+        }
+
+        // plain documents, so no entity is created per POI
+        PointOfInterestColumns columns = new PointOfInterestColumns();
+        try (Stream<Document> stream = mongoTemplate.stream(query, Document.class,
+                mongoTemplate.getCollectionName(PointOfInterestEntity.class))) {
+            Iterator<Document> documents = stream.iterator();
+            while (documents.hasNext()) {
+                if (limit > 0 && columns.size() == limit) {
+                    // more POIs than the limit
+                    columns.markPartial();
+                    break;
+                }
+                Document document = documents.next();
+                List<Number> coordinates = document.get("location", Document.class)
+                        .getList("coordinates", Number.class);
+                columns.add(document.get("_id").toString(), coordinates.get(0).doubleValue(),
+                        coordinates.get(1).doubleValue(), document.getString("category"));
+            }
+        } catch (DataAccessException e) {
+            if (!isTimeout(e)) {
+                throw e;
+            }
+            if (!allowPartial) {
+                throw new QueryTimeoutException("The query exceeded its time budget", e);
+            }
+            columns.markPartial();
+        }
+        return columns;
+    }
+
+    private static Query withReadPreference(Query query, ReadPreference readPreference) {
+        return readPreference != null ? query.withReadPreference(readPreference) : query;
+    }
+
+    /**
+     * @return the limit of a query whose results are cut off by the limit, one more result tells whether there are
+     * more of them
+     */
+    private static int queryLimit(int limit) {
+        return limit > 0 ? limit + 1 : 0;
+    }
+
+    /**
+     * @param results the results of a query limited by {@link #queryLimit(int)}
+     * @param limit   maximum number of results, 0 for no limit
+     * @return the results, partial if they were cut off by the limit
+     */
+    private static QueryResult<PointOfInterestEntity> limited(List<PointOfInterestEntity> results, int limit) {
+        if (limit > 0 && results.size() > limit) {
+            return new QueryResult<>(List.copyOf(results.subList(0, limit)), true);
+        }
+        return new QueryResult<>(results, false);
+    }
+
+    @Override
+    public List<GridCellCount> countPOIsPerCell(double cellSize) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("location.coordinates").exists(true)),
+                context -> new Document("$group", new Document("_id", new Document("lat", cellIndex(1, cellSize))
+                        .append("lon", cellIndex(0, cellSize)))
+                        .append("count", new Document("$sum", 1))));
+
+        return workloadTemplates.get(Workload.BULK)
+                .aggregate(aggregation, PointOfInterestEntity.class, Document.class).getMappedResults()
+                .stream()
+                .map(cell -> {
+                    Document cellId = cell.get("_id", Document.class);
+                    return new GridCellCount(cellId.get("lat", Number.class).intValue(),
+                            cellId.get("lon", Number.class).intValue(), cell.get("count", Number.class).longValue());
+                })
+                .toList();
+    }
+
+    private static Document cellIndex(int coordinateIndex, double cellSize) {
+        return new Document("$floor", new Document("$divide", List.of(
+                new Document("$arrayElemAt", List.of("$location.coordinates", coordinateIndex)), cellSize)));
+    }
+
+    private Query nearQuery(Point location, Distance distance, String category, Collection<String> fields,
+                            boolean expandDetails) {
+        // for GeoJSON points $maxDistance is given in meters
+        Criteria criteria = Criteria.where("location").nearSphere(new GeoJsonPoint(location))
+                .maxDistance(distance.in(Metrics.KILOMETERS).getValue() * 1000.0);
+        if (category != null) {
+            criteria.and("category").is(category);
+        }
+
+        Query query = Query.query(criteria).maxTime(listMaxTime);
+        if (fields != null) {
+            query.fields().include(fields.toArray(String[]::new));
+        } else if (!expandDetails) {
+            query.fields().exclude("details");
+        }
+
+        return query;
+    }
+
+    @Override
+    public GeoResults<PointOfInterestEntity> findNearest(Point location, Distance maxDistance, int limit, String category,
+                                                         boolean expandDetails) {
+        List<AggregationOperation> stages = new ArrayList<>();
+        stages.add(Aggregation.geoNear(nearQuery(location, maxDistance, category), DISTANCE_FIELD));
+        stages.add(Aggregation.limit(limit));
+        if (!expandDetails) {
+            // MongoTemplate.geoNear() ignores Query.fields(), so the projection needs its own stage
+            stages.add(Aggregation.project().andExclude("details"));
+        }
+
+        TypedAggregation<PointOfInterestEntity> aggregation = Aggregation
+                .newAggregation(PointOfInterestEntity.class, stages)
+                .withOptions(AggregationOptions.builder().maxTime(nearestMaxTime).build());
+
+        List<GeoResult<PointOfInterestEntity>> results = withinBudget(() -> mongoTemplate
+                .aggregate(aggregation, PointOfInterestEntity.class)
+                .getMappedResults()).stream()
+                .map(entity -> new GeoResult<>(entity, new Distance(entity.getDistance(), Metrics.KILOMETERS)))
+                .toList();
+
+        return new GeoResults<>(results, Metrics.KILOMETERS);
+    }
+
+    @Override
+    public List<PointOfInterestEntity> findNearestPerCategory(Point location, Distance maxDistance, int limitPerCategory,
+                                                              Collection<String> categories, boolean expandDetails) {
+        NearQuery nearQuery = nearQuery(location, maxDistance, null);
+        if (categories != null && !categories.isEmpty()) {
+            nearQuery.query(Query.query(Criteria.where("category").in(categories)));
+        } else {
+            // POIs without category belong to no group of the result
+            nearQuery.query(Query.query(Criteria.where("category").ne(null)));
+        }
+
+        List<AggregationOperation> stages = new ArrayList<>();
+        stages.add(Aggregation.geoNear(nearQuery, DISTANCE_FIELD));
+        if (!expandDetails) {
+            stages.add(Aggregation.project().andExclude("details"));
+        }
+        // the $topN builder of Spring Data always renders the output as array, so the stage is written by hand
+        stages.add(context -> new Document("$group", new Document("_id", "$category")
+                .append("pois", new Document("$topN", new Document("n", limitPerCategory)
+                        .append("sortBy", new Document(DISTANCE_FIELD, 1))
+                        .append("output", "$$ROOT")))));
+        stages.add(Aggregation.unwind("pois"));
+        stages.add(Aggregation.replaceRoot("pois"));
+        stages.add(Aggregation.sort(Sort.by("category", DISTANCE_FIELD)));
+
+        TypedAggregation<PointOfInterestEntity> aggregation = Aggregation
+                .newAggregation(PointOfInterestEntity.class, stages)
+                .withOptions(AggregationOptions.builder().maxTime(perCategoryMaxTime).build());
+
+        return withinBudget(() -> mongoTemplate.aggregate(aggregation, PointOfInterestEntity.class).getMappedResults());
+    }
+
+    /**
+     * Creates the {@code $geoNear} query. Using kilometers, the max distance is converted to meters for the query and
+     * the resulting distances are converted back to kilometers.
+     */
+    private NearQuery nearQuery(Point location, Distance maxDistance, String category) {
+        NearQuery nearQuery = NearQuery.near(new GeoJsonPoint(location), Metrics.KILOMETERS)
+                .spherical(true);
+
+        if (maxDistance != null) {
+            nearQuery.maxDistance(maxDistance);
+        }
+        if (category != null) {
+            nearQuery.query(Query.query(Criteria.where("category").is(category)));
+        }
+
+        return nearQuery;
+    }
+
+    /**
+     * Executes the query and translates exceeding its time budget into a {@link QueryTimeoutException}, which the
+     * MongoDB exception translation of Spring Data does not do.
+     */
+    private static <T> T withinBudget(Supplier<T> query) {
+        try {
+            return query.get();
+        } catch (DataAccessException e) {
+            if (isTimeout(e)) {
+                throw new QueryTimeoutException("The query exceeded its time budget", e);
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isTimeout(DataAccessException e) {
+        return e.getMostSpecificCause() instanceof MongoExecutionTimeoutException;
+    }
+}
@@ -0,0 +1,109 @@
+package de.zeiss.mongodb_ws.spring_geo_service.persistence;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ids, coordinates and categories of POIs as columns, e.g. for map clients which only draw markers. The coordinates
+ * are kept in primitive arrays and the categories are dictionary encoded: each POI refers to its category by the index
+ * in {@link #categories()}, so every category is stored once.
+ */
+public class PointOfInterestColumns {
+
+    /**
+     * Category index of POIs without category.
+     */
+    public static final int NO_CATEGORY = -1;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final List<String> ids = new ArrayList<>();
+
+    private double[] longitudes = new double[INITIAL_CAPACITY];
+
+    private double[] latitudes = new double[INITIAL_CAPACITY];
+
+    private int[] categoryIndexes = new int[INITIAL_CAPACITY];
+
+    private final List<String> categories = new ArrayList<>();
+
+    private final Map<String, Integer> categoryIndexByName = new HashMap<>();
+
+    private boolean partial;
+
+    /**
+     * Appends a POI.
+     *
+     * @param id        the id of the POI
+     * @param longitude
+     * @param latitude
+     * @param category  the category of the POI, may be null
+     */
+    public void add(String id, double longitude, double latitude, String category) {
+        int index = ids.size();
+        if (index == longitudes.length) {
+            int capacity = index * 2;
+            longitudes = Arrays.copyOf(longitudes, capacity);
+            latitudes = Arrays.copyOf(latitudes, capacity);
+            categoryIndexes = Arrays.copyOf(categoryIndexes, capacity);
+        }
+
+        ids.add(id);
+        longitudes[index] = longitude;
+        latitudes[index] = latitude;
+        categoryIndexes[index] = category == null ? NO_CATEGORY : categoryIndexByName.computeIfAbsent(category, name -> {
+            categories.add(name);
+            return categories.size() - 1;
+        });
+    }
+
+    /**
+     * @return number of POIs
+     */
+    public int size() {
+        return ids.size();
+    }
+
+    public String id(int index) {
+        return ids.get(index);
+    }
+
+    public double longitude(int index) {
+        return longitudes[index];
+    }
+
+    public double latitude(int index) {
+        return latitudes[index];
+    }
+
+    /**
+     * @return the index of the category of the POI in {@link #categories()}, or {@link #NO_CATEGORY}
+     */
+    public int categoryIndex(int index) {
+        return categoryIndexes[index];
+    }
+
+    /**
+     * @return the distinct categories in the order of their first POI
+     */
+    public List<String> categories() {
+        return List.copyOf(categories);
+    }
+
+    /**
+     * @return true if the query exceeded its time budget or was capped to the nearest POIs, see {@link QueryResult}
+     */
+    public boolean partial() {
+        return partial;
+    }
+
+    /**
+     * Marks the columns as partial result.
+     */
+    public void markPartial() {
+        this.partial = true;
+    }
+}
@@ -0,0 +1,97 @@
+package de.zeiss.mongodb_ws.spring_geo_service.persistence;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A MongoDB command which took longer than the threshold of the {@link SlowQueryLog}. The explain plan is added
+ * asynchronously for the sampled commands.
+ */
+public class SlowQuery {
+
+    private final Instant timestamp;
+
+    private final String command;
+
+    private final String collection;
+
+    private final long durationMillis;
+
+    private final String shape;
+
+    private final String parameters;
+
+    private final String error;
+
+    private volatile ExplainSummary explain;
+
+    private volatile String explainError;
+
+    /**
+     * @param timestamp      when the command completed
+     * @param command        name of the command, e.g. "find"
+     * @param collection     the collection
+     * @param durationMillis duration of the command
+     * @param shape          the command with all values replaced by "?"
+     * @param parameters     the command including its values
+     * @param error          message of the failure, null if the command succeeded
+     */
+    public SlowQuery(Instant timestamp, String command, String collection, long durationMillis, String shape,
+                     String parameters, String error) {
+        this.timestamp = timestamp;
+        this.command = command;
+        this.collection = collection;
+        this.durationMillis = durationMillis;
+        this.shape = shape;
+        this.parameters = parameters;
+        this.error = error;
+    }
+
+    public String getCommand() {
+        return command;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public String getShape() {
+        return shape;
+    }
+
+    public ExplainSummary getExplain() {
+        return explain;
+    }
+
+    void setExplain(ExplainSummary explain) {
+        this.explain = explain;
+    }
+
+    void setExplainError(String explainError) {
+        this.explainError = explainError;
+    }
+
+    /**
+     * @return the fields of the query for JSON output
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("timestamp", timestamp.toString());
+        map.put("command", command);
+        map.put("collection", collection);
+        map.put("durationMillis", durationMillis);
+        map.put("shape", shape);
+        map.put("parameters", parameters);
+        if (error != null) {
+            map.put("error", error);
+        }
+        if (explain != null) {
+            map.put("explain", explain.toMap());
+        }
+        if (explainError != null) {
+            map.put("explainError", explainError);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,251 @@
+package de.zeiss.mongodb_ws.spring_geo_service.persistence;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import de.zeiss.mongodb_ws.spring_geo_service.tracing.QueryShape;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Records the MongoDB commands of the {@link IPointOfInterestRepository} which take longer than a threshold, i.e.
+ * radius queries, lookups and writes, in a bounded ring buffer. For a sample of them explain("executionStats") is run
+ * asynchronously on the bulk connection pool, so that a missing 2dsphere index or a badly chosen compound index shows
+ * up with the number of keys and documents examined and the winning plan.
+ * <p>
+ * The log is a command listener of the driver, so it sees the commands exactly as Spring Data sends them and can
+ * explain them unchanged. The commands are copied when they start, as the driver releases them afterwards. They are
+ * kept as raw BSON bytes, i.e. one array per running command instead of a deep clone, and only parsed if they were
+ * slow.
+ */
+@Component
+public class SlowQueryLog implements CommandListener, DisposableBean {
+
+    private static final Logger LOG = Logger.getLogger(SlowQueryLog.class.getName());
+
+    /**
+     * Commands which are recorded if slow.
+     */
+    static final Set<String> RECORDED_COMMANDS = Set.of("find", "aggregate", "count", "distinct", "insert", "update",
+            "delete", "findAndModify");
+
+    /**
+     * Maximum number of explains running at the same time, further slow commands are not explained.
+     */
+    static final int MAX_CONCURRENT_EXPLAINS = 2;
+
+    private static final BsonDocumentCodec BSON_DOCUMENT_CODEC = new BsonDocumentCodec();
+
+    @Value("${geo-service.slow-query.enabled:true}")
+    private boolean enabled = true;
+
+    /*
+     * Commands taking at least this long are recorded.
+     */
+    @Value("${geo-service.slow-query.threshold:100ms}")
+    private Duration threshold = Duration.ofMillis(100);
+
+    /*
+     * Ratio of the slow commands which are explained, 0 disables explains.
+     */
+    @Value("${geo-service.slow-query.explain-sample-rate:0.1}")
+    private double explainSampleRate = 0.1;
+
+    /*
+     * Number of slow commands kept, the oldest ones are dropped.
+     */
+    @Value("${geo-service.slow-query.capacity:100}")
+    private int capacity = 100;
+
+    /*
+     * Looked up lazily, as the templates register this listener with their clients.
+     */
+    @Autowired
+    private ObjectProvider<WorkloadMongoTemplates> workloadMongoTemplates;
+
+    private final ExecutorService executorService = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Raw BSON copies of the running commands by request id.
+     */
+    private final Map<Integer, BsonDocument> commands = new ConcurrentHashMap<>();
+
+    private final Deque<SlowQuery> slowQueries = new ArrayDeque<>();
+
+    private final Semaphore explainPermits = new Semaphore(MAX_CONCURRENT_EXPLAINS);
+
+    private final LongAdder recorded = new LongAdder();
+
+    private final LongAdder explained = new LongAdder();
+
+    private final LongAdder explainsSkipped = new LongAdder();
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        if (enabled && RECORDED_COMMANDS.contains(event.getCommandName())) {
+            commands.put(event.getRequestId(), copy(event.getCommandName(), event.getCommand()));
+        }
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        completed(event.getRequestId(), event.getDatabaseName(), event.getCommandName(),
+                event.getElapsedTime(TimeUnit.MILLISECONDS), null);
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        completed(event.getRequestId(), event.getDatabaseName(), event.getCommandName(),
+                event.getElapsedTime(TimeUnit.MILLISECONDS), event.getThrowable().getMessage());
+    }
+
+    private void completed(int requestId, String database, String commandName, long millis, String error) {
+        BsonDocument command = commands.remove(requestId);
+        if (command == null || millis < threshold.toMillis()) {
+            return;
+        }
+
+        String collection = command.isString(commandName) ? command.getString(commandName).getValue() : null;
+        SlowQuery slowQuery = new SlowQuery(Instant.now(), commandName, collection, millis, QueryShape.of(command),
+                QueryShape.truncate(QueryShape.withoutDriverFields(command).toJson()), error);
+        add(slowQuery);
+
+        if (!"insert".equals(commandName) && explainSampleRate > 0
+                && ThreadLocalRandom.current().nextDouble() < explainSampleRate) {
+            explainAsync(slowQuery, database, command);
+        }
+    }
+
+    private void add(SlowQuery slowQuery) {
+        recorded.increment();
+        synchronized (slowQueries) {
+            slowQueries.addFirst(slowQuery);
+            while (slowQueries.size() > Math.max(capacity, 1)) {
+                slowQueries.removeLast();
+            }
+        }
+    }
+
+    private void explainAsync(SlowQuery slowQuery, String database, BsonDocument command) {
+        if (!explainPermits.tryAcquire()) {
+            explainsSkipped.increment();
+            return;
+        }
+        try {
+            executorService.execute(() -> {
+                try {
+                    BsonDocument explainCommand = new BsonDocument("explain", QueryShape.withoutDriverFields(command))
+                            .append("verbosity", new BsonString("executionStats"));
+                    slowQuery.setExplain(ExplainSummary.of(explain(database, explainCommand)));
+                    explained.increment();
+                } catch (RuntimeException e) {
+                    LOG.log(Level.FINE, "Explaining a slow " + slowQuery.getCommand() + " failed", e);
+                    slowQuery.setExplainError(e.getMessage());
+                } finally {
+                    explainPermits.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            // the executor rejected the task
+            explainPermits.release();
+            explainsSkipped.increment();
+        }
+    }
+
+    /**
+     * Runs an explain command, on the connection pool of bulk work to keep interactive reads unaffected.
+     *
+     * @param database       the database of the explained command
+     * @param explainCommand the explain command
+     * @return the output of explain
+     */
+    BsonDocument explain(String database, BsonDocument explainCommand) {
+        return workloadMongoTemplates.getObject().get(Workload.BULK).getMongoDatabaseFactory()
+                .getMongoDatabase(database)
+                .runCommand(explainCommand, BsonDocument.class);
+    }
+
+    /**
+     * Copies the command into a byte array. Inserted documents are not kept, only their number.
+     */
+    static BsonDocument copy(String commandName, BsonDocument command) {
+        if ("insert".equals(commandName) && command.isArray("documents")) {
+            BsonDocument summary = new BsonDocument();
+            command.forEach((key, value) -> summary.put(key, "documents".equals(key)
+                    ? new BsonInt32(value.asArray().size()) : value));
+            return new RawBsonDocument(summary, BSON_DOCUMENT_CODEC);
+        }
+        if (command.getClass() == BsonDocument.class) {
+            // commands with document sequences (updates, deletes) are assembled by the driver, they are encoded
+            // instead of cloning every value
+            return new RawBsonDocument(command, BSON_DOCUMENT_CODEC);
+        }
+        // commands backed by the buffer of the driver are cloned byte-wise into a RawBsonDocument
+        return command.clone();
+    }
+
+    /**
+     * @return the slow commands, the latest first
+     */
+    public List<SlowQuery> getSlowQueries() {
+        synchronized (slowQueries) {
+            return new ArrayList<>(slowQueries);
+        }
+    }
+
+    /**
+     * Removes all recorded slow commands.
+     */
+    public void clear() {
+        synchronized (slowQueries) {
+            slowQueries.clear();
+        }
+    }
+
+    /**
+     * @return the threshold, the number of slow commands recorded, explained and not explained as too many explains
+     * were running
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("thresholdMs", threshold.toMillis());
+        statistics.put("explainSampleRate", explainSampleRate);
+        statistics.put("recorded", recorded.sum());
+        statistics.put("explained", explained.sum());
+        statistics.put("explainsSkipped", explainsSkipped.sum());
+        return statistics;
+    }
+
+    @Override
+    public void destroy() {
+        executorService.shutdownNow();
+    }
+}
@@ -0,0 +1,23 @@
+package de.zeiss.mongodb_ws.spring_geo_service.persistence;
+
+/**
+ * Classes of work which are isolated from each other by separate MongoDB connection pools and bulkheads, so e.g. an
+ * import flooding the service with writes does not slow down interactive map reads.
+ */
+public enum Workload {
+
+    /**
+     * Single reads and radius queries of interactive clients.
+     */
+    INTERACTIVE,
+
+    /**
+     * Creating, updating and deleting POIs.
+     */
+    WRITE,
+
+    /**
+     * Batch endpoints, background aggregations and requests tagged with low priority.
+     */
+    BULK
+}
@@ -0,0 +1,93 @@
+package de.zeiss.mongodb_ws.spring_geo_service.persistence;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.zeiss.mongodb_ws.spring_geo_service.timing.ServerTimingCommandListener;
+import de.zeiss.mongodb_ws.spring_geo_service.tracing.TracingCommandListener;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoConnectionDetails;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Provides a {@link MongoTemplate} per {@link Workload}. Each workload with a configured pool size gets its own MongoDB
+ * client and thus its own connection pool, workloads without (and interactive reads) use the auto-configured template.
+ * The templates share the mapping converter of the auto-configured one.
+ */
+@Component
+public class WorkloadMongoTemplates implements DisposableBean {
+
+    private static final Logger LOG = Logger.getLogger(WorkloadMongoTemplates.class.getName());
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoConnectionDetails connectionDetails;
+
+    @Autowired
+    private ServerTimingCommandListener serverTimingListener;
+
+    @Autowired
+    private TracingCommandListener tracingListener;
+
+    @Autowired
+    private SlowQueryLog slowQueryLog;
+
+    @Value("${geo-service.mongodb.pool-size.write:10}")
+    private int writePoolSize;
+
+    @Value("${geo-service.mongodb.pool-size.bulk:10}")
+    private int bulkPoolSize;
+
+    private final Map<Workload, MongoClient> clients = new EnumMap<>(Workload.class);
+
+    private final Map<Workload, MongoTemplate> templates = new EnumMap<>(Workload.class);
+
+    @PostConstruct
+    void init() {
+        createTemplate(Workload.WRITE, writePoolSize);
+        createTemplate(Workload.BULK, bulkPoolSize);
+    }
+
+    private void createTemplate(Workload workload, int poolSize) {
+        if (poolSize <= 0) {
+            return;
+        }
+
+        LOG.info("Creating a MongoDB client with a pool of " + poolSize + " connections for " + workload);
+        MongoClient client = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(connectionDetails.getConnectionString())
+                .applyToConnectionPoolSettings(pool -> pool.maxSize(poolSize))
+                .addCommandListener(serverTimingListener)
+                .addCommandListener(tracingListener)
+                .addCommandListener(slowQueryLog)
+                .build());
+        clients.put(workload, client);
+        templates.put(workload, new MongoTemplate(
+                new SimpleMongoClientDatabaseFactory(client, mongoTemplate.getDb().getName()),
+                mongoTemplate.getConverter()));
+    }
+
+    /**
+     * @param workload the class of work
+     * @return the template with the connection pool of the workload
+     */
+    public MongoTemplate get(Workload workload) {
+        return templates.getOrDefault(workload, mongoTemplate);
+    }
+
+    @Override
+    public void destroy() {
+        clients.values().forEach(MongoClient::close);
+    }
+}
@@ -1,6 +1,7 @@
 package de.zeiss.mongodb_ws.spring_geo_service.persistence.entity;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.ReadOnlyProperty;
 import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -18,6 +19,12 @@ public class PointOfInterestEntity {
 
     private GeoJsonPoint location;
 
+    /**
+     * Distance in kilometers to the query point, filled by {@code $geoNear} aggregations only.
+     */
+    @ReadOnlyProperty
+    private Double distance;
+
     public PointOfInterestEntity() {
 
     }
@@ -85,4 +92,18 @@ public class PointOfInterestEntity {
     public void setLocation(GeoJsonPoint location) {
         this.location = location;
     }
+
+    /**
+     * @return the distance in kilometers or null if not queried by distance
+     */
+    public Double getDistance() {
+        return distance;
+    }
+
+    /**
+     * @param distance the distance to set
+     */
+    public void setDistance(Double distance) {
+        this.distance = distance;
+    }
 }
@@ -0,0 +1,73 @@
+package de.zeiss.mongodb_ws.spring_geo_service.rest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits the number of concurrent calls of one workload, so it can not take all request threads of the server.
+ */
+public class Bulkhead {
+
+    private final int maxConcurrent;
+
+    private final long maxWaitMs;
+
+    private final Semaphore permits;
+
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @param maxConcurrent maximum number of concurrent calls, 0 for no limit
+     * @param maxWaitMs     maximum time to wait for a free permit in milliseconds
+     */
+    public Bulkhead(int maxConcurrent, long maxWaitMs) {
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaitMs = maxWaitMs;
+        this.permits = maxConcurrent > 0 ? new Semaphore(maxConcurrent) : null;
+    }
+
+    /**
+     * Tries to enter the bulkhead, waiting at most the configured time. Every successful call must be followed by
+     * {@link #release()}.
+     *
+     * @return true if the call may be executed
+     */
+    public boolean tryAcquire() {
+        if (permits == null) {
+            return true;
+        }
+
+        try {
+            if (permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejected.increment();
+        return false;
+    }
+
+    /**
+     * Leaves the bulkhead.
+     */
+    public void release() {
+        if (permits != null) {
+            permits.release();
+        }
+    }
+
+    /**
+     * @return the maximum number of concurrent calls (0 for no limit), the calls in flight and the rejected calls
+     */
+    public Map<String, Long> getStatistics() {
+        Map<String, Long> statistics = new LinkedHashMap<>();
+        statistics.put("maxConcurrent", (long) maxConcurrent);
+        statistics.put("inFlight", permits == null ? 0L : (long) (maxConcurrent - permits.availablePermits()));
+        statistics.put("rejected", rejected.sum());
+        return statistics;
+    }
+}
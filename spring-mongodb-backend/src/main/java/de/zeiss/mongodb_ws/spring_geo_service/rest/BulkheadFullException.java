@@ -0,0 +1,30 @@
+package de.zeiss.mongodb_ws.spring_geo_service.rest;
+
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.Workload;
+
+/**
+ * Thrown if a call is rejected because the bulkhead of its workload is full.
+ */
+public class BulkheadFullException extends RuntimeException {
+
+    private final Workload workload;
+
+    private final long retryAfterSeconds;
+
+    public BulkheadFullException(Workload workload, long retryAfterSeconds) {
+        super("Too many concurrent " + workload.name().toLowerCase() + " requests, please retry later");
+        this.workload = workload;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public Workload getWorkload() {
+        return workload;
+    }
+
+    /**
+     * @return the number of seconds the client should wait before retrying
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
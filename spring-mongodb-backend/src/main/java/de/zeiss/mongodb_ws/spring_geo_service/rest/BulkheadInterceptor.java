@@ -0,0 +1,100 @@
+package de.zeiss.mongodb_ws.spring_geo_service.rest;
+
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.Workload;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Executes requests within the bulkhead of their {@link Workload}, so that e.g. an import flooding the service with
+ * writes can only take a bounded number of request threads and interactive reads stay fast. The workload is declared
+ * by {@link WorkloadBulkhead} on the controller method; requests tagged with low priority by the X-Request-Priority
+ * header always use the bulkhead of bulk work.
+ */
+@Component
+public class BulkheadInterceptor implements HandlerInterceptor {
+
+    public static final String REQUEST_PRIORITY_HEADER = "X-Request-Priority";
+
+    static final String LOW_PRIORITY = "low";
+
+    private static final String BULKHEAD_ATTRIBUTE = BulkheadInterceptor.class.getName() + ".bulkhead";
+
+    /*
+     * Maximum numbers of concurrent requests per workload, 0 means no limit.
+     */
+    @Value("${geo-service.bulkhead.interactive.max-concurrent:0}")
+    private int interactiveMaxConcurrent;
+
+    @Value("${geo-service.bulkhead.write.max-concurrent:10}")
+    private int writeMaxConcurrent;
+
+    @Value("${geo-service.bulkhead.bulk.max-concurrent:10}")
+    private int bulkMaxConcurrent;
+
+    @Value("${geo-service.bulkhead.max-wait:100ms}")
+    private Duration maxWait;
+
+    @Value("${geo-service.bulkhead.retry-after:1s}")
+    private Duration retryAfter;
+
+    private final Map<Workload, Bulkhead> bulkheads = new EnumMap<>(Workload.class);
+
+    @PostConstruct
+    void init() {
+        bulkheads.put(Workload.INTERACTIVE, new Bulkhead(interactiveMaxConcurrent, maxWait.toMillis()));
+        bulkheads.put(Workload.WRITE, new Bulkhead(writeMaxConcurrent, maxWait.toMillis()));
+        bulkheads.put(Workload.BULK, new Bulkhead(bulkMaxConcurrent, maxWait.toMillis()));
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Workload workload = workloadOf(request, handler);
+        Bulkhead bulkhead = bulkheads.get(workload);
+        if (!bulkhead.tryAcquire()) {
+            throw new BulkheadFullException(workload, retryAfter.toSeconds());
+        }
+        request.setAttribute(BULKHEAD_ATTRIBUTE, bulkhead);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(BULKHEAD_ATTRIBUTE) instanceof Bulkhead bulkhead) {
+            request.removeAttribute(BULKHEAD_ATTRIBUTE);
+            bulkhead.release();
+        }
+    }
+
+    private static Workload workloadOf(HttpServletRequest request, Object handler) {
+        if (LOW_PRIORITY.equalsIgnoreCase(request.getHeader(REQUEST_PRIORITY_HEADER))) {
+            return Workload.BULK;
+        }
+        if (handler instanceof HandlerMethod handlerMethod) {
+            WorkloadBulkhead annotation = handlerMethod.getMethodAnnotation(WorkloadBulkhead.class);
+            if (annotation != null) {
+                return annotation.value();
+            }
+        }
+        return Workload.INTERACTIVE;
+    }
+
+    /**
+     * @return per workload the maximum number of concurrent requests, the requests in flight and the rejected ones
+     */
+    public Map<String, Map<String, Long>> getStatistics() {
+        Map<String, Map<String, Long>> statistics = new LinkedHashMap<>();
+        bulkheads.forEach((workload, bulkhead) -> statistics.put(workload.name().toLowerCase(), bulkhead.getStatistics()));
+        return statistics;
+    }
+}
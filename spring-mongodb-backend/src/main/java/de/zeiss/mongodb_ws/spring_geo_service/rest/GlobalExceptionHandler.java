@@ -1,26 +1,45 @@
 package de.zeiss.mongodb_ws.spring_geo_service.rest;
 
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.ConcurrencyLimitExceededException;
+import de.zeiss.mongodb_ws.spring_geo_service.service.CircuitBreakerOpenException;
+import de.zeiss.mongodb_ws.spring_geo_service.service.QueryTooExpensiveException;
 import jakarta.validation.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
+/**
+ * Maps the exceptions to error responses. The errors are always JSON, also if the client requested a binary format,
+ * which has no schema for them in case of Protobuf.
+ */
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    @Value("${geo-service.bulkhead.retry-after:1s}")
+    private Duration retryAfter;
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> handleValidationExceptions(MethodArgumentNotValidException ex) {
         Map<String, String> errors = new HashMap<>();
         for (FieldError error : ex.getBindingResult().getFieldErrors()) {
             errors.put(error.getField(), error.getDefaultMessage());
         }
-        return new ResponseEntity<>(errors, HttpStatus.BAD_REQUEST);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(errors);
     }
 
     @ExceptionHandler(ConstraintViolationException.class)
@@ -30,6 +49,61 @@ public class GlobalExceptionHandler {
             String fieldName = violation.getPropertyPath().toString();
             errors.put(fieldName, violation.getMessage());
         });
-        return new ResponseEntity<>(errors, HttpStatus.BAD_REQUEST);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(errors);
+    }
+
+    @ExceptionHandler(QueryTimeoutException.class)
+    public ResponseEntity<Map<String, String>> handleQueryTimeoutException(QueryTimeoutException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("message", "The query exceeded its time budget"));
+    }
+
+    @ExceptionHandler(QueryTooExpensiveException.class)
+    public ResponseEntity<Map<String, Object>> handleQueryTooExpensiveException(QueryTooExpensiveException ex) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("message", ex.getMessage());
+        body.put("estimatedResults", ex.getEstimatedResults());
+        body.put("maxEstimatedResults", ex.getMaxEstimatedResults());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    @ExceptionHandler(ConcurrencyLimitExceededException.class)
+    public ResponseEntity<Map<String, String>> handleConcurrencyLimitExceededException(ConcurrencyLimitExceededException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(Map.of("message", ex.getMessage()));
+    }
+
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<Map<String, String>> handleBulkheadFullException(BulkheadFullException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(Map.of("message", ex.getMessage()));
+    }
+
+    /**
+     * The queries of a batch search are rejected by the search executor if too many are waiting already.
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Map<String, String>> handleRejectedExecutionException(RejectedExecutionException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter.toSeconds()))
+                .body(Map.of("message", "Too many queries waiting, please retry later"));
+    }
+
+    @ExceptionHandler(CircuitBreakerOpenException.class)
+    public ResponseEntity<Map<String, String>> handleCircuitBreakerOpenException(CircuitBreakerOpenException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(Map.of("message", ex.getMessage()));
     }
 }
@@ -0,0 +1,84 @@
+package de.zeiss.mongodb_ws.spring_geo_service.rest;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import de.zeiss.mongodb_ws.spring_geo_service.rest.model.PointOfInterest;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+/**
+ * Reads a point of interest and writes points of interest and collections of them as Protocol Buffers, see
+ * {@link PointOfInterestProtobuf}. A collection is written as PointOfInterestList. Other types, e.g. the points of
+ * interest by category, have no schema and are answered with 406 Not Acceptable.
+ */
+public class PointOfInterestProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final String PROTOBUF_VALUE = "application/x-protobuf";
+
+    public static final MediaType PROTOBUF = MediaType.parseMediaType(PROTOBUF_VALUE);
+
+    public PointOfInterestProtobufHttpMessageConverter() {
+        super(PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return PointOfInterest.class.isAssignableFrom(clazz) || Collection.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return type == PointOfInterest.class && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        return isPointOfInterestOrCollection(type != null ? type : clazz) && canWrite(mediaType);
+    }
+
+    private static boolean isPointOfInterestOrCollection(Type type) {
+        if (type instanceof Class<?> clazz) {
+            return PointOfInterest.class.isAssignableFrom(clazz);
+        }
+        return type instanceof ParameterizedType parameterizedType
+                && parameterizedType.getRawType() instanceof Class<?> rawType
+                && Collection.class.isAssignableFrom(rawType)
+                && parameterizedType.getActualTypeArguments()[0] == PointOfInterest.class;
+    }
+
+    @Override
+    public Object read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        return readInternal(PointOfInterest.class, inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        try {
+            return PointOfInterestProtobuf.read(CodedInputStream.newInstance(inputMessage.getBody()));
+        } catch (InvalidProtocolBufferException e) {
+            throw new HttpMessageNotReadableException("Invalid protobuf request body: " + e.getMessage(), e,
+                    inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object value, @Nullable Type type, HttpOutputMessage outputMessage) throws IOException {
+        CodedOutputStream output = CodedOutputStream.newInstance(outputMessage.getBody());
+        if (value instanceof PointOfInterest poi) {
+            PointOfInterestProtobuf.write(poi, output);
+        } else {
+            PointOfInterestProtobuf.writeList((Collection<?>) value, output);
+        }
+        output.flush();
+    }
+}
@@ -0,0 +1,102 @@
+package de.zeiss.mongodb_ws.spring_geo_service.rest;
+
+import de.zeiss.mongodb_ws.spring_geo_service.timing.RequestTimings;
+import de.zeiss.mongodb_ws.spring_geo_service.timing.ServerTiming;
+import de.zeiss.mongodb_ws.spring_geo_service.timing.ServerTimingStatistics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+
+/**
+ * Adds the Server-Timing header with the time spent per layer (controller, service, database) to the responses, so
+ * that it shows up in the developer tools of the browser. Responses with a body get the header from the
+ * {@link ServerTimingInterceptor} right before the body is written. Only if the serialization is timed as well, the
+ * body is serialized into a buffer first, as the header has to be sent before the body. For CORS requests
+ * Timing-Allow-Origin exposes the header to the calling page. The admin endpoints, e.g. the download of flight
+ * recordings, are not timed.
+ *
+ * @see ServerTimingInterceptor
+ */
+@Component
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    static final String TIMING_ALLOW_ORIGIN_HEADER = "Timing-Allow-Origin";
+
+    private static final String ADMIN_PATH = "/api/admin/";
+
+    private static final String TIMINGS_ATTRIBUTE = RequestTimings.class.getName();
+
+    @Value("${geo-service.server-timing.enabled:true}")
+    private boolean enabled;
+
+    /*
+     * If true the CPU time and the bytes allocated by the request thread are measured as well.
+     */
+    @Value("${geo-service.server-timing.resource-usage:false}")
+    private boolean resourceUsage;
+
+    /*
+     * If true the serialization of the body is timed as well, at the cost of buffering every body.
+     */
+    @Value("${geo-service.server-timing.serialization:false}")
+    private boolean serialization;
+
+    @Autowired
+    private ServerTimingStatistics statistics;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || request.getRequestURI().startsWith(request.getContextPath() + ADMIN_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ServerTiming serverTiming = new ServerTiming();
+        serverTiming.start(resourceUsage);
+        request.setAttribute(ServerTiming.ATTRIBUTE, serverTiming);
+
+        ContentCachingResponseWrapper responseWrapper = serialization
+                ? new ContentCachingResponseWrapper(response) : null;
+        try {
+            filterChain.doFilter(request, responseWrapper != null ? responseWrapper : response);
+        } finally {
+            // responses with a body are finished before it is written, unless it is buffered
+            RequestTimings timings = request.getAttribute(TIMINGS_ATTRIBUTE) instanceof RequestTimings finished
+                    ? finished : finish(serverTiming, request, response);
+            statistics.record(timings);
+            if (responseWrapper != null) {
+                responseWrapper.copyBodyToResponse();
+            }
+        }
+    }
+
+    /**
+     * Finishes the timing of the request and adds the header, if the response is not committed yet.
+     *
+     * @return the timings of the request
+     */
+    static RequestTimings finish(ServerTiming serverTiming, HttpServletRequest request, HttpServletResponse response) {
+        RequestTimings timings = serverTiming.finish();
+        request.setAttribute(TIMINGS_ATTRIBUTE, timings);
+        if (!response.isCommitted()) {
+            response.setHeader(SERVER_TIMING_HEADER, timings.toHeaderValue());
+            String allowedOrigin = response.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN);
+            if (allowedOrigin != null) {
+                response.setHeader(TIMING_ALLOW_ORIGIN_HEADER, allowedOrigin);
+            }
+        }
+        return timings;
+    }
+}
@@ -0,0 +1,80 @@
+package de.zeiss.mongodb_ws.spring_geo_service.rest;
+
+import de.zeiss.mongodb_ws.spring_geo_service.timing.Layer;
+import de.zeiss.mongodb_ws.spring_geo_service.timing.ServerTiming;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Measures the controller and the serialization layer for the Server-Timing header: the controller from the start of
+ * the handler until its response body is written, the serialization from then until the request is completed. If the
+ * serialization is not timed, the header is added right before the body is written.
+ *
+ * @see ServerTimingFilter
+ */
+@ControllerAdvice
+public class ServerTimingInterceptor implements HandlerInterceptor, ResponseBodyAdvice<Object> {
+
+    @Value("${geo-service.server-timing.serialization:false}")
+    private boolean serialization;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ServerTiming serverTiming = ServerTiming.current();
+        if (serverTiming != null) {
+            serverTiming.enter(Layer.CONTROLLER);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        ServerTiming serverTiming = ServerTiming.current();
+        if (serverTiming != null) {
+            exitEntered(serverTiming);
+            if (serialization) {
+                serverTiming.enter(Layer.SERIALIZATION);
+            } else if (request instanceof ServletServerHttpRequest servletRequest
+                    && response instanceof ServletServerHttpResponse servletResponse) {
+                ServerTimingFilter.finish(serverTiming, servletRequest.getServletRequest(),
+                        servletResponse.getServletResponse());
+            }
+        }
+        return body;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        ServerTiming serverTiming = ServerTiming.current();
+        if (serverTiming != null) {
+            exitEntered(serverTiming);
+        }
+    }
+
+    private static void exitEntered(ServerTiming serverTiming) {
+        for (Layer layer : new Layer[]{Layer.CONTROLLER, Layer.SERIALIZATION}) {
+            if (serverTiming.isEntered(layer)) {
+                serverTiming.exit(layer);
+            }
+        }
+    }
+}
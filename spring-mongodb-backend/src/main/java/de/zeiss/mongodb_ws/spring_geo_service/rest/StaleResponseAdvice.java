@@ -0,0 +1,41 @@
+package de.zeiss.mongodb_ws.spring_geo_service.rest;
+
+import de.zeiss.mongodb_ws.spring_geo_service.service.StaleWhileRevalidate;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Marks responses served from the stale cache while the database is degraded with the headers Warning (110 "Response
+ * is Stale"), Age and X-Stale. The headers are added before the body is written, as they can not be added after.
+ */
+@ControllerAdvice
+public class StaleResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String STALE_HEADER = "X-Stale";
+
+    static final String STALE_WARNING = "110 - \"Response is Stale\"";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && servletRequest.getServletRequest().getAttribute(StaleWhileRevalidate.STALE_AGE_ATTRIBUTE) instanceof Long age) {
+            response.getHeaders().set("Warning", STALE_WARNING);
+            response.getHeaders().set("Age", String.valueOf(age));
+            response.getHeaders().set(STALE_HEADER, Boolean.TRUE.toString());
+        }
+        return body;
+    }
+}
@@ -0,0 +1,60 @@
+package de.zeiss.mongodb_ws.spring_geo_service.rest;
+
+import de.zeiss.mongodb_ws.spring_geo_service.tracing.Tracing;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Scope;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Records the span of the controller method handling a request, named after the controller and the method. The span
+ * is the current one until the request is completed, so that the spans of the service become its children.
+ *
+ * @see TracingFilter
+ */
+@Component
+public class TracingInterceptor implements HandlerInterceptor {
+
+    static final String SPAN_ATTRIBUTE = TracingInterceptor.class.getName() + ".span";
+
+    static final String SCOPE_ATTRIBUTE = TracingInterceptor.class.getName() + ".scope";
+
+    @Autowired
+    private Tracing tracing;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (tracing.isEnabled() && handler instanceof HandlerMethod handlerMethod) {
+            Span span = tracing.getTracer().spanBuilder(handlerMethod.getBeanType().getSimpleName() + "."
+                            + handlerMethod.getMethod().getName())
+                    .setAttribute("code.namespace", handlerMethod.getBeanType().getName())
+                    .setAttribute("code.function", handlerMethod.getMethod().getName())
+                    .startSpan();
+            request.setAttribute(SPAN_ATTRIBUTE, span);
+            request.setAttribute(SCOPE_ATTRIBUTE, span.makeCurrent());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(SCOPE_ATTRIBUTE) instanceof Scope scope) {
+            scope.close();
+            request.removeAttribute(SCOPE_ATTRIBUTE);
+        }
+        if (request.getAttribute(SPAN_ATTRIBUTE) instanceof Span span) {
+            if (ex != null) {
+                span.recordException(ex);
+                span.setStatus(StatusCode.ERROR);
+            }
+            request.removeAttribute(SPAN_ATTRIBUTE);
+            span.end();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package de.zeiss.mongodb_ws.spring_geo_service.rest;
+
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.Workload;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the workload of a controller method, requests to methods without are interactive.
+ *
+ * @see BulkheadInterceptor
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface WorkloadBulkhead {
+
+    /**
+     * @return the workload of the method
+     */
+    Workload value();
+}
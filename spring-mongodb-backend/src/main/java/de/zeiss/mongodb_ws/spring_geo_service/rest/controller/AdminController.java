@@ -0,0 +1,127 @@
+package de.zeiss.mongodb_ws.spring_geo_service.rest.controller;
+
+import de.zeiss.mongodb_ws.spring_geo_service.jfr.FlightRecording;
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.HedgedReads;
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.SlowQuery;
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.SlowQueryLog;
+import de.zeiss.mongodb_ws.spring_geo_service.timing.ServerTimingStatistics;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Operational tools of the service. They are not authenticated, start flight recordings and return the parameters of
+ * slow queries, so the controller is only deployed with {@code geo-service.admin.enabled: true}.
+ */
+@Tag(name = "Administration", description = "Operational tools of the service")
+@RestController
+@ConditionalOnProperty(name = "geo-service.admin.enabled", havingValue = "true")
+@RequestMapping(value = "/api/admin")
+public class AdminController {
+
+    @Autowired
+    private FlightRecording flightRecording;
+
+    @Autowired
+    private SlowQueryLog slowQueryLog;
+
+    @Autowired
+    private HedgedReads hedgedReads;
+
+    @Autowired
+    private ServerTimingStatistics serverTimingStatistics;
+
+    @Operation(summary = "Hedged read statistics",
+            description = "Returns per kind of read (get, ids, radius) how many reads were hedged by a duplicate read and how many hedges answered first, the hedging delay and the p50 and p99 latencies")
+    @GetMapping(value = "/metrics/hedging", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Map<String, Map<String, Number>> getHedgingMetrics() {
+        return hedgedReads.getStatistics();
+    }
+
+    @Operation(summary = "Request timing histograms",
+            description = "Returns per layer (controller, service, database, serialization) histograms of the time spent in milliseconds, and of the CPU time and allocated bytes if measured")
+    @GetMapping(value = "/metrics/server-timing", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Map<String, Map<String, Object>> getServerTimingMetrics() {
+        return serverTimingStatistics.getStatistics();
+    }
+
+    @Operation(summary = "Slow queries",
+            description = "Returns the latest MongoDB commands exceeding the slow query threshold with their shape and duration, sampled ones with the keys and documents examined and the winning plan of explain")
+    @GetMapping(value = "/slow-queries", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Map<String, Object> getSlowQueries() {
+        Map<String, Object> result = new LinkedHashMap<>(slowQueryLog.getStatistics());
+        result.put("queries", slowQueryLog.getSlowQueries().stream().map(SlowQuery::toMap).toList());
+        return result;
+    }
+
+    @Operation(summary = "Clear slow queries", description = "Removes the recorded slow MongoDB commands")
+    @DeleteMapping(value = "/slow-queries")
+    public ResponseEntity<Void> clearSlowQueries() {
+        slowQueryLog.clear();
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Flight recording status",
+            description = "Returns the state of the JDK Flight Recorder recording (NONE, RUNNING, STOPPED), its start time and size")
+    @GetMapping(value = "/jfr", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Map<String, Object> getRecordingStatus() {
+        return flightRecording.getStatus();
+    }
+
+    @Operation(summary = "Start a flight recording",
+            description = "Starts a JDK Flight Recorder recording with the POI query and write events, unless one is running")
+    @PostMapping(value = "/jfr/start", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Map<String, Object> startRecording(@RequestParam(value = "configuration", required = false) String configuration) {
+        try {
+            return flightRecording.start(configuration);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Stop the flight recording",
+            description = "Stops the JDK Flight Recorder recording, it can still be dumped afterwards")
+    @PostMapping(value = "/jfr/stop", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Map<String, Object> stopRecording() {
+        return flightRecording.stop();
+    }
+
+    @Operation(summary = "Dump the flight recording",
+            description = "Returns the data of the running or stopped JDK Flight Recorder recording as .jfr file for JDK Mission Control")
+    @GetMapping(value = "/jfr/dump", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Resource> dumpRecording() throws IOException {
+        Path file = flightRecording.dump();
+        if (file == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "There is no flight recording.");
+        }
+
+        // the temporary file is deleted once it is sent
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString())
+                .contentLength(Files.size(file))
+                .body(new InputStreamResource(Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE)));
+    }
+}
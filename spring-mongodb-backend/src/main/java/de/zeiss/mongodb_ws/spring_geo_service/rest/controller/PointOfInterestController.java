@@ -1,6 +1,14 @@
 package de.zeiss.mongodb_ws.spring_geo_service.rest.controller;
 
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.PointOfInterestColumns;
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.QueryResult;
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.Workload;
+import de.zeiss.mongodb_ws.spring_geo_service.rest.PointOfInterestColumnsWriter;
+import de.zeiss.mongodb_ws.spring_geo_service.rest.WorkloadBulkhead;
 import de.zeiss.mongodb_ws.spring_geo_service.rest.model.PointOfInterest;
+import de.zeiss.mongodb_ws.spring_geo_service.rest.model.PointOfInterestMultiGetResult;
+import de.zeiss.mongodb_ws.spring_geo_service.rest.model.PointOfInterestQuery;
+import de.zeiss.mongodb_ws.spring_geo_service.rest.model.PointOfInterestSearchResult;
 import de.zeiss.mongodb_ws.spring_geo_service.service.PointOfInterestService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -9,9 +17,14 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -21,9 +34,13 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
 import java.net.URI;
 import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.logging.Logger;
 
 @Tag(name = "Points of Interest", description = "API for managing Points of Interest (POIs)")
@@ -37,6 +54,21 @@ public class PointOfInterestController {
 
     private static final Logger logger = Logger.getLogger(PointOfInterestController.class.getName());
 
+    /**
+     * Comma separated list of the POI fields a client may select with the fields parameter.
+     */
+    private static final String FIELDS_PATTERN = "(name|category|location|details)(,(name|category|location|details))*";
+
+    /**
+     * Response header marking a list cut off by the time budget of its query.
+     */
+    static final String PARTIAL_RESULT_HEADER = "X-Partial-Result";
+
+    /**
+     * Value of the format parameter for the ids, coordinates and categories of the POIs as columns.
+     */
+    private static final String FORMAT_COLUMNAR = "columnar";
+
     @Operation(summary = "Find a Point of Interest by its id")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Found the POI",
@@ -46,7 +78,7 @@ public class PointOfInterestController {
                     content = @Content),
             @ApiResponse(responseCode = "404", description = "POI not found",
                     content = @Content)})
-    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(value = "/{id}")
     public PointOfInterest getPointOfInterest(@PathVariable("id") String id) {
         logger.info("Received request for POI with id: " + id);
         PointOfInterest poi = poiService.getPointOfInterestById(id);
@@ -59,20 +91,70 @@ public class PointOfInterestController {
         return poi;
     }
 
+    @Operation(summary = "Finds Points of Interest by their ids with a single query, in the requested order")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "POIs found and ids without a POI",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = PointOfInterestMultiGetResult.class))}),
+            @ApiResponse(responseCode = "400", description = "Invalid ids",
+                    content = @Content)})
+    @GetMapping(params = "ids")
+    @WorkloadBulkhead(Workload.BULK)
+    public PointOfInterestMultiGetResult getPointsOfInterestByIds(@NotEmpty @Size(max = 100) @RequestParam List<@NotBlank String> ids,
+                                                                  @RequestParam(value = "expand", required = false) String expand) {
+        return multiGet(ids, expand);
+    }
+
+    @Operation(summary = "Finds Points of Interest by the ids in the request body with a single query, in the requested order")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "POIs found and ids without a POI",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = PointOfInterestMultiGetResult.class))}),
+            @ApiResponse(responseCode = "400", description = "Invalid ids",
+                    content = @Content)})
+    @PostMapping("/_mget")
+    @WorkloadBulkhead(Workload.BULK)
+    public PointOfInterestMultiGetResult multiGetPointsOfInterest(@RequestBody @NotEmpty @Size(max = 100) List<@NotBlank String> ids,
+                                                                  @RequestParam(value = "expand", required = false) String expand) {
+        return multiGet(ids, expand);
+    }
+
+    private PointOfInterestMultiGetResult multiGet(List<String> ids, String expand) {
+        PointOfInterestMultiGetResult result = poiService.getPointsOfInterestByIds(ids, "details".equalsIgnoreCase(expand));
+
+        for (PointOfInterest poi : result.getPointsOfInterest()) {
+            String href = ServletUriComponentsBuilder.fromCurrentContextPath()
+                    .path("/api/poi/{id}")
+                    .buildAndExpand(poi.getId()).toUriString();
+
+            poi.setHref(href);
+        }
+
+        return result;
+    }
+
     @Operation(summary = "Searches for Points of Interest within a given radius around specified coordinates")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "POIs found",
                     content = {@Content(mediaType = "application/json",
                             array = @ArraySchema(schema = @Schema(implementation = PointOfInterest.class)))}),
-            @ApiResponse(responseCode = "400", description = "Invalid search parameters",
+            @ApiResponse(responseCode = "400", description = "Invalid search parameters or query estimated to match too many POIs",
+                    content = @Content),
+            @ApiResponse(responseCode = "503", description = "The query exceeded its time budget and partial results were not requested",
                     content = @Content)})
     @GetMapping
-    public Collection<PointOfInterest> findPointsOfInterest(@Min(-90) @Max(90) @RequestParam double lat, @Min(-180) @Max(180) @RequestParam double lon,
-                                                            @Min(1) @Max(100000) @RequestParam int radius, @RequestParam(value = "expand", required = false) String expand) {
+    public ResponseEntity<Collection<PointOfInterest>> findPointsOfInterest(@Min(-90) @Max(90) @RequestParam double lat, @Min(-180) @Max(180) @RequestParam double lon,
+                                                            @Min(1) @Max(100000) @RequestParam int radius, @RequestParam(value = "expand", required = false) String expand,
+                                                            @Pattern(regexp = FIELDS_PATTERN, message = "fields must be a comma separated list of name, category, location and details")
+                                                            @RequestParam(value = "fields", required = false) String fields,
+                                                            @RequestParam(value = "partial", defaultValue = "false") boolean partial) {
 
-        List<PointOfInterest> poiList = poiService.listPOIs(lat, lon, radius, "details".equalsIgnoreCase(expand));
+        // with fields only the selected fields are read from the database, expand is ignored then
+        QueryResult<PointOfInterest> result = fields == null
+                ? poiService.listPOIs(lat, lon, radius, "details".equalsIgnoreCase(expand), partial)
+                : poiService.listPOIs(lat, lon, radius, new LinkedHashSet<>(List.of(fields.split(","))), partial);
 
-        for (PointOfInterest poi : poiList) {
+        for (PointOfInterest poi : result.results()) {
             String href = ServletUriComponentsBuilder.fromCurrentRequest()
                     .path("/{id}")
                     .buildAndExpand(poi.getId()).toUriString();
@@ -80,9 +162,121 @@ public class PointOfInterestController {
             poi.setHref(href);
         }
 
+        // with partial=true a query exceeding its time budget returns the nearest POIs found until then
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (result.partial()) {
+            response.header(PARTIAL_RESULT_HEADER, Boolean.TRUE.toString());
+        }
+
+        return response.body(result.results());
+    }
+
+    @Operation(summary = "Searches for Points of Interest within a given radius and returns only their ids, coordinates and categories as JSON columns, e.g. for map clients")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Columns of the POIs found: ids, lon, lat, cat (index in categories) and categories",
+                    content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "400", description = "Invalid search parameters or query estimated to match too many POIs",
+                    content = @Content),
+            @ApiResponse(responseCode = "503", description = "The query exceeded its time budget and partial results were not requested",
+                    content = @Content)})
+    @GetMapping(params = "format")
+    public void findPointsOfInterestAsColumns(@Min(-90) @Max(90) @RequestParam double lat, @Min(-180) @Max(180) @RequestParam double lon,
+                                              @Min(1) @Max(100000) @RequestParam int radius,
+                                              @Pattern(regexp = FORMAT_COLUMNAR, message = "format must be columnar") @RequestParam String format,
+                                              @Min(0) @Max(7) @RequestParam(value = "precision", defaultValue = "5") int precision,
+                                              @RequestParam(value = "partial", defaultValue = "false") boolean partial,
+                                              HttpServletResponse response) throws IOException {
+        PointOfInterestColumns columns = poiService.listPOIColumns(lat, lon, radius, partial);
+
+        // written directly, always as JSON, the columns are no POIs for the message converters
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        if (columns.partial()) {
+            response.setHeader(PARTIAL_RESULT_HEADER, Boolean.TRUE.toString());
+        }
+        new PointOfInterestColumnsWriter(columns, precision).write(response.getOutputStream());
+    }
+
+    @Operation(summary = "Finds the k nearest Points of Interest to the specified coordinates, including their distance in meters")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "POIs found, ordered by distance",
+                    content = {@Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = PointOfInterest.class)))}),
+            @ApiResponse(responseCode = "400", description = "Invalid search parameters",
+                    content = @Content)})
+    @GetMapping("/nearest")
+    public Collection<PointOfInterest> findNearestPointsOfInterest(@Min(-90) @Max(90) @RequestParam double lat, @Min(-180) @Max(180) @RequestParam double lon,
+                                                                   @Min(1) @Max(1000) @RequestParam int k,
+                                                                   @Min(1) @Max(100000) @RequestParam(required = false) Integer maxRadius,
+                                                                   @RequestParam(required = false) String category,
+                                                                   @RequestParam(value = "expand", required = false) String expand) {
+
+        List<PointOfInterest> poiList = poiService.listNearestPOIs(lat, lon, k, maxRadius, category, "details".equalsIgnoreCase(expand));
+
+        for (PointOfInterest poi : poiList) {
+            String href = ServletUriComponentsBuilder.fromCurrentContextPath()
+                    .path("/api/poi/{id}")
+                    .buildAndExpand(poi.getId()).toUriString();
+
+            poi.setHref(href);
+        }
+
         return poiList;
     }
 
+    @Operation(summary = "Finds the n nearest Points of Interest of each category within the radius, including their distance in meters")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "POIs found by category, each ordered by distance",
+                    content = {@Content(mediaType = "application/json")}),
+            @ApiResponse(responseCode = "400", description = "Invalid search parameters",
+                    content = @Content)})
+    @GetMapping("/nearest/per-category")
+    public Map<String, List<PointOfInterest>> findNearestPointsOfInterestPerCategory(@Min(-90) @Max(90) @RequestParam double lat, @Min(-180) @Max(180) @RequestParam double lon,
+                                                                                     @Min(1) @Max(100000) @RequestParam int radius,
+                                                                                     @Min(1) @Max(100) @RequestParam int n,
+                                                                                     @RequestParam(value = "category", required = false) List<String> categories,
+                                                                                     @RequestParam(value = "expand", required = false) String expand) {
+
+        Map<String, List<PointOfInterest>> poisByCategory = poiService.listNearestPOIsPerCategory(lat, lon, radius, n,
+                categories, "details".equalsIgnoreCase(expand));
+
+        for (List<PointOfInterest> poiList : poisByCategory.values()) {
+            for (PointOfInterest poi : poiList) {
+                String href = ServletUriComponentsBuilder.fromCurrentContextPath()
+                        .path("/api/poi/{id}")
+                        .buildAndExpand(poi.getId()).toUriString();
+
+                poi.setHref(href);
+            }
+        }
+
+        return poisByCategory;
+    }
+
+    @Operation(summary = "Searches Points of Interest around several locations at once, each POI is returned only once")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Distinct POIs and the indexes of the POIs found by each query",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = PointOfInterestSearchResult.class))}),
+            @ApiResponse(responseCode = "400", description = "Invalid queries",
+                    content = @Content)})
+    @PostMapping("/_search")
+    @WorkloadBulkhead(Workload.BULK)
+    public PointOfInterestSearchResult searchPointsOfInterest(@RequestBody @NotEmpty @Size(max = 50) List<@Valid PointOfInterestQuery> queries,
+                                                              @RequestParam(value = "expand", required = false) String expand) {
+
+        PointOfInterestSearchResult searchResult = poiService.searchPOIs(queries, "details".equalsIgnoreCase(expand));
+
+        for (PointOfInterest poi : searchResult.getPointsOfInterest()) {
+            String href = ServletUriComponentsBuilder.fromCurrentContextPath()
+                    .path("/api/poi/{id}")
+                    .buildAndExpand(poi.getId()).toUriString();
+
+            poi.setHref(href);
+        }
+
+        return searchResult;
+    }
+
     @Operation(summary = "Creates a new Point of Interest")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "POI created successfully",
@@ -90,6 +284,7 @@ public class PointOfInterestController {
             @ApiResponse(responseCode = "400", description = "Invalid POI data supplied - see the response body for details",
                     content = @Content)})
     @PostMapping
+    @WorkloadBulkhead(Workload.WRITE)
     @ResponseStatus(HttpStatus.CREATED)
     public ResponseEntity<Void> create(@Valid @RequestBody PointOfInterest resource) {
 
@@ -114,20 +309,15 @@ public class PointOfInterestController {
             @ApiResponse(responseCode = "400", description = "Invalid POI data supplied - see the response body for details",
                     content = @Content)})
     @PutMapping(value = "/{id}")
+    @WorkloadBulkhead(Workload.WRITE)
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public ResponseEntity<Void> update(@PathVariable("id") String id, @Valid @RequestBody PointOfInterest resource) {
-        PointOfInterest resultPoi = null;
-        boolean isNew = false;
-
-        resultPoi = poiService.getPointOfInterestById(id);
+        // the existence is checked by the update on the primary, not by a read which might be hedged or stale
+        resource.setId(id);
+        boolean isNew = poiService.updatePOI(resource) == null;
 
-        if (resultPoi == null) {
-            isNew = true;
-            resource.setId(id);
-            resultPoi = poiService.createPOI(resource);
-        } else {
-            resource.setId(id);
-            resultPoi = poiService.updatePOI(resource);
+        if (isNew) {
+            poiService.createPOI(resource);
         }
 
         if (isNew) {
@@ -146,12 +336,12 @@ public class PointOfInterestController {
             @ApiResponse(responseCode = "404", description = "POI not found",
                     content = @Content)})
     @DeleteMapping(value = "/{id}")
+    @WorkloadBulkhead(Workload.WRITE)
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public ResponseEntity<Void> delete(@PathVariable("id") String id) {
-        if (poiService.getPointOfInterestById(id) == null) {
+        if (!poiService.deletePOI(id)) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Point of Interest with id " + id + " not found.");
         }
-        poiService.deletePOI(id);
 
         return ResponseEntity.noContent().build();
     }
@@ -25,6 +25,8 @@ public class PointOfInterest {
 
     private String details;
 
+    private Double distance;
+
     /**
      * @return the href
      */
@@ -108,4 +110,18 @@ public class PointOfInterest {
     public void setDetails(String details) {
         this.details = details;
     }
+
+    /**
+     * @return the distance in meters to the query point, only set for nearest queries
+     */
+    public Double getDistance() {
+        return distance;
+    }
+
+    /**
+     * @param distance the distance to set
+     */
+    public void setDistance(Double distance) {
+        this.distance = distance;
+    }
 }
@@ -0,0 +1,43 @@
+package de.zeiss.mongodb_ws.spring_geo_service.rest.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of a batch fetch by ids. The POIs are in the order of the requested ids, ids without a POI are listed in
+ * {@link #getMissingIds()}.
+ */
+public class PointOfInterestMultiGetResult {
+
+    private List<PointOfInterest> pointsOfInterest = new ArrayList<>();
+
+    private List<String> missingIds = new ArrayList<>();
+
+    /**
+     * @return the found POIs in the requested order
+     */
+    public List<PointOfInterest> getPointsOfInterest() {
+        return pointsOfInterest;
+    }
+
+    /**
+     * @param pointsOfInterest the found POIs to set
+     */
+    public void setPointsOfInterest(List<PointOfInterest> pointsOfInterest) {
+        this.pointsOfInterest = pointsOfInterest;
+    }
+
+    /**
+     * @return the requested ids without a POI
+     */
+    public List<String> getMissingIds() {
+        return missingIds;
+    }
+
+    /**
+     * @param missingIds the requested ids without a POI to set
+     */
+    public void setMissingIds(List<String> missingIds) {
+        this.missingIds = missingIds;
+    }
+}
@@ -0,0 +1,102 @@
+package de.zeiss.mongodb_ws.spring_geo_service.rest.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+/**
+ * A single radius query of a batch search request.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PointOfInterestQuery {
+
+    @Min(value = -90, message = "latitude must be between -90 and 90")
+    @Max(value = 90, message = "latitude must be between -90 and 90")
+    private double lat;
+
+    @Min(value = -180, message = "longitude must be between -180 and 180")
+    @Max(value = 180, message = "longitude must be between -180 and 180")
+    private double lon;
+
+    @Min(1)
+    @Max(100000)
+    private int radius;
+
+    private String category;
+
+    /**
+     *
+     */
+    public PointOfInterestQuery() {
+
+    }
+
+    /**
+     * @param lat      the latitude
+     * @param lon      the longitude
+     * @param radius   the radius in meters
+     * @param category optional category, may be null
+     */
+    public PointOfInterestQuery(double lat, double lon, int radius, String category) {
+        this.lat = lat;
+        this.lon = lon;
+        this.radius = radius;
+        this.category = category;
+    }
+
+    /**
+     * @return the latitude
+     */
+    public double getLat() {
+        return lat;
+    }
+
+    /**
+     * @param lat the latitude to set
+     */
+    public void setLat(double lat) {
+        this.lat = lat;
+    }
+
+    /**
+     * @return the longitude
+     */
+    public double getLon() {
+        return lon;
+    }
+
+    /**
+     * @param lon the longitude to set
+     */
+    public void setLon(double lon) {
+        this.lon = lon;
+    }
+
+    /**
+     * @return the radius in meters
+     */
+    public int getRadius() {
+        return radius;
+    }
+
+    /**
+     * @param radius the radius in meters to set
+     */
+    public void setRadius(int radius) {
+        this.radius = radius;
+    }
+
+    /**
+     * @return the category
+     */
+    public String getCategory() {
+        return category;
+    }
+
+    /**
+     * @param category the category to set
+     */
+    public void setCategory(String category) {
+        this.category = category;
+    }
+}
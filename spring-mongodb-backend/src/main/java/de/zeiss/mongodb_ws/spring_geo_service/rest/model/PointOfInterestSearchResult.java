@@ -0,0 +1,44 @@
+package de.zeiss.mongodb_ws.spring_geo_service.rest.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of a batch search. Every POI is contained only once in {@link #getPointsOfInterest()}, even if it was found
+ * by several queries. {@link #getResults()} holds the indexes of the POIs found by each query in the order of the
+ * queries.
+ */
+public class PointOfInterestSearchResult {
+
+    private List<PointOfInterest> pointsOfInterest = new ArrayList<>();
+
+    private List<List<Integer>> results = new ArrayList<>();
+
+    /**
+     * @return the distinct POIs of all queries
+     */
+    public List<PointOfInterest> getPointsOfInterest() {
+        return pointsOfInterest;
+    }
+
+    /**
+     * @param pointsOfInterest the distinct POIs of all queries to set
+     */
+    public void setPointsOfInterest(List<PointOfInterest> pointsOfInterest) {
+        this.pointsOfInterest = pointsOfInterest;
+    }
+
+    /**
+     * @return per query the indexes of its POIs in {@link #getPointsOfInterest()}
+     */
+    public List<List<Integer>> getResults() {
+        return results;
+    }
+
+    /**
+     * @param results per query the indexes of its POIs to set
+     */
+    public void setResults(List<List<Integer>> results) {
+        this.results = results;
+    }
+}
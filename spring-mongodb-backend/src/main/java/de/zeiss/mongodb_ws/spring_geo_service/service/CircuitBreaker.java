@@ -0,0 +1,114 @@
+package de.zeiss.mongodb_ws.spring_geo_service.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breaker for calls to a degraded database. After the configured number of consecutive failed (or too slow)
+ * calls it opens and rejects all calls for the open duration, giving the database time to recover. Then a single
+ * trial call is let through (half open): its success closes the breaker again, its failure opens it for another open
+ * duration.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+
+    private final long openDurationNanos;
+
+    private State state = State.CLOSED;
+
+    private int consecutiveFailures;
+
+    private long openedAt;
+
+    private boolean trialInFlight;
+
+    private long opened;
+
+    private long rejected;
+
+    /**
+     * @param failureThreshold number of consecutive failures opening the breaker
+     * @param openDurationMs   time in milliseconds the breaker stays open before a trial call is let through
+     */
+    public CircuitBreaker(int failureThreshold, long openDurationMs) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(openDurationMs);
+    }
+
+    /**
+     * Asks for permission to call the database. Every permitted call must be followed by {@link #onSuccess()},
+     * {@link #onFailure()} or {@link #onIgnored()}.
+     *
+     * @return true if the call may be executed
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openDurationNanos) {
+            state = State.HALF_OPEN;
+        }
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.HALF_OPEN && !trialInFlight) {
+            trialInFlight = true;
+            return true;
+        }
+
+        rejected++;
+        return false;
+    }
+
+    /**
+     * Records a successful call, closing the breaker if it was the trial call.
+     */
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        if (state == State.HALF_OPEN) {
+            // calls started before the breaker opened end while it is open and do not close it
+            state = State.CLOSED;
+            trialInFlight = false;
+        }
+    }
+
+    /**
+     * Records a failed call, opening the breaker if it was the trial call or the failure threshold is reached.
+     */
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+            opened++;
+        }
+        trialInFlight = false;
+    }
+
+    /**
+     * Records a call telling nothing about the health of the database, e.g. a call shed by the concurrency limit. A
+     * trial call ends without closing or opening the breaker, the next call is the trial then.
+     */
+    public synchronized void onIgnored() {
+        trialInFlight = false;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * @return the state, the number of consecutive failures, how often the breaker opened and the rejected calls
+     */
+    public synchronized Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("state", state.name().toLowerCase());
+        statistics.put("consecutiveFailures", consecutiveFailures);
+        statistics.put("opened", opened);
+        statistics.put("rejected", rejected);
+        return statistics;
+    }
+}
@@ -1,78 +1,395 @@
 package de.zeiss.mongodb_ws.spring_geo_service.service;
 
+import de.zeiss.mongodb_ws.spring_geo_service.jfr.PoiLookupEvent;
+import de.zeiss.mongodb_ws.spring_geo_service.jfr.PoiRadiusQueryEvent;
+import de.zeiss.mongodb_ws.spring_geo_service.jfr.PoiWriteEvent;
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.ConcurrencyLimiter;
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.HedgedReads;
 import de.zeiss.mongodb_ws.spring_geo_service.persistence.IPointOfInterestRepository;
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.PointOfInterestColumns;
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.QueryResult;
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.Workload;
 import de.zeiss.mongodb_ws.spring_geo_service.persistence.entity.PointOfInterestEntity;
 import de.zeiss.mongodb_ws.spring_geo_service.rest.model.PointOfInterest;
+import de.zeiss.mongodb_ws.spring_geo_service.rest.model.PointOfInterestMultiGetResult;
+import de.zeiss.mongodb_ws.spring_geo_service.rest.model.PointOfInterestQuery;
+import de.zeiss.mongodb_ws.spring_geo_service.rest.model.PointOfInterestSearchResult;
 import de.zeiss.mongodb_ws.spring_geo_service.service.mapper.PointOfInterestMapper;
+import io.opentelemetry.context.Context;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.GeoResults;
 import org.springframework.data.geo.Metrics;
 import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
+import static de.zeiss.mongodb_ws.spring_geo_service.service.StaleWhileRevalidate.normalizeCoordinate;
+
+/**
+ * Service between the REST controller and the repository. Queries and writes emit JDK Flight Recorder events, see
+ * {@link de.zeiss.mongodb_ws.spring_geo_service.jfr.PoiEvent}.
+ */
 @Service
 public class PointOfInterestService {
 
     @Autowired
     private IPointOfInterestRepository poiRepository;
 
+    @Autowired
+    @Qualifier("searchExecutor")
+    private Executor searchExecutor;
+
+    @Autowired
+    private QueryCostGuard costGuard;
+
+    @Autowired
+    private ConcurrencyLimiter concurrencyLimiter;
+
+    @Autowired
+    private HedgedReads hedgedReads;
+
+    @Autowired
+    private StaleWhileRevalidate staleWhileRevalidate;
+
+    /**
+     * Time budgets of the reads, a read within its budget does not count as slow for the circuit breaker.
+     */
+    @Value("${geo-service.query.max-time.get:1s}")
+    private Duration getMaxTime;
+
+    @Value("${geo-service.query.max-time.list:2s}")
+    private Duration listMaxTime;
+
+    @Value("${geo-service.query.max-time.nearest:2s}")
+    private Duration nearestMaxTime;
+
+    @Value("${geo-service.query.max-time.per-category:5s}")
+    private Duration perCategoryMaxTime;
+
     Logger logger = Logger.getLogger(PointOfInterestService.class.getName());
 
     public PointOfInterest getPointOfInterestById(String id) {
-        Optional<PointOfInterestEntity> pointOfInterestEntity = poiRepository.findById(id);
+        Optional<PointOfInterestEntity> pointOfInterestEntity = staleWhileRevalidate.read(List.of("poi", id),
+                getMaxTime,
+                () -> concurrencyLimiter.execute(Workload.INTERACTIVE, () -> {
+                    PoiLookupEvent event = new PoiLookupEvent(1, projection(true));
+                    return event.record(
+                            () -> hedgedReads.read("get", readPreference -> poiRepository.findById(id, readPreference)),
+                            poi -> event.setFound(poi.isPresent() ? 1 : 0));
+                }));
 
         return pointOfInterestEntity.map(PointOfInterestMapper::mapToResource).orElse(null);
     }
 
-    public List<PointOfInterest> listPOIs(double lat, double lon, int radius, boolean expandDetails) {
+    /**
+     * Gets the POIs with the given ids with a single query. The POIs are returned in the order of the ids, ids without
+     * a POI are reported as missing.
+     */
+    public PointOfInterestMultiGetResult getPointsOfInterestByIds(List<String> ids, boolean expandDetails) {
+        Set<String> normalizedIds = ids.stream()
+                .map(PointOfInterestService::normalizeId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<String, PointOfInterestEntity> entityById = concurrencyLimiter
+                .execute(Workload.INTERACTIVE, () -> {
+                    PoiLookupEvent event = new PoiLookupEvent(ids.size(), projection(expandDetails));
+                    return event.record(() -> hedgedReads.read("ids", readPreference ->
+                                    poiRepository.findByIds(normalizedIds, expandDetails, readPreference)),
+                            entities -> event.setFound(entities.size()));
+                })
+                .stream()
+                .collect(Collectors.toMap(PointOfInterestEntity::getId, Function.identity()));
+
+        PointOfInterestMultiGetResult result = new PointOfInterestMultiGetResult();
+        for (String id : ids) {
+            PointOfInterestEntity entity = entityById.get(normalizeId(id));
+            if (entity == null) {
+                result.getMissingIds().add(id);
+            } else {
+                result.getPointsOfInterest().add(PointOfInterestMapper.mapToResource(entity));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Normalizes ObjectIds to the lower case hex string of the ids of the entities, other ids are kept as they are.
+     */
+    private static String normalizeId(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id).toHexString() : id;
+    }
+
+    /**
+     * Lists the POIs within the radius. If allowed, the nearest POIs found until the query exceeded its time budget are
+     * returned as partial result instead of an error. Queries estimated to match too many POIs are capped to the nearest
+     * ones (partial result) or rejected by the {@link QueryCostGuard}.
+     */
+    public QueryResult<PointOfInterest> listPOIs(double lat, double lon, int radius, boolean expandDetails,
+                                                 boolean allowPartial) {
         double radiusInKm = radius / 1000.0; // Convert radius from meters to kilometers
         Point p = new Point(lon, lat);
         Distance d = new Distance(radiusInKm, Metrics.KILOMETERS);
         logger.info("Searching POIs near point: " + p + " with radius: " + d);
 
-        List<PointOfInterestEntity> entityList = poiRepository.findByLocationNear(p, d);
+        int limit = costGuard.limitFor(lat, lon, radius);
+        // details are excluded by the database if not expanded
+        QueryResult<PointOfInterestEntity> entities = staleWhileRevalidate.read(
+                List.of("radius", normalizeCoordinate(lat), normalizeCoordinate(lon), radius, expandDetails, allowPartial,
+                        limit), listMaxTime,
+                () -> concurrencyLimiter.execute(Workload.INTERACTIVE, () -> recordRadiusQuery(
+                        new PoiRadiusQueryEvent("radius", lat, lon, radius, limit, null, projection(expandDetails)),
+                        () -> hedgedReads.read("radius", readPreference ->
+                                poiRepository.findNear(p, d, null, expandDetails, allowPartial, limit, readPreference)))));
 
-        logger.info("Found " + entityList.size() + " POIs");
+        logger.info("Found " + entities.results().size() + " POIs" + (entities.partial() ? " (partial)" : ""));
+
+        return entities.map(PointOfInterestMapper::mapToResource);
+    }
+
+    /**
+     * Lists the POIs within the radius, reading only the given fields (and the id) from the database.
+     */
+    public QueryResult<PointOfInterest> listPOIs(double lat, double lon, int radius, Set<String> fields,
+                                                 boolean allowPartial) {
+        Point p = new Point(lon, lat);
+        Distance d = new Distance(radius / 1000.0, Metrics.KILOMETERS);
+        logger.info("Searching POIs near point: " + p + " with radius: " + d + " and fields: " + fields);
+
+        int limit = costGuard.limitFor(lat, lon, radius);
+        QueryResult<PointOfInterestEntity> entities = staleWhileRevalidate.read(
+                List.of("radius", normalizeCoordinate(lat), normalizeCoordinate(lon), radius, Set.copyOf(fields), allowPartial,
+                        limit), listMaxTime,
+                () -> concurrencyLimiter.execute(Workload.INTERACTIVE, () -> recordRadiusQuery(
+                        new PoiRadiusQueryEvent("radius", lat, lon, radius, limit, null, String.join(",", fields)),
+                        () -> hedgedReads.read("radius", readPreference ->
+                                poiRepository.findNear(p, d, fields, false, allowPartial, limit, readPreference)))));
+
+        return entities.map(PointOfInterestMapper::mapToResource);
+    }
 
-        if (!expandDetails) {
-            entityList.forEach(poi -> poi.setDetails(null));
+    /**
+     * Lists the ids, coordinates and categories of the POIs within the radius as columns, e.g. for drawing them on a
+     * map. The columns are read from the cursor in one pass, without entities and models, so unlike the other radius
+     * queries they are not kept for stale responses. Time budget, partial results and the {@link QueryCostGuard} apply
+     * as for {@link #listPOIs(double, double, int, boolean, boolean)}.
+     */
+    public PointOfInterestColumns listPOIColumns(double lat, double lon, int radius, boolean allowPartial) {
+        Point p = new Point(lon, lat);
+        Distance d = new Distance(radius / 1000.0, Metrics.KILOMETERS);
+
+        int limit = costGuard.limitFor(lat, lon, radius);
+        PoiRadiusQueryEvent event = new PoiRadiusQueryEvent("radius", lat, lon, radius, limit, null, "columns");
+        return concurrencyLimiter.execute(Workload.INTERACTIVE, () -> event.record(
+                () -> hedgedReads.read("radius", readPreference ->
+                        poiRepository.findNearAsColumns(p, d, allowPartial, limit, readPreference)),
+                columns -> event.setResult(columns.size(), columns.partial())));
+    }
+
+    public List<PointOfInterest> listNearestPOIs(double lat, double lon, int limit, Integer maxRadius, String category,
+                                                 boolean expandDetails) {
+        Point p = new Point(lon, lat);
+        Distance d = maxRadius == null ? null : new Distance(maxRadius / 1000.0, Metrics.KILOMETERS);
+        logger.info("Searching " + limit + " nearest POIs to point: " + p + " within: " + d);
+
+        GeoResults<PointOfInterestEntity> geoResults = staleWhileRevalidate.read(
+                Arrays.asList("nearest", normalizeCoordinate(lat), normalizeCoordinate(lon), limit, maxRadius, category,
+                        expandDetails), nearestMaxTime,
+                () -> concurrencyLimiter.execute(Workload.INTERACTIVE, () -> {
+                    PoiRadiusQueryEvent event = new PoiRadiusQueryEvent("nearest", lat, lon,
+                            maxRadius != null ? maxRadius : 0, limit, category, projection(expandDetails));
+                    return event.record(() -> poiRepository.findNearest(p, d, limit, category, expandDetails),
+                            results -> event.setResult(results.getContent().size(), false));
+                }));
+
+        return geoResults.getContent().stream().map(geoResult -> {
+            PointOfInterest poi = PointOfInterestMapper.mapToResource(geoResult.getContent());
+            // Convert distance from kilometers to meters
+            poi.setDistance(geoResult.getDistance().getValue() * 1000.0);
+            return poi;
+        }).toList();
+    }
+
+    public Map<String, List<PointOfInterest>> listNearestPOIsPerCategory(double lat, double lon, int radius,
+                                                                         int limitPerCategory, List<String> categories,
+                                                                         boolean expandDetails) {
+        Point p = new Point(lon, lat);
+        Distance d = new Distance(radius / 1000.0, Metrics.KILOMETERS);
+        logger.info("Searching " + limitPerCategory + " nearest POIs per category to point: " + p + " within: " + d);
+
+        List<PointOfInterestEntity> entities = staleWhileRevalidate.read(
+                Arrays.asList("per-category", normalizeCoordinate(lat), normalizeCoordinate(lon), radius, limitPerCategory,
+                        categories == null ? null : List.copyOf(categories), expandDetails), perCategoryMaxTime,
+                () -> concurrencyLimiter.execute(Workload.INTERACTIVE, () -> {
+                    PoiRadiusQueryEvent event = new PoiRadiusQueryEvent("per-category", lat, lon, radius,
+                            limitPerCategory, categories != null ? String.join(",", categories) : null,
+                            projection(expandDetails));
+                    return event.record(
+                            () -> poiRepository.findNearestPerCategory(p, d, limitPerCategory, categories, expandDetails),
+                            results -> event.setResult(results.size(), false));
+                }));
+
+        return entities.stream().map(entity -> {
+            PointOfInterest poi = PointOfInterestMapper.mapToResource(entity);
+            // Convert distance from kilometers to meters
+            poi.setDistance(entity.getDistance() * 1000.0);
+            return poi;
+        }).collect(Collectors.groupingBy(PointOfInterest::getCategory, LinkedHashMap::new, Collectors.toList()));
+    }
+
+    /**
+     * Executes the radius queries concurrently on the search executor. POIs found by more than one query are contained
+     * only once in the result.
+     */
+    public PointOfInterestSearchResult searchPOIs(List<PointOfInterestQuery> queries, boolean expandDetails) {
+        logger.info("Searching POIs for " + queries.size() + " queries");
+
+        // the queries run in the trace of the caller
+        Executor executor = Context.current().wrap(searchExecutor);
+        List<CompletableFuture<List<PointOfInterestEntity>>> futures = queries.stream()
+                .map(query -> CompletableFuture.supplyAsync(() -> findByQuery(query, expandDetails), executor))
+                .toList();
+
+        PointOfInterestSearchResult searchResult = new PointOfInterestSearchResult();
+        Map<String, Integer> indexById = new HashMap<>();
+
+        for (CompletableFuture<List<PointOfInterestEntity>> future : futures) {
+            List<Integer> indexes = new ArrayList<>();
+            for (PointOfInterestEntity entity : join(future)) {
+                indexes.add(indexById.computeIfAbsent(entity.getId(), id -> {
+                    searchResult.getPointsOfInterest().add(PointOfInterestMapper.mapToResource(entity));
+                    return searchResult.getPointsOfInterest().size() - 1;
+                }));
+            }
+            searchResult.getResults().add(indexes);
         }
 
-        return entityList.stream().map(PointOfInterestMapper::mapToResource).toList();
+        return searchResult;
+    }
+
+    private List<PointOfInterestEntity> findByQuery(PointOfInterestQuery query, boolean expandDetails) {
+        Point p = new Point(query.getLon(), query.getLat());
+        Distance d = new Distance(query.getRadius() / 1000.0, Metrics.KILOMETERS);
+
+        return concurrencyLimiter.execute(Workload.BULK, () -> {
+            PoiRadiusQueryEvent event = new PoiRadiusQueryEvent("radius", query.getLat(), query.getLon(),
+                    query.getRadius(), 0, query.getCategory(), projection(expandDetails));
+            return event.record(() -> poiRepository.findNear(p, d, query.getCategory(), null, expandDetails),
+                    results -> event.setResult(results.size(), false));
+        });
+    }
+
+    private static QueryResult<PointOfInterestEntity> recordRadiusQuery(
+            PoiRadiusQueryEvent event, Supplier<QueryResult<PointOfInterestEntity>> query) {
+        return event.record(query, result -> event.setResult(result.results().size(), result.partial()));
+    }
+
+    /**
+     * @return the fields read from the database for the projection of a flight recorder event
+     */
+    private static String projection(boolean expandDetails) {
+        return expandDetails ? "all" : "without details";
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
     }
 
     public PointOfInterest createPOI(PointOfInterest resource) {
-        PointOfInterestEntity entity = PointOfInterestMapper.mapToEntity(resource);
+        PointOfInterestEntity newEntity = PointOfInterestMapper.mapToEntity(resource);
 
-        entity = poiRepository.save(entity);
+        PointOfInterestEntity entity = concurrencyLimiter.execute(Workload.WRITE, () -> {
+            PoiWriteEvent event = new PoiWriteEvent("create", null);
+            return event.record(() -> poiRepository.upsert(newEntity), saved -> {
+                event.setId(saved.getId());
+                event.setApplied(true);
+            });
+        });
+        costGuard.added(entity.getLocation());
 
         return PointOfInterestMapper.mapToResource(entity);
     }
 
-    public void deletePOI(String id) {
+    /**
+     * Deletes a POI on the primary.
+     *
+     * @return true if the POI existed and was deleted
+     */
+    public boolean deletePOI(String id) {
         logger.info("Deleting POI with id: " + id);
-        poiRepository.deleteById(id);
+        // the location of the deleted POI is needed to update the density grid of the cost guard
+        PointOfInterestEntity deleted = concurrencyLimiter.execute(Workload.WRITE, () -> {
+            PoiWriteEvent event = new PoiWriteEvent("delete", id);
+            return event.record(() -> poiRepository.findAndRemoveById(id), entity -> event.setApplied(entity != null));
+        });
+        if (deleted == null) {
+            return false;
+        }
+        costGuard.removed(deleted.getLocation());
+        staleWhileRevalidate.invalidate(List.of("poi", id));
+        return true;
     }
 
+    /**
+     * Updates an existing POI, read for the update from the primary.
+     *
+     * @return the updated POI or null if no POI exists for its id
+     */
     public PointOfInterest updatePOI(PointOfInterest resource) {
         if (resource.getId() == null) {
             throw new IllegalArgumentException("POI id must not be null for update.");
         }
-        Optional<PointOfInterestEntity> entityOpt = poiRepository.findById(resource.getId());
+        // never hedged, a hedge might be answered by a lagging secondary
+        Optional<PointOfInterestEntity> entityOpt = concurrencyLimiter.execute(Workload.WRITE, () -> {
+            PoiLookupEvent event = new PoiLookupEvent(1, projection(true));
+            return event.record(() -> poiRepository.findById(resource.getId()),
+                    poi -> event.setFound(poi.isPresent() ? 1 : 0));
+        });
 
         if (entityOpt.isEmpty()) {
             return null;
         }
 
-        PointOfInterestEntity entity = entityOpt.get();
+        PointOfInterestEntity updatedEntity = entityOpt.get();
+        GeoJsonPoint previousLocation = updatedEntity.getLocation();
 
-        PointOfInterestMapper.updateEntityFromModel(resource, entity);
+        PointOfInterestMapper.updateEntityFromModel(resource, updatedEntity);
 
-        entity = poiRepository.save(entity);
+        PointOfInterestEntity entity = concurrencyLimiter.execute(Workload.WRITE, () -> {
+            PoiWriteEvent event = new PoiWriteEvent("update", resource.getId());
+            return event.record(() -> poiRepository.upsert(updatedEntity), saved -> event.setApplied(true));
+        });
+        costGuard.removed(previousLocation);
+        costGuard.added(entity.getLocation());
+        staleWhileRevalidate.invalidate(List.of("poi", resource.getId()));
 
         return PointOfInterestMapper.mapToResource(entity);
     }
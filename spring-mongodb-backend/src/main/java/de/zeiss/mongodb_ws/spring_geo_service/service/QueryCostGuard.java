@@ -0,0 +1,119 @@
+package de.zeiss.mongodb_ws.spring_geo_service.service;
+
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.GridCellCount;
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.IPointOfInterestRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executor;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Guards against radius queries matching too many POIs, e.g. 100 km around a dense city centre. The number of matches
+ * is estimated from a {@link DensityGrid} built at startup and updated on writes. Queries above the threshold are
+ * either capped to the nearest POIs (mode "cap") or rejected (mode "reject").
+ */
+@Component
+public class QueryCostGuard {
+
+    private static final Logger LOG = Logger.getLogger(QueryCostGuard.class.getName());
+
+    @Autowired
+    private IPointOfInterestRepository poiRepository;
+
+    @Autowired
+    @Qualifier("backgroundExecutor")
+    private Executor backgroundExecutor;
+
+    @Value("${geo-service.cost-guard.enabled:true}")
+    private boolean enabled;
+
+    @Value("${geo-service.cost-guard.cell-size:0.1}")
+    private double cellSize;
+
+    @Value("${geo-service.cost-guard.max-estimated-results:5000}")
+    private int maxEstimatedResults;
+
+    @Value("${geo-service.cost-guard.mode:cap}")
+    private String mode;
+
+    private volatile DensityGrid grid;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            // counting all POIs may take a while (or until the server selection timed out), so not on startup
+            backgroundExecutor.execute(this::rebuild);
+        }
+    }
+
+    /**
+     * Builds the density grid from the database.
+     */
+    public void rebuild() {
+        try {
+            DensityGrid newGrid = new DensityGrid(cellSize);
+            for (GridCellCount cell : poiRepository.countPOIsPerCell(cellSize)) {
+                newGrid.add(cell.latIndex(), cell.lonIndex(), cell.count());
+            }
+            grid = newGrid;
+            LOG.info("Built density grid of " + newGrid.getTotal() + " points of interest");
+        } catch (RuntimeException e) {
+            LOG.log(Level.WARNING, "Building the density grid failed, radius queries are not guarded", e);
+        }
+    }
+
+    /**
+     * Checks the estimated cost of a radius query.
+     *
+     * @param lat    latitude of the center
+     * @param lon    longitude of the center
+     * @param radius radius in meters
+     * @return the maximum number of POIs the query may return or 0 for no limit
+     * @throws QueryTooExpensiveException if the query is estimated to match too many POIs in mode "reject"
+     */
+    public int limitFor(double lat, double lon, int radius) {
+        DensityGrid current = grid;
+        if (!enabled || current == null) {
+            return 0;
+        }
+
+        long estimate = current.estimate(lat, lon, radius);
+        if (estimate <= maxEstimatedResults) {
+            return 0;
+        }
+
+        if ("reject".equalsIgnoreCase(mode)) {
+            throw new QueryTooExpensiveException(estimate, maxEstimatedResults);
+        }
+
+        LOG.fine("Capping query of about " + estimate + " points of interest at " + maxEstimatedResults);
+        return maxEstimatedResults;
+    }
+
+    /**
+     * Counts a new POI in the grid.
+     */
+    public void added(GeoJsonPoint location) {
+        DensityGrid current = grid;
+        if (current != null && location != null) {
+            current.add(location.getY(), location.getX());
+        }
+    }
+
+    /**
+     * Uncounts a removed POI in the grid.
+     */
+    public void removed(GeoJsonPoint location) {
+        DensityGrid current = grid;
+        if (current != null && location != null) {
+            current.remove(location.getY(), location.getX());
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package de.zeiss.mongodb_ws.spring_geo_service.service;
+
+/**
+ * Thrown if a radius query is estimated to match more POIs than allowed.
+ */
+public class QueryTooExpensiveException extends RuntimeException {
+
+    private final long estimatedResults;
+
+    private final long maxEstimatedResults;
+
+    public QueryTooExpensiveException(long estimatedResults, long maxEstimatedResults) {
+        super("The query would match about " + estimatedResults + " points of interest, at most "
+                + maxEstimatedResults + " are allowed. Please reduce the radius.");
+        this.estimatedResults = estimatedResults;
+        this.maxEstimatedResults = maxEstimatedResults;
+    }
+
+    public long getEstimatedResults() {
+        return estimatedResults;
+    }
+
+    public long getMaxEstimatedResults() {
+        return maxEstimatedResults;
+    }
+}
@@ -0,0 +1,153 @@
+package de.zeiss.mongodb_ws.spring_geo_service.service;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrent cache of the last known results of the reads of {@link StaleWhileRevalidate}. It is bounded by the summed
+ * weight of the results, i.e. their number of POIs, instead of the number of results, and results expire after their
+ * time to live. When the weight is exceeded the results cached first are evicted first.
+ * <p>
+ * A result keeps the {@link Slot} its key was queued with when it is replaced. A result removed before it is evicted
+ * leaves its slot behind, the eviction skips slots without a result, so a key cached again later is evicted by its own
+ * slot only.
+ */
+class StaleResultCache {
+
+    private final long maxWeight;
+
+    private final long ttlNanos;
+
+    private final ConcurrentHashMap<Object, CachedResult> results = new ConcurrentHashMap<>();
+
+    /**
+     * Slots in the order their results were cached first, a key is not moved when its result is replaced.
+     */
+    private final Queue<Slot> slots = new ConcurrentLinkedQueue<>();
+
+    private final AtomicLong weight = new AtomicLong();
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    /**
+     * @param maxWeight maximum summed weight of the cached results
+     * @param ttl       time a result is kept
+     */
+    StaleResultCache(long maxWeight, Duration ttl) {
+        this.maxWeight = maxWeight;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    void put(Object key, Object value, int weight) {
+        Slot slot = new Slot(key);
+        CachedResult cached = results.compute(key, (k, previous) -> {
+            this.weight.addAndGet(previous == null ? weight : weight - previous.weight());
+            return new CachedResult(value, weight, System.nanoTime(), previous == null ? slot : previous.slot());
+        });
+        if (cached.slot() == slot) {
+            // queued after the result is visible, otherwise the eviction might skip the slot as left behind
+            slots.add(slot);
+        }
+        evict();
+    }
+
+    /**
+     * @return the cached result or null if there is none or it expired
+     */
+    CachedResult get(Object key) {
+        CachedResult cached = results.get(key);
+        if (cached != null && isExpired(cached, System.nanoTime())) {
+            remove(key, cached);
+            return null;
+        }
+        return cached;
+    }
+
+    /**
+     * Removes the result of the key, e.g. because the POIs it contains were modified.
+     */
+    void invalidate(Object key) {
+        CachedResult removed = results.remove(key);
+        if (removed != null) {
+            weight.addAndGet(-removed.weight());
+        }
+    }
+
+    int size() {
+        return results.size();
+    }
+
+    long weight() {
+        return weight.get();
+    }
+
+    /**
+     * Evicts the results cached first while the weight is exceeded or they expired. Concurrent puts leave the eviction
+     * to the thread already evicting.
+     */
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            long now = System.nanoTime();
+            Slot slot;
+            while ((slot = slots.peek()) != null) {
+                CachedResult cached = results.get(slot.key());
+                if (cached == null || cached.slot() != slot) {
+                    // left behind by a removed result
+                    slots.poll();
+                    continue;
+                }
+                if (weight.get() <= maxWeight && !isExpired(cached, now)) {
+                    break;
+                }
+                slots.poll();
+                if (!remove(slot.key(), cached)) {
+                    CachedResult replaced = results.get(slot.key());
+                    if (replaced != null && replaced.slot() == slot) {
+                        // replaced concurrently, keep the slot of the new result
+                        slots.add(slot);
+                    }
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private boolean remove(Object key, CachedResult cached) {
+        if (!results.remove(key, cached)) {
+            return false;
+        }
+        weight.addAndGet(-cached.weight());
+        return true;
+    }
+
+    private boolean isExpired(CachedResult cached, long now) {
+        return now - cached.storedAt() > ttlNanos;
+    }
+
+    record CachedResult(Object value, int weight, long storedAt, Slot slot) {
+    }
+
+    /**
+     * Position of a key in the eviction order, compared by identity.
+     */
+    static final class Slot {
+
+        private final Object key;
+
+        Slot(Object key) {
+            this.key = key;
+        }
+
+        Object key() {
+            return key;
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package de.zeiss.mongodb_ws.spring_geo_service.service;
+
+import com.mongodb.MongoException;
+import com.mongodb.MongoNodeIsRecoveringException;
+import com.mongodb.MongoNotPrimaryException;
+import com.mongodb.MongoSocketException;
+import com.mongodb.MongoTimeoutException;
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.ConcurrencyLimitExceededException;
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.QueryResult;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.geo.GeoResults;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps map browsing working through short database stalls. Reads are guarded by a {@link CircuitBreaker}, their last
+ * results are kept in a {@link StaleResultCache} bounded by the number of cached POIs and a time to live. Only small
+ * results are cached, large radius results are not worth their memory for a fallback. If a read fails because the
+ * database is down, slow or overloaded, or the breaker is open, the last known result of the read is served instead and
+ * refreshed on the background executor once the breaker lets calls through again. Stale results are marked by the
+ * request attribute {@link #STALE_AGE_ATTRIBUTE}. Only failures to reach the database and reads slower than their time
+ * budget are counted by the breaker.
+ */
+@Component
+public class StaleWhileRevalidate {
+
+    /**
+     * Request attribute holding the age in seconds of the stale result served by the request.
+     */
+    public static final String STALE_AGE_ATTRIBUTE = StaleWhileRevalidate.class.getName() + ".staleAge";
+
+    private static final Logger LOG = Logger.getLogger(StaleWhileRevalidate.class.getName());
+
+    @Autowired
+    @Qualifier("backgroundExecutor")
+    private Executor backgroundExecutor;
+
+    @Value("${geo-service.stale-cache.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Maximum number of POIs of all cached results.
+     */
+    @Value("${geo-service.stale-cache.max-weight:50000}")
+    private long maxWeight;
+
+    /**
+     * Results with more POIs are not cached.
+     */
+    @Value("${geo-service.stale-cache.max-result-weight:500}")
+    private int maxResultWeight;
+
+    @Value("${geo-service.stale-cache.ttl:10m}")
+    private Duration ttl;
+
+    @Value("${geo-service.circuit-breaker.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${geo-service.circuit-breaker.open-duration:5s}")
+    private Duration openDuration;
+
+    /**
+     * Successful reads slower than this and than their own time budget count as failures of the circuit breaker.
+     */
+    @Value("${geo-service.circuit-breaker.slow-call-threshold:2s}")
+    private Duration slowCallThreshold;
+
+    private CircuitBreaker circuitBreaker;
+
+    private StaleResultCache cache;
+
+    private final Set<Object> refreshing = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder staleResponses = new LongAdder();
+
+    private final LongAdder refreshes = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        circuitBreaker = new CircuitBreaker(failureThreshold, openDuration.toMillis());
+        cache = new StaleResultCache(maxWeight, ttl);
+    }
+
+    /**
+     * Normalizes a coordinate of the key of a read. The key is the exact query, as a result of a nearby location has
+     * other POIs and other distances.
+     *
+     * @param coordinate latitude or longitude
+     * @return the coordinate, with -0.0 replaced by 0.0
+     */
+    public static double normalizeCoordinate(double coordinate) {
+        // -0.0 and 0.0 are the same location, but not equal as boxed doubles
+        return coordinate + 0.0;
+    }
+
+    /**
+     * Executes the read guarded by the circuit breaker, falling back to its last known result.
+     *
+     * @param key  identifies the read, e.g. the id of a POI or a radius query
+     * @param read the read
+     * @return the result of the read or, if the database is degraded, its last known result
+     * @throws CircuitBreakerOpenException if the breaker is open and there is no last known result
+     */
+    public <T> T read(Object key, Supplier<T> read) {
+        return read(key, Duration.ZERO, read);
+    }
+
+    /**
+     * Executes the read guarded by the circuit breaker, falling back to its last known result.
+     *
+     * @param key    identifies the read, e.g. the id of a POI or a radius query
+     * @param budget time budget of the read, it counts as slow only if it takes longer
+     * @param read   the read
+     * @return the result of the read or, if the database is degraded, its last known result
+     * @throws CircuitBreakerOpenException if the breaker is open and there is no last known result
+     */
+    public <T> T read(Object key, Duration budget, Supplier<T> read) {
+        if (!enabled) {
+            return read.get();
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            return stale(key, budget, read, null);
+        }
+
+        try {
+            return guarded(key, budget, read);
+        } catch (RuntimeException e) {
+            if (!isDatabaseFailure(e)) {
+                throw e;
+            }
+            return stale(key, budget, read, e);
+        }
+    }
+
+    /**
+     * Removes the last known result of a read, so a modified POI is not served stale.
+     *
+     * @param key identifies the read
+     */
+    public void invalidate(Object key) {
+        if (enabled) {
+            cache.invalidate(key);
+        }
+    }
+
+    /**
+     * Executes a read permitted by the circuit breaker and caches its result.
+     */
+    private <T> T guarded(Object key, Duration budget, Supplier<T> read) {
+        long start = System.nanoTime();
+        T result;
+        try {
+            result = read.get();
+        } catch (RuntimeException e) {
+            if (isConnectionFailure(e)) {
+                circuitBreaker.onFailure();
+            } else if (isDatabaseFailure(e)) {
+                // shed by the concurrency limit or over the budget of the read, the database is reachable
+                circuitBreaker.onIgnored();
+            } else {
+                // e.g. invalid requests, the database did its job
+                circuitBreaker.onSuccess();
+            }
+            throw e;
+        }
+
+        if (System.nanoTime() - start > Math.max(slowCallThreshold.toNanos(), budget.toNanos())) {
+            circuitBreaker.onFailure();
+        } else {
+            circuitBreaker.onSuccess();
+        }
+        if (result != null) {
+            int weight = weight(result);
+            if (weight <= maxResultWeight) {
+                cache.put(key, result, weight);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of POIs of the result, at least 1
+     */
+    private static int weight(Object result) {
+        if (result instanceof QueryResult<?> queryResult) {
+            return Math.max(queryResult.results().size(), 1);
+        }
+        if (result instanceof GeoResults<?> geoResults) {
+            return Math.max(geoResults.getContent().size(), 1);
+        }
+        if (result instanceof Collection<?> collection) {
+            return Math.max(collection.size(), 1);
+        }
+        return 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T stale(Object key, Duration budget, Supplier<T> read, RuntimeException failure) {
+        StaleResultCache.CachedResult cached = cache.get(key);
+        if (cached == null) {
+            if (failure != null) {
+                throw failure;
+            }
+            throw new CircuitBreakerOpenException(openDuration.toSeconds());
+        }
+
+        staleResponses.increment();
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null) {
+            long ageSeconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - cached.storedAt());
+            requestAttributes.setAttribute(STALE_AGE_ATTRIBUTE, ageSeconds, RequestAttributes.SCOPE_REQUEST);
+        }
+        refresh(key, budget, read);
+
+        return (T) cached.value();
+    }
+
+    /**
+     * Refreshes the cached result of the read in the background, if the circuit breaker lets the read through and it
+     * is not being refreshed already.
+     */
+    private void refresh(Object key, Duration budget, Supplier<?> read) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+
+        try {
+            backgroundExecutor.execute(() -> {
+                try {
+                    if (circuitBreaker.tryAcquire()) {
+                        refreshes.increment();
+                        guarded(key, budget, read);
+                    }
+                } catch (RuntimeException e) {
+                    LOG.log(Level.FINE, "Refreshing a stale result failed", e);
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RuntimeException e) {
+            refreshing.remove(key);
+            LOG.log(Level.WARNING, "Could not schedule the refresh of a stale result", e);
+        }
+    }
+
+    /**
+     * @return true if the read failed because of the database, a stale result may be served then
+     */
+    private static boolean isDatabaseFailure(RuntimeException e) {
+        return e instanceof DataAccessResourceFailureException || e instanceof TransientDataAccessException
+                || e instanceof MongoException || e instanceof ConcurrencyLimitExceededException;
+    }
+
+    /**
+     * @return true if the driver could not reach the database, only these failures are counted by the circuit breaker
+     */
+    private static boolean isConnectionFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DataAccessResourceFailureException || cause instanceof MongoSocketException
+                    || cause instanceof MongoTimeoutException || cause instanceof MongoNotPrimaryException
+                    || cause instanceof MongoNodeIsRecoveringException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the state of the circuit breaker, the number of cached results and their POIs, of stale responses and of
+     * background refreshes
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>(circuitBreaker.getStatistics());
+        statistics.put("cachedResults", cache.size());
+        statistics.put("cachedWeight", cache.weight());
+        statistics.put("staleResponses", staleResponses.sum());
+        statistics.put("refreshes", refreshes.sum());
+        return statistics;
+    }
+}
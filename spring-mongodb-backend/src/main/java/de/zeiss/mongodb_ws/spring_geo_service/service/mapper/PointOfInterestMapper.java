@@ -16,7 +16,10 @@ public class PointOfInterestMapper {
         resource.setName(entity.getName());
         resource.setCategory(entity.getCategory());
         resource.setDetails(entity.getDetails());
-        resource.setLocation(new Point(entity.getLocation().getX(), entity.getLocation().getY()));
+        // fields not read from the database (see fields parameter) stay null
+        if (entity.getLocation() != null) {
+            resource.setLocation(new Point(entity.getLocation().getX(), entity.getLocation().getY()));
+        }
 
         return resource;
     }
@@ -0,0 +1,68 @@
+package de.zeiss.mongodb_ws.spring_geo_service.timing;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * Histogram with fixed buckets. A value is counted in the first bucket whose upper bound is not below it, values above
+ * all bounds in the bucket "+Inf".
+ */
+public class Histogram {
+
+    private final double[] upperBounds;
+
+    private final AtomicLongArray counts;
+
+    private final DoubleAdder sum = new DoubleAdder();
+
+    /**
+     * @param upperBounds the ascending upper bounds of the buckets
+     */
+    public Histogram(double... upperBounds) {
+        this.upperBounds = upperBounds.clone();
+        this.counts = new AtomicLongArray(upperBounds.length + 1);
+    }
+
+    /**
+     * @param value the value to count
+     */
+    public void record(double value) {
+        int bucket = 0;
+        while (bucket < upperBounds.length && value > upperBounds[bucket]) {
+            bucket++;
+        }
+        counts.incrementAndGet(bucket);
+        sum.add(value);
+    }
+
+    /**
+     * @return number of recorded values
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * @return number and sum of the recorded values and the counts per bucket, keyed by the upper bound of the bucket
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Long> buckets = new LinkedHashMap<>();
+        for (int i = 0; i < upperBounds.length; i++) {
+            buckets.put(BigDecimal.valueOf(upperBounds[i]).stripTrailingZeros().toPlainString(), counts.get(i));
+        }
+        buckets.put("+Inf", counts.get(upperBounds.length));
+
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("count", getCount());
+        statistics.put("sum", sum.sum());
+        statistics.put("buckets", buckets);
+        return statistics;
+    }
+}
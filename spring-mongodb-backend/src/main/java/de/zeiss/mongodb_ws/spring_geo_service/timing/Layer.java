@@ -0,0 +1,33 @@
+package de.zeiss.mongodb_ws.spring_geo_service.timing;
+
+/**
+ * Layers of the request processing reported in the Server-Timing header. The durations of the layers are inclusive,
+ * e.g. the controller time contains the time spent in the service and the database.
+ */
+public enum Layer {
+
+    CONTROLLER("ctrl", "Controller"),
+    SERVICE("svc", "PointOfInterestService"),
+    DATABASE("db", "MongoDB"),
+    SERIALIZATION("ser", "Serialization");
+
+    private final String metricName;
+
+    private final String description;
+
+    Layer(String metricName, String description) {
+        this.metricName = metricName;
+        this.description = description;
+    }
+
+    /**
+     * @return name of the metric in the Server-Timing header
+     */
+    public String getMetricName() {
+        return metricName;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,49 @@
+package de.zeiss.mongodb_ws.spring_geo_service.timing;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timings of a finished request.
+ *
+ * @param totalNanos     time from receiving the request until its response is serialized
+ * @param layerNanos     time spent per layer, layers not passed are missing
+ * @param cpuNanos       CPU time of the request thread, -1 if not measured
+ * @param allocatedBytes bytes allocated by the request thread, -1 if not measured
+ */
+public record RequestTimings(long totalNanos, Map<Layer, Long> layerNanos, long cpuNanos, long allocatedBytes) {
+
+    /**
+     * @return the value of the Server-Timing header, e.g.
+     * {@code total;dur=12.40;desc="Total", db;dur=8.10;desc="MongoDB"}
+     */
+    public String toHeaderValue() {
+        StringBuilder header = new StringBuilder();
+        appendMetric(header, "total", "Total", totalNanos);
+        layerNanos.forEach((layer, nanos) -> appendMetric(header, layer.getMetricName(), layer.getDescription(), nanos));
+        if (cpuNanos >= 0) {
+            appendMetric(header, "cpu", "CPU time", cpuNanos);
+        }
+        if (allocatedBytes >= 0) {
+            header.append(", alloc;desc=\"").append(allocatedBytes).append(" bytes allocated\"");
+        }
+        return header.toString();
+    }
+
+    private static void appendMetric(StringBuilder header, String name, String description, long nanos) {
+        if (!header.isEmpty()) {
+            header.append(", ");
+        }
+        header.append(name).append(";dur=").append(String.format(Locale.ROOT, "%.2f", toMillis(nanos)))
+                .append(";desc=\"").append(description).append('"');
+    }
+
+    /**
+     * @param nanos a duration in nanoseconds
+     * @return the duration in milliseconds
+     */
+    static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,35 @@
+package de.zeiss.mongodb_ws.spring_geo_service.timing;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Reads the CPU time and the allocated bytes of the current thread from the {@link ThreadMXBean}, if the JVM
+ * supports it.
+ */
+final class ResourceUsage {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private ResourceUsage() {
+    }
+
+    /**
+     * @return CPU time of the current thread in nanoseconds, -1 if not supported
+     */
+    static long currentThreadCpuNanos() {
+        return THREADS.isCurrentThreadCpuTimeSupported() && THREADS.isThreadCpuTimeEnabled()
+                ? THREADS.getCurrentThreadCpuTime() : -1;
+    }
+
+    /**
+     * @return bytes allocated by the current thread so far, -1 if not supported
+     */
+    static long currentThreadAllocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+}
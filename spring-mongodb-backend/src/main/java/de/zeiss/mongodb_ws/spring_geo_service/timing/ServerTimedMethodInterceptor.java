@@ -0,0 +1,34 @@
+package de.zeiss.mongodb_ws.spring_geo_service.timing;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Measures the method calls of a proxied bean for the Server-Timing header of the current request. Calls outside of
+ * a request, e.g. on the threads of a batch search, are not measured.
+ */
+public class ServerTimedMethodInterceptor implements MethodInterceptor {
+
+    private final Layer layer;
+
+    /**
+     * @param layer the layer of the proxied bean
+     */
+    public ServerTimedMethodInterceptor(Layer layer) {
+        this.layer = layer;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        ServerTiming serverTiming = ServerTiming.current();
+        if (serverTiming == null || !serverTiming.enter(layer)) {
+            return invocation.proceed();
+        }
+
+        try {
+            return invocation.proceed();
+        } finally {
+            serverTiming.exit(layer);
+        }
+    }
+}
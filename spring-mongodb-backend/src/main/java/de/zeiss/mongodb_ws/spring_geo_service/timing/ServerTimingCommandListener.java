@@ -0,0 +1,33 @@
+package de.zeiss.mongodb_ws.spring_geo_service.timing;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandSucceededEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adds the execution time of the MongoDB commands to the database layer of the current request. The synchronous
+ * driver notifies the listener on the thread executing the command, commands outside of a request are ignored.
+ */
+@Component
+public class ServerTimingCommandListener implements CommandListener {
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        add(event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        add(event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    private static void add(long nanos) {
+        ServerTiming serverTiming = ServerTiming.current();
+        if (serverTiming != null) {
+            serverTiming.add(Layer.DATABASE, nanos);
+        }
+    }
+}
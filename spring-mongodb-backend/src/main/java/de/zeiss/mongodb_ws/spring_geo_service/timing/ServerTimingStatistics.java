@@ -0,0 +1,55 @@
+package de.zeiss.mongodb_ws.spring_geo_service.timing;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Aggregates the timings of all measured requests into histograms, one per metric of the Server-Timing header.
+ * Durations are recorded in milliseconds, allocations in bytes.
+ */
+@Component
+public class ServerTimingStatistics {
+
+    private static final double[] MILLIS_BOUNDS =
+            {0.5, 1, 2.5, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    private static final double[] BYTES_BOUNDS =
+            {16 * 1024, 64 * 1024, 256 * 1024, 1024 * 1024, 4 * 1024 * 1024, 16 * 1024 * 1024, 64 * 1024 * 1024};
+
+    private final Map<String, Histogram> histograms = new LinkedHashMap<>();
+
+    public ServerTimingStatistics() {
+        histograms.put("total", new Histogram(MILLIS_BOUNDS));
+        for (Layer layer : Layer.values()) {
+            histograms.put(layer.getMetricName(), new Histogram(MILLIS_BOUNDS));
+        }
+        histograms.put("cpu", new Histogram(MILLIS_BOUNDS));
+        histograms.put("alloc", new Histogram(BYTES_BOUNDS));
+    }
+
+    /**
+     * @param timings the timings of a finished request
+     */
+    public void record(RequestTimings timings) {
+        histograms.get("total").record(RequestTimings.toMillis(timings.totalNanos()));
+        timings.layerNanos().forEach((layer, nanos) ->
+                histograms.get(layer.getMetricName()).record(RequestTimings.toMillis(nanos)));
+        if (timings.cpuNanos() >= 0) {
+            histograms.get("cpu").record(RequestTimings.toMillis(timings.cpuNanos()));
+        }
+        if (timings.allocatedBytes() >= 0) {
+            histograms.get("alloc").record(timings.allocatedBytes());
+        }
+    }
+
+    /**
+     * @return per metric the number of requests, the sum of their values and the counts per bucket
+     */
+    public Map<String, Map<String, Object>> getStatistics() {
+        Map<String, Map<String, Object>> statistics = new LinkedHashMap<>();
+        histograms.forEach((metric, histogram) -> statistics.put(metric, histogram.getStatistics()));
+        return statistics;
+    }
+}
@@ -0,0 +1,48 @@
+package de.zeiss.mongodb_ws.spring_geo_service.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Scope;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Records a span per method call of a proxied bean, named after the bean and the method. The span is the current one
+ * while the method executes, the spans of nested calls and MongoDB commands become its children.
+ */
+public class TracedMethodInterceptor implements MethodInterceptor {
+
+    private final Tracing tracing;
+
+    private final String name;
+
+    /**
+     * @param tracing the tracer of the service
+     * @param name    the name of the proxied bean used as prefix of the span names, e.g. the class name
+     */
+    public TracedMethodInterceptor(Tracing tracing, String name) {
+        this.tracing = tracing;
+        this.name = name;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (!tracing.isEnabled() || invocation.getMethod().getDeclaringClass() == Object.class) {
+            return invocation.proceed();
+        }
+
+        Span span = tracing.getTracer().spanBuilder(name + "." + invocation.getMethod().getName())
+                .setAttribute("code.namespace", invocation.getMethod().getDeclaringClass().getName())
+                .setAttribute("code.function", invocation.getMethod().getName())
+                .startSpan();
+        try (Scope ignored = span.makeCurrent()) {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            span.recordException(e);
+            span.setStatus(StatusCode.ERROR);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package de.zeiss.mongodb_ws.spring_geo_service.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link BoundedVirtualThreadExecutor}.
+ */
+public class BoundedVirtualThreadExecutorTest {
+
+    @Test
+    void execute_MoreTasksThanParallelism_ShouldRunAtMostParallelismTasksAtOnce() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(20);
+
+        try (BoundedVirtualThreadExecutor executor = new BoundedVirtualThreadExecutor("test-", 3, 20)) {
+            for (int i = 0; i < 20; i++) {
+                executor.execute(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(10);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    running.decrementAndGet();
+                    done.countDown();
+                });
+            }
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        }
+
+        assertEquals(3, maxRunning.get());
+    }
+
+    @Test
+    void execute_ShouldRunOnNamedVirtualThread() throws Exception {
+        Thread[] thread = new Thread[1];
+
+        try (BoundedVirtualThreadExecutor executor = new BoundedVirtualThreadExecutor("test-", 1, 0)) {
+            executor.execute(() -> thread[0] = Thread.currentThread());
+        }
+
+        assertTrue(thread[0].isVirtual());
+        assertEquals("test-0", thread[0].getName());
+    }
+
+    @Test
+    void execute_TooManyTasksWaiting_ShouldReject() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger finished = new AtomicInteger();
+        Runnable blocked = () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            finished.incrementAndGet();
+        };
+
+        try (BoundedVirtualThreadExecutor executor = new BoundedVirtualThreadExecutor("test-", 1, 2)) {
+            for (int i = 0; i < 3; i++) {
+                executor.execute(blocked);
+            }
+            assertThrows(RejectedExecutionException.class, () -> executor.execute(blocked));
+
+            release.countDown();
+        }
+        assertEquals(3, finished.get());
+    }
+}
@@ -0,0 +1,136 @@
+package de.zeiss.mongodb_ws.spring_geo_service.config;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import de.zeiss.mongodb_ws.spring_geo_service.rest.model.PointOfInterest;
+import org.geojson.Point;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the serialization of a radius query result with the ObjectMapper of Spring Boot without and with the
+ * customizer of {@link JacksonConfig}. It runs only on demand, as its timings depend on the machine:
+ * <pre>
+ * mvn test -Dtest=JacksonConfigBenchmarkTest -Dbenchmark=true
+ * </pre>
+ * The mappers are measured in alternating rounds after a warm-up, so that both see the same JIT and GC state.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class JacksonConfigBenchmarkTest {
+
+    private static final Logger LOG = Logger.getLogger(JacksonConfigBenchmarkTest.class.getName());
+
+    /**
+     * Number of POIs of the serialized list, the largest result kept by the stale cache.
+     */
+    static final int POIS = 500;
+
+    static final int WARMUP_ROUNDS = 5;
+
+    static final int ROUNDS = 10;
+
+    static final long ROUND_NANOS = 1_000_000_000L;
+
+    private final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static List<PointOfInterest> createPois() {
+        Random random = new Random(42);
+        List<PointOfInterest> pois = new ArrayList<>();
+        for (int i = 0; i < POIS; i++) {
+            PointOfInterest poi = new PointOfInterest();
+            poi.setHref("http://localhost:8080/zdi-geo-service/api/poi/" + i);
+            poi.setId(Integer.toString(i));
+            poi.setLocation(new Point(11.9 + 3.1 * random.nextDouble(), 50.2 + 1.5 * random.nextDouble()));
+            poi.setCategory("restaurant");
+            poi.setName("poi " + i);
+            poi.setDetails("details of poi " + i);
+            poi.setDistance(5000 * random.nextDouble());
+            pois.add(poi);
+        }
+        return pois;
+    }
+
+    @Test
+    void writeValue_ListOfPois_DefaultAndConfiguredMapper() throws Exception {
+        List<PointOfInterest> pois = createPois();
+        TypeReference<List<PointOfInterest>> type = new TypeReference<>() {
+        };
+        ObjectWriter defaultWriter = new Jackson2ObjectMapperBuilder().build().writerFor(type);
+        Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder();
+        new JacksonConfig().fastJsonCustomizer().customize(builder);
+        ObjectWriter writer = builder.build().writerFor(type);
+        assertEquals(defaultWriter.writeValueAsString(pois), writer.writeValueAsString(pois));
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            measure(defaultWriter, pois);
+            measure(writer, pois);
+        }
+        Result defaultResult = new Result();
+        Result result = new Result();
+        for (int i = 0; i < ROUNDS; i++) {
+            defaultResult.add(measure(defaultWriter, pois));
+            result.add(measure(writer, pois));
+        }
+
+        LOG.info(String.format("Serializing %d POIs: default %.1f us/op, %.0f KB/op; configured %.1f us/op,"
+                        + " %.0f KB/op; speedup %.2f", POIS, defaultResult.micros(), defaultResult.kilobytes(),
+                result.micros(), result.kilobytes(), defaultResult.micros() / result.micros()));
+    }
+
+    /**
+     * Serializes the POIs repeatedly for one round.
+     *
+     * @return the number of serializations, their time and the bytes allocated by them
+     */
+    private Result measure(ObjectWriter writer, List<PointOfInterest> pois) throws IOException {
+        long threadId = Thread.currentThread().threadId();
+        long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        long now;
+        Result result = new Result();
+        do {
+            // closed by the writer
+            writer.writeValue(OutputStream.nullOutputStream(), pois);
+            result.operations++;
+            now = System.nanoTime();
+        } while (now - start < ROUND_NANOS);
+        result.nanos = now - start;
+        result.allocatedBytes = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return result;
+    }
+
+    private static class Result {
+
+        long operations;
+
+        long nanos;
+
+        long allocatedBytes;
+
+        void add(Result round) {
+            operations += round.operations;
+            nanos += round.nanos;
+            allocatedBytes += round.allocatedBytes;
+        }
+
+        double micros() {
+            return nanos / 1000.0 / operations;
+        }
+
+        double kilobytes() {
+            return allocatedBytes / 1024.0 / operations;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package de.zeiss.mongodb_ws.spring_geo_service.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import de.zeiss.mongodb_ws.spring_geo_service.rest.GeoJsonPointModule;
+import de.zeiss.mongodb_ws.spring_geo_service.rest.model.PointOfInterest;
+import de.zeiss.mongodb_ws.spring_geo_service.rest.model.PointOfInterestMultiGetResult;
+import org.geojson.Crs;
+import org.geojson.Point;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link JacksonConfig} and {@link GeoJsonPointModule}.
+ */
+public class JacksonConfigTest {
+
+    /**
+     * The ObjectMapper of Spring Boot without the customizer.
+     */
+    private final ObjectMapper defaultMapper = new Jackson2ObjectMapperBuilder().build();
+
+    private final ObjectMapper objectMapper = createObjectMapper();
+
+    private static ObjectMapper createObjectMapper() {
+        Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder();
+        new JacksonConfig().fastJsonCustomizer().customize(builder);
+        return builder.build();
+    }
+
+    static Stream<Point> points() {
+        Point withBbox = new Point(13.7, 51.05);
+        withBbox.setBbox(new double[]{13, 51, 14, 52});
+        Point withCrs = new Point(13.7, 51.05);
+        withCrs.setCrs(new Crs());
+        return Stream.of(
+                new Point(13.7284917, 51.031514),
+                new Point(-122.4194, 37.7749),
+                new Point(0, 0),
+                new Point(180, -90),
+                new Point(1e-7, -1.5e-9),
+                new Point(13.7, 51.05, 112.5),
+                new Point(13.7, 51.05, 112.5, 1.0, 2.0),
+                withBbox,
+                withCrs,
+                new Point());
+    }
+
+    private static PointOfInterest createPoi(Point location) {
+        PointOfInterest poi = new PointOfInterest();
+        poi.setHref("http://localhost:8080/zdi-geo-service/api/poi/1");
+        poi.setId("1");
+        poi.setLocation(location);
+        poi.setCategory("restaurant");
+        poi.setName("Mensa");
+        poi.setDetails("Nürnberger Str. 55, \"01187\" Dresden");
+        poi.setDistance(12.5);
+        return poi;
+    }
+
+    @ParameterizedTest
+    @MethodSource("points")
+    void writeValue_AnyLocation_ShouldWriteSameJsonAsDefault(Point location) throws Exception {
+        PointOfInterest poi = createPoi(location);
+
+        assertEquals(defaultMapper.writeValueAsString(poi), objectMapper.writeValueAsString(poi));
+        assertEquals(defaultMapper.writeValueAsString(location), objectMapper.writeValueAsString(location));
+    }
+
+    @Test
+    void writeValue_Lists_ShouldWriteSameJsonAsDefault() throws Exception {
+        List<PointOfInterest> pois = List.of(createPoi(new Point(13.7, 51.05)), createPoi(new Point(13.8, 51.1)));
+        PointOfInterestMultiGetResult result = new PointOfInterestMultiGetResult();
+        result.setPointsOfInterest(pois);
+        result.setMissingIds(List.of("2"));
+
+        assertEquals(defaultMapper.writeValueAsString(pois), objectMapper.writeValueAsString(pois));
+        assertEquals(defaultMapper.writeValueAsString(result), objectMapper.writeValueAsString(result));
+    }
+
+    @Test
+    void writeValue_Point_ShouldWriteTypeAndCoordinates() throws Exception {
+        assertEquals("{\"type\":\"Point\",\"coordinates\":[13.7,51.05]}",
+                objectMapper.writeValueAsString(new Point(13.7, 51.05)));
+    }
+
+    @Test
+    void customize_ShouldRegisterModulesAndKeepModulesOfSpring() {
+        assertTrue(objectMapper.getRegisteredModuleIds().contains(GeoJsonPointModule.class.getSimpleName()));
+        assertTrue(objectMapper.getRegisteredModuleIds().contains(BlackbirdModule.class.getName()));
+        assertTrue(objectMapper.getRegisteredModuleIds().containsAll(defaultMapper.getRegisteredModuleIds()));
+    }
+
+    @Test
+    void readValue_Json_ShouldReadLocation() throws Exception {
+        String json = defaultMapper.writeValueAsString(createPoi(new Point(13.7, 51.05)));
+
+        PointOfInterest poi = objectMapper.readValue(json, PointOfInterest.class);
+
+        assertEquals(new Point(13.7, 51.05), poi.getLocation());
+        assertEquals("Mensa", poi.getName());
+    }
+}
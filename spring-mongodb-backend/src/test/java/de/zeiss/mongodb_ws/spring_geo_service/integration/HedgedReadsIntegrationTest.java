@@ -0,0 +1,121 @@
+package de.zeiss.mongodb_ws.spring_geo_service.integration;
+
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.entity.PointOfInterestEntity;
+import de.zeiss.mongodb_ws.spring_geo_service.rest.model.PointOfInterest;
+import de.zeiss.mongodb_ws.spring_geo_service.service.PointOfInterestService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
+import org.springframework.data.mongodb.core.index.GeospatialIndex;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.mongodb.MongoDBContainer;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Hedged reads against the replica set started by Testcontainers. It has a single member, so the hedges (read
+ * preference secondaryPreferred) are answered by the primary as well. The statistics are read from the admin
+ * endpoint, as an operator would.
+ * <p>
+ * Tests will be skipped if Docker is not available on the host system.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "geo-service.admin.enabled=true",
+        "geo-service.hedging.enabled=true",
+        // hedges about half of the reads
+        "geo-service.hedging.percentile=50",
+        "geo-service.hedging.min-delay=0ms",
+        "geo-service.hedging.read-preference=secondaryPreferred"})
+@Testcontainers
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DockerAvailable
+public class HedgedReadsIntegrationTest {
+
+    private static final String MONGODB_IMAGE = System.getProperty("MONGODB_IMAGE", "mongo:8.0");
+
+    /**
+     * Number of reads per kind, reads are hedged only after the first 100 of their kind.
+     */
+    private static final int READS = 300;
+
+    @Container
+    static MongoDBContainer mongoDBContainer = new MongoDBContainer(MONGODB_IMAGE);
+
+    @DynamicPropertySource
+    static void setProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", () -> {
+            if (!mongoDBContainer.isRunning()) {
+                mongoDBContainer.start();
+            }
+            return mongoDBContainer.getReplicaSetUrl();
+        });
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private PointOfInterestService poiService;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.dropCollection(PointOfInterestEntity.class);
+        mongoTemplate.indexOps(PointOfInterestEntity.class).createIndex(
+                new GeospatialIndex("location").typed(GeoSpatialIndexType.GEO_2DSPHERE));
+    }
+
+    @Test
+    void read_Hedged_ShouldReturnResultsAndReportStatistics() {
+        PointOfInterestEntity entity = new PointOfInterestEntity();
+        entity.setName("Hedged");
+        entity.setCategory("hedged");
+        entity.setDetails("details");
+        entity.setLocation(new GeoJsonPoint(14.0, 52.0));
+        entity = mongoTemplate.insert(entity);
+
+        for (int i = 0; i < READS; i++) {
+            PointOfInterest found = poiService.getPointOfInterestById(entity.getId());
+            assertEquals(entity.getId(), found.getId());
+
+            List<PointOfInterest> results = poiService.listPOIs(52.0, 14.0, 100, true, false).results();
+            assertEquals(1, results.size());
+            assertEquals("details", results.getFirst().getDetails());
+        }
+
+        ResponseEntity<Map<String, Map<String, Number>>> response = restTemplate.exchange(
+                "http://localhost:" + port + "/zdi-geo-service/api/admin/metrics/hedging", HttpMethod.GET, null,
+                new ParameterizedTypeReference<>() {
+                });
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        for (String kind : List.of("get", "radius")) {
+            Map<String, Number> statistics = response.getBody().get(kind);
+            assertEquals(READS, statistics.get("reads").longValue());
+            assertTrue(statistics.get("hedged").longValue() > 0);
+            assertTrue(statistics.get("hedgeWins").longValue() <= statistics.get("hedged").longValue());
+            assertTrue(statistics.get("p99Ms").doubleValue() >= statistics.get("p50Ms").doubleValue());
+        }
+    }
+}
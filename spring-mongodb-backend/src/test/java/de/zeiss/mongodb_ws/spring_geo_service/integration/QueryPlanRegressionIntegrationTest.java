@@ -0,0 +1,313 @@
+package de.zeiss.mongodb_ws.spring_geo_service.integration;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.ExplainSummary;
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.IPointOfInterestRepository;
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.entity.PointOfInterestEntity;
+import de.zeiss.mongodb_ws.spring_geo_service.tracing.QueryShape;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.Metrics;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.mongodb.MongoDBContainer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Guards the query plans of the {@link IPointOfInterestRepository} against index regressions. Every query runs against
+ * a seeded dataset of realistic size, the commands Spring Data sends are captured by a command listener and explained
+ * with executionStats. A test fails if a plan contains a COLLSCAN or examines too many documents per returned
+ * document, e.g. because an index was dropped or a query no longer matches its index.
+ * <p>
+ * The connection pools of writes and bulk work are disabled, so that all commands go through the client with the
+ * capturing listener. {@code countPOIsPerCell} is not covered: it aggregates over the whole collection by design.
+ * <p>
+ * Tests will be skipped if Docker is not available on the host system.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "geo-service.mongodb.pool-size.write=0",
+        "geo-service.mongodb.pool-size.bulk=0"})
+@Testcontainers
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DockerAvailable
+public class QueryPlanRegressionIntegrationTest {
+
+    private static final String MONGODB_IMAGE = System.getProperty("MONGODB_IMAGE", "mongo:8.0");
+
+    /**
+     * Number of seeded POIs, spread over Saxony like a regional dataset.
+     */
+    private static final int DATASET_SIZE = 20_000;
+
+    private static final List<String> CATEGORIES = List.of("restaurant", "museum", "hotel", "shop", "park",
+            "station", "company", "church");
+
+    /**
+     * Documents a plan may examine per returned document. A $near search fetches the documents of the index cells
+     * covering the circle, which are more than the ones within it.
+     */
+    private static final double MAX_DOCS_EXAMINED_PER_RETURNED = 10;
+
+    /**
+     * The 2dsphere index does not contain the category, so geo queries filter by category after fetching the
+     * documents. A compound index of location and category would bring this down to the default ratio.
+     */
+    private static final double MAX_DOCS_EXAMINED_PER_RETURNED_BY_CATEGORY =
+            MAX_DOCS_EXAMINED_PER_RETURNED * CATEGORIES.size();
+
+    private static final Set<String> EXPLAINED_COMMANDS = Set.of("find", "aggregate", "count", "distinct", "update",
+            "delete", "findAndModify");
+
+    /**
+     * Init script of the MongoDB container (see MongoDB/README.md), which creates the indexes of a deployed database.
+     */
+    private static final Path INIT_SCRIPT = Path.of("..", "MongoDB", "init-mongo.js");
+
+    private static final Pattern CREATE_INDEX = Pattern.compile(
+            "db\\.getCollection\\('point-of-interest'\\)\\.createIndex\\((\\{.*?})\\);");
+
+    private static final Point LOCATION = new Point(13.73, 51.05);
+
+    private static final Distance RADIUS = new Distance(5, Metrics.KILOMETERS);
+
+    @Container
+    static MongoDBContainer mongoDBContainer = new MongoDBContainer(MONGODB_IMAGE);
+
+    @DynamicPropertySource
+    static void setProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", () -> {
+            if (!mongoDBContainer.isRunning()) {
+                mongoDBContainer.start();
+            }
+            return mongoDBContainer.getReplicaSetUrl();
+        });
+    }
+
+    @TestConfiguration
+    static class CommandCaptureConfig {
+
+        @Bean
+        CommandCapture commandCapture() {
+            return new CommandCapture();
+        }
+
+        @Bean
+        MongoClientSettingsBuilderCustomizer commandCaptureCustomizer(CommandCapture commandCapture) {
+            return settings -> settings.addCommandListener(commandCapture);
+        }
+    }
+
+    @Autowired
+    private IPointOfInterestRepository poiRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private CommandCapture commandCapture;
+
+    private final List<String> ids = new ArrayList<>();
+
+    @BeforeAll
+    void seed() throws IOException {
+        poiRepository.deleteAll();
+        createIndexesOfInitScript();
+
+        Random random = new Random(42);
+        List<PointOfInterestEntity> batch = new ArrayList<>();
+        for (int i = 0; i < DATASET_SIZE; i++) {
+            PointOfInterestEntity entity = new PointOfInterestEntity();
+            entity.setCategory(CATEGORIES.get(random.nextInt(CATEGORIES.size())));
+            entity.setName("poi " + i);
+            entity.setDetails("details of poi " + i);
+            entity.setLocation(new GeoJsonPoint(11.9 + 3.1 * random.nextDouble(), 50.2 + 1.5 * random.nextDouble()));
+            batch.add(entity);
+
+            if (batch.size() == 1000) {
+                mongoTemplate.insertAll(batch);
+                if (ids.isEmpty()) {
+                    batch.stream().limit(10).map(PointOfInterestEntity::getId).forEach(ids::add);
+                }
+                batch.clear();
+            }
+        }
+        mongoTemplate.insertAll(batch);
+    }
+
+    /**
+     * Creates the indexes exactly as the init script of the MongoDB container does, as the service creates none itself.
+     */
+    private void createIndexesOfInitScript() throws IOException {
+        Matcher createIndex = CREATE_INDEX.matcher(Files.readString(INIT_SCRIPT));
+        int indexes = 0;
+        while (createIndex.find()) {
+            mongoTemplate.getCollection("point-of-interest").createIndex(Document.parse(createIndex.group(1)));
+            indexes++;
+        }
+        assertTrue(indexes > 0, "No indexes of point-of-interest found in " + INIT_SCRIPT);
+    }
+
+    @Test
+    public void findById_ShouldUseIdIndex() {
+        assertIndexed(MAX_DOCS_EXAMINED_PER_RETURNED,
+                () -> assertTrue(poiRepository.findById(ids.getFirst(), null).isPresent()));
+    }
+
+    @Test
+    public void findByIds_ShouldUseIdIndex() {
+        assertIndexed(MAX_DOCS_EXAMINED_PER_RETURNED,
+                () -> assertEquals(ids.size(), poiRepository.findByIds(ids, false, null).size()));
+    }
+
+    @Test
+    public void upsert_Existing_ShouldUseIdIndex() {
+        PointOfInterestEntity entity = poiRepository.findById(ids.get(1), null).orElseThrow();
+        entity.setName("updated");
+        assertIndexed(MAX_DOCS_EXAMINED_PER_RETURNED, () -> poiRepository.upsert(entity));
+    }
+
+    @Test
+    public void findAndRemoveById_ShouldUseIdIndex() {
+        PointOfInterestEntity entity = new PointOfInterestEntity();
+        entity.setCategory("deleted");
+        entity.setLocation(new GeoJsonPoint(LOCATION));
+        String id = poiRepository.upsert(entity).getId();
+        assertIndexed(MAX_DOCS_EXAMINED_PER_RETURNED, () -> assertNotNull(poiRepository.findAndRemoveById(id)));
+    }
+
+    @Test
+    public void findByLocationNear_ShouldUse2dsphereIndex() {
+        assertIndexed(MAX_DOCS_EXAMINED_PER_RETURNED,
+                () -> assertFalse(poiRepository.findByLocationNear(LOCATION, RADIUS).isEmpty()));
+    }
+
+    @Test
+    public void findNear_ShouldUse2dsphereIndex() {
+        assertIndexed(MAX_DOCS_EXAMINED_PER_RETURNED, () -> assertFalse(
+                poiRepository.findNear(LOCATION, RADIUS, null, false, false, 0, null).results().isEmpty()));
+    }
+
+    @Test
+    public void findNear_Limit_ShouldUse2dsphereIndex() {
+        assertIndexed(MAX_DOCS_EXAMINED_PER_RETURNED, () -> assertEquals(10,
+                poiRepository.findNear(LOCATION, RADIUS, null, true, true, 10, null).results().size()));
+    }
+
+    @Test
+    public void findNear_Fields_ShouldUse2dsphereIndex() {
+        assertIndexed(MAX_DOCS_EXAMINED_PER_RETURNED, () -> assertFalse(poiRepository.findNear(LOCATION, RADIUS,
+                List.of("name", "location"), false, false, 0, null).results().isEmpty()));
+    }
+
+    @Test
+    public void findNear_Category_ShouldUse2dsphereIndex() {
+        assertIndexed(MAX_DOCS_EXAMINED_PER_RETURNED_BY_CATEGORY,
+                () -> assertFalse(poiRepository.findNear(LOCATION, RADIUS, "museum", null, false).isEmpty()));
+    }
+
+    @Test
+    public void findNearest_ShouldUse2dsphereIndex() {
+        assertIndexed(MAX_DOCS_EXAMINED_PER_RETURNED, () -> assertEquals(20,
+                poiRepository.findNearest(LOCATION, RADIUS, 20, null, false).getContent().size()));
+    }
+
+    @Test
+    public void findNearest_Category_ShouldUse2dsphereIndex() {
+        assertIndexed(MAX_DOCS_EXAMINED_PER_RETURNED_BY_CATEGORY, () -> assertFalse(
+                poiRepository.findNearest(LOCATION, RADIUS, 5, "hotel", false).getContent().isEmpty()));
+    }
+
+    @Test
+    public void findNearestPerCategory_ShouldUse2dsphereIndex() {
+        // a limit per category above the number of POIs within the radius, so every document examined is returned
+        assertIndexed(MAX_DOCS_EXAMINED_PER_RETURNED, () -> assertFalse(
+                poiRepository.findNearestPerCategory(LOCATION, RADIUS, DATASET_SIZE, null, false).isEmpty()));
+    }
+
+    @Test
+    public void findNearestPerCategory_Categories_ShouldUse2dsphereIndex() {
+        assertIndexed(MAX_DOCS_EXAMINED_PER_RETURNED_BY_CATEGORY, () -> assertFalse(poiRepository
+                .findNearestPerCategory(LOCATION, RADIUS, DATASET_SIZE, List.of("park"), false).isEmpty()));
+    }
+
+    /**
+     * Runs the query and explains every command it sent.
+     *
+     * @param maxDocsExaminedPerReturned documents the plans may examine per returned document
+     * @param query                      the query, asserting its results
+     */
+    private void assertIndexed(double maxDocsExaminedPerReturned, Runnable query) {
+        List<BsonDocument> commands = commandCapture.capture(query);
+        assertFalse(commands.isEmpty(), "no command was sent");
+
+        for (BsonDocument command : commands) {
+            BsonDocument explainCommand = new BsonDocument("explain", QueryShape.withoutDriverFields(command))
+                    .append("verbosity", new BsonString("executionStats"));
+            ExplainSummary explain = ExplainSummary.of(mongoTemplate.getDb()
+                    .runCommand(explainCommand, BsonDocument.class));
+
+            String message = QueryShape.of(command) + " -> " + explain.winningPlan();
+            assertNotEquals("UNKNOWN", explain.planSummary(), message);
+            assertFalse(explain.planSummary().contains("COLLSCAN"), message);
+            assertTrue(explain.docsExamined() <= maxDocsExaminedPerReturned * Math.max(explain.nReturned(), 1),
+                    explain.docsExamined() + " documents examined for " + explain.nReturned() + " returned: "
+                            + message);
+        }
+    }
+
+    /**
+     * Copies the commands of the explained kinds sent by the current thread while capturing.
+     */
+    static class CommandCapture implements CommandListener {
+
+        private final List<BsonDocument> commands = new CopyOnWriteArrayList<>();
+
+        private volatile Thread thread;
+
+        List<BsonDocument> capture(Runnable runnable) {
+            commands.clear();
+            thread = Thread.currentThread();
+            try {
+                runnable.run();
+            } finally {
+                thread = null;
+            }
+            return List.copyOf(commands);
+        }
+
+        @Override
+        public void commandStarted(CommandStartedEvent event) {
+            if (Thread.currentThread() == thread && EXPLAINED_COMMANDS.contains(event.getCommandName())) {
+                commands.add(event.getCommand().clone());
+            }
+        }
+    }
+}
@@ -3,7 +3,13 @@ package de.zeiss.mongodb_ws.spring_geo_service.integration;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mongodb.client.MongoClient;
 import de.zeiss.mongodb_ws.spring_geo_service.persistence.IPointOfInterestRepository;
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.PointOfInterestColumns;
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.QueryResult;
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.entity.PointOfInterestEntity;
 import de.zeiss.mongodb_ws.spring_geo_service.rest.model.PointOfInterest;
+import de.zeiss.mongodb_ws.spring_geo_service.rest.model.PointOfInterestMultiGetResult;
+import de.zeiss.mongodb_ws.spring_geo_service.rest.model.PointOfInterestQuery;
+import de.zeiss.mongodb_ws.spring_geo_service.rest.model.PointOfInterestSearchResult;
 import org.geojson.Point;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,7 +22,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.Metrics;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
 import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
 import org.springframework.data.mongodb.core.index.GeospatialIndex;
 import org.springframework.http.*;
@@ -27,6 +37,8 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 import org.testcontainers.mongodb.MongoDBContainer;
 
 import java.net.URI;
+import java.util.List;
+import java.util.Map;
 import java.util.logging.Logger;
 import java.util.stream.Stream;
 
@@ -382,6 +394,268 @@ public class SpringGeoServiceIntegrationTest {
         assertEquals(2, results.length); // Should find POI 1 and POI 2, not POI 3
     }
 
+    /**
+     * Test the columnar format: ids, rounded coordinates and dictionary encoded categories, ordered by distance.
+     */
+    @Test
+    void testFindPointsOfInterest_ColumnarFormat_ShouldReturnColumns() throws Exception {
+        PointOfInterest near = new PointOfInterest();
+        near.setName("Brandenburg Gate");
+        near.setCategory("Monument");
+        near.setLocation(new Point(13.377704, 52.516275));
+
+        PointOfInterest far = new PointOfInterest();
+        far.setName("Reichstag");
+        far.setCategory("Government");
+        far.setLocation(new Point(13.376198, 52.518623));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        URI nearLocation = restTemplate.postForEntity(baseUrl(), new HttpEntity<>(near, headers), Void.class)
+                .getHeaders().getLocation();
+        restTemplate.postForEntity(baseUrl(), new HttpEntity<>(far, headers), Void.class);
+
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                baseUrl() + "?lat=52.516275&lon=13.377704&radius=1000&format=columnar&precision=3", String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        Map<?, ?> columns = objectMapper.readValue(response.getBody(), Map.class);
+        assertNotNull(nearLocation);
+        assertEquals(nearLocation.getPath().substring(nearLocation.getPath().lastIndexOf('/') + 1),
+                ((List<?>) columns.get("ids")).get(0));
+        assertEquals(List.of(13.378, 13.376), columns.get("lon"));
+        assertEquals(List.of(52.516, 52.519), columns.get("lat"));
+        assertEquals(List.of(0, 1), columns.get("cat"));
+        assertEquals(List.of("Monument", "Government"), columns.get("categories"));
+    }
+
+    /**
+     * Test LIMIT: As many POIs as the limit are a complete result, only more of them are cut off and partial.
+     */
+    @Test
+    void testFindNear_WithLimit_ShouldBePartialOnlyIfCutOff() {
+        PointOfInterestEntity near = new PointOfInterestEntity();
+        near.setCategory("Monument");
+        near.setLocation(new GeoJsonPoint(13.377704, 52.516275));
+        near = poiRepository.save(near);
+        PointOfInterestEntity far = new PointOfInterestEntity();
+        far.setCategory("Government");
+        far.setLocation(new GeoJsonPoint(13.376198, 52.518623));
+        poiRepository.save(far);
+
+        org.springframework.data.geo.Point location = new org.springframework.data.geo.Point(13.377704, 52.516275);
+        Distance distance = new Distance(1, Metrics.KILOMETERS);
+        QueryResult<PointOfInterestEntity> exactly = poiRepository.findNear(location, distance, null, false, false, 2, null);
+        QueryResult<PointOfInterestEntity> cutOff = poiRepository.findNear(location, distance, null, false, false, 1, null);
+
+        assertFalse(exactly.partial());
+        assertEquals(2, exactly.results().size());
+        assertTrue(cutOff.partial());
+        assertEquals(List.of(near.getId()), cutOff.results().stream().map(PointOfInterestEntity::getId).toList());
+
+        PointOfInterestColumns exactlyAsColumns = poiRepository.findNearAsColumns(location, distance, false, 2, null);
+        PointOfInterestColumns cutOffAsColumns = poiRepository.findNearAsColumns(location, distance, false, 1, null);
+
+        assertFalse(exactlyAsColumns.partial());
+        assertEquals(2, exactlyAsColumns.size());
+        assertTrue(cutOffAsColumns.partial());
+        assertEquals(near.getId(), cutOffAsColumns.id(0));
+        assertEquals(1, cutOffAsColumns.size());
+    }
+
+    /**
+     * Test MULTI GET: Fetch several POIs by id in the requested order, unknown ids are reported.
+     */
+    @Test
+    void testGetPointsOfInterestByIds_ShouldReturnRequestedOrderAndMissingIds() {
+        // Arrange
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        String[] ids = new String[2];
+        for (int i = 0; i < ids.length; i++) {
+            PointOfInterest poi = new PointOfInterest();
+            poi.setName("POI " + i);
+            poi.setCategory("Monument");
+            poi.setLocation(new Point(13.377704, 52.516275));
+            URI location = restTemplate.postForEntity(baseUrl(), new HttpEntity<>(poi, headers), Void.class)
+                    .getHeaders().getLocation();
+            assertNotNull(location);
+            ids[i] = location.getPath().substring(location.getPath().lastIndexOf('/') + 1);
+        }
+        String unknownId = "000000000000000000000000";
+
+        // Act
+        ResponseEntity<PointOfInterestMultiGetResult> getResponse = restTemplate.getForEntity(
+                baseUrl() + "?ids=" + ids[1] + "," + unknownId + "," + ids[0], PointOfInterestMultiGetResult.class);
+        ResponseEntity<PointOfInterestMultiGetResult> postResponse = restTemplate.postForEntity(baseUrl() + "/_mget",
+                new HttpEntity<>(List.of(ids[0], ids[1]), headers), PointOfInterestMultiGetResult.class);
+
+        // Assert
+        assertEquals(HttpStatus.OK, getResponse.getStatusCode());
+        PointOfInterestMultiGetResult result = getResponse.getBody();
+        assertNotNull(result);
+        assertEquals(List.of("POI 1", "POI 0"), result.getPointsOfInterest().stream().map(PointOfInterest::getName).toList());
+        assertEquals(List.of(unknownId), result.getMissingIds());
+
+        assertEquals(HttpStatus.OK, postResponse.getStatusCode());
+        assertNotNull(postResponse.getBody());
+        assertEquals(List.of("POI 0", "POI 1"), postResponse.getBody().getPointsOfInterest().stream().map(PointOfInterest::getName).toList());
+    }
+
+    /**
+     * Test FIELDS: Only the selected fields are returned, details are not returned without expand.
+     */
+    @Test
+    void testFindPointsOfInterest_WithFields_ShouldReturnOnlySelectedFields() {
+        // Arrange
+        PointOfInterest poi = new PointOfInterest();
+        poi.setName("POI - Brandenburg Gate");
+        poi.setCategory("Monument");
+        poi.setDetails("Some details");
+        poi.setLocation(new Point(13.377704, 52.516275));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        restTemplate.postForEntity(baseUrl(), new HttpEntity<>(poi, headers), Void.class);
+
+        // Act
+        String searchUrl = baseUrl() + "?lat=52.516275&lon=13.377704&radius=1000";
+        PointOfInterest[] withoutDetails = restTemplate.getForEntity(searchUrl, PointOfInterest[].class).getBody();
+        PointOfInterest[] projected = restTemplate.getForEntity(searchUrl + "&fields=name", PointOfInterest[].class).getBody();
+
+        // Assert
+        assertNotNull(withoutDetails);
+        assertEquals(1, withoutDetails.length);
+        assertNull(withoutDetails[0].getDetails());
+        assertEquals("Monument", withoutDetails[0].getCategory());
+
+        assertNotNull(projected);
+        assertEquals(1, projected.length);
+        assertEquals("POI - Brandenburg Gate", projected[0].getName());
+        assertNull(projected[0].getCategory());
+        assertNull(projected[0].getLocation());
+        assertNotNull(projected[0].getHref());
+    }
+
+    /**
+     * Test NEAREST: Create multiple POIs, then ask for the k nearest ones including their distance.
+     */
+    @Test
+    void testFindNearestPointsOfInterest_ShouldReturnKNearestWithDistance() {
+        // Arrange - Create multiple POIs near Berlin
+        PointOfInterest poi1 = new PointOfInterest();
+        poi1.setName("POI 1 - Brandenburg Gate");
+        poi1.setCategory("Monument");
+        poi1.setLocation(new Point(13.377704, 52.516275));
+
+        PointOfInterest poi2 = new PointOfInterest();
+        poi2.setName("POI 2 - Reichstag");
+        poi2.setCategory("Government");
+        poi2.setLocation(new Point(13.376198, 52.518623));
+
+        PointOfInterest poi3 = new PointOfInterest();
+        poi3.setName("POI 3 - Far Away");
+        poi3.setCategory("Other");
+        poi3.setLocation(new Point(10.0, 50.0)); // Far from Berlin
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        restTemplate.postForEntity(baseUrl(), new HttpEntity<>(poi1, headers), Void.class);
+        restTemplate.postForEntity(baseUrl(), new HttpEntity<>(poi2, headers), Void.class);
+        restTemplate.postForEntity(baseUrl(), new HttpEntity<>(poi3, headers), Void.class);
+
+        // Act - Ask for the 2 nearest POIs to Brandenburg Gate without radius limit
+        String nearestUrl = baseUrl() + "/nearest?lat=52.516275&lon=13.377704&k=2";
+        ResponseEntity<PointOfInterest[]> response = restTemplate.getForEntity(nearestUrl, PointOfInterest[].class);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        PointOfInterest[] results = response.getBody();
+        assertNotNull(results);
+        assertEquals(2, results.length);
+        assertEquals("POI 1 - Brandenburg Gate", results[0].getName());
+        assertEquals(0.0, results[0].getDistance(), 0.1);
+        assertEquals("POI 2 - Reichstag", results[1].getName());
+        // roughly 280 meters between Brandenburg Gate and Reichstag
+        assertTrue(results[1].getDistance() > 200 && results[1].getDistance() < 350);
+    }
+
+    /**
+     * Test NEAREST PER CATEGORY: Create POIs of two categories, then ask for the nearest one of each category.
+     */
+    @Test
+    void testFindNearestPointsOfInterestPerCategory_ShouldReturnNearestOfEachCategory() {
+        // Arrange
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        double[][] coordinates = {{13.377704, 52.516275}, {13.376198, 52.518623}, {13.3777, 52.5163}, {13.3800, 52.5200}};
+        String[] categories = {"Monument", "Monument", "Cafe", "Cafe"};
+        for (int i = 0; i < coordinates.length; i++) {
+            PointOfInterest poi = new PointOfInterest();
+            poi.setName("POI " + i);
+            poi.setCategory(categories[i]);
+            poi.setLocation(new Point(coordinates[i][0], coordinates[i][1]));
+            restTemplate.postForEntity(baseUrl(), new HttpEntity<>(poi, headers), Void.class);
+        }
+
+        // Act
+        String url = baseUrl() + "/nearest/per-category?lat=52.516275&lon=13.377704&radius=1000&n=1";
+        ResponseEntity<Map<String, List<PointOfInterest>>> response = restTemplate.exchange(url, HttpMethod.GET, null,
+                new ParameterizedTypeReference<>() {
+                });
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        Map<String, List<PointOfInterest>> results = response.getBody();
+        assertNotNull(results);
+        assertEquals(List.of("Cafe", "Monument"), List.copyOf(results.keySet()));
+        assertEquals("POI 2", results.get("Cafe").get(0).getName());
+        assertEquals("POI 0", results.get("Monument").get(0).getName());
+        assertEquals(1, results.get("Monument").size());
+    }
+
+    /**
+     * Test BATCH SEARCH: Two overlapping queries, the POI found by both is returned only once.
+     */
+    @Test
+    void testSearchPointsOfInterest_OverlappingQueries_ShouldReturnDistinctPOIs() {
+        // Arrange
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        double[][] coordinates = {{13.377704, 52.516275}, {13.376198, 52.518623}, {13.3900, 52.5200}};
+        String[] categories = {"Monument", "Government", "Cafe"};
+        for (int i = 0; i < coordinates.length; i++) {
+            PointOfInterest poi = new PointOfInterest();
+            poi.setName("POI " + i);
+            poi.setCategory(categories[i]);
+            poi.setLocation(new Point(coordinates[i][0], coordinates[i][1]));
+            restTemplate.postForEntity(baseUrl(), new HttpEntity<>(poi, headers), Void.class);
+        }
+
+        List<PointOfInterestQuery> queries = List.of(
+                new PointOfInterestQuery(52.516275, 13.377704, 500, null),
+                new PointOfInterestQuery(52.5200, 13.3900, 1500, null),
+                new PointOfInterestQuery(52.5200, 13.3900, 1500, "Cafe"));
+
+        // Act
+        ResponseEntity<PointOfInterestSearchResult> response = restTemplate.postForEntity(baseUrl() + "/_search",
+                new HttpEntity<>(queries, headers), PointOfInterestSearchResult.class);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        PointOfInterestSearchResult result = response.getBody();
+        assertNotNull(result);
+        assertEquals(3, result.getPointsOfInterest().size());
+        assertEquals(2, result.getResults().get(0).size());
+        assertEquals(3, result.getResults().get(1).size());
+        assertEquals(1, result.getResults().get(2).size());
+        assertEquals("Cafe", result.getPointsOfInterest().get(result.getResults().get(2).get(0)).getCategory());
+    }
+
     /**
      * Test validation: Search for POIs with invalid coordinates should return 400.
      */
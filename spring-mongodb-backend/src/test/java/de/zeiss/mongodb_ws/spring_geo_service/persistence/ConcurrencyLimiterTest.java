@@ -0,0 +1,117 @@
+package de.zeiss.mongodb_ws.spring_geo_service.persistence;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ConcurrencyLimiter}.
+ */
+public class ConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(2000);
+
+    private ConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new ConcurrencyLimiter();
+        ReflectionTestUtils.setField(limiter, "enabled", true);
+        ReflectionTestUtils.setField(limiter, "initialLimit", 4);
+        ReflectionTestUtils.setField(limiter, "minLimit", 2);
+        ReflectionTestUtils.setField(limiter, "maxLimit", 5);
+        ReflectionTestUtils.setField(limiter, "latencyThreshold", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(limiter, "backoffRatio", 0.5);
+        ReflectionTestUtils.setField(limiter, "retryAfter", Duration.ofSeconds(3));
+        limiter.init();
+    }
+
+    @Test
+    void execute_LimitReached_ShouldShedWithRetryAfter() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire(Workload.INTERACTIVE));
+        }
+
+        ConcurrencyLimitExceededException exception = assertThrows(ConcurrencyLimitExceededException.class,
+                () -> limiter.execute(Workload.INTERACTIVE, () -> "never"));
+
+        assertEquals(3, exception.getRetryAfterSeconds());
+        assertEquals(1L, limiter.getStatistics().get("interactive").get("rejected"));
+    }
+
+    @Test
+    void execute_PermitGranted_ShouldReleaseAfterCall() {
+        assertEquals("result", limiter.execute(Workload.INTERACTIVE, () -> "result"));
+        assertThrows(IllegalStateException.class, () -> limiter.execute(Workload.INTERACTIVE, () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        assertEquals(0L, limiter.getStatistics().get("interactive").get("inFlight"));
+    }
+
+    @Test
+    void release_SlowCalls_ShouldDecreaseLimitOncePerInterval() {
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire(Workload.INTERACTIVE);
+        }
+
+        for (int i = 0; i < 4; i++) {
+            limiter.release(Workload.INTERACTIVE, SLOW);
+        }
+
+        assertEquals(2, limiter.getLimit(Workload.INTERACTIVE));
+    }
+
+    @Test
+    void release_FastCallsUnderLoad_ShouldIncreaseLimitUpToMaximum() {
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire(Workload.INTERACTIVE);
+        }
+
+        for (int i = 0; i < 100; i++) {
+            limiter.release(Workload.INTERACTIVE, FAST);
+            limiter.tryAcquire(Workload.INTERACTIVE);
+        }
+
+        assertEquals(5, limiter.getLimit(Workload.INTERACTIVE));
+    }
+
+    @Test
+    void release_FastCallsWithoutLoad_ShouldNotIncreaseLimit() {
+        for (int i = 0; i < 100; i++) {
+            limiter.execute(Workload.INTERACTIVE, () -> "result");
+        }
+
+        assertEquals(4, limiter.getLimit(Workload.INTERACTIVE));
+    }
+
+    @Test
+    void release_SlowCallsOfOneWorkload_ShouldNotShedOtherWorkloads() {
+        // Given: slow bulk calls shrink the bulk limit
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire(Workload.BULK);
+        }
+        for (int i = 0; i < 4; i++) {
+            limiter.release(Workload.BULK, SLOW);
+        }
+        for (int i = 0; i < 2; i++) {
+            assertTrue(limiter.tryAcquire(Workload.BULK));
+        }
+
+        // Then
+        assertFalse(limiter.tryAcquire(Workload.BULK));
+        assertEquals(2, limiter.getLimit(Workload.BULK));
+        assertEquals(4, limiter.getLimit(Workload.INTERACTIVE));
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire(Workload.INTERACTIVE));
+        }
+        assertEquals(0L, limiter.getStatistics().get("interactive").get("rejected"));
+    }
+}
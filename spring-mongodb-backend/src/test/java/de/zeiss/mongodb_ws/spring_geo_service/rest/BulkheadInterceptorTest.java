@@ -0,0 +1,84 @@
+package de.zeiss.mongodb_ws.spring_geo_service.rest;
+
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.Workload;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.method.HandlerMethod;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link BulkheadInterceptor}.
+ */
+public class BulkheadInterceptorTest {
+
+    private final BulkheadInterceptor interceptor = new BulkheadInterceptor();
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(interceptor, "interactiveMaxConcurrent", 0);
+        ReflectionTestUtils.setField(interceptor, "writeMaxConcurrent", 1);
+        ReflectionTestUtils.setField(interceptor, "bulkMaxConcurrent", 1);
+        ReflectionTestUtils.setField(interceptor, "maxWait", Duration.ZERO);
+        ReflectionTestUtils.setField(interceptor, "retryAfter", Duration.ofSeconds(2));
+        interceptor.init();
+    }
+
+    @Test
+    void preHandle_BulkheadFull_ShouldRejectUntilCompleted() throws Exception {
+        MockHttpServletRequest first = new MockHttpServletRequest("POST", "/api/poi");
+        assertTrue(interceptor.preHandle(first, response, handler("write")));
+
+        BulkheadFullException exception = assertThrows(BulkheadFullException.class,
+                () -> interceptor.preHandle(new MockHttpServletRequest("POST", "/api/poi"), response, handler("write")));
+        assertEquals(Workload.WRITE, exception.getWorkload());
+        assertEquals(2, exception.getRetryAfterSeconds());
+
+        interceptor.afterCompletion(first, response, handler("write"), null);
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest("POST", "/api/poi"), response, handler("write")));
+        assertEquals(1L, interceptor.getStatistics().get("write").get("rejected"));
+    }
+
+    @Test
+    void preHandle_InteractiveRequests_ShouldNotBeLimitedByWrites() throws Exception {
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest("POST", "/api/poi"), response, handler("write")));
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(interceptor.preHandle(new MockHttpServletRequest("GET", "/api/poi"), response, handler("read")));
+        }
+    }
+
+    @Test
+    void preHandle_LowPriorityRequest_ShouldUseBulkBulkhead() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/poi");
+        request.addHeader(BulkheadInterceptor.REQUEST_PRIORITY_HEADER, "low");
+        assertTrue(interceptor.preHandle(request, response, handler("read")));
+
+        MockHttpServletRequest second = new MockHttpServletRequest("POST", "/api/poi");
+        second.addHeader(BulkheadInterceptor.REQUEST_PRIORITY_HEADER, "low");
+        BulkheadFullException exception = assertThrows(BulkheadFullException.class,
+                () -> interceptor.preHandle(second, response, handler("write")));
+        assertEquals(Workload.BULK, exception.getWorkload());
+    }
+
+    private static HandlerMethod handler(String name) throws NoSuchMethodException {
+        return new HandlerMethod(new Handlers(), Handlers.class.getMethod(name));
+    }
+
+    static class Handlers {
+
+        public void read() {
+        }
+
+        @WorkloadBulkhead(Workload.WRITE)
+        public void write() {
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package de.zeiss.mongodb_ws.spring_geo_service.rest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.PointOfInterestColumns;
+import de.zeiss.mongodb_ws.spring_geo_service.rest.model.PointOfInterest;
+import org.bson.types.ObjectId;
+import org.geojson.Point;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link PointOfInterestColumnsWriter} and {@link PointOfInterestColumns}.
+ */
+public class PointOfInterestColumnsWriterTest {
+
+    private static final List<String> CATEGORIES = List.of("restaurant", "cafe", "pharmacy", "atm");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static byte[] write(PointOfInterestColumns columns, int precision) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new PointOfInterestColumnsWriter(columns, precision).write(output);
+        return output.toByteArray();
+    }
+
+    @Test
+    void write_Columns_ShouldDictionaryEncodeCategories() throws Exception {
+        PointOfInterestColumns columns = new PointOfInterestColumns();
+        columns.add("1", 13.7284917, 51.031514, "restaurant");
+        columns.add("2", 13.7, 51.05, "cafe");
+        columns.add("3", -13.7, -51.05, "restaurant");
+        columns.add("4", 0, 0, null);
+
+        String json = new String(write(columns, 5), StandardCharsets.UTF_8);
+
+        assertEquals("{\"ids\":[\"1\",\"2\",\"3\",\"4\"],\"lon\":[13.72849,13.7,-13.7,0.0],"
+                + "\"lat\":[51.03151,51.05,-51.05,0.0],\"cat\":[0,1,0,null],\"categories\":[\"restaurant\",\"cafe\"]}", json);
+    }
+
+    @Test
+    void write_NoColumns_ShouldWriteEmptyArrays() throws Exception {
+        String json = new String(write(new PointOfInterestColumns(), 5), StandardCharsets.UTF_8);
+
+        assertEquals("{\"ids\":[],\"lon\":[],\"lat\":[],\"cat\":[],\"categories\":[]}", json);
+    }
+
+    @ParameterizedTest(name = "Precision {0}")
+    @CsvSource({"0, 14.0, 51.0", "1, 13.7, 51.0", "3, 13.728, 51.032", "5, 13.72849, 51.03151", "7, 13.7284917, 51.031514"})
+    void write_Precision_ShouldRoundCoordinates(int precision, double expectedLongitude, double expectedLatitude) throws Exception {
+        PointOfInterestColumns columns = new PointOfInterestColumns();
+        columns.add("1", 13.7284917, 51.031514, "restaurant");
+
+        JsonNode json = objectMapper.readTree(write(columns, precision));
+
+        assertEquals(expectedLongitude, json.get("lon").get(0).doubleValue());
+        assertEquals(expectedLatitude, json.get("lat").get(0).doubleValue());
+        assertTrue(json.get("lon").get(0).toString().length() <= "13.".length() + Math.max(precision, 1));
+    }
+
+    @Test
+    void add_BeyondInitialCapacity_ShouldKeepAllPointsOfInterest() {
+        PointOfInterestColumns columns = new PointOfInterestColumns();
+
+        for (int i = 0; i < 1000; i++) {
+            columns.add(Integer.toString(i), i / 100.0, -i / 100.0, "category " + i % 3);
+        }
+
+        assertEquals(1000, columns.size());
+        assertEquals("999", columns.id(999));
+        assertEquals(9.99, columns.longitude(999));
+        assertEquals(-9.99, columns.latitude(999));
+        assertEquals(0, columns.categoryIndex(999));
+        assertEquals(List.of("category 0", "category 1", "category 2"), columns.categories());
+    }
+
+    @Test
+    void write_ManyPointsOfInterest_ShouldBeMuchSmallerThanPointsOfInterestWithHref() throws Exception {
+        PointOfInterestColumns columns = new PointOfInterestColumns();
+        List<PointOfInterest> pois = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            String id = new ObjectId().toHexString();
+            double longitude = 13.7 + i * 0.0001234567;
+            double latitude = 51.0 + i * 0.0000765432;
+            String category = CATEGORIES.get(i % CATEGORIES.size());
+            columns.add(id, longitude, latitude, category);
+
+            PointOfInterest poi = new PointOfInterest();
+            poi.setHref("http://localhost:8080/zdi-geo-service/api/poi/" + id);
+            poi.setName("Point of interest " + i);
+            poi.setCategory(category);
+            poi.setLocation(new Point(longitude, latitude));
+            pois.add(poi);
+        }
+
+        int columnsSize = write(columns, 5).length;
+        int poisSize = objectMapper.writeValueAsBytes(pois).length;
+
+        assertTrue(columnsSize * 4 < poisSize, columnsSize + " bytes of columns, " + poisSize + " bytes of POIs");
+    }
+}
@@ -0,0 +1,152 @@
+package de.zeiss.mongodb_ws.spring_geo_service.rest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.UnknownFieldSet;
+import de.zeiss.mongodb_ws.spring_geo_service.rest.model.PointOfInterest;
+import org.geojson.Point;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static de.zeiss.mongodb_ws.spring_geo_service.rest.PointOfInterestProtobufHttpMessageConverter.PROTOBUF;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link PointOfInterestProtobufHttpMessageConverter} and {@link PointOfInterestProtobuf}.
+ */
+public class PointOfInterestProtobufHttpMessageConverterTest {
+
+    private static final Type POI_LIST_TYPE = new TypeReference<List<PointOfInterest>>() {
+    }.getType();
+
+    private final PointOfInterestProtobufHttpMessageConverter converter = new PointOfInterestProtobufHttpMessageConverter();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    static Stream<PointOfInterest> pointsOfInterest() {
+        PointOfInterest withoutOptionalFields = new PointOfInterest();
+        withoutOptionalFields.setName("Mensa");
+        withoutOptionalFields.setCategory("restaurant");
+
+        PointOfInterest withAltitude = createPoi("2", new Point(13.7, 51.05, 112.5));
+        withAltitude.setDistance(0.0);
+
+        return Stream.of(
+                createPoi("1", new Point(13.7284917, 51.031514)),
+                createPoi("3", new Point(-180, -90)),
+                withAltitude,
+                withoutOptionalFields);
+    }
+
+    private static PointOfInterest createPoi(String id, Point location) {
+        PointOfInterest poi = new PointOfInterest();
+        poi.setHref("http://localhost:8080/zdi-geo-service/api/poi/" + id);
+        poi.setId(id);
+        poi.setLocation(location);
+        poi.setCategory("restaurant");
+        poi.setName("Mensa");
+        poi.setDetails("Nürnberger Str. 55, 01187 Dresden");
+        poi.setDistance(12.5);
+        return poi;
+    }
+
+    private byte[] write(Object value, Type type) throws Exception {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(value, type, PROTOBUF, output);
+        return output.getBodyAsBytes();
+    }
+
+    private PointOfInterest read(byte[] bytes) throws Exception {
+        return (PointOfInterest) converter.read(PointOfInterest.class, null, new MockHttpInputMessage(bytes));
+    }
+
+    private void assertSamePoi(PointOfInterest expected, PointOfInterest actual) throws Exception {
+        // the id is not part of the representation, like in JSON
+        assertEquals(objectMapper.writeValueAsString(expected), objectMapper.writeValueAsString(actual));
+    }
+
+    @ParameterizedTest
+    @MethodSource("pointsOfInterest")
+    void write_PointOfInterest_ShouldBeReadBackWithAllFields(PointOfInterest poi) throws Exception {
+        byte[] bytes = write(poi, PointOfInterest.class);
+
+        assertEquals(PointOfInterestProtobuf.computeSize(poi), bytes.length);
+        assertSamePoi(poi, read(bytes));
+    }
+
+    @Test
+    void write_List_ShouldWritePointOfInterestList() throws Exception {
+        List<PointOfInterest> pois = List.of(createPoi("1", new Point(13.7, 51.05)), createPoi("2", new Point(13.8, 51.1)));
+
+        byte[] bytes = write(pois, POI_LIST_TYPE);
+
+        List<ByteString> messages = UnknownFieldSet.parseFrom(bytes)
+                .getField(PointOfInterestProtobuf.POINTS_OF_INTEREST).getLengthDelimitedList();
+        assertEquals(2, messages.size());
+        assertSamePoi(pois.get(0), read(messages.get(0).toByteArray()));
+        assertSamePoi(pois.get(1), read(messages.get(1).toByteArray()));
+    }
+
+    @Test
+    void write_List_ShouldBeSmallerThanJson() throws Exception {
+        List<PointOfInterest> pois = Stream.iterate(0, i -> i + 1).limit(100)
+                .map(i -> createPoi(Integer.toString(i), new Point(13.7 + i / 1000.0, 51.0 + i / 1000.0))).toList();
+
+        assertTrue(write(pois, POI_LIST_TYPE).length < objectMapper.writeValueAsBytes(pois).length);
+    }
+
+    @Test
+    void read_UnknownFieldsAndWireTypes_ShouldBeSkipped() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        output.writeString(PointOfInterestProtobuf.NAME, "Mensa");
+        output.writeInt64(PointOfInterestProtobuf.CATEGORY, 42);
+        output.writeString(99, "unknown");
+        output.writeDouble(98, 1.5);
+        output.flush();
+
+        PointOfInterest poi = read(bytes.toByteArray());
+
+        assertEquals("Mensa", poi.getName());
+        assertNull(poi.getCategory());
+        assertNull(poi.getLocation());
+        assertNull(poi.getDistance());
+    }
+
+    @Test
+    void read_InvalidBody_ShouldThrowNotReadable() {
+        assertThrows(HttpMessageNotReadableException.class, () -> read(new byte[]{0x12, 0x7f, 'M'}));
+    }
+
+    @Test
+    void canWrite_Types_ShouldOnlyAcceptPointsOfInterest() {
+        Type stringListType = new TypeReference<List<String>>() {
+        }.getType();
+        Type poisByCategoryType = new TypeReference<Map<String, List<PointOfInterest>>>() {
+        }.getType();
+
+        assertTrue(converter.canWrite(PointOfInterest.class, PointOfInterest.class, PROTOBUF));
+        assertTrue(converter.canWrite(POI_LIST_TYPE, List.class, PROTOBUF));
+        assertTrue(converter.canWrite(POI_LIST_TYPE, List.class, null));
+        assertFalse(converter.canWrite(POI_LIST_TYPE, List.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(stringListType, List.class, PROTOBUF));
+        assertFalse(converter.canWrite(Collection.class, Collection.class, PROTOBUF));
+        assertFalse(converter.canWrite(poisByCategoryType, Map.class, PROTOBUF));
+        assertTrue(converter.canRead(PointOfInterest.class, null, PROTOBUF));
+        assertFalse(converter.canRead(POI_LIST_TYPE, null, PROTOBUF));
+    }
+}
@@ -0,0 +1,104 @@
+package de.zeiss.mongodb_ws.spring_geo_service.rest;
+
+import de.zeiss.mongodb_ws.spring_geo_service.timing.Layer;
+import de.zeiss.mongodb_ws.spring_geo_service.timing.ServerTiming;
+import de.zeiss.mongodb_ws.spring_geo_service.timing.ServerTimingStatistics;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ServerTimingFilter} and {@link ServerTimingInterceptor}.
+ */
+public class ServerTimingFilterTest {
+
+    private ServerTimingFilter filter;
+
+    private ServerTimingInterceptor interceptor;
+
+    private ServerTimingStatistics statistics;
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/poi");
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @BeforeEach
+    void setUp() {
+        statistics = new ServerTimingStatistics();
+        filter = new ServerTimingFilter();
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "statistics", statistics);
+        interceptor = new ServerTimingInterceptor();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private void setSerialization(boolean serialization) {
+        ReflectionTestUtils.setField(filter, "serialization", serialization);
+        ReflectionTestUtils.setField(interceptor, "serialization", serialization);
+    }
+
+    /**
+     * Handles the request like the dispatcher servlet: the controller, then the body is written and flushed.
+     */
+    private final FilterChain writeBody = (servletRequest, servletResponse) -> {
+        ServerTiming serverTiming = (ServerTiming) servletRequest.getAttribute(ServerTiming.ATTRIBUTE);
+        serverTiming.enter(Layer.CONTROLLER);
+        interceptor.beforeBodyWrite(null, null, null, null, new ServletServerHttpRequest(request),
+                new ServletServerHttpResponse(response));
+        servletResponse.getOutputStream().write("[]".getBytes(StandardCharsets.UTF_8));
+        servletResponse.flushBuffer();
+    };
+
+    @Test
+    void doFilter_Body_ShouldAddHeaderBeforeBodyWithoutBuffering() throws Exception {
+        setSerialization(false);
+
+        filter.doFilter(request, response, writeBody);
+
+        String serverTiming = response.getHeader(ServerTimingFilter.SERVER_TIMING_HEADER);
+        assertTrue(serverTiming.startsWith("total;dur="));
+        assertTrue(serverTiming.contains("ctrl;dur="));
+        assertFalse(serverTiming.contains("ser;dur="));
+        assertEquals("[]", response.getContentAsString());
+        assertEquals(1L, statistics.getStatistics().get("total").get("count"));
+    }
+
+    @Test
+    void doFilter_BodySerializationTimed_ShouldBufferBodyAndAddSerialization() throws Exception {
+        setSerialization(true);
+
+        filter.doFilter(request, response, writeBody);
+
+        assertTrue(response.getHeader(ServerTimingFilter.SERVER_TIMING_HEADER).contains("ser;dur="));
+        assertEquals("[]", response.getContentAsString());
+        assertEquals(1L, statistics.getStatistics().get("ser").get("count"));
+    }
+
+    @Test
+    void doFilter_NoBody_ShouldAddHeader() throws Exception {
+        setSerialization(false);
+
+        filter.doFilter(request, response, (servletRequest, servletResponse) -> {
+        });
+
+        assertTrue(response.getHeader(ServerTimingFilter.SERVER_TIMING_HEADER).startsWith("total;dur="));
+        assertEquals(1L, statistics.getStatistics().get("total").get("count"));
+    }
+}
@@ -0,0 +1,36 @@
+package de.zeiss.mongodb_ws.spring_geo_service.rest.controller;
+
+import de.zeiss.mongodb_ws.spring_geo_service.timing.ServerTimingStatistics;
+import de.zeiss.mongodb_ws.spring_geo_service.tracing.Tracing;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests that the {@link AdminController} is not deployed by default.
+ */
+@WebMvcTest(AdminController.class)
+@Import({ServerTimingStatistics.class, Tracing.class})
+public class AdminControllerDisabledTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void testStartRecording_AdminDisabled_ShouldReturnNotFound() throws Exception {
+        mockMvc.perform(post("/api/admin/jfr/start"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testGetSlowQueries_AdminDisabled_ShouldReturnNotFound() throws Exception {
+        mockMvc.perform(get("/api/admin/slow-queries"))
+                .andExpect(status().isNotFound());
+    }
+}
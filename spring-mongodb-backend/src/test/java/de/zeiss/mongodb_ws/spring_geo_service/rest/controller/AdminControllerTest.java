@@ -0,0 +1,142 @@
+package de.zeiss.mongodb_ws.spring_geo_service.rest.controller;
+
+import de.zeiss.mongodb_ws.spring_geo_service.jfr.FlightRecording;
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.HedgedReads;
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.SlowQuery;
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.SlowQueryLog;
+import de.zeiss.mongodb_ws.spring_geo_service.timing.RequestTimings;
+import de.zeiss.mongodb_ws.spring_geo_service.timing.ServerTimingStatistics;
+import de.zeiss.mongodb_ws.spring_geo_service.tracing.Tracing;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = AdminController.class, properties = "geo-service.admin.enabled=true")
+@Import({ServerTimingStatistics.class, Tracing.class})
+public class AdminControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private FlightRecording flightRecording;
+
+    @MockitoBean
+    private SlowQueryLog slowQueryLog;
+
+    @MockitoBean
+    private HedgedReads hedgedReads;
+
+    @Autowired
+    private ServerTimingStatistics serverTimingStatistics;
+
+    @Test
+    public void testGetServerTimingMetrics_ShouldReturnHistograms() throws Exception {
+        serverTimingStatistics.record(new RequestTimings(2_000_000, Map.of(), -1, -1));
+
+        mockMvc.perform(get("/api/admin/metrics/server-timing"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total.count").isNumber())
+                .andExpect(jsonPath("$.total.buckets['2.5']").isNumber())
+                .andExpect(jsonPath("$.db.count").isNumber())
+                .andExpect(jsonPath("$.alloc.buckets").isMap());
+    }
+
+    @Test
+    public void testGetHedgingMetrics_ShouldReturnStatisticsPerKind() throws Exception {
+        when(hedgedReads.getStatistics()).thenReturn(Map.of("get", Map.of("reads", 300L, "hedged", 12L)));
+
+        mockMvc.perform(get("/api/admin/metrics/hedging"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.get.reads").value(300))
+                .andExpect(jsonPath("$.get.hedged").value(12));
+    }
+
+    @Test
+    public void testStartRecording_ShouldReturnStatus() throws Exception {
+        when(flightRecording.start("profile")).thenReturn(Map.of("state", "RUNNING"));
+
+        mockMvc.perform(post("/api/admin/jfr/start").param("configuration", "profile"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("RUNNING"));
+    }
+
+    @Test
+    public void testStartRecording_UnknownConfiguration_ShouldReturnBadRequest() throws Exception {
+        when(flightRecording.start("unknown")).thenThrow(new IllegalArgumentException("Unknown JFR configuration"));
+
+        mockMvc.perform(post("/api/admin/jfr/start").param("configuration", "unknown"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testDumpRecording_ShouldReturnFileAndDeleteIt() throws Exception {
+        Path file = Files.createTempFile("geo-service-", ".jfr");
+        Files.write(file, new byte[]{1, 2, 3});
+        when(flightRecording.dump()).thenReturn(file);
+
+        mockMvc.perform(get("/api/admin/jfr/dump"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition",
+                        "attachment; filename=\"" + file.getFileName() + "\""))
+                .andExpect(header().doesNotExist("Server-Timing"))
+                .andExpect(content().bytes(new byte[]{1, 2, 3}));
+
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    public void testDumpRecording_NoRecording_ShouldReturnNotFound() throws Exception {
+        when(flightRecording.dump()).thenReturn(null);
+
+        mockMvc.perform(get("/api/admin/jfr/dump"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testGetSlowQueries_ShouldReturnStatisticsAndQueries() throws Exception {
+        when(slowQueryLog.getStatistics()).thenReturn(Map.of("recorded", 1L));
+        when(slowQueryLog.getSlowQueries()).thenReturn(List.of(new SlowQuery(Instant.now(), "find", "poi", 250,
+                "{\"find\": \"poi\"}", "{\"find\": \"poi\"}", null)));
+
+        mockMvc.perform(get("/api/admin/slow-queries"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.recorded").value(1))
+                .andExpect(jsonPath("$.queries[0].command").value("find"))
+                .andExpect(jsonPath("$.queries[0].durationMillis").value(250));
+    }
+
+    @Test
+    public void testClearSlowQueries_ShouldReturnNoContent() throws Exception {
+        mockMvc.perform(delete("/api/admin/slow-queries"))
+                .andExpect(status().isNoContent());
+
+        verify(slowQueryLog).clear();
+    }
+
+    @Test
+    public void testGetSlowQueries_FromLocalhostOrigin_ShouldNotAllowCors() throws Exception {
+        when(slowQueryLog.getStatistics()).thenReturn(Map.of());
+        when(slowQueryLog.getSlowQueries()).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/admin/slow-queries").header("Origin", "http://localhost:4200"))
+                .andExpect(status().isForbidden())
+                .andExpect(header().doesNotExist("Access-Control-Allow-Origin"));
+    }
+}
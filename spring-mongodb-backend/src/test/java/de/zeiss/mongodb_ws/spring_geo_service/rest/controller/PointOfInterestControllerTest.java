@@ -1,35 +1,66 @@
 package de.zeiss.mongodb_ws.spring_geo_service.rest.controller;
 
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.protobuf.UnknownFieldSet;
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.PointOfInterestColumns;
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.QueryResult;
+import de.zeiss.mongodb_ws.spring_geo_service.rest.PointOfInterestProtobufHttpMessageConverter;
 import de.zeiss.mongodb_ws.spring_geo_service.rest.model.PointOfInterest;
+import de.zeiss.mongodb_ws.spring_geo_service.rest.model.PointOfInterestMultiGetResult;
+import de.zeiss.mongodb_ws.spring_geo_service.rest.model.PointOfInterestQuery;
+import de.zeiss.mongodb_ws.spring_geo_service.rest.model.PointOfInterestSearchResult;
 import de.zeiss.mongodb_ws.spring_geo_service.service.PointOfInterestService;
+import de.zeiss.mongodb_ws.spring_geo_service.tracing.Tracing;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
 import org.geojson.Point;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(PointOfInterestController.class)
+@Import({de.zeiss.mongodb_ws.spring_geo_service.timing.ServerTimingStatistics.class, Tracing.class})
 public class PointOfInterestControllerTest {
 
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+
     @Autowired
     private MockMvc mockMvc;
 
     @MockitoBean
     private PointOfInterestService poiService;
 
+    @Autowired
+    private Tracing tracing;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -85,6 +116,8 @@ public class PointOfInterestControllerTest {
     @ParameterizedTest(name = "Valid parameters #{index}: lat={0}, lon={1}, radius={2}, description={3}")
     @MethodSource("validFindParametersProvider")
     public void testFindPointsOfInterest_NearLocation_ShouldReturnOk(double lat, double lon, int radius, String description) throws Exception {
+        when(poiService.listPOIs(lat, lon, radius, true, false)).thenReturn(QueryResult.complete(List.of()));
+
         mockMvc.perform(org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get("/api/poi")
                         .param("lat", "" + lat)
                         .param("lon", "" + lon)
@@ -94,6 +127,266 @@ public class PointOfInterestControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    public void testFindPointsOfInterest_WithFields_ShouldUseFieldProjection() throws Exception {
+        PointOfInterest poi = new PointOfInterest();
+        poi.setId("projected-id");
+        poi.setName("Projected");
+
+        when(poiService.listPOIs(51.0, 13.0, 1000, java.util.Set.of("name", "location"), false))
+                .thenReturn(QueryResult.complete(List.of(poi)));
+
+        mockMvc.perform(org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get("/api/poi")
+                        .param("lat", "51.0")
+                        .param("lon", "13.0")
+                        .param("radius", "1000")
+                        .param("fields", "name,location")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Projected"))
+                .andExpect(jsonPath("$[0].category").doesNotExist());
+
+        verify(poiService, never()).listPOIs(anyDouble(), anyDouble(), anyInt(), anyBoolean(), anyBoolean());
+    }
+
+    @Test
+    public void testFindPointsOfInterest_PartialResult_ShouldSetPartialResultHeader() throws Exception {
+        PointOfInterest poi = new PointOfInterest();
+        poi.setId("nearest-id");
+
+        when(poiService.listPOIs(51.0, 13.0, 100000, false, true)).thenReturn(new QueryResult<>(List.of(poi), true));
+
+        mockMvc.perform(org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get("/api/poi")
+                        .param("lat", "51.0")
+                        .param("lon", "13.0")
+                        .param("radius", "100000")
+                        .param("partial", "true")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Partial-Result", "true"))
+                .andExpect(jsonPath("$[0].href").value("http://localhost/api/poi/nearest-id"));
+    }
+
+    @Test
+    public void testFindPointsOfInterest_QueryTimeout_ShouldReturnServiceUnavailable() throws Exception {
+        when(poiService.listPOIs(51.0, 13.0, 100000, false, false))
+                .thenThrow(new org.springframework.dao.QueryTimeoutException("The query exceeded its time budget"));
+
+        mockMvc.perform(org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get("/api/poi")
+                        .param("lat", "51.0")
+                        .param("lon", "13.0")
+                        .param("radius", "100000")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().doesNotExist("X-Partial-Result"));
+    }
+
+    @Test
+    public void testFindPointsOfInterest_QueryTooExpensive_ShouldReturnBadRequest() throws Exception {
+        when(poiService.listPOIs(51.0, 13.0, 100000, false, false))
+                .thenThrow(new de.zeiss.mongodb_ws.spring_geo_service.service.QueryTooExpensiveException(20000, 5000));
+
+        mockMvc.perform(org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get("/api/poi")
+                        .param("lat", "51.0")
+                        .param("lon", "13.0")
+                        .param("radius", "100000")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.estimatedResults").value(20000))
+                .andExpect(jsonPath("$.maxEstimatedResults").value(5000));
+    }
+
+    @Test
+    public void testFindPointsOfInterest_ColumnarFormat_ShouldReturnColumns() throws Exception {
+        PointOfInterestColumns columns = new PointOfInterestColumns();
+        columns.add("first-id", 13.7284917, 51.031514, "restaurant");
+        columns.add("second-id", 13.7, 51.05, "cafe");
+        columns.add("third-id", 13.71, 51.04, "restaurant");
+        when(poiService.listPOIColumns(51.0, 13.0, 1000, false)).thenReturn(columns);
+
+        mockMvc.perform(org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get("/api/poi")
+                        .param("lat", "51.0")
+                        .param("lon", "13.0")
+                        .param("radius", "1000")
+                        .param("format", "columnar")
+                        .param("expand", "details")
+                        .accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(header().doesNotExist("X-Partial-Result"))
+                .andExpect(content().string("{\"ids\":[\"first-id\",\"second-id\",\"third-id\"],"
+                        + "\"lon\":[13.72849,13.7,13.71],\"lat\":[51.03151,51.05,51.04],\"cat\":[0,1,0],"
+                        + "\"categories\":[\"restaurant\",\"cafe\"]}"));
+
+        verify(poiService, never()).listPOIs(anyDouble(), anyDouble(), anyInt(), anyBoolean(), anyBoolean());
+    }
+
+    @Test
+    public void testFindPointsOfInterest_ColumnarFormatWithPrecision_ShouldRoundCoordinates() throws Exception {
+        PointOfInterestColumns columns = new PointOfInterestColumns();
+        columns.add("first-id", 13.7284917, 51.031514, null);
+        columns.markPartial();
+        when(poiService.listPOIColumns(51.0, 13.0, 1000, true)).thenReturn(columns);
+
+        mockMvc.perform(org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get("/api/poi")
+                        .param("lat", "51.0")
+                        .param("lon", "13.0")
+                        .param("radius", "1000")
+                        .param("format", "columnar")
+                        .param("precision", "2")
+                        .param("partial", "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Partial-Result", "true"))
+                .andExpect(content().string("{\"ids\":[\"first-id\"],\"lon\":[13.73],\"lat\":[51.03],"
+                        + "\"cat\":[null],\"categories\":[]}"));
+    }
+
+    @ParameterizedTest(name = "Invalid columnar parameters #{index}: format={0}, precision={1}")
+    @CsvSource({"columns, 5", "columnar, -1", "columnar, 8"})
+    public void testFindPointsOfInterest_InvalidColumnarParameters_ShouldReturnBadRequest(String format, int precision) throws Exception {
+        mockMvc.perform(org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get("/api/poi")
+                        .param("lat", "51.0")
+                        .param("lon", "13.0")
+                        .param("radius", "1000")
+                        .param("format", format)
+                        .param("precision", "" + precision))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(poiService);
+    }
+
+    @Test
+    public void testFindPointsOfInterest_ConcurrencyLimitReached_ShouldReturnServiceUnavailableWithRetryAfter() throws Exception {
+        when(poiService.listPOIs(51.0, 13.0, 1000, false, false))
+                .thenThrow(new de.zeiss.mongodb_ws.spring_geo_service.persistence.ConcurrencyLimitExceededException(2));
+
+        mockMvc.perform(org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get("/api/poi")
+                        .param("lat", "51.0")
+                        .param("lon", "13.0")
+                        .param("radius", "1000")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"));
+    }
+
+    @Test
+    public void testFindPointsOfInterest_BulkheadFull_ShouldReturnServiceUnavailableWithRetryAfter() throws Exception {
+        when(poiService.listPOIs(51.0, 13.0, 1000, false, false))
+                .thenThrow(new de.zeiss.mongodb_ws.spring_geo_service.rest.BulkheadFullException(
+                        de.zeiss.mongodb_ws.spring_geo_service.persistence.Workload.INTERACTIVE, 1));
+
+        mockMvc.perform(org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get("/api/poi")
+                        .param("lat", "51.0")
+                        .param("lon", "13.0")
+                        .param("radius", "1000")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    public void testFindPointsOfInterest_StaleResult_ShouldBeMarkedStale() throws Exception {
+        when(poiService.listPOIs(51.0, 13.0, 1000, false, false)).thenAnswer(invocation -> {
+            org.springframework.web.context.request.RequestContextHolder.currentRequestAttributes().setAttribute(
+                    de.zeiss.mongodb_ws.spring_geo_service.service.StaleWhileRevalidate.STALE_AGE_ATTRIBUTE, 7L,
+                    org.springframework.web.context.request.RequestAttributes.SCOPE_REQUEST);
+            return QueryResult.complete(List.of());
+        });
+
+        mockMvc.perform(org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get("/api/poi")
+                        .param("lat", "51.0")
+                        .param("lon", "13.0")
+                        .param("radius", "1000")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Warning", "110 - \"Response is Stale\""))
+                .andExpect(header().string("Age", "7"))
+                .andExpect(header().string("X-Stale", "true"));
+    }
+
+    @Test
+    public void testFindPointsOfInterest_ShouldReportServerTiming() throws Exception {
+        when(poiService.listPOIs(51.0, 13.0, 1000, false, false)).thenAnswer(invocation -> {
+            de.zeiss.mongodb_ws.spring_geo_service.timing.ServerTiming.current()
+                    .add(de.zeiss.mongodb_ws.spring_geo_service.timing.Layer.DATABASE, 2_000_000);
+            return QueryResult.complete(List.of());
+        });
+
+        mockMvc.perform(org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get("/api/poi")
+                        .param("lat", "51.0")
+                        .param("lon", "13.0")
+                        .param("radius", "1000")
+                        .header("Origin", "http://localhost:4200")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Server-Timing", org.hamcrest.Matchers.startsWith("total;dur=")))
+                .andExpect(header().string("Server-Timing", org.hamcrest.Matchers.containsString("ctrl;dur=")))
+                .andExpect(header().string("Server-Timing", org.hamcrest.Matchers.containsString("db;dur=2.00")))
+                // the serialization is not timed by default, as it needs the body to be buffered
+                .andExpect(header().string("Server-Timing",
+                        org.hamcrest.Matchers.not(org.hamcrest.Matchers.containsString("ser;dur="))))
+                .andExpect(header().string("Timing-Allow-Origin", "http://localhost:4200"))
+                .andExpect(jsonPath("$").isArray());
+    }
+
+    @Test
+    public void testFindPointsOfInterest_TracingEnabled_ShouldRecordServerAndControllerSpans() throws Exception {
+        InMemorySpanExporter exporter = InMemorySpanExporter.create();
+        tracing.start(SimpleSpanProcessor.create(exporter));
+        try {
+            when(poiService.listPOIs(51.0, 13.0, 1000, false, false)).thenAnswer(invocation -> {
+                assertEquals(TRACE_ID, Span.current().getSpanContext().getTraceId());
+                return QueryResult.complete(List.of());
+            });
+
+            mockMvc.perform(org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get("/api/poi")
+                            .param("lat", "51.0")
+                            .param("lon", "13.0")
+                            .param("radius", "1000")
+                            .header("traceparent", "00-" + TRACE_ID + "-00f067aa0ba902b7-01")
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk());
+
+            Map<String, SpanData> spans = exporter.getFinishedSpanItems().stream()
+                    .collect(Collectors.toMap(SpanData::getName, span -> span));
+            SpanData server = spans.get("GET /api/poi");
+            SpanData controller = spans.get("PointOfInterestController.findPointsOfInterest");
+            assertEquals(SpanKind.SERVER, server.getKind());
+            assertEquals("00f067aa0ba902b7", server.getParentSpanId());
+            assertEquals(200L, server.getAttributes().get(AttributeKey.longKey("http.response.status_code")));
+            assertEquals(server.getSpanId(), controller.getParentSpanId());
+        } finally {
+            tracing.close();
+        }
+    }
+
+    @Test
+    public void testFindPointsOfInterest_CircuitBreakerOpen_ShouldReturnServiceUnavailableWithRetryAfter() throws Exception {
+        when(poiService.listPOIs(51.0, 13.0, 1000, false, false))
+                .thenThrow(new de.zeiss.mongodb_ws.spring_geo_service.service.CircuitBreakerOpenException(5));
+
+        mockMvc.perform(org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get("/api/poi")
+                        .param("lat", "51.0")
+                        .param("lon", "13.0")
+                        .param("radius", "1000")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "5"))
+                .andExpect(header().doesNotExist("X-Stale"));
+    }
+
+    @ParameterizedTest(name = "Invalid fields #{index}: {0}")
+    @org.junit.jupiter.params.provider.ValueSource(strings = {"", "name,", "id", "name,secret"})
+    public void testFindPointsOfInterest_InvalidFields_ShouldReturnBadRequest(String fields) throws Exception {
+        mockMvc.perform(org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get("/api/poi")
+                        .param("lat", "51.0")
+                        .param("lon", "13.0")
+                        .param("radius", "1000")
+                        .param("fields", fields)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
     @ParameterizedTest(name = "Invalid parameters #{index}: lat={0}, lon={1}, radius={2}, description={3}")
     @MethodSource("invalidFindParametersProvider")
     public void testFindPointsOfInterest_InvalidParameters_ShouldReturnBadRequest(double lat, double lon, int radius, String description) throws Exception {
@@ -105,6 +398,181 @@ public class PointOfInterestControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    public void testFindNearestPointsOfInterest_ShouldReturnDistanceAndHref() throws Exception {
+        PointOfInterest poi = new PointOfInterest();
+        poi.setId("near-id");
+        poi.setDistance(12.5);
+
+        when(poiService.listNearestPOIs(51.0, 13.0, 3, null, "cash", false)).thenReturn(java.util.List.of(poi));
+
+        mockMvc.perform(org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get("/api/poi/nearest")
+                        .param("lat", "51.0")
+                        .param("lon", "13.0")
+                        .param("k", "3")
+                        .param("category", "cash")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].distance").value(12.5))
+                .andExpect(jsonPath("$[0].href").value("http://localhost/api/poi/near-id"));
+
+        verify(poiService).listNearestPOIs(51.0, 13.0, 3, null, "cash", false);
+    }
+
+    @Test
+    public void testFindNearestPointsOfInterestPerCategory_ShouldReturnPOIsByCategory() throws Exception {
+        PointOfInterest poi = new PointOfInterest();
+        poi.setId("near-id");
+        poi.setCategory("cash");
+        poi.setDistance(12.5);
+
+        when(poiService.listNearestPOIsPerCategory(51.0, 13.0, 1000, 2, java.util.List.of("cash", "pharmacy"), false))
+                .thenReturn(java.util.Map.of("cash", java.util.List.of(poi)));
+
+        mockMvc.perform(org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get("/api/poi/nearest/per-category")
+                        .param("lat", "51.0")
+                        .param("lon", "13.0")
+                        .param("radius", "1000")
+                        .param("n", "2")
+                        .param("category", "cash", "pharmacy")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cash[0].distance").value(12.5))
+                .andExpect(jsonPath("$.cash[0].href").value("http://localhost/api/poi/near-id"));
+    }
+
+    @Test
+    public void testFindNearestPointsOfInterest_InvalidK_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get("/api/poi/nearest")
+                        .param("lat", "51.0")
+                        .param("lon", "13.0")
+                        .param("k", "0")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(poiService, never()).listNearestPOIs(anyDouble(), anyDouble(), anyInt(), any(), any(), anyBoolean());
+    }
+
+    @Test
+    public void testGetPointsOfInterestByIds_ShouldReturnPOIsAndMissingIds() throws Exception {
+        PointOfInterest poi = new PointOfInterest();
+        poi.setId("id-2");
+        PointOfInterestMultiGetResult result = new PointOfInterestMultiGetResult();
+        result.getPointsOfInterest().add(poi);
+        result.getMissingIds().add("id-1");
+
+        when(poiService.getPointsOfInterestByIds(List.of("id-1", "id-2"), false)).thenReturn(result);
+
+        mockMvc.perform(org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get("/api/poi")
+                        .param("ids", "id-1,id-2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pointsOfInterest[0].href").value("http://localhost/api/poi/id-2"))
+                .andExpect(jsonPath("$.missingIds[0]").value("id-1"));
+
+        verify(poiService, never()).listPOIs(anyDouble(), anyDouble(), anyInt(), anyBoolean(), anyBoolean());
+    }
+
+    @Test
+    public void testMultiGetPointsOfInterest_ShouldReturnPOIs() throws Exception {
+        PointOfInterest poi = new PointOfInterest();
+        poi.setId("id-1");
+        PointOfInterestMultiGetResult result = new PointOfInterestMultiGetResult();
+        result.getPointsOfInterest().add(poi);
+
+        when(poiService.getPointsOfInterestByIds(List.of("id-1"), true)).thenReturn(result);
+
+        mockMvc.perform(post("/api/poi/_mget")
+                        .param("expand", "details")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of("id-1"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pointsOfInterest[0].href").value("http://localhost/api/poi/id-1"))
+                .andExpect(jsonPath("$.missingIds").isEmpty());
+    }
+
+    @Test
+    public void testMultiGetPointsOfInterest_TooManyIds_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/api/poi/_mget")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Collections.nCopies(101, "id"))))
+                .andExpect(status().isBadRequest());
+
+        verify(poiService, never()).getPointsOfInterestByIds(any(), anyBoolean());
+    }
+
+    @Test
+    public void testGetPointsOfInterestByIds_BlankId_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get("/api/poi")
+                        .param("ids", "id-1,,id-2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(poiService, never()).getPointsOfInterestByIds(any(), anyBoolean());
+    }
+
+    @Test
+    public void testSearchPointsOfInterest_ShouldReturnDistinctPOIsWithHref() throws Exception {
+        PointOfInterest poi = new PointOfInterest();
+        poi.setId("search-id");
+        PointOfInterestSearchResult searchResult = new PointOfInterestSearchResult();
+        searchResult.getPointsOfInterest().add(poi);
+        searchResult.getResults().add(List.of(0));
+        searchResult.getResults().add(List.of(0));
+
+        when(poiService.searchPOIs(anyList(), eq(false))).thenReturn(searchResult);
+
+        List<PointOfInterestQuery> queries = List.of(new PointOfInterestQuery(51.0, 13.0, 500, null),
+                new PointOfInterestQuery(51.1, 13.1, 500, "cash"));
+
+        mockMvc.perform(post("/api/poi/_search")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(queries)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pointsOfInterest[0].href").value("http://localhost/api/poi/search-id"))
+                .andExpect(jsonPath("$.results[1][0]").value(0));
+
+        verify(poiService).searchPOIs(argThat(list -> list.size() == 2 && "cash".equals(list.get(1).getCategory())), eq(false));
+    }
+
+    @ParameterizedTest(name = "Invalid query #{index}: latitude={0}, longitude={1}, radius={2}, description={3}")
+    @MethodSource("invalidFindParametersProvider")
+    public void testSearchPointsOfInterest_InvalidQuery_ShouldReturnBadRequest(double latitude, double longitude, int radius, String description) throws Exception {
+        List<PointOfInterestQuery> queries = List.of(new PointOfInterestQuery(latitude, longitude, radius, null));
+
+        mockMvc.perform(post("/api/poi/_search")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(queries)))
+                .andExpect(status().isBadRequest());
+
+        verify(poiService, never()).searchPOIs(any(), anyBoolean());
+    }
+
+    @Test
+    public void testSearchPointsOfInterest_TooManyQueries_ShouldReturnBadRequest() throws Exception {
+        List<PointOfInterestQuery> queries = Collections.nCopies(51, new PointOfInterestQuery(51.0, 13.0, 500, null));
+
+        mockMvc.perform(post("/api/poi/_search")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(queries)))
+                .andExpect(status().isBadRequest());
+
+        verify(poiService, never()).searchPOIs(any(), anyBoolean());
+    }
+
+    @Test
+    public void testSearchPointsOfInterest_TooManyQueriesWaiting_ShouldReturnServiceUnavailableWithRetryAfter() throws Exception {
+        when(poiService.searchPOIs(any(), anyBoolean()))
+                .thenThrow(new java.util.concurrent.RejectedExecutionException("Too many tasks waiting"));
+        List<PointOfInterestQuery> queries = List.of(new PointOfInterestQuery(51.0, 13.0, 500, null));
+
+        mockMvc.perform(post("/api/poi/_search")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(queries)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
     @Test
     public void testCreatePointOfInterest_ValidInput_ShouldReturnCreated() throws Exception {
         PointOfInterest poi = new PointOfInterest();
@@ -208,9 +676,8 @@ public class PointOfInterestControllerTest {
         Point location = new Point(12.34, 56.78);
         poi.setLocation(location);
 
-        // Simulate that the POI does not exist yet
-        when(poiService.getPointOfInterestById("123")).thenReturn(poi);
-        when(poiService.updatePOI(poi)).thenReturn(poi);
+        // Simulate that the POI exists
+        when(poiService.updatePOI(any(PointOfInterest.class))).thenReturn(poi);
 
         mockMvc.perform(put("/api/poi/123")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -218,6 +685,8 @@ public class PointOfInterestControllerTest {
                 .andExpect(status().isNoContent()); // Check if Location header is set
 
         verify(poiService, times(1)).updatePOI(any(PointOfInterest.class));
+        verify(poiService, never()).createPOI(any(PointOfInterest.class));
+        verify(poiService, never()).getPointOfInterestById(any());
     }
 
     @Test
@@ -229,7 +698,7 @@ public class PointOfInterestControllerTest {
         poi.setLocation(location);
 
         // Simulate that the POI does not exist yet
-        when(poiService.getPointOfInterestById("123")).thenReturn(null);
+        when(poiService.updatePOI(any(PointOfInterest.class))).thenReturn(null);
         when(poiService.createPOI(any(PointOfInterest.class))).thenReturn(poi);
 
         mockMvc.perform(put("/api/poi/123")
@@ -321,21 +790,161 @@ public class PointOfInterestControllerTest {
     public void testDeletePointOfInterest_KnownId_ShouldReturnOk() throws Exception {
         String knownId = "known-id";
 
-        when(poiService.getPointOfInterestById(knownId)).thenReturn(new PointOfInterest());
+        when(poiService.deletePOI(knownId)).thenReturn(true);
 
         mockMvc.perform(org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete("/api/poi/{id}", knownId)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNoContent());
+
+        verify(poiService, never()).getPointOfInterestById(any());
     }
 
     @Test
     public void testDeletePointOfInterest_UnknownId_ShouldReturnNotFound() throws Exception {
         String unknownId = "unknown-id";
 
-        when(poiService.getPointOfInterestById(unknownId)).thenReturn(null);
+        when(poiService.deletePOI(unknownId)).thenReturn(false);
 
         mockMvc.perform(org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete("/api/poi/{id}", unknownId)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    public void testFindPointsOfInterest_AcceptProtobuf_ShouldReturnPointOfInterestList() throws Exception {
+        PointOfInterest poi = new PointOfInterest();
+        poi.setId("protobuf-id");
+        poi.setName("Protobuf");
+        poi.setLocation(new Point(13.0, 51.0));
+
+        when(poiService.listPOIs(51.0, 13.0, 1000, false, false)).thenReturn(QueryResult.complete(List.of(poi, poi)));
+
+        byte[] body = mockMvc.perform(org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get("/api/poi")
+                        .param("lat", "51.0")
+                        .param("lon", "13.0")
+                        .param("radius", "1000")
+                        .accept(PointOfInterestProtobufHttpMessageConverter.PROTOBUF))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(PointOfInterestProtobufHttpMessageConverter.PROTOBUF))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // PointOfInterestList with two PointOfInterest messages
+        assertEquals(2, UnknownFieldSet.parseFrom(body).getField(1).getLengthDelimitedList().size());
+    }
+
+    @ParameterizedTest
+    @MethodSource("jacksonBinaryFormatsProvider")
+    public void testFindPointsOfInterest_AcceptJacksonBinaryFormat_ShouldReturnSameStructureAsJson(MediaType mediaType, JsonFactory factory) throws Exception {
+        PointOfInterest poi = new PointOfInterest();
+        poi.setId("binary-id");
+        poi.setName("Binary");
+        poi.setLocation(new Point(13.0, 51.0));
+
+        when(poiService.listPOIs(51.0, 13.0, 1000, false, false)).thenReturn(QueryResult.complete(List.of(poi)));
+
+        byte[] body = mockMvc.perform(org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get("/api/poi")
+                        .param("lat", "51.0")
+                        .param("lon", "13.0")
+                        .param("radius", "1000")
+                        .accept(mediaType))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(mediaType))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertEquals(objectMapper.valueToTree(List.of(poi)), new ObjectMapper(factory).readTree(body));
+    }
+
+    static Stream<Arguments> jacksonBinaryFormatsProvider() {
+        return Stream.of(
+                Arguments.of(MediaType.parseMediaType("application/x-jackson-smile"), new SmileFactory()),
+                Arguments.of(MediaType.APPLICATION_CBOR, new CBORFactory())
+        );
+    }
+
+    @Test
+    public void testFindPointsOfInterest_AcceptAny_ShouldReturnJson() throws Exception {
+        when(poiService.listPOIs(51.0, 13.0, 1000, false, false)).thenReturn(QueryResult.complete(List.of()));
+
+        mockMvc.perform(org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get("/api/poi")
+                        .param("lat", "51.0")
+                        .param("lon", "13.0")
+                        .param("radius", "1000")
+                        .accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    public void testFindNearestPointsOfInterestPerCategory_AcceptProtobuf_ShouldReturnNotAcceptable() throws Exception {
+        when(poiService.listNearestPOIsPerCategory(51.0, 13.0, 1000, 2, null, false)).thenReturn(Map.of());
+
+        mockMvc.perform(org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get("/api/poi/nearest/per-category")
+                        .param("lat", "51.0")
+                        .param("lon", "13.0")
+                        .param("radius", "1000")
+                        .param("n", "2")
+                        .accept(PointOfInterestProtobufHttpMessageConverter.PROTOBUF))
+                .andExpect(status().isNotAcceptable());
+    }
+
+    @Test
+    public void testCreatePointOfInterest_CborInput_ShouldReturnCreated() throws Exception {
+        PointOfInterest poi = new PointOfInterest();
+        poi.setName("Test POI");
+        poi.setCategory("Test Category");
+        poi.setLocation(new Point(12.34, 56.78));
+
+        when(poiService.createPOI(any(PointOfInterest.class))).thenReturn(poi);
+
+        mockMvc.perform(post("/api/poi")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .content(new ObjectMapper(new CBORFactory()).writeValueAsBytes(poi)))
+                .andExpect(status().isCreated());
+
+        verify(poiService).createPOI(argThat(created -> "Test POI".equals(created.getName())
+                && created.getLocation().getCoordinates().getLatitude() == 56.78));
+    }
+
+    @Test
+    public void testCreatePointOfInterest_ProtobufInput_ShouldReturnCreated() throws Exception {
+        PointOfInterest poi = new PointOfInterest();
+        poi.setName("Test POI");
+        poi.setCategory("Test Category");
+        poi.setLocation(new Point(12.34, 56.78));
+
+        MockHttpOutputMessage body = new MockHttpOutputMessage();
+        new PointOfInterestProtobufHttpMessageConverter().write(poi, PointOfInterestProtobufHttpMessageConverter.PROTOBUF, body);
+
+        when(poiService.createPOI(any(PointOfInterest.class))).thenReturn(poi);
+
+        mockMvc.perform(post("/api/poi")
+                        .contentType(PointOfInterestProtobufHttpMessageConverter.PROTOBUF)
+                        .content(body.getBodyAsBytes()))
+                .andExpect(status().isCreated());
+
+        verify(poiService).createPOI(argThat(created -> "Test POI".equals(created.getName())
+                && "Test Category".equals(created.getCategory())));
+    }
+
+    @Test
+    public void testCreatePointOfInterest_InvalidProtobufInput_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/api/poi")
+                        .contentType(PointOfInterestProtobufHttpMessageConverter.PROTOBUF)
+                        .content(new byte[]{0x12, 0x7f, 'M'}))
+                .andExpect(status().isBadRequest());
+
+        verify(poiService, never()).createPOI(any(PointOfInterest.class));
+    }
+
+    @Test
+    public void testFindPointsOfInterest_InvalidParametersAcceptProtobuf_ShouldReturnBadRequestAsJson() throws Exception {
+        mockMvc.perform(org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get("/api/poi")
+                        .param("lat", "91.0")
+                        .param("lon", "13.0")
+                        .param("radius", "1000")
+                        .accept(PointOfInterestProtobufHttpMessageConverter.PROTOBUF))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$['findPointsOfInterest.lat']").exists());
+    }
 }
@@ -0,0 +1,89 @@
+package de.zeiss.mongodb_ws.spring_geo_service.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link CircuitBreaker}.
+ */
+public class CircuitBreakerTest {
+
+    @Test
+    void onFailure_ThresholdReached_ShouldOpen() {
+        CircuitBreaker breaker = new CircuitBreaker(3, 60000);
+
+        for (int i = 0; i < 2; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onFailure();
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(1L, breaker.getStatistics().get("opened"));
+        assertEquals(1L, breaker.getStatistics().get("rejected"));
+    }
+
+    @Test
+    void onSuccess_ShouldResetConsecutiveFailures() {
+        CircuitBreaker breaker = new CircuitBreaker(2, 60000);
+
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void tryAcquire_OpenDurationElapsed_ShouldLetOneTrialThrough() {
+        CircuitBreaker breaker = new CircuitBreaker(1, 0);
+        breaker.onFailure();
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void onIgnored_Trial_ShouldLetNextTrialThrough() {
+        CircuitBreaker breaker = new CircuitBreaker(1, 0);
+        breaker.onFailure();
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onIgnored();
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void onFailure_TrialFails_ShouldOpenAgain() {
+        CircuitBreaker breaker = new CircuitBreaker(1, 0);
+        breaker.onFailure();
+        assertTrue(breaker.tryAcquire());
+
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(2L, breaker.getStatistics().get("opened"));
+    }
+
+    @Test
+    void onSuccess_WhileOpen_ShouldStayOpen() {
+        CircuitBreaker breaker = new CircuitBreaker(1, 60000);
+        breaker.onFailure();
+
+        breaker.onSuccess();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+}
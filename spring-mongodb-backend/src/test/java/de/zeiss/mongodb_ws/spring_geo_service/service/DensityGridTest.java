@@ -0,0 +1,61 @@
+package de.zeiss.mongodb_ws.spring_geo_service.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link DensityGrid}
+ */
+public class DensityGridTest {
+
+    @Test
+    public void testEstimate_UniformDensity_ShouldBeProportionalToCircleArea() {
+        // Given: 100 POIs in every 0.1 degree cell around (0, 0)
+        DensityGrid grid = new DensityGrid(0.1);
+        for (int latIndex = -20; latIndex < 20; latIndex++) {
+            for (int lonIndex = -20; lonIndex < 20; lonIndex++) {
+                grid.add(latIndex, lonIndex, 100);
+            }
+        }
+
+        // When: a circle of 0.5 degrees radius (at the equator a degree of longitude is as long as one of latitude)
+        long estimate = grid.estimate(0.0, 0.0, 55_660);
+
+        // Then: pi * 5 * 5 cells of 100 POIs
+        assertEquals(Math.PI * 25 * 100, estimate, 100);
+    }
+
+    @Test
+    public void testEstimate_SparseGrid_ShouldOnlyCountCellsInBoundingBox() {
+        // Given
+        DensityGrid grid = new DensityGrid(0.01);
+        grid.add(51.05, 13.73);
+        grid.add(51.05, 13.73);
+        grid.add(48.13, 11.57);
+
+        // When / Then: the bounding box of 1000 km contains many more cells than the grid
+        assertEquals(Math.round(3 * Math.PI / 4), grid.estimate(50.0, 12.0, 1_000_000));
+        assertEquals(Math.round(2 * Math.PI / 4), grid.estimate(51.0, 14.0, 100_000));
+        assertEquals(0, grid.estimate(0.0, 0.0, 100_000));
+    }
+
+    @Test
+    public void testAddRemove_ShouldUpdateTotal() {
+        // Given
+        DensityGrid grid = new DensityGrid(0.1);
+
+        // When
+        grid.add(51.05, 13.73);
+        grid.add(51.06, 13.74);
+        grid.remove(51.05, 13.73);
+
+        // Then
+        assertEquals(1, grid.getTotal());
+    }
+
+    @Test
+    public void testConstructor_InvalidCellSize_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new DensityGrid(0.0));
+    }
+}
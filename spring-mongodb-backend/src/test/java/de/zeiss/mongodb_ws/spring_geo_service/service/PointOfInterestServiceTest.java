@@ -1,19 +1,37 @@
 package de.zeiss.mongodb_ws.spring_geo_service.service;
 
+import com.mongodb.ReadPreference;
+import de.zeiss.mongodb_ws.spring_geo_service.config.BoundedVirtualThreadExecutor;
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.ConcurrencyLimitExceededException;
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.ConcurrencyLimiter;
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.HedgedReads;
 import de.zeiss.mongodb_ws.spring_geo_service.persistence.IPointOfInterestRepository;
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.PointOfInterestColumns;
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.QueryResult;
 import de.zeiss.mongodb_ws.spring_geo_service.persistence.entity.PointOfInterestEntity;
 import de.zeiss.mongodb_ws.spring_geo_service.rest.model.PointOfInterest;
+import de.zeiss.mongodb_ws.spring_geo_service.rest.model.PointOfInterestMultiGetResult;
+import de.zeiss.mongodb_ws.spring_geo_service.rest.model.PointOfInterestQuery;
+import de.zeiss.mongodb_ws.spring_geo_service.rest.model.PointOfInterestSearchResult;
+import org.bson.types.ObjectId;
 import org.geojson.Point;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.GeoResult;
+import org.springframework.data.geo.GeoResults;
+import org.springframework.data.geo.Metrics;
 import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -29,6 +47,18 @@ public class PointOfInterestServiceTest {
     @Mock
     private IPointOfInterestRepository poiRepository;
 
+    @Mock
+    private QueryCostGuard costGuard;
+
+    @Mock
+    private ConcurrencyLimiter concurrencyLimiter;
+
+    @Mock
+    private HedgedReads hedgedReads;
+
+    @Mock
+    private StaleWhileRevalidate staleWhileRevalidate;
+
     @InjectMocks
     private PointOfInterestService poiService;
 
@@ -40,6 +70,10 @@ public class PointOfInterestServiceTest {
     @BeforeEach
     void setUp() {
         openedMocks = MockitoAnnotations.openMocks(this);
+        when(concurrencyLimiter.execute(any(), any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        when(hedgedReads.read(any(), any()))
+                .thenAnswer(invocation -> invocation.<Function<ReadPreference, ?>>getArgument(1).apply(null));
+        when(staleWhileRevalidate.read(any(), any(), any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get());
     }
 
     @AfterEach
@@ -73,44 +107,72 @@ public class PointOfInterestServiceTest {
     @Test
     void getPointOfInterestById_Found_ShouldReturnResource() {
         PointOfInterestEntity e = sampleEntity("id1", "Name1", "cat", 13.4, 52.5, "d");
-        when(poiRepository.findById("id1")).thenReturn(Optional.of(e));
+        when(poiRepository.findById("id1", null)).thenReturn(Optional.of(e));
 
         PointOfInterest res = poiService.getPointOfInterestById("id1");
 
         assertNotNull(res);
         assertPointOfInterestEquals(res, "Name1", "cat", 13.4, 52.5, "d");
 
-        verify(poiRepository).findById("id1");
+        verify(poiRepository).findById("id1", null);
     }
 
     @Test
     void getPointOfInterestById_NotFound_ShouldReturnNull() {
-        when(poiRepository.findById("nope")).thenReturn(Optional.empty());
+        when(poiRepository.findById("nope", null)).thenReturn(Optional.empty());
 
         PointOfInterest res = poiService.getPointOfInterestById("nope");
 
         assertNull(res);
-        verify(poiRepository).findById("nope");
+        verify(poiRepository).findById("nope", null);
     }
 
     @Test
-    void listPOIs_ShouldCallRepositoryAndMapResults_AndStripDetailsWhenNotExpanded() {
+    void getPointsOfInterestByIds_ShouldPreserveOrderAndReportMissingIds() {
+        PointOfInterestEntity a = sampleEntity("id1", "A", "cat", 13.0, 52.0, null);
+        PointOfInterestEntity c = sampleEntity("id3", "C", "cat", 13.0, 52.0, null);
+
+        // the database returns the entities in any order
+        when(poiRepository.findByIds(Set.of("id3", "id2", "id1"), false, null)).thenReturn(List.of(a, c));
+
+        PointOfInterestMultiGetResult result = poiService.getPointsOfInterestByIds(List.of("id3", "id2", "id1"), false);
+
+        assertEquals(List.of("id3", "id1"), result.getPointsOfInterest().stream().map(PointOfInterest::getId).toList());
+        assertEquals(List.of("id2"), result.getMissingIds());
+        verify(poiRepository, times(1)).findByIds(any(), anyBoolean(), any());
+    }
+
+    @Test
+    void getPointsOfInterestByIds_UpperCaseObjectId_ShouldFindPOI() {
+        String id = new ObjectId().toHexString();
+        PointOfInterestEntity a = sampleEntity(id, "A", "cat", 13.0, 52.0, null);
+        when(poiRepository.findByIds(Set.of(id), false, null)).thenReturn(List.of(a));
+
+        PointOfInterestMultiGetResult result = poiService.getPointsOfInterestByIds(List.of(id.toUpperCase()), false);
+
+        assertEquals(List.of(id), result.getPointsOfInterest().stream().map(PointOfInterest::getId).toList());
+        assertTrue(result.getMissingIds().isEmpty());
+    }
+
+    @Test
+    void listPOIs_ShouldCallRepositoryAndMapResults_AndExcludeDetailsInDatabaseWhenNotExpanded() {
         List<PointOfInterestEntity> entities = new ArrayList<>();
-        entities.add(sampleEntity("id1", "A", "cat", 13.0, 52.0, "details-A"));
-        entities.add(sampleEntity("id2", "B", "cat", 13.1, 52.1, "details-B"));
+        entities.add(sampleEntity("id1", "A", "cat", 13.0, 52.0, null));
+        entities.add(sampleEntity("id2", "B", "cat", 13.1, 52.1, null));
 
-        when(poiRepository.findByLocationNear(any(org.springframework.data.geo.Point.class), any(Distance.class)))
-                .thenReturn(entities);
+        when(poiRepository.findNear(any(org.springframework.data.geo.Point.class), any(Distance.class), isNull(), eq(false), eq(false), eq(0), isNull()))
+                .thenReturn(QueryResult.complete(entities));
 
-        List<PointOfInterest> results = poiService.listPOIs(52.0, 13.0, 1000, false);
+        List<PointOfInterest> results = poiService.listPOIs(52.0, 13.0, 1000, false, false).results();
 
         assertNotNull(results);
         assertEquals(2, results.size());
-        // details should be stripped
+        // details are not loaded
         assertNull(results.get(0).getDetails());
         assertNull(results.get(1).getDetails());
 
-        verify(poiRepository).findByLocationNear(any(org.springframework.data.geo.Point.class), any(Distance.class));
+        verify(poiRepository).findNear(eq(new org.springframework.data.geo.Point(13.0, 52.0)), eq(new Distance(1.0, Metrics.KILOMETERS)),
+                isNull(), eq(false), eq(false), eq(0), isNull());
     }
 
     @Test
@@ -119,18 +181,174 @@ public class PointOfInterestServiceTest {
         entities.add(sampleEntity("id1", "A", "cat", 13.0, 52.0, "details-A"));
         entities.add(sampleEntity("id2", "B", "cat", 13.1, 52.1, "details-B"));
 
-        when(poiRepository.findByLocationNear(any(org.springframework.data.geo.Point.class), any(Distance.class)))
-                .thenReturn(entities);
+        when(poiRepository.findNear(any(org.springframework.data.geo.Point.class), any(Distance.class), isNull(), eq(true), eq(false), eq(0), isNull()))
+                .thenReturn(QueryResult.complete(entities));
 
-        List<PointOfInterest> results = poiService.listPOIs(52.0, 13.0, 1000, true);
+        List<PointOfInterest> results = poiService.listPOIs(52.0, 13.0, 1000, true, false).results();
 
         assertNotNull(results);
         assertEquals(2, results.size());
-        // details should be stripped
         assertNotNull(results.get(0).getDetails());
         assertNotNull(results.get(1).getDetails());
 
-        verify(poiRepository).findByLocationNear(any(org.springframework.data.geo.Point.class), any(Distance.class));
+        verify(poiRepository).findNear(any(org.springframework.data.geo.Point.class), any(Distance.class), isNull(), eq(true), eq(false), eq(0), isNull());
+    }
+
+    @Test
+    void listPOIs_WithFields_ShouldPassFieldsToRepositoryAndSkipAbsentFields() {
+        PointOfInterestEntity projected = new PointOfInterestEntity();
+        projected.setId("id1");
+        projected.setName("A");
+        Set<String> fields = Set.of("name");
+
+        when(poiRepository.findNear(any(org.springframework.data.geo.Point.class), any(Distance.class), eq(fields), eq(false), eq(false), eq(0), isNull()))
+                .thenReturn(QueryResult.complete(List.of(projected)));
+
+        List<PointOfInterest> results = poiService.listPOIs(52.0, 13.0, 1000, fields, false).results();
+
+        assertEquals(1, results.size());
+        assertEquals("A", results.get(0).getName());
+        assertNull(results.get(0).getLocation());
+        assertNull(results.get(0).getCategory());
+    }
+
+    @Test
+    void listPOIs_PartialResult_ShouldKeepPartialFlag() {
+        List<PointOfInterestEntity> entities = List.of(sampleEntity("id1", "A", "cat", 13.0, 52.0, null));
+
+        when(poiRepository.findNear(any(org.springframework.data.geo.Point.class), any(Distance.class), isNull(), eq(false), eq(true), eq(0), isNull()))
+                .thenReturn(new QueryResult<>(entities, true));
+
+        QueryResult<PointOfInterest> result = poiService.listPOIs(52.0, 13.0, 100000, false, true);
+
+        assertTrue(result.partial());
+        assertEquals(List.of("id1"), result.results().stream().map(PointOfInterest::getId).toList());
+    }
+
+    @Test
+    void listPOIs_ExpensiveQuery_ShouldBeCappedByCostGuard() {
+        List<PointOfInterestEntity> entities = List.of(sampleEntity("id1", "A", "cat", 13.0, 52.0, null));
+
+        when(costGuard.limitFor(52.0, 13.0, 100000)).thenReturn(5000);
+        when(poiRepository.findNear(any(org.springframework.data.geo.Point.class), any(Distance.class), isNull(), eq(false), eq(false), eq(5000), isNull()))
+                .thenReturn(new QueryResult<>(entities, true));
+
+        QueryResult<PointOfInterest> result = poiService.listPOIs(52.0, 13.0, 100000, false, false);
+
+        assertTrue(result.partial());
+        assertEquals(1, result.results().size());
+    }
+
+    @Test
+    void listPOIs_RejectedQuery_ShouldNotQueryRepository() {
+        when(costGuard.limitFor(52.0, 13.0, 100000)).thenThrow(new QueryTooExpensiveException(20000, 5000));
+
+        assertThrows(QueryTooExpensiveException.class, () -> poiService.listPOIs(52.0, 13.0, 100000, Set.of("name"), false));
+        verifyNoInteractions(poiRepository);
+    }
+
+    @Test
+    void listPOIs_ConcurrencyLimitReached_ShouldNotQueryRepository() {
+        doThrow(new ConcurrencyLimitExceededException(1)).when(concurrencyLimiter).execute(any(), any());
+
+        assertThrows(ConcurrencyLimitExceededException.class, () -> poiService.listPOIs(52.0, 13.0, 1000, false, false));
+        verifyNoInteractions(poiRepository);
+    }
+
+    @Test
+    void listPOIColumns_ExpensiveQuery_ShouldBeCappedByCostGuard() {
+        PointOfInterestColumns columns = new PointOfInterestColumns();
+
+        when(costGuard.limitFor(52.0, 13.0, 100000)).thenReturn(5000);
+        when(poiRepository.findNearAsColumns(new org.springframework.data.geo.Point(13.0, 52.0),
+                new Distance(100.0, Metrics.KILOMETERS), true, 5000, null))
+                .thenReturn(columns);
+
+        assertSame(columns, poiService.listPOIColumns(52.0, 13.0, 100000, true));
+    }
+
+    @Test
+    void listPOIColumns_RejectedQuery_ShouldNotQueryRepository() {
+        when(costGuard.limitFor(52.0, 13.0, 100000)).thenThrow(new QueryTooExpensiveException(20000, 5000));
+
+        assertThrows(QueryTooExpensiveException.class, () -> poiService.listPOIColumns(52.0, 13.0, 100000, false));
+        verifyNoInteractions(poiRepository);
+    }
+
+    @Test
+    void listNearestPOIs_ShouldConvertDistanceToMeters() {
+        PointOfInterestEntity entity = sampleEntity("id1", "A", "cash", 13.0, 52.0, null);
+        GeoResults<PointOfInterestEntity> geoResults = new GeoResults<>(
+                List.of(new GeoResult<>(entity, new Distance(0.25, Metrics.KILOMETERS))), Metrics.KILOMETERS);
+
+        when(poiRepository.findNearest(any(org.springframework.data.geo.Point.class), any(Distance.class), eq(5), eq("cash"), eq(false)))
+                .thenReturn(geoResults);
+
+        List<PointOfInterest> results = poiService.listNearestPOIs(52.0, 13.0, 5, 1000, "cash", false);
+
+        assertEquals(1, results.size());
+        assertEquals("id1", results.get(0).getId());
+        assertEquals(250.0, results.get(0).getDistance(), 1e-9);
+
+        verify(poiRepository).findNearest(any(org.springframework.data.geo.Point.class), eq(new Distance(1.0, Metrics.KILOMETERS)), eq(5), eq("cash"), eq(false));
+    }
+
+    @Test
+    void listNearestPOIsPerCategory_ShouldGroupByCategoryAndConvertDistance() {
+        PointOfInterestEntity cash = sampleEntity("id1", "A", "cash", 13.0, 52.0, null);
+        cash.setDistance(0.1);
+        PointOfInterestEntity pharmacy1 = sampleEntity("id2", "B", "pharmacy", 13.0, 52.0, null);
+        pharmacy1.setDistance(0.2);
+        PointOfInterestEntity pharmacy2 = sampleEntity("id3", "C", "pharmacy", 13.0, 52.0, null);
+        pharmacy2.setDistance(0.3);
+
+        when(poiRepository.findNearestPerCategory(any(org.springframework.data.geo.Point.class), eq(new Distance(0.5, Metrics.KILOMETERS)),
+                eq(2), eq(null), eq(false))).thenReturn(List.of(cash, pharmacy1, pharmacy2));
+
+        java.util.Map<String, List<PointOfInterest>> results = poiService.listNearestPOIsPerCategory(52.0, 13.0, 500, 2, null, false);
+
+        assertEquals(List.of("cash", "pharmacy"), List.copyOf(results.keySet()));
+        assertEquals(100.0, results.get("cash").get(0).getDistance(), 1e-9);
+        assertEquals("id3", results.get("pharmacy").get(1).getId());
+        assertEquals(300.0, results.get("pharmacy").get(1).getDistance(), 1e-9);
+    }
+
+    @Test
+    void searchPOIs_ShouldDeduplicatePOIsAcrossQueries() {
+        PointOfInterestEntity a = sampleEntity("id1", "A", "cash", 13.0, 52.0, null);
+        PointOfInterestEntity b = sampleEntity("id2", "B", "cash", 13.0, 52.0, null);
+
+        when(poiRepository.findNear(eq(new org.springframework.data.geo.Point(13.0, 52.0)), any(Distance.class), isNull(), isNull(), eq(false)))
+                .thenReturn(List.of(a, b));
+        when(poiRepository.findNear(eq(new org.springframework.data.geo.Point(13.1, 52.1)), any(Distance.class), eq("cash"), isNull(), eq(false)))
+                .thenReturn(List.of(b));
+
+        try (BoundedVirtualThreadExecutor executor = new BoundedVirtualThreadExecutor("test-", 2, 10)) {
+            ReflectionTestUtils.setField(poiService, "searchExecutor", executor);
+
+            PointOfInterestSearchResult result = poiService.searchPOIs(List.of(
+                    new PointOfInterestQuery(52.0, 13.0, 500, null),
+                    new PointOfInterestQuery(52.1, 13.1, 500, "cash")), false);
+
+            assertEquals(2, result.getPointsOfInterest().size());
+            assertEquals("id1", result.getPointsOfInterest().get(0).getId());
+            assertNull(result.getPointsOfInterest().get(1).getDetails());
+            assertEquals(List.of(List.of(0, 1), List.of(1)), result.getResults());
+        }
+    }
+
+    @Test
+    void searchPOIs_FailingQuery_ShouldRethrowCause() {
+        when(poiRepository.findNear(any(org.springframework.data.geo.Point.class), any(Distance.class), any(), any(), anyBoolean()))
+                .thenThrow(new IllegalStateException("boom"));
+
+        try (BoundedVirtualThreadExecutor executor = new BoundedVirtualThreadExecutor("test-", 2, 10)) {
+            ReflectionTestUtils.setField(poiService, "searchExecutor", executor);
+
+            IllegalStateException exception = assertThrows(IllegalStateException.class,
+                    () -> poiService.searchPOIs(List.of(new PointOfInterestQuery(52.0, 13.0, 500, null)), false));
+            assertEquals("boom", exception.getMessage());
+        }
     }
 
     @Test
@@ -138,7 +356,7 @@ public class PointOfInterestServiceTest {
         PointOfInterest input = sampleModel("New POI", "cat", 13.2, 52.2, "dd");
         PointOfInterestEntity saved = sampleEntity("generated-id", "New POI", "cat", 13.2, 52.2, "dd");
 
-        when(poiRepository.save(any(PointOfInterestEntity.class))).thenReturn(saved);
+        when(poiRepository.upsert(any(PointOfInterestEntity.class))).thenReturn(saved);
 
         PointOfInterest res = poiService.createPOI(input);
 
@@ -146,7 +364,7 @@ public class PointOfInterestServiceTest {
         assertEquals("New POI", res.getName());
         assertEquals("generated-id", res.getId());
 
-        verify(poiRepository).save(entityCaptor.capture());
+        verify(poiRepository).upsert(entityCaptor.capture());
         PointOfInterestEntity captured = entityCaptor.getValue();
         assertNotNull(captured);
 
@@ -155,18 +373,30 @@ public class PointOfInterestServiceTest {
 
     @Test
     void deletePOI_ShouldCallRepositoryDelete() {
-        doNothing().when(poiRepository).deleteById("id-to-delete");
+        PointOfInterestEntity deleted = sampleEntity("id-to-delete", "Name", "cat", 13.0, 52.0, null);
+        when(poiRepository.findAndRemoveById("id-to-delete")).thenReturn(deleted);
+
+        assertTrue(poiService.deletePOI("id-to-delete"));
+
+        verify(poiRepository).findAndRemoveById("id-to-delete");
+        verify(costGuard).removed(deleted.getLocation());
+        verify(staleWhileRevalidate).invalidate(List.of("poi", "id-to-delete"));
+    }
+
+    @Test
+    void deletePOI_NonExisting_ShouldReturnFalse() {
+        when(poiRepository.findAndRemoveById("not-ex")).thenReturn(null);
 
-        poiService.deletePOI("id-to-delete");
+        assertFalse(poiService.deletePOI("not-ex"));
 
-        verify(poiRepository).deleteById("id-to-delete");
+        verify(costGuard, never()).removed(any());
     }
 
     @Test
     void updatePOI_Existing_ShouldUpdateAndReturnResource() {
         PointOfInterestEntity existing = sampleEntity("id-ex", "Old", "cat-ex", 13.0, 52.0, "old-details");
         when(poiRepository.findById("id-ex")).thenReturn(Optional.of(existing));
-        when(poiRepository.save(any(PointOfInterestEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(poiRepository.upsert(any(PointOfInterestEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         PointOfInterest toUpdate = new PointOfInterest();
         toUpdate.setId("id-ex");
@@ -179,7 +409,8 @@ public class PointOfInterestServiceTest {
         assertNotNull(res);
         assertEquals("NewName", res.getName());
         verify(poiRepository).findById("id-ex");
-        verify(poiRepository).save(any(PointOfInterestEntity.class));
+        verify(poiRepository).upsert(any(PointOfInterestEntity.class));
+        verify(staleWhileRevalidate).invalidate(List.of("poi", "id-ex"));
 
         assertPointOfInterestEquals(res, "NewName", "cat", 13.0, 52.0, null);
     }
@@ -0,0 +1,103 @@
+package de.zeiss.mongodb_ws.spring_geo_service.service;
+
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.GridCellCount;
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.IPointOfInterestRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link QueryCostGuard} using a mocked repository.
+ */
+public class QueryCostGuardTest {
+
+    @Mock
+    private IPointOfInterestRepository poiRepository;
+
+    @InjectMocks
+    private QueryCostGuard costGuard;
+
+    private AutoCloseable openedMocks;
+
+    @BeforeEach
+    void setUp() {
+        openedMocks = MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(costGuard, "enabled", true);
+        ReflectionTestUtils.setField(costGuard, "cellSize", 0.1);
+        ReflectionTestUtils.setField(costGuard, "maxEstimatedResults", 1000);
+        ReflectionTestUtils.setField(costGuard, "mode", "cap");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        openedMocks.close();
+    }
+
+    @Test
+    void limitFor_NoGrid_ShouldNotLimit() {
+        assertEquals(0, costGuard.limitFor(51.05, 13.73, 100_000));
+    }
+
+    @Test
+    void limitFor_CheapQuery_ShouldNotLimit() {
+        givenDenseCell();
+
+        assertEquals(0, costGuard.limitFor(51.05, 13.75, 1_000));
+    }
+
+    @Test
+    void limitFor_ExpensiveQuery_ShouldCap() {
+        givenDenseCell();
+
+        assertEquals(1000, costGuard.limitFor(51.05, 13.75, 100_000));
+    }
+
+    @Test
+    void limitFor_ExpensiveQueryInRejectMode_ShouldThrow() {
+        ReflectionTestUtils.setField(costGuard, "mode", "reject");
+        givenDenseCell();
+
+        QueryTooExpensiveException exception = assertThrows(QueryTooExpensiveException.class,
+                () -> costGuard.limitFor(51.05, 13.75, 100_000));
+
+        assertEquals(1000, exception.getMaxEstimatedResults());
+        assertTrue(exception.getEstimatedResults() > 1000);
+    }
+
+    @Test
+    void rebuild_RepositoryFailure_ShouldNotLimit() {
+        when(poiRepository.countPOIsPerCell(0.1)).thenThrow(new IllegalStateException("no database"));
+
+        costGuard.rebuild();
+
+        assertEquals(0, costGuard.limitFor(51.05, 13.75, 100_000));
+    }
+
+    @Test
+    void added_ShouldBeCountedInEstimate() {
+        when(poiRepository.countPOIsPerCell(0.1)).thenReturn(List.of(new GridCellCount(510, 137, 1000)));
+        costGuard.rebuild();
+        assertEquals(0, costGuard.limitFor(51.05, 13.75, 100_000));
+
+        for (int i = 0; i < 500; i++) {
+            costGuard.added(new GeoJsonPoint(13.75, 51.05));
+        }
+
+        assertEquals(1000, costGuard.limitFor(51.05, 13.75, 100_000));
+    }
+
+    private void givenDenseCell() {
+        when(poiRepository.countPOIsPerCell(0.1)).thenReturn(List.of(new GridCellCount(510, 137, 10_000)));
+        costGuard.rebuild();
+    }
+}
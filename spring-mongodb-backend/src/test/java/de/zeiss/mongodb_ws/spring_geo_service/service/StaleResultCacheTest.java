@@ -0,0 +1,69 @@
+package de.zeiss.mongodb_ws.spring_geo_service.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link StaleResultCache}.
+ */
+public class StaleResultCacheTest {
+
+    private StaleResultCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new StaleResultCache(2, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void put_WeightExceeded_ShouldEvictFirstCachedResult() {
+        cache.put("a", "a", 1);
+        cache.put("b", "b", 1);
+        cache.put("a", "a2", 1);
+        cache.put("c", "c", 1);
+
+        // replacing a result does not move its key
+        assertNull(cache.get("a"));
+        assertEquals("b", cache.get("b").value());
+        assertEquals("c", cache.get("c").value());
+        assertEquals(2L, cache.weight());
+    }
+
+    @Test
+    void invalidate_Cached_ShouldRemoveResult() {
+        cache.put("a", "a", 2);
+        cache.invalidate("a");
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+        assertEquals(0L, cache.weight());
+    }
+
+    @Test
+    void put_InvalidatedKeyCachedAgain_ShouldEvictByItsNewPosition() {
+        cache.put("a", "a", 1);
+        cache.invalidate("a");
+        cache.put("b", "b", 1);
+        cache.put("a", "a2", 1);
+        cache.put("c", "c", 1);
+
+        assertNull(cache.get("b"));
+        assertEquals("a2", cache.get("a").value());
+        assertEquals("c", cache.get("c").value());
+        assertEquals(2L, cache.weight());
+    }
+
+    @Test
+    void get_Expired_ShouldRemoveResult() {
+        cache = new StaleResultCache(2, Duration.ZERO);
+        cache.put("a", "a", 1);
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+        assertEquals(0L, cache.weight());
+    }
+}
@@ -0,0 +1,237 @@
+package de.zeiss.mongodb_ws.spring_geo_service.service;
+
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.ConcurrencyLimitExceededException;
+import de.zeiss.mongodb_ws.spring_geo_service.persistence.QueryResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link StaleWhileRevalidate}.
+ */
+public class StaleWhileRevalidateTest {
+
+    private ExecutorService executorService;
+
+    private StaleWhileRevalidate staleWhileRevalidate;
+
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        executorService = mock(ExecutorService.class);
+        staleWhileRevalidate = new StaleWhileRevalidate();
+        ReflectionTestUtils.setField(staleWhileRevalidate, "backgroundExecutor", executorService);
+        ReflectionTestUtils.setField(staleWhileRevalidate, "enabled", true);
+        ReflectionTestUtils.setField(staleWhileRevalidate, "maxWeight", 3L);
+        ReflectionTestUtils.setField(staleWhileRevalidate, "maxResultWeight", 2);
+        ReflectionTestUtils.setField(staleWhileRevalidate, "ttl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(staleWhileRevalidate, "failureThreshold", 2);
+        ReflectionTestUtils.setField(staleWhileRevalidate, "openDuration", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(staleWhileRevalidate, "slowCallThreshold", Duration.ofMinutes(1));
+        staleWhileRevalidate.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void read_DatabaseUp_ShouldReturnFreshResult() {
+        assertEquals("fresh", staleWhileRevalidate.read("key", () -> "fresh"));
+
+        assertNull(request.getAttribute(StaleWhileRevalidate.STALE_AGE_ATTRIBUTE));
+        verifyNoInteractions(executorService);
+    }
+
+    @Test
+    void read_DatabaseDown_ShouldServeStaleResultAndRefresh() {
+        staleWhileRevalidate.read("key", () -> "cached");
+        AtomicBoolean down = new AtomicBoolean(true);
+        Supplier<String> read = () -> {
+            if (down.get()) {
+                throw new DataAccessResourceFailureException("down");
+            }
+            return "refreshed";
+        };
+
+        assertEquals("cached", staleWhileRevalidate.read("key", read));
+        assertEquals(0L, request.getAttribute(StaleWhileRevalidate.STALE_AGE_ATTRIBUTE));
+
+        // the background refresh updates the cache once the database is back
+        ArgumentCaptor<Runnable> refresh = ArgumentCaptor.forClass(Runnable.class);
+        verify(executorService).execute(refresh.capture());
+        down.set(false);
+        refresh.getValue().run();
+        down.set(true);
+
+        assertEquals("refreshed", staleWhileRevalidate.read("key", read));
+        assertEquals(2L, staleWhileRevalidate.getStatistics().get("staleResponses"));
+        assertEquals(1L, staleWhileRevalidate.getStatistics().get("refreshes"));
+    }
+
+    @Test
+    void read_DatabaseDownWithoutCachedResult_ShouldThrow() {
+        assertThrows(DataAccessResourceFailureException.class, () -> staleWhileRevalidate.read("key", () -> {
+            throw new DataAccessResourceFailureException("down");
+        }));
+        assertNull(request.getAttribute(StaleWhileRevalidate.STALE_AGE_ATTRIBUTE));
+    }
+
+    @Test
+    void read_InvalidRequest_ShouldNotServeStaleResult() {
+        staleWhileRevalidate.read("key", () -> "cached");
+
+        assertThrows(IllegalArgumentException.class, () -> staleWhileRevalidate.read("key", () -> {
+            throw new IllegalArgumentException("invalid");
+        }));
+        assertEquals("closed", staleWhileRevalidate.getStatistics().get("state"));
+    }
+
+    @Test
+    void read_BreakerOpen_ShouldNotCallDatabase() {
+        staleWhileRevalidate.read("key", () -> "cached");
+        for (int i = 0; i < 2; i++) {
+            staleWhileRevalidate.read("key", () -> {
+                throw new DataAccessResourceFailureException("down");
+            });
+        }
+        assertEquals("open", staleWhileRevalidate.getStatistics().get("state"));
+
+        AtomicInteger calls = new AtomicInteger();
+        assertEquals("cached", staleWhileRevalidate.read("key", () -> "fresh" + calls.incrementAndGet()));
+        assertEquals(0, calls.get());
+
+        CircuitBreakerOpenException exception = assertThrows(CircuitBreakerOpenException.class,
+                () -> staleWhileRevalidate.read("unknown", () -> "fresh"));
+        assertEquals(60, exception.getRetryAfterSeconds());
+    }
+
+    @Test
+    void read_ConcurrencyLimitExceeded_ShouldServeStaleResultWithoutOpeningBreaker() {
+        staleWhileRevalidate.read("key", () -> "cached");
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("cached", staleWhileRevalidate.read("key", () -> {
+                throw new ConcurrencyLimitExceededException(1);
+            }));
+        }
+        assertEquals("closed", staleWhileRevalidate.getStatistics().get("state"));
+    }
+
+    @Test
+    void read_QueryTimeout_ShouldNotOpenBreaker() {
+        for (int i = 0; i < 3; i++) {
+            assertThrows(QueryTimeoutException.class, () -> staleWhileRevalidate.read("key", () -> {
+                throw new QueryTimeoutException("operation exceeded time limit");
+            }));
+        }
+        assertEquals("closed", staleWhileRevalidate.getStatistics().get("state"));
+    }
+
+    @Test
+    void read_SlowWithinBudget_ShouldNotOpenBreaker() {
+        ReflectionTestUtils.setField(staleWhileRevalidate, "slowCallThreshold", Duration.ofMillis(1));
+        Supplier<String> slowRead = () -> {
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "slow";
+        };
+
+        for (int i = 0; i < 2; i++) {
+            staleWhileRevalidate.read("key", Duration.ofMinutes(1), slowRead);
+        }
+        assertEquals("closed", staleWhileRevalidate.getStatistics().get("state"));
+
+        for (int i = 0; i < 2; i++) {
+            staleWhileRevalidate.read("key", slowRead);
+        }
+        assertEquals("open", staleWhileRevalidate.getStatistics().get("state"));
+    }
+
+    @Test
+    void read_CacheFull_ShouldEvictFirstCachedResult() {
+        staleWhileRevalidate.read("a", () -> "a");
+        staleWhileRevalidate.read("b", () -> List.of("b1", "b2"));
+        staleWhileRevalidate.read("c", () -> "c");
+
+        assertEquals(2, staleWhileRevalidate.getStatistics().get("cachedResults"));
+        assertEquals(3L, staleWhileRevalidate.getStatistics().get("cachedWeight"));
+        assertThrows(DataAccessResourceFailureException.class, () -> staleWhileRevalidate.read("a", () -> {
+            throw new DataAccessResourceFailureException("down");
+        }));
+    }
+
+    @Test
+    void read_LargeResult_ShouldNotBeCached() {
+        staleWhileRevalidate.read("key", () -> QueryResult.complete(List.of("a", "b", "c")));
+
+        assertEquals(0, staleWhileRevalidate.getStatistics().get("cachedResults"));
+        assertThrows(DataAccessResourceFailureException.class, () -> staleWhileRevalidate.read("key", () -> {
+            throw new DataAccessResourceFailureException("down");
+        }));
+    }
+
+    @Test
+    void read_ResultExpired_ShouldNotServeStaleResult() {
+        ReflectionTestUtils.setField(staleWhileRevalidate, "ttl", Duration.ZERO);
+        staleWhileRevalidate.init();
+        staleWhileRevalidate.read("key", () -> "cached");
+
+        assertThrows(DataAccessResourceFailureException.class, () -> staleWhileRevalidate.read("key", () -> {
+            throw new DataAccessResourceFailureException("down");
+        }));
+        assertEquals(0, staleWhileRevalidate.getStatistics().get("cachedResults"));
+    }
+
+    @Test
+    void invalidate_Cached_ShouldNotServeStaleResult() {
+        staleWhileRevalidate.read("key", () -> "cached");
+        staleWhileRevalidate.invalidate("key");
+
+        assertThrows(DataAccessResourceFailureException.class, () -> staleWhileRevalidate.read("key", () -> {
+            throw new DataAccessResourceFailureException("down");
+        }));
+        assertEquals(0, staleWhileRevalidate.getStatistics().get("cachedResults"));
+    }
+
+    @Test
+    void normalizeCoordinate_NearbyCoordinates_ShouldNotBeEqual() {
+        assertEquals(51.0504, StaleWhileRevalidate.normalizeCoordinate(51.0504));
+        assertNotEquals(StaleWhileRevalidate.normalizeCoordinate(51.0504), StaleWhileRevalidate.normalizeCoordinate(51.0501));
+        assertEquals(Double.valueOf(0.0), Double.valueOf(StaleWhileRevalidate.normalizeCoordinate(-0.0)));
+    }
+
+    @Test
+    void read_Disabled_ShouldPassFailuresThrough() {
+        ReflectionTestUtils.setField(staleWhileRevalidate, "enabled", false);
+
+        assertThrows(DataAccessResourceFailureException.class, () -> staleWhileRevalidate.read("key", () -> {
+            throw new DataAccessResourceFailureException("down");
+        }));
+    }
+}
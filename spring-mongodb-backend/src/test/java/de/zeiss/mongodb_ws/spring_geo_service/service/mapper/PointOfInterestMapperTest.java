@@ -36,6 +36,21 @@ public class PointOfInterestMapperTest {
         assertEquals(LONGITUDE, resource.getLocation().getCoordinates().getLongitude());
     }
 
+    @Test
+    public void testMapToResource_ProjectedEntity_ShouldSkipAbsentFields() {
+        PointOfInterestEntity entity = new PointOfInterestEntity();
+        entity.setId("123");
+        entity.setName("Test POI");
+
+        PointOfInterest resource = PointOfInterestMapper.mapToResource(entity);
+
+        assertNotNull(resource);
+        assertEquals("Test POI", resource.getName());
+        assertNull(resource.getLocation());
+        assertNull(resource.getCategory());
+        assertNull(resource.getDetails());
+    }
+
     @Test
     public void testMapToEntity() {
         PointOfInterest resource = new PointOfInterest();
@@ -0,0 +1,80 @@
+package de.zeiss.mongodb_ws.spring_geo_service.timing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ServerTiming}.
+ */
+public class ServerTimingTest {
+
+    @Test
+    void enter_NotStarted_ShouldNotMeasure() {
+        ServerTiming serverTiming = new ServerTiming();
+
+        assertFalse(serverTiming.enter(Layer.SERVICE));
+        serverTiming.add(Layer.DATABASE, 1000);
+
+        assertFalse(serverTiming.isStarted());
+    }
+
+    @Test
+    void finish_NestedCalls_ShouldCountLayerOnce() throws Exception {
+        ServerTiming serverTiming = new ServerTiming();
+        serverTiming.start(false);
+
+        assertTrue(serverTiming.enter(Layer.SERVICE));
+        assertTrue(serverTiming.enter(Layer.SERVICE));
+        Thread.sleep(5);
+        serverTiming.exit(Layer.SERVICE);
+        serverTiming.exit(Layer.SERVICE);
+        serverTiming.add(Layer.DATABASE, 1_000_000);
+        serverTiming.add(Layer.DATABASE, 2_000_000);
+
+        RequestTimings timings = serverTiming.finish();
+        long serviceNanos = timings.layerNanos().get(Layer.SERVICE);
+        assertTrue(serviceNanos >= 5_000_000 && serviceNanos < timings.totalNanos());
+        assertEquals(3_000_000L, timings.layerNanos().get(Layer.DATABASE));
+        assertFalse(timings.layerNanos().containsKey(Layer.CONTROLLER));
+        assertEquals(-1, timings.cpuNanos());
+        assertEquals(-1, timings.allocatedBytes());
+    }
+
+    @Test
+    void finish_ResourceUsage_ShouldMeasureCpuAndAllocations() {
+        ServerTiming serverTiming = new ServerTiming();
+        serverTiming.start(true);
+
+        byte[][] garbage = new byte[100][];
+        for (int i = 0; i < garbage.length; i++) {
+            garbage[i] = new byte[1024];
+        }
+
+        RequestTimings timings = serverTiming.finish();
+        assertTrue(timings.cpuNanos() >= 0);
+        assertTrue(timings.allocatedBytes() >= 100 * 1024);
+    }
+
+    @Test
+    void finish_LayerNotLeft_ShouldCountUntilNow() throws Exception {
+        ServerTiming serverTiming = new ServerTiming();
+        serverTiming.start(false);
+
+        serverTiming.enter(Layer.SERIALIZATION);
+        Thread.sleep(5);
+
+        assertTrue(serverTiming.isEntered(Layer.SERIALIZATION));
+        assertTrue(serverTiming.finish().layerNanos().get(Layer.SERIALIZATION) >= 5_000_000);
+    }
+
+    @Test
+    void toHeaderValue_ShouldListMetricsWithDurationsInMillis() {
+        RequestTimings timings = new RequestTimings(12_345_678, Map.of(Layer.DATABASE, 8_100_000L), 2_000_000, 4096);
+
+        assertEquals("total;dur=12.35;desc=\"Total\", db;dur=8.10;desc=\"MongoDB\", cpu;dur=2.00;desc=\"CPU time\", "
+                + "alloc;desc=\"4096 bytes allocated\"", timings.toHeaderValue());
+    }
+}
@@ -0,0 +1,115 @@
+package de.zeiss.mongodb_ws.spring_geo_service.tracing;
+
+import com.mongodb.MongoException;
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link TracingCommandListener} and {@link QueryShape}.
+ */
+public class TracingCommandListenerTest {
+
+    private static final ConnectionDescription CONNECTION = new ConnectionDescription(
+            new ServerId(new ClusterId(), new ServerAddress("mongo", 27017)));
+
+    private final InMemorySpanExporter exporter = InMemorySpanExporter.create();
+
+    private final Tracing tracing = new Tracing();
+
+    private final TracingCommandListener listener = new TracingCommandListener();
+
+    @BeforeEach
+    void setUp() {
+        tracing.start(SimpleSpanProcessor.create(exporter));
+        ReflectionTestUtils.setField(listener, "tracing", tracing);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracing.close();
+    }
+
+    @Test
+    void commandSucceeded_GeoNear_ShouldRecordClientSpanWithShapeAndCount() {
+        BsonDocument command = BsonDocument.parse("{aggregate: 'poi', pipeline: [{$geoNear: {near: "
+                + "{type: 'Point', coordinates: [13.7, 51.05]}, key: 'location', maxDistance: 500, spherical: true, "
+                + "distanceField: 'distance'}}, {$limit: 10}], cursor: {}, $db: 'demo-campus', lsid: {id: 1}}");
+
+        Span parent = tracing.getTracer().spanBuilder("IPointOfInterestRepository.findNear").startSpan();
+        try (Scope ignored = parent.makeCurrent()) {
+            listener.commandStarted(new CommandStartedEvent(null, 1, 1, CONNECTION, "demo-campus", "aggregate",
+                    command));
+        }
+        listener.commandSucceeded(new CommandSucceededEvent(null, 1, 1, CONNECTION, "demo-campus", "aggregate",
+                BsonDocument.parse("{cursor: {id: 0, firstBatch: [{}, {}]}, ok: 1}"), 1000));
+        parent.end();
+
+        SpanData span = exporter.getFinishedSpanItems().get(0);
+        assertEquals("aggregate poi", span.getName());
+        assertEquals(SpanKind.CLIENT, span.getKind());
+        assertEquals(parent.getSpanContext().getSpanId(), span.getParentSpanId());
+        assertEquals("{\"aggregate\": \"poi\", \"pipeline\": [{\"$geoNear\": {\"near\": {\"type\": \"?\", "
+                        + "\"coordinates\": [\"?\"]}, \"key\": \"?\", \"maxDistance\": \"?\", \"spherical\": \"?\", "
+                        + "\"distanceField\": \"?\"}}, {\"$limit\": \"?\"}], \"cursor\": {}}",
+                span.getAttributes().get(AttributeKey.stringKey("db.query.text")));
+        assertEquals(2L, span.getAttributes().get(AttributeKey.longKey("db.response.returned_rows")));
+        assertEquals("poi", span.getAttributes().get(AttributeKey.stringKey("db.collection.name")));
+    }
+
+    @Test
+    void commandSucceeded_Update_ShouldRecordNumberOfWrittenDocuments() {
+        listener.commandStarted(new CommandStartedEvent(null, 2, 2, CONNECTION, "demo-campus", "update",
+                BsonDocument.parse("{update: 'poi', updates: [{q: {_id: 'a'}, u: {name: 'b'}, upsert: true}]}")));
+        listener.commandSucceeded(new CommandSucceededEvent(null, 2, 2, CONNECTION, "demo-campus", "update",
+                BsonDocument.parse("{n: 1, nModified: 0, ok: 1}"), 1000));
+
+        SpanData span = exporter.getFinishedSpanItems().get(0);
+        assertEquals("{\"update\": \"poi\", \"updates\": [{\"q\": {\"_id\": \"?\"}, \"u\": {\"name\": \"?\"}, "
+                + "\"upsert\": \"?\"}]}", span.getAttributes().get(AttributeKey.stringKey("db.query.text")));
+        assertEquals(1L, span.getAttributes().get(AttributeKey.longKey("db.response.returned_rows")));
+    }
+
+    @Test
+    void commandFailed_ShouldRecordError() {
+        listener.commandStarted(new CommandStartedEvent(null, 3, 3, CONNECTION, "demo-campus", "find",
+                BsonDocument.parse("{find: 'poi', filter: {_id: 'a'}}")));
+        listener.commandFailed(new CommandFailedEvent(null, 3, 3, CONNECTION, "demo-campus", "find", 1000,
+                new MongoException("timeout")));
+
+        SpanData span = exporter.getFinishedSpanItems().get(0);
+        assertEquals(StatusCode.ERROR, span.getStatus().getStatusCode());
+        assertEquals(1, span.getEvents().size());
+    }
+
+    @Test
+    void commandStarted_Disabled_ShouldNotRecordSpans() {
+        tracing.close();
+
+        listener.commandStarted(new CommandStartedEvent(null, 4, 4, CONNECTION, "demo-campus", "find",
+                BsonDocument.parse("{find: 'poi'}")));
+        listener.commandSucceeded(new CommandSucceededEvent(null, 4, 4, CONNECTION, "demo-campus", "find",
+                BsonDocument.parse("{ok: 1}"), 1000));
+
+        assertTrue(exporter.getFinishedSpanItems().isEmpty());
+    }
+}
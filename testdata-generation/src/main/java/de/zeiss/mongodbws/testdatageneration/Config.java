@@ -3,6 +3,7 @@ package de.zeiss.mongodbws.testdatageneration;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
+import java.net.http.HttpClient;
 import java.util.Properties;
 
 /**
@@ -19,6 +20,11 @@ public final class Config {
     private static final String POI_SERVICE_PORT = "poiservice.port";
     private static final String POI_SERVICE_PATH = "poiservice.restpath";
 
+    /**
+     * Shared by the import and the load test, so that they reuse its connections.
+     */
+    private static final HttpClient HTTP_CLIENT = HttpClient.newHttpClient();
+
     static {
         try (InputStream is = Thread.currentThread()
                 .getContextClassLoader()
@@ -35,6 +41,13 @@ public final class Config {
         // we don't want instances of this class
     }
 
+    /**
+     * @return the HTTP client for requests to the POI service
+     */
+    public static HttpClient getHttpClient() {
+        return HTTP_CLIENT;
+    }
+
     /**
      * Constructs the full URL for the POI service based on configuration properties.
      *
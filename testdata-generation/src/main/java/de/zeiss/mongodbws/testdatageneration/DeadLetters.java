@@ -0,0 +1,64 @@
+package de.zeiss.mongodbws.testdatageneration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The waypoints the POI service rejected, appended to a file as one JSON object per line, so they can be examined and
+ * sent again after the import without stopping it.
+ */
+final class DeadLetters {
+
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+
+    private final Path file;
+
+    private int count;
+
+    /**
+     * @param file   the dead letter file
+     * @param resume true to append to the file of an interrupted import, false to start a new one
+     * @throws IOException if an existing file cannot be deleted
+     */
+    DeadLetters(Path file, boolean resume) throws IOException {
+        this.file = file;
+        if (!resume) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * @param gpxFile the GPX file of the waypoint, relative to the resource folder
+     * @param offset  the index of the waypoint in the file
+     * @param poiJson the point of interest that was sent
+     * @param error   the reason the point of interest was rejected
+     * @throws IOException if the dead letter file cannot be written
+     */
+    void add(String gpxFile, long offset, String poiJson, String error) throws IOException {
+        ObjectNode deadLetter = JSON_MAPPER.createObjectNode()
+                .put("file", gpxFile)
+                .put("offset", offset)
+                .put("error", error);
+        deadLetter.set("poi", JSON_MAPPER.readTree(poiJson));
+
+        Files.writeString(file, JSON_MAPPER.writeValueAsString(deadLetter) + System.lineSeparator(),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        count++;
+    }
+
+    /**
+     * @return the number of waypoints rejected since this import was started
+     */
+    int count() {
+        return count;
+    }
+
+    Path getFile() {
+        return file;
+    }
+}
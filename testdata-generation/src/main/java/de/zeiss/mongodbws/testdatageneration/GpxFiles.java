@@ -0,0 +1,92 @@
+package de.zeiss.mongodbws.testdatageneration;
+
+import com.topografix.gpx.GpxType;
+import com.topografix.gpx.WptType;
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+
+import javax.xml.transform.stream.StreamSource;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Reads the waypoints of the GPX files in the resource folders. The name of the folder of a GPX file is the category of
+ * its waypoints.
+ */
+public final class GpxFiles {
+
+    /**
+     * The folder of the GPX files, relative to the root of the repository.
+     */
+    public static final Path RESOURCE_DIR = Paths.get("testdata-generation/src/main/resources");
+
+    private static final JAXBContext JAXB_CONTEXT;
+
+    static {
+        try {
+            JAXB_CONTEXT = JAXBContext.newInstance(GpxType.class);
+        } catch (JAXBException e) {
+            throw new IllegalStateException("Failed to create the JAXB context for GPX files", e);
+        }
+    }
+
+    private GpxFiles() {
+        // we don't want instances of this class
+    }
+
+    /**
+     * @param file a GPX file
+     * @return the waypoints of the file in their order
+     * @throws JAXBException if the file cannot be parsed
+     */
+    public static List<WptType> readWaypoints(File file) throws JAXBException {
+        // unmarshallers are not thread safe, so each call creates its own
+        GpxType gpx = JAXB_CONTEXT.createUnmarshaller().unmarshal(new StreamSource(file), GpxType.class).getValue();
+        return gpx.getWpt();
+    }
+
+    /**
+     * Reads the waypoints of all GPX files below the directory.
+     *
+     * @param resourceDir the directory with a folder per category
+     * @return the waypoints by category, i.e. the name of the folder of their file
+     * @throws IOException if the directory cannot be read
+     */
+    public static Map<String, List<WptType>> readAll(Path resourceDir) throws IOException {
+        Map<String, List<WptType>> waypoints = new TreeMap<>();
+        try (Stream<Path> paths = Files.walk(resourceDir)) {
+            for (Path path : paths.filter(p -> p.toString().toLowerCase().endsWith(".gpx")).sorted().toList()) {
+                String category = path.getParent().getFileName().toString();
+                try {
+                    waypoints.computeIfAbsent(category, c -> new ArrayList<>()).addAll(readWaypoints(path.toFile()));
+                } catch (JAXBException e) {
+                    throw new IOException("Failed to read GPX file: " + path, e);
+                }
+            }
+        }
+        return waypoints;
+    }
+
+    /**
+     * Reads the locations of the waypoints of all GPX files below the directory, e.g. as start points of generated
+     * data or load.
+     *
+     * @param resourceDir the directory with a folder per category
+     * @return latitude and longitude of the waypoints
+     * @throws IOException if the directory cannot be read
+     */
+    public static List<double[]> readLocations(Path resourceDir) throws IOException {
+        return readAll(resourceDir).values().stream()
+                .flatMap(List::stream)
+                .map(waypoint -> new double[]{waypoint.getLat().doubleValue(), waypoint.getLon().doubleValue()})
+                .toList();
+    }
+}
@@ -0,0 +1,70 @@
+package de.zeiss.mongodbws.testdatageneration;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The progress of an import: the number of waypoints of each GPX file that were already imported or rejected. It is
+ * saved to a state file after every waypoint, so an interrupted import can be resumed where it stopped. A waypoint sent
+ * again because the import stopped before its progress was saved updates its POI, as the id of the POI is derived from
+ * the file and offset of the waypoint.
+ */
+final class ImportCheckpoint {
+
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+
+    private final Path stateFile;
+
+    private final Map<String, Long> offsets;
+
+    private ImportCheckpoint(Path stateFile, Map<String, Long> offsets) {
+        this.stateFile = stateFile;
+        this.offsets = offsets;
+    }
+
+    /**
+     * @param stateFile the file the progress is saved to
+     * @param resume    true to continue with the progress saved in the file, false to start over
+     * @return the checkpoint
+     * @throws IOException if the state file cannot be read
+     */
+    static ImportCheckpoint open(Path stateFile, boolean resume) throws IOException {
+        Map<String, Long> offsets = new TreeMap<>();
+        if (resume && Files.exists(stateFile)) {
+            offsets.putAll(JSON_MAPPER.readValue(stateFile.toFile(), new TypeReference<Map<String, Long>>() {
+            }));
+        }
+        return new ImportCheckpoint(stateFile, offsets);
+    }
+
+    /**
+     * @param file the GPX file, relative to the resource folder
+     * @return the number of waypoints of the file already done
+     */
+    long offset(String file) {
+        return offsets.getOrDefault(file, 0L);
+    }
+
+    /**
+     * Saves that the waypoints of the file before the offset are done.
+     *
+     * @param file   the GPX file, relative to the resource folder
+     * @param offset the index of the next waypoint of the file
+     * @throws IOException if the state file cannot be written
+     */
+    void advance(String file, long offset) throws IOException {
+        offsets.put(file, offset);
+
+        // the state file is replaced atomically, so a crash leaves either the previous or the new state
+        Path tempFile = stateFile.resolveSibling(stateFile.getFileName() + ".tmp");
+        JSON_MAPPER.writeValue(tempFile.toFile(), offsets);
+        Files.move(tempFile, stateFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -2,49 +2,113 @@ package de.zeiss.mongodbws.testdatageneration;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.topografix.gpx.GpxType;
 import com.topografix.gpx.WptType;
 import de.zeiss.mongodbws.testdatageneration.model.PointOfInterest;
 import de.zeiss.mongodbws.testdatageneration.model.PointOfInterestFactory;
-import jakarta.xml.bind.JAXBContext;
-import jakarta.xml.bind.JAXBElement;
-import jakarta.xml.bind.Unmarshaller;
+import jakarta.xml.bind.JAXBException;
+import org.bson.types.ObjectId;
 
-import javax.xml.transform.stream.StreamSource;
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Stream;
 
+/**
+ * Imports the waypoints of the GPX files into the POI service.
+ * <p>
+ * Every waypoint is sent with {@code PUT /poi/{id}}, which creates the POI, with an id derived from its file and
+ * offset. So retrying a request whose response was lost, or sending a waypoint again after a resume, updates the POI
+ * instead of creating it twice.
+ * <p>
+ * The progress is checkpointed per file and waypoint to a state file, and waypoints the service rejects are written to
+ * a dead letter file instead of aborting the import. Failed requests are retried with backoff, but not before the
+ * Retry-After of an overloaded service. If the service stays unavailable, the import stops and can be continued with
+ * {@code --resume}.
+ * <p>
+ * Usage: {@code Main [--resume] [--state=<file>] [--dead-letters=<file>] [--attempts=<attempts per waypoint>]}
+ */
 public class Main {
 
     private final ObjectMapper JSON_MAPPER = new ObjectMapper();
 
-    private static final HttpClient client = HttpClient.newHttpClient();
-    private static final String POI_SERVICE_URL = Config.getPoiServiceUrl();
-
     private static final Logger LOG = Logger.getLogger(Main.class.getName());
 
-    public static void main(String[] args) {
+    private final HttpClient client;
+    private final String poiServiceUrl;
+    private final ImportCheckpoint checkpoint;
+    private final DeadLetters deadLetters;
+    private final RetryPolicy retryPolicy;
 
-        LOG.info("Starting POI data generation and upload to: " + POI_SERVICE_URL);
+    private final SplittableRandom random = new SplittableRandom();
 
-        Main main = new Main();
-        main.processAllResourceFolders();
+    /**
+     * @param client        the HTTP client
+     * @param poiServiceUrl the URL of the POI service
+     * @param checkpoint    the progress of the import
+     * @param deadLetters   the waypoints rejected by the service
+     * @param retryPolicy   the retries of failed requests
+     */
+    Main(HttpClient client, String poiServiceUrl, ImportCheckpoint checkpoint, DeadLetters deadLetters,
+         RetryPolicy retryPolicy) {
+        this.client = client;
+        this.poiServiceUrl = poiServiceUrl;
+        this.checkpoint = checkpoint;
+        this.deadLetters = deadLetters;
+        this.retryPolicy = retryPolicy;
     }
 
-    public void processAllResourceFolders() {
-        Path resourceDir = Paths.get("testdata-generation/src/main/resources");
+    public static void main(String[] args) throws IOException {
+        Options options = Options.parse(args);
+        boolean resume = options.isSet("resume");
+
+        ImportCheckpoint checkpoint = ImportCheckpoint.open(Paths.get(options.get("state", "import-state.json")), resume);
+        DeadLetters deadLetters = new DeadLetters(Paths.get(options.get("dead-letters", "import-dead-letters.jsonl")),
+                resume);
+        RetryPolicy retryPolicy = new RetryPolicy((int) options.getLong("attempts", 5), Duration.ofMillis(500),
+                Duration.ofSeconds(30));
+
+        String poiServiceUrl = Config.getPoiServiceUrl();
+        LOG.info((resume ? "Resuming" : "Starting") + " POI data generation and upload to: " + poiServiceUrl);
+
+        Main main = new Main(Config.getHttpClient(), poiServiceUrl, checkpoint, deadLetters, retryPolicy);
+        try {
+            main.processAllResourceFolders(GpxFiles.RESOURCE_DIR);
+        } catch (IllegalStateException e) {
+            LOG.severe("Import stopped, continue it with --resume: " + e.getMessage());
+            throw e;
+        }
+
+        if (deadLetters.count() > 0) {
+            LOG.warning(deadLetters.count() + " waypoints were rejected, see " + deadLetters.getFile().toAbsolutePath());
+        }
+    }
 
+    /**
+     * Processes the folders below the resource directory, each containing the GPX files of a category.
+     *
+     * @param resourceDir the resource directory
+     */
+    public void processAllResourceFolders(Path resourceDir) {
         try (Stream<Path> paths = Files.walk(resourceDir)) {
             paths.filter(Files::isDirectory)
                     .forEach(f -> processFolder(f));
@@ -72,35 +136,52 @@ public class Main {
     }
 
     /**
-     * Processes a single GPX file, extracting waypoints and posting them to the POI service.
+     * Processes a single GPX file, extracting waypoints and posting them to the POI service. Waypoints done by a
+     * previous run of the import are skipped.
      *
      * @param file       the GPX file to process
      * @param folderName the category name derived from the folder
      */
     private void processFile(File file, String folderName) {
-        LOG.info("Processing file: " + file.getAbsolutePath() + " in category: " + folderName);
+        String checkpointKey = folderName + "/" + file.getName();
+        long offset = checkpoint.offset(checkpointKey);
 
         try {
-            JAXBContext jaxbContext = JAXBContext.newInstance(GpxType.class);
-            Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
-            JAXBElement<GpxType> root = unmarshaller.unmarshal(new StreamSource(file), GpxType.class);
-            GpxType gpx = root.getValue();
+            List<WptType> waypoints = GpxFiles.readWaypoints(file);
 
-            LOG.info("Found " + gpx.getWpt().size() + " waypoints in file: " + file.getName());
+            if (offset >= waypoints.size()) {
+                LOG.info("Skipping file already imported: " + file.getAbsolutePath());
+                return;
+            }
+            LOG.info("Processing file: " + file.getAbsolutePath() + " in category: " + folderName + ", "
+                    + waypoints.size() + " waypoints" + (offset > 0 ? ", resuming at " + offset : ""));
 
-            gpx.getWpt().forEach(wpt -> postWaypoint(wpt, folderName));
-        } catch (Exception e) {
+            for (int i = (int) offset; i < waypoints.size(); i++) {
+                putWaypoint(waypoints.get(i), folderName, checkpointKey, i);
+                checkpoint.advance(checkpointKey, i + 1);
+            }
+        } catch (JAXBException e) {
             LOG.log(Level.WARNING, "Error processing file: " + file.getAbsolutePath(), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error saving the progress of file: " + file.getAbsolutePath(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import interrupted in file: " + file.getAbsolutePath(), e);
         }
     }
 
     /**
-     * Posts a waypoint as a PointOfInterest to the POI service.
+     * Puts a waypoint as a PointOfInterest to the POI service. Server errors and timeouts are retried, rejected
+     * waypoints are written to the dead letters.
      *
-     * @param waypoint the waypoint to post
-     * @param category the category of the waypoint
+     * @param waypoint      the waypoint to put
+     * @param category      the category of the waypoint
+     * @param checkpointKey the GPX file of the waypoint, relative to the resource folder
+     * @param offset        the index of the waypoint in the file
+     * @throws IllegalStateException if the POI service cannot be reached
      */
-    private void postWaypoint(WptType waypoint, String category) {
+    private void putWaypoint(WptType waypoint, String category, String checkpointKey, long offset)
+            throws IOException, InterruptedException {
         PointOfInterest poi = PointOfInterestFactory.createFromWptType(waypoint, category);
 
         String json = "";
@@ -111,23 +192,97 @@ public class Main {
             LOG.warning("Error converting Waypoint to JSON: " + e.getMessage());
             return;
         }
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(POI_SERVICE_URL))
-                    .header("Content-Type", "application/json")
-                    .POST(HttpRequest.BodyPublishers.ofString(json))
-                    .build();
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-
-            if (response.statusCode() != 201) {
-                LOG.warning("Error posting POI: " + response.statusCode() + " - " + response.body());
-                throw new IllegalStateException("Error posting POI: " + response.statusCode() + " - " + response.body());
+
+        ObjectId id = poiId(checkpointKey, offset);
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(poiServiceUrl + "/" + id.toHexString()))
+                .header("Content-Type", "application/json")
+                // isolates the import from interactive clients of the service
+                .header("X-Request-Priority", "low")
+                .PUT(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+
+        for (int attempt = 1; ; attempt++) {
+            String error;
+            Duration retryAfter = null;
+            try {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+                // 201 if created, 204 if a previous attempt already created it
+                if (response.statusCode() == 201 || response.statusCode() == 204) {
+                    LOG.fine("Response: " + response.statusCode() + " - " + response.body());
+                    return;
+                }
+
+                error = response.statusCode() + " - " + response.body();
+                if (!isRetryable(response.statusCode()) || attempt == retryPolicy.maxAttempts()) {
+                    LOG.warning("Error putting POI " + checkpointKey + "#" + offset + ", writing it to the dead letters: "
+                            + error);
+                    deadLetters.add(checkpointKey, offset, json, error);
+                    return;
+                }
+                if (response.statusCode() == 429 || response.statusCode() == 503) {
+                    retryAfter = retryAfter(response.headers().firstValue("Retry-After").orElse(null), Instant.now());
+                }
+            } catch (IOException e) {
+                error = e.toString();
+                if (attempt == retryPolicy.maxAttempts()) {
+                    throw new IllegalStateException("Error putting POI " + checkpointKey + "#" + offset + ": " + error, e);
+                }
             }
 
-            LOG.fine("Response: " + response.statusCode() + " - " + response.body());
-        } catch (Exception e) {
-            LOG.warning("Error posting POI: " + e.getMessage());
-            throw new IllegalStateException("Error posting POI: " + e.getMessage(), e);
+            Duration delay = retryPolicy.delay(attempt, random.nextDouble(), retryAfter);
+            LOG.info("Error putting POI: " + error + ", retrying in " + delay.toMillis() + " ms");
+            Thread.sleep(delay);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Derives the id of a waypoint from its position in the GPX files, so that it is the same on every attempt and in
+     * every run of the import.
+     *
+     * @param checkpointKey the GPX file of the waypoint, relative to the resource folder
+     * @param offset        the index of the waypoint in the file
+     * @return the first 12 bytes of the SHA-256 hash of file and offset as ObjectId
+     */
+    static ObjectId poiId(String checkpointKey, long offset) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest((checkpointKey + "#" + offset).getBytes(StandardCharsets.UTF_8));
+            return new ObjectId(Arrays.copyOf(hash, 12));
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param retryAfter the Retry-After header, seconds or an HTTP date, may be null
+     * @param now        the current time
+     * @return the time the service asks to wait before the next attempt, null if not given or invalid
+     */
+    static Duration retryAfter(String retryAfter, Instant now) {
+        if (retryAfter == null || retryAfter.isBlank()) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(Long.parseLong(retryAfter.trim()), 0));
+        } catch (NumberFormatException e) {
+            // not seconds, but a date
+        }
+        try {
+            Instant date = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            return date.isAfter(now) ? Duration.between(now, date) : Duration.ZERO;
+        } catch (DateTimeParseException e) {
+            LOG.fine("Ignoring invalid Retry-After: " + retryAfter);
+            return null;
+        }
+    }
+
+    /**
+     * @return true if the request may succeed when sent again, i.e. on timeouts, throttling and server errors
+     */
+    static boolean isRetryable(int statusCode) {
+        return statusCode == 408 || statusCode == 429 || statusCode >= 500;
+    }
+}
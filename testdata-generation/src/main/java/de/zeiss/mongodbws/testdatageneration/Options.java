@@ -0,0 +1,76 @@
+package de.zeiss.mongodbws.testdatageneration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line options of the form {@code --name=value}, or {@code --name} for a flag.
+ */
+public final class Options {
+
+    private final Map<String, String> values;
+
+    private Options(Map<String, String> values) {
+        this.values = values;
+    }
+
+    /**
+     * @param args the command line arguments
+     * @return the options
+     * @throws IllegalArgumentException if an argument is no option
+     */
+    public static Options parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || arg.length() == 2) {
+                throw new IllegalArgumentException("Invalid option, expected --name=value or --name: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                values.put(arg.substring(2), "true");
+            } else {
+                values.put(arg.substring(2, separator), arg.substring(separator + 1));
+            }
+        }
+        return new Options(values);
+    }
+
+    /**
+     * @param name         the name of the option
+     * @param defaultValue the value if the option is not given
+     * @return the value of the option
+     */
+    public String get(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    /**
+     * @param name         the name of the option
+     * @param defaultValue the value if the option is not given
+     * @return the value of the option
+     * @throws NumberFormatException if the value is no number
+     */
+    public long getLong(String name, long defaultValue) {
+        String value = values.get(name);
+        return value != null ? Long.parseLong(value) : defaultValue;
+    }
+
+    /**
+     * @param name         the name of the option
+     * @param defaultValue the value if the option is not given
+     * @return the value of the option
+     * @throws NumberFormatException if the value is no number
+     */
+    public double getDouble(String name, double defaultValue) {
+        String value = values.get(name);
+        return value != null ? Double.parseDouble(value) : defaultValue;
+    }
+
+    /**
+     * @param name the name of the flag
+     * @return true if the flag is given without a value or with the value true
+     */
+    public boolean isSet(String name) {
+        return Boolean.parseBoolean(values.get(name));
+    }
+}
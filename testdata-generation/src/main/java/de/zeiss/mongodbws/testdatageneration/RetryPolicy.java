@@ -0,0 +1,41 @@
+package de.zeiss.mongodbws.testdatageneration;
+
+import java.time.Duration;
+
+/**
+ * Retries of a request with exponential backoff. The delays are randomized, so clients failing at the same time do not
+ * retry at the same time again.
+ *
+ * @param maxAttempts  the number of attempts including the first one
+ * @param initialDelay the delay after the first attempt
+ * @param maxDelay     the upper limit of the delays
+ */
+record RetryPolicy(int maxAttempts, Duration initialDelay, Duration maxDelay) {
+
+    RetryPolicy {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("At least one attempt is needed: " + maxAttempts);
+        }
+    }
+
+    /**
+     * @param attempt the number of the failed attempt, starting at 1
+     * @param jitter  a random number in [0, 1)
+     * @return the delay before the next attempt, between half and all of the exponential delay
+     */
+    Duration delay(int attempt, double jitter) {
+        long capped = Math.min(initialDelay.toMillis() << Math.min(attempt - 1, 30), maxDelay.toMillis());
+        return Duration.ofMillis((long) (capped * (0.5 + jitter / 2)));
+    }
+
+    /**
+     * @param attempt    the number of the failed attempt, starting at 1
+     * @param jitter     a random number in [0, 1)
+     * @param retryAfter the time the service asked to wait (Retry-After), may be null
+     * @return the delay before the next attempt, at least the time the service asked to wait
+     */
+    Duration delay(int attempt, double jitter, Duration retryAfter) {
+        Duration delay = delay(attempt, jitter);
+        return retryAfter != null && retryAfter.compareTo(delay) > 0 ? retryAfter : delay;
+    }
+}
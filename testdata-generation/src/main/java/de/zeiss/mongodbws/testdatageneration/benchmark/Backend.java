@@ -0,0 +1,38 @@
+package de.zeiss.mongodbws.testdatageneration.benchmark;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A backend of the POI service as a Docker image. All backends serve the same REST API on port 8080 under
+ * /zdi-geo-service/api/poi and connect to the MongoDB with the host name "mongodb".
+ *
+ * @param name  the name of the backend in the report
+ * @param image the default Docker image, built from the Dockerfile of the backend
+ * @param env   the environment variables pointing the backend to the MongoDB
+ */
+record Backend(String name, String image, Map<String, String> env) {
+
+    static final List<Backend> ALL = List.of(
+            // the MicroProfile config of WildFly maps the variable to the property mongodb.host
+            new Backend("jee", "demo-campus-jee-backend", Map.of("MONGODB_HOST", "mongodb")),
+            // the image starts with the prod profile, which connects to the host mongodb
+            new Backend("spring", "demo-campus-spring-backend", Map.of()),
+            new Backend("dotnet", "dotnet-mongodb-backend", Map.of(
+                    "ASPNETCORE_ENVIRONMENT", "Production",
+                    "MongoSettings__ConnectionString", "mongodb://mongodb:27017",
+                    "MongoSettings__Database", "demo-campus",
+                    "MongoSettings__Collections__Pois", "point-of-interest")));
+
+    /**
+     * @param name the name of a backend
+     * @return the backend
+     * @throws IllegalArgumentException if there is no backend of the name
+     */
+    static Backend byName(String name) {
+        return ALL.stream()
+                .filter(backend -> backend.name().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown backend: " + name));
+    }
+}
@@ -0,0 +1,283 @@
+package de.zeiss.mongodbws.testdatageneration.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import de.zeiss.mongodbws.testdatageneration.GpxFiles;
+import de.zeiss.mongodbws.testdatageneration.Options;
+import de.zeiss.mongodbws.testdatageneration.loadtest.LatencyRecorder;
+import de.zeiss.mongodbws.testdatageneration.loadtest.LoadTest;
+import de.zeiss.mongodbws.testdatageneration.synthetic.SyntheticDataLoader;
+import de.zeiss.mongodbws.testdatageneration.synthetic.SyntheticPoiGenerator;
+import org.bson.Document;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * Compares the backends of the POI service under the same conditions. For each backend it
+ * <ol>
+ *     <li>starts a fresh MongoDB container and loads the same synthetic data set, see {@link SyntheticDataLoader},</li>
+ *     <li>starts the container of the backend and measures the time until it accepts HTTP requests (startup) and until
+ *     it answers the first query of points of interest successfully (time to first request),</li>
+ *     <li>warms the backend up and runs the same load test with the same seed, see {@link LoadTest}, while sampling
+ *     the resident set size of the container, see {@link RssSampler},</li>
+ *     <li>removes the containers again.</li>
+ * </ol>
+ * The backends run one after the other on the same machine, so they do not compete for resources. The results are
+ * written to a JSON report and logged side by side.
+ * <p>
+ * The Docker images of the backends must be built before, see the READMEs of the backends.
+ * <p>
+ * Usage: {@code BenchmarkHarness [--backends=jee,spring,dotnet] [--count=<points of interest>]
+ * [--rate=<sessions per second>] [--duration=<seconds>] [--warmup=<seconds>] [--seed=<seed>] [--port=<port>]
+ * [--mongo-port=<port>] [--mongo-image=<image>] [--<backend>-image=<image>] [--report=<file>]}
+ */
+public class BenchmarkHarness {
+
+    private static final Logger LOG = Logger.getLogger(BenchmarkHarness.class.getName());
+
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+
+    static final String NETWORK = "geo-benchmark";
+
+    static final String MONGODB_CONTAINER = "geo-benchmark-mongodb";
+
+    static final String SERVICE_PATH = "/zdi-geo-service/api/poi";
+
+    /**
+     * Time a container gets to become ready.
+     */
+    static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(5);
+
+    static final Duration POLL_INTERVAL = Duration.ofMillis(100);
+
+    private final Options options;
+
+    private final List<double[]> startPoints;
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    /**
+     * @param options     the options of the benchmark
+     * @param startPoints latitude and longitude of the seeds of the data set and the start points of the sessions
+     */
+    BenchmarkHarness(Options options, List<double[]> startPoints) {
+        this.options = options;
+        this.startPoints = startPoints;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Options options = Options.parse(args);
+        BenchmarkHarness harness = new BenchmarkHarness(options, GpxFiles.readLocations(GpxFiles.RESOURCE_DIR));
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (String name : options.get("backends", "jee,spring,dotnet").split(",")) {
+            results.add(harness.run(Backend.byName(name.trim())));
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startedAt", Instant.now().toString());
+        report.put("pointsOfInterest", options.getLong("count", 100_000));
+        report.put("backends", results);
+        Path reportFile = Paths.get(options.get("report", "benchmark-report.json"));
+        JSON_MAPPER.writerWithDefaultPrettyPrinter().writeValue(reportFile.toFile(), report);
+
+        LOG.info("Benchmark report written to " + reportFile.toAbsolutePath() + System.lineSeparator()
+                + toTable(results));
+    }
+
+    /**
+     * Benchmarks a backend.
+     *
+     * @param backend the backend
+     * @return the startup times, the resident set sizes and the report of the load test
+     */
+    Map<String, Object> run(Backend backend) throws IOException, InterruptedException {
+        String container = "geo-benchmark-" + backend.name();
+        String image = options.get(backend.name() + "-image", backend.image());
+        int port = (int) options.getLong("port", 8080);
+        URI serviceUrl = URI.create("http://localhost:" + port + SERVICE_PATH);
+
+        Docker.runQuietly("network", "create", NETWORK);
+        try {
+            startMongoDB();
+
+            LOG.info("Starting " + image);
+            List<String> command = new ArrayList<>(List.of("run", "-d", "--name", container, "--network", NETWORK,
+                    "-p", port + ":8080"));
+            backend.env().forEach((name, value) -> command.addAll(List.of("-e", name + "=" + value)));
+            command.add(image);
+
+            long startNanos = System.nanoTime();
+            Docker.run(command.toArray(String[]::new));
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("backend", backend.name());
+            result.put("image", image);
+            result.putAll(awaitFirstRequest(serviceUrl, startNanos));
+            result.put("idleRssMb", RssSampler.sample(container) / 1024);
+
+            long seed = options.getLong("seed", 1);
+            LOG.info("Warming up " + backend.name());
+            new LoadTest(serviceUrl, options.getDouble("rate", 20),
+                    Duration.ofSeconds(options.getLong("warmup", 30)), seed + 1, startPoints).run();
+
+            LOG.info("Running the load test against " + backend.name());
+            LoadTest loadTest = new LoadTest(serviceUrl, options.getDouble("rate", 20),
+                    Duration.ofSeconds(options.getLong("duration", 120)), seed, startPoints);
+            Instant startedAt = Instant.now();
+            try (RssSampler rss = new RssSampler(container)) {
+                loadTest.run();
+                result.put("peakRssMb", rss.getPeakKilobytes() / 1024);
+            }
+            result.put("loadTest", loadTest.toReport(startedAt));
+            return result;
+        } finally {
+            Docker.runQuietly("rm", "-f", container);
+            Docker.runQuietly("rm", "-f", MONGODB_CONTAINER);
+        }
+    }
+
+    /**
+     * Starts an empty MongoDB and loads the synthetic data set into it, the same for every backend.
+     */
+    private void startMongoDB() throws IOException, InterruptedException {
+        int mongoPort = (int) options.getLong("mongo-port", 27018);
+        Docker.runQuietly("rm", "-f", MONGODB_CONTAINER);
+        Docker.run("run", "-d", "--name", MONGODB_CONTAINER, "--network", NETWORK, "--network-alias", "mongodb",
+                "-p", mongoPort + ":27017",
+                options.get("mongo-image", "mongodb/mongodb-community-server:8.0.13-ubuntu2204"));
+
+        try (MongoClient mongoClient = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString("mongodb://localhost:" + mongoPort))
+                .applyToClusterSettings(cluster -> cluster.serverSelectionTimeout(1, TimeUnit.SECONDS))
+                .build())) {
+            awaitMongoDB(mongoClient);
+
+            MongoCollection<Document> collection = mongoClient.getDatabase("demo-campus")
+                    .getCollection("point-of-interest");
+            SyntheticDataLoader loader = new SyntheticDataLoader(collection,
+                    new SyntheticPoiGenerator(startPoints, options.getLong("seed", 1)), 1000,
+                    Runtime.getRuntime().availableProcessors());
+            loader.load(options.getLong("count", 100_000));
+            loader.createIndexes();
+        }
+    }
+
+    private static void awaitMongoDB(MongoClient mongoClient) throws InterruptedException {
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (true) {
+            try {
+                mongoClient.getDatabase("admin").runCommand(new Document("ping", 1));
+                return;
+            } catch (MongoException e) {
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("MongoDB did not start within " + STARTUP_TIMEOUT, e);
+                }
+                Thread.sleep(POLL_INTERVAL);
+            }
+        }
+    }
+
+    /**
+     * Queries points of interest until the backend answers successfully.
+     *
+     * @param serviceUrl the URL of the POI service
+     * @param startNanos the {@link System#nanoTime()} the container was started
+     * @return the seconds until the backend answered the first request at all and successfully
+     */
+    private Map<String, Object> awaitFirstRequest(URI serviceUrl, long startNanos) throws InterruptedException {
+        double[] startPoint = startPoints.getFirst();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(serviceUrl + String.format(Locale.ROOT,
+                        "?lat=%.6f&lon=%.6f&radius=1000", startPoint[0], startPoint[1])))
+                .header("Accept", "application/json")
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+
+        Map<String, Object> times = new LinkedHashMap<>();
+        long deadline = startNanos + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                double seconds = (System.nanoTime() - startNanos) / 1e9;
+                // e.g. WildFly answers with 404 until the application is deployed
+                times.putIfAbsent("startupSeconds", seconds);
+                if (response.statusCode() == 200) {
+                    times.put("timeToFirstRequestSeconds", seconds);
+                    return times;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(POLL_INTERVAL);
+        }
+        throw new IllegalStateException("The backend did not answer successfully within " + STARTUP_TIMEOUT);
+    }
+
+    /**
+     * @param results the results of the backends
+     * @return the main figures of the backends side by side
+     */
+    @SuppressWarnings("unchecked")
+    static String toTable(List<Map<String, Object>> results) {
+        Map<String, Function<Map<String, Object>, Object>> rows = new LinkedHashMap<>();
+        rows.put("startup (s)", result -> result.get("startupSeconds"));
+        rows.put("time to first request (s)", result -> result.get("timeToFirstRequestSeconds"));
+        rows.put("idle RSS (MB)", result -> result.get("idleRssMb"));
+        rows.put("peak RSS (MB)", result -> result.get("peakRssMb"));
+        rows.put("throughput (requests/s)", result -> loadTest(result).get("requestsPerSecond"));
+        rows.put("requests", result -> all(result).get("requests"));
+        rows.put("errors", result -> all(result).get("errors"));
+        for (String percentile : List.of("p50", "p90", "p99", "p999", "max")) {
+            rows.put(percentile + " response time (ms)",
+                    result -> ((Map<String, Object>) all(result).getOrDefault("responseTimeMs", Map.of()))
+                            .get(percentile));
+        }
+
+        StringBuilder table = new StringBuilder(String.format(Locale.ROOT, "%-28s", ""));
+        results.forEach(result -> table.append(String.format(Locale.ROOT, "%14s", result.get("backend"))));
+        rows.forEach((label, value) -> {
+            table.append(System.lineSeparator()).append(String.format(Locale.ROOT, "%-28s", label));
+            results.forEach(result -> table.append(format(value.apply(result))));
+        });
+        return table.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> loadTest(Map<String, Object> result) {
+        return (Map<String, Object>) result.getOrDefault("loadTest", Map.of());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> all(Map<String, Object> result) {
+        Map<String, Object> endpoints = (Map<String, Object>) loadTest(result).getOrDefault("endpoints", Map.of());
+        return (Map<String, Object>) endpoints.getOrDefault(LatencyRecorder.ALL, Map.of());
+    }
+
+    private static String format(Object value) {
+        if (value instanceof Double number) {
+            return String.format(Locale.ROOT, "%14.2f", number);
+        }
+        return String.format(Locale.ROOT, "%14s", value != null ? value : "-");
+    }
+}
@@ -0,0 +1,51 @@
+package de.zeiss.mongodbws.testdatageneration.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Runs commands of the Docker CLI, which must be on the path.
+ */
+final class Docker {
+
+    private static final Logger LOG = Logger.getLogger(Docker.class.getName());
+
+    private Docker() {
+        // we don't want instances of this class
+    }
+
+    /**
+     * @param args the arguments of the docker command, e.g. "run", "-d", "image"
+     * @return the output of the command
+     * @throws IOException if the command fails
+     */
+    static String run(String... args) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add("docker");
+        command.addAll(List.of(args));
+
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+        int exitCode = process.waitFor();
+        if (exitCode != 0) {
+            throw new IOException(String.join(" ", command) + " failed with exit code " + exitCode + ": " + output);
+        }
+        return output;
+    }
+
+    /**
+     * Runs a command whose failure is expected or irrelevant, e.g. removing a container which may not exist.
+     *
+     * @param args the arguments of the docker command
+     */
+    static void runQuietly(String... args) throws InterruptedException {
+        try {
+            run(args);
+        } catch (IOException e) {
+            LOG.fine(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package de.zeiss.mongodbws.testdatageneration.benchmark;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Samples the resident set size of all processes of a container, e.g. the shell script starting WildFly and its JVM,
+ * in a virtual thread. Unlike the memory usage of docker stats it excludes the page cache of the container.
+ */
+class RssSampler implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(RssSampler.class.getName());
+
+    private static final Pattern VM_RSS = Pattern.compile("^VmRSS:\\s+(\\d+)\\s+kB", Pattern.MULTILINE);
+
+    static final Duration INTERVAL = Duration.ofSeconds(1);
+
+    private final String container;
+
+    private final AtomicLong peakKilobytes = new AtomicLong();
+
+    private final Thread thread;
+
+    /**
+     * Starts sampling.
+     *
+     * @param container the name of the container
+     */
+    RssSampler(String container) {
+        this.container = container;
+        this.thread = Thread.ofVirtual().name("rss-" + container).start(this::sampleUntilClosed);
+    }
+
+    /**
+     * @param container the name of the container
+     * @return the resident set size of all processes of the container in kilobytes
+     */
+    static long sample(String container) throws IOException, InterruptedException {
+        return parseRssKilobytes(Docker.run("exec", container, "sh", "-c", "cat /proc/[0-9]*/status"));
+    }
+
+    /**
+     * @param status the contents of /proc/[pid]/status of one or more processes
+     * @return the sum of their resident set sizes in kilobytes
+     */
+    static long parseRssKilobytes(String status) {
+        long kilobytes = 0;
+        Matcher matcher = VM_RSS.matcher(status);
+        while (matcher.find()) {
+            kilobytes += Long.parseLong(matcher.group(1));
+        }
+        return kilobytes;
+    }
+
+    private void sampleUntilClosed() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    peakKilobytes.accumulateAndGet(sample(container), Math::max);
+                } catch (IOException e) {
+                    LOG.fine("Sampling the RSS of " + container + " failed: " + e.getMessage());
+                }
+                Thread.sleep(INTERVAL);
+            }
+        } catch (InterruptedException e) {
+            // closed
+        }
+    }
+
+    /**
+     * @return the highest resident set size sampled in kilobytes
+     */
+    long getPeakKilobytes() {
+        return peakKilobytes.get();
+    }
+
+    /**
+     * Stops sampling.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        thread.interrupt();
+        thread.join();
+    }
+}
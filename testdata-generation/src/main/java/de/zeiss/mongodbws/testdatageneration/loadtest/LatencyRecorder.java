@@ -0,0 +1,119 @@
+package de.zeiss.mongodbws.testdatageneration.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the latencies of the requests per endpoint in HdrHistograms with microsecond resolution.
+ * <p>
+ * The response time is measured from the time the request was intended to be sent, not from the time it was actually
+ * sent. If the load generator falls behind its schedule, e.g. because all connections are busy with slow requests, the
+ * waiting is part of the latency. This corrects the coordinated omission of load generators which only measure the
+ * service time, i.e. from sending the request, which hides the stalls of the service.
+ */
+public class LatencyRecorder {
+
+    /**
+     * Latencies above are recorded as this value.
+     */
+    static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    /**
+     * Name of the latencies of the requests of all endpoints.
+     */
+    public static final String ALL = "all";
+
+    static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    static final String[] PERCENTILE_NAMES = {"p50", "p90", "p99", "p999"};
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    /**
+     * @param endpoint      the name of the endpoint, e.g. "radius"
+     * @param intendedNanos the {@link System#nanoTime()} the request was scheduled for
+     * @param sentNanos     the {@link System#nanoTime()} the request was sent
+     * @param doneNanos     the {@link System#nanoTime()} the response was received or the request failed
+     * @param success       false if the request failed or the response was an error
+     */
+    void record(String endpoint, long intendedNanos, long sentNanos, long doneNanos, boolean success) {
+        long responseTime = micros(doneNanos - Math.min(intendedNanos, sentNanos));
+        long serviceTime = micros(doneNanos - sentNanos);
+        for (String name : new String[]{endpoint, ALL}) {
+            Endpoint recorded = endpoints.computeIfAbsent(name, e -> new Endpoint());
+            recorded.responseTime.recordValue(responseTime);
+            recorded.serviceTime.recordValue(serviceTime);
+            if (!success) {
+                recorded.errors.increment();
+            }
+        }
+    }
+
+    private static long micros(long nanos) {
+        return Math.clamp(TimeUnit.NANOSECONDS.toMicros(nanos), 0, HIGHEST_TRACKABLE_MICROS);
+    }
+
+    /**
+     * @param endpoint the name of the endpoint
+     * @return the response times of the endpoint, corrected for coordinated omission, or null if nothing was recorded
+     */
+    Histogram getResponseTimes(String endpoint) {
+        Endpoint recorded = endpoints.get(endpoint);
+        return recorded != null ? recorded.responseTime : null;
+    }
+
+    /**
+     * @return the number of requests of all endpoints without errors
+     */
+    long getSuccessfulRequests() {
+        Endpoint all = endpoints.get(ALL);
+        return all != null ? all.responseTime.getTotalCount() - all.errors.sum() : 0;
+    }
+
+    /**
+     * @return the number of requests, errors and the percentiles of the response and service times in milliseconds
+     * per endpoint and for {@link #ALL} endpoints
+     */
+    Map<String, Object> toReport() {
+        Map<String, Object> report = new TreeMap<>();
+        endpoints.forEach((name, endpoint) -> {
+            Map<String, Object> statistics = new LinkedHashMap<>();
+            statistics.put("requests", endpoint.responseTime.getTotalCount());
+            statistics.put("errors", endpoint.errors.sum());
+            statistics.put("responseTimeMs", percentiles(endpoint.responseTime));
+            statistics.put("serviceTimeMs", percentiles(endpoint.serviceTime));
+            report.put(name, statistics);
+        });
+        return report;
+    }
+
+    private static Map<String, Double> percentiles(Histogram histogram) {
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            percentiles.put(PERCENTILE_NAMES[i], millis(histogram.getValueAtPercentile(PERCENTILES[i])));
+        }
+        percentiles.put("max", millis(histogram.getMaxValue()));
+        percentiles.put("mean", millis(histogram.getMean()));
+        return percentiles;
+    }
+
+    private static double millis(double micros) {
+        return Math.round(micros) / 1000.0;
+    }
+
+    private static final class Endpoint {
+
+        final Histogram responseTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+
+        final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+
+        final LongAdder errors = new LongAdder();
+    }
+}
@@ -0,0 +1,158 @@
+package de.zeiss.mongodbws.testdatageneration.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.zeiss.mongodbws.testdatageneration.Config;
+import de.zeiss.mongodbws.testdatageneration.GpxFiles;
+import de.zeiss.mongodbws.testdatageneration.Options;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Logger;
+
+/**
+ * Load test of the POI service replaying user sessions of the map frontend, see {@link UserSession}. It works with
+ * both Java backends as they provide the same REST API.
+ * <p>
+ * The sessions arrive at a given rate independent of the response times of the service (open model), with
+ * exponentially distributed gaps like independent users. Each session runs in a virtual thread. The latencies are
+ * recorded per endpoint and corrected for coordinated omission, see {@link LatencyRecorder}. At the end a JSON report
+ * is written.
+ * <p>
+ * Usage: {@code LoadTest [--url=<poi service url>] [--rate=<sessions per second>] [--duration=<seconds>]
+ * [--seed=<seed>] [--report=<file>]}
+ */
+public class LoadTest {
+
+    private static final Logger LOG = Logger.getLogger(LoadTest.class.getName());
+
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+
+    /**
+     * Time the sessions running at the end of the test get to complete their current action.
+     */
+    static final Duration GRACE_PERIOD = Duration.ofSeconds(30);
+
+    private final URI serviceUrl;
+
+    private final double sessionsPerSecond;
+
+    private final Duration duration;
+
+    private final long seed;
+
+    private final List<double[]> startPoints;
+
+    private final LatencyRecorder recorder = new LatencyRecorder();
+
+    private long sessions;
+
+    private Duration elapsed = Duration.ZERO;
+
+    /**
+     * @param serviceUrl        the URL of the POI service
+     * @param sessionsPerSecond the arrival rate of the sessions
+     * @param duration          the duration in which sessions are started
+     * @param seed              the seed of the random numbers
+     * @param startPoints       latitude and longitude of the points the sessions start at
+     */
+    public LoadTest(URI serviceUrl, double sessionsPerSecond, Duration duration, long seed,
+                    List<double[]> startPoints) {
+        if (sessionsPerSecond <= 0) {
+            throw new IllegalArgumentException("The rate must be positive: " + sessionsPerSecond);
+        }
+        if (startPoints.isEmpty()) {
+            throw new IllegalArgumentException("No start points for the sessions");
+        }
+        this.serviceUrl = serviceUrl;
+        this.sessionsPerSecond = sessionsPerSecond;
+        this.duration = duration;
+        this.seed = seed;
+        this.startPoints = startPoints;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Options options = Options.parse(args);
+
+        List<double[]> startPoints = GpxFiles.readLocations(GpxFiles.RESOURCE_DIR);
+
+        LoadTest loadTest = new LoadTest(URI.create(options.get("url", Config.getPoiServiceUrl())),
+                options.getDouble("rate", 2), Duration.ofSeconds(options.getLong("duration", 60)),
+                options.getLong("seed", 1), startPoints);
+
+        Instant startedAt = Instant.now();
+        loadTest.run();
+
+        Map<String, Object> report = loadTest.toReport(startedAt);
+        Path reportFile = Paths.get(options.get("report", "load-test-report.json"));
+        JSON_MAPPER.writerWithDefaultPrettyPrinter().writeValue(reportFile.toFile(), report);
+        LOG.info("Load test report written to " + reportFile.toAbsolutePath() + ": "
+                + JSON_MAPPER.writeValueAsString(report.get("endpoints")));
+    }
+
+    /**
+     * Starts sessions at the arrival rate for the duration and waits for them to complete.
+     */
+    public void run() throws InterruptedException {
+        LOG.info("Starting " + sessionsPerSecond + " sessions per second for " + duration + " against " + serviceUrl);
+
+        SplittableRandom random = new SplittableRandom(seed);
+        long startNanos = System.nanoTime();
+        long endNanos = startNanos + duration.toNanos();
+        double meanGapNanos = TimeUnit.SECONDS.toNanos(1) / sessionsPerSecond;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long arrivalNanos = startNanos;
+            while (arrivalNanos < endNanos) {
+                long delay = arrivalNanos - System.nanoTime();
+                if (delay > 0) {
+                    LockSupport.parkNanos(delay);
+                }
+
+                double[] startPoint = startPoints.get(random.nextInt(startPoints.size()));
+                // the session is scheduled for the arrival time, so a late start counts into its first request
+                executor.execute(new UserSession(Config.getHttpClient(), serviceUrl, recorder, random.split(),
+                        startPoint[0], startPoint[1], arrivalNanos, endNanos));
+                sessions++;
+
+                arrivalNanos += (long) (-meanGapNanos * Math.log(1 - random.nextDouble()));
+            }
+
+            executor.shutdown();
+            if (!executor.awaitTermination(GRACE_PERIOD.toMillis(), TimeUnit.MILLISECONDS)) {
+                LOG.warning("Sessions still running after the grace period, interrupting them");
+                executor.shutdownNow();
+            }
+        }
+        elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * @param startedAt the start of the load test
+     * @return the parameters of the load test, the throughput and the latencies per endpoint
+     */
+    public Map<String, Object> toReport(Instant startedAt) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("url", serviceUrl.toString());
+        report.put("startedAt", startedAt.toString());
+        report.put("sessionsPerSecond", sessionsPerSecond);
+        report.put("durationSeconds", duration.toSeconds());
+        report.put("seed", seed);
+        report.put("sessions", sessions);
+        report.put("requestsPerSecond", recorder.getSuccessfulRequests()
+                / Math.max(elapsed.toNanos() / 1e9, Double.MIN_NORMAL));
+        report.put("endpoints", recorder.toReport());
+        return report;
+    }
+}
@@ -0,0 +1,215 @@
+package de.zeiss.mongodbws.testdatageneration.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A user of the map frontend: opens the map at a zoom level, pans and zooms around, looks at the details of some of
+ * the points of interest found and occasionally edits one.
+ * <p>
+ * Like the frontend, every change of the map section queries the points of interest within the radius of the zoom
+ * level around the center of the map. The user waits for the response and then looks at the map for a think time
+ * before the next action.
+ */
+class UserSession implements Runnable {
+
+    private static final Logger LOG = Logger.getLogger(UserSession.class.getName());
+
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+
+    static final String RADIUS = "radius";
+    static final String DETAILS = "details";
+    static final String EDIT = "edit";
+
+    /**
+     * Mean number of pans of a session.
+     */
+    static final double MEAN_PANS = 6;
+
+    /**
+     * Mean time a user looks at the map before the next action.
+     */
+    static final Duration MEAN_THINK_TIME = Duration.ofSeconds(3);
+
+    /**
+     * Probability of a zoom instead of a pan.
+     */
+    static final double ZOOM_PROBABILITY = 0.2;
+
+    /**
+     * Probability of looking at the details of a point of interest after the map was updated.
+     */
+    static final double DETAILS_PROBABILITY = 0.3;
+
+    /**
+     * Probability of editing the point of interest whose details are shown.
+     */
+    static final double EDIT_PROBABILITY = 0.05;
+
+    static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+
+    private final URI serviceUrl;
+
+    private final LatencyRecorder recorder;
+
+    private final SplittableRandom random;
+
+    private final long endNanos;
+
+    private double latitude;
+
+    private double longitude;
+
+    private int zoom;
+
+    /**
+     * The next action is intended to start at this {@link System#nanoTime()}.
+     */
+    private long intendedNanos;
+
+    /**
+     * @param client     the HTTP client
+     * @param serviceUrl the URL of the POI service, e.g. http://localhost:8080/zdi-geo-service/api/poi
+     * @param recorder   records the latencies of the requests
+     * @param random     the random numbers of this session
+     * @param latitude   the latitude of the first map center
+     * @param longitude  the longitude of the first map center
+     * @param startNanos the {@link System#nanoTime()} the session was scheduled to start at
+     * @param endNanos   the {@link System#nanoTime()} after which no further actions are started
+     */
+    UserSession(HttpClient client, URI serviceUrl, LatencyRecorder recorder, SplittableRandom random, double latitude,
+                double longitude, long startNanos, long endNanos) {
+        this.client = client;
+        this.serviceUrl = serviceUrl;
+        this.recorder = recorder;
+        this.random = random;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.intendedNanos = startNanos;
+        this.endNanos = endNanos;
+        // most users look at a city or a district
+        this.zoom = ZoomLevels.clamp(12 + random.nextInt(4) - random.nextInt(3));
+    }
+
+    @Override
+    public void run() {
+        long pans = Math.round(-MEAN_PANS * Math.log(1 - random.nextDouble()));
+        for (long i = 0; i <= pans && intendedNanos < endNanos; i++) {
+            if (i > 0) {
+                move();
+            }
+
+            JsonNode pois = get(RADIUS, URI.create(serviceUrl + String.format(Locale.ROOT,
+                    "?lat=%.6f&lon=%.6f&radius=%d&expand=details", latitude, longitude,
+                    ZoomLevels.toRadius(zoom))));
+            think();
+
+            if (pois != null && pois.isArray() && !pois.isEmpty() && random.nextDouble() < DETAILS_PROBABILITY
+                    && intendedNanos < endNanos) {
+                JsonNode poi = pois.get(random.nextInt(pois.size()));
+                if (poi.hasNonNull("href")) {
+                    showDetails(serviceUrl.resolve(poi.get("href").asText()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Pans the map by about half a radius in a random direction or zooms in or out.
+     */
+    private void move() {
+        if (random.nextDouble() < ZOOM_PROBABILITY) {
+            zoom = ZoomLevels.clamp(zoom + (random.nextBoolean() ? 1 : -1));
+            return;
+        }
+
+        double distance = ZoomLevels.toRadius(zoom) * (0.3 + 0.5 * random.nextDouble());
+        double bearing = 2 * Math.PI * random.nextDouble();
+        latitude = Math.clamp(latitude + Math.toDegrees(distance * Math.cos(bearing) / 6_371_000), -85, 85);
+        longitude += Math.toDegrees(distance * Math.sin(bearing) / 6_371_000 / Math.cos(Math.toRadians(latitude)));
+        longitude = ((longitude + 540) % 360) - 180;
+    }
+
+    private void showDetails(URI href) {
+        JsonNode poi = get(DETAILS, href);
+        think();
+
+        if (poi != null && poi.isObject() && random.nextDouble() < EDIT_PROBABILITY && intendedNanos < endNanos) {
+            // saves the point of interest unchanged, so the data set stays the same
+            send(EDIT, HttpRequest.newBuilder(href)
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(poi.toString())));
+            think();
+        }
+    }
+
+    private JsonNode get(String endpoint, URI uri) {
+        String body = send(endpoint, HttpRequest.newBuilder(uri).header("Accept", "application/json").GET());
+        try {
+            return body != null ? JSON_MAPPER.readTree(body) : null;
+        } catch (Exception e) {
+            LOG.fine("Invalid response of " + uri + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Sends the request at its intended time, or immediately if the session is behind its schedule.
+     *
+     * @return the body of a successful response, null otherwise
+     */
+    private String send(String endpoint, HttpRequest.Builder request) {
+        sleepUntil(intendedNanos);
+
+        long sentNanos = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request.timeout(REQUEST_TIMEOUT).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            boolean success = response.statusCode() / 100 == 2;
+            recorder.record(endpoint, intendedNanos, sentNanos, System.nanoTime(), success);
+            if (!success) {
+                LOG.fine("Error response of " + endpoint + ": " + response.statusCode());
+            }
+            return success ? response.body() : null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            recorder.record(endpoint, intendedNanos, sentNanos, System.nanoTime(), false);
+            return null;
+        } catch (Exception e) {
+            recorder.record(endpoint, intendedNanos, sentNanos, System.nanoTime(), false);
+            LOG.log(Level.FINE, "Request of " + endpoint + " failed", e);
+            return null;
+        } finally {
+            // the user waits for the response before thinking about the next action
+            intendedNanos = Math.max(intendedNanos, System.nanoTime());
+        }
+    }
+
+    /**
+     * Schedules the next action after an exponentially distributed think time.
+     */
+    private void think() {
+        intendedNanos += (long) (-MEAN_THINK_TIME.toNanos() * Math.log(1 - random.nextDouble()));
+    }
+
+    private static void sleepUntil(long nanos) {
+        long delay;
+        while ((delay = nanos - System.nanoTime()) > 0 && !Thread.currentThread().isInterrupted()) {
+            LockSupport.parkNanos(Math.min(delay, TimeUnit.SECONDS.toNanos(1)));
+        }
+    }
+}
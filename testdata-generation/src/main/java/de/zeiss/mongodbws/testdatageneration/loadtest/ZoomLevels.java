@@ -0,0 +1,48 @@
+package de.zeiss.mongodbws.testdatageneration.loadtest;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * The search radius the frontend queries for a zoom level of the map, see {@code mapZoomToRadius()} in
+ * {@code angular-maps-frontend/src/app/service/map-data.service.ts}.
+ */
+final class ZoomLevels {
+
+    /**
+     * Search radius in meters by zoom level.
+     */
+    static final NavigableMap<Integer, Integer> RADIUS_BY_ZOOM = new TreeMap<>(Map.of(
+            9, 50000,
+            10, 30000,
+            11, 20000,
+            12, 10000,
+            13, 3000,
+            14, 2000,
+            15, 1000));
+
+    private ZoomLevels() {
+        // we don't want instances of this class
+    }
+
+    /**
+     * Zoom levels between the mapped ones use the radius of the closest lower one, zoom levels below the smallest one
+     * the radius of the smallest one.
+     *
+     * @param zoom the zoom level of the map
+     * @return the search radius in meters
+     */
+    static int toRadius(int zoom) {
+        Map.Entry<Integer, Integer> entry = RADIUS_BY_ZOOM.floorEntry(zoom);
+        return (entry != null ? entry : RADIUS_BY_ZOOM.firstEntry()).getValue();
+    }
+
+    /**
+     * @param zoom a zoom level
+     * @return the zoom level limited to the mapped ones
+     */
+    static int clamp(int zoom) {
+        return Math.clamp(zoom, RADIUS_BY_ZOOM.firstKey(), RADIUS_BY_ZOOM.lastKey());
+    }
+}
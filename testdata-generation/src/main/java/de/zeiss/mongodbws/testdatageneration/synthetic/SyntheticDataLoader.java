@@ -0,0 +1,155 @@
+package de.zeiss.mongodbws.testdatageneration.synthetic;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.WriteConcern;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.InsertManyOptions;
+import de.zeiss.mongodbws.testdatageneration.GpxFiles;
+import de.zeiss.mongodbws.testdatageneration.Options;
+import org.bson.Document;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Loads a large synthetic data set of points of interest straight into MongoDB, bypassing the REST API of the
+ * backends. The points of interest are generated in clusters around the waypoints of the GPX files, see
+ * {@link SyntheticPoiGenerator}, and written with unordered {@code insertMany} batches by parallel threads. The indexes
+ * of the backends are created after loading, which is much faster than maintaining them while inserting.
+ * <p>
+ * Usage: {@code SyntheticDataLoader [--uri=<connection string>] [--database=<name>] [--collection=<name>]
+ * [--count=<points of interest>] [--batch-size=<documents>] [--threads=<threads>] [--seed=<seed>] [--drop]}
+ */
+public class SyntheticDataLoader {
+
+    private static final Logger LOG = Logger.getLogger(SyntheticDataLoader.class.getName());
+
+    /**
+     * Progress is logged every this many points of interest.
+     */
+    static final long PROGRESS_INTERVAL = 1_000_000;
+
+    private final MongoCollection<Document> collection;
+
+    private final SyntheticPoiGenerator generator;
+
+    private final int batchSize;
+
+    private final int threads;
+
+    /**
+     * @param collection the collection to insert into
+     * @param generator  generates the points of interest
+     * @param batchSize  the number of documents per insertMany
+     * @param threads    the number of batches generated and inserted in parallel
+     */
+    public SyntheticDataLoader(MongoCollection<Document> collection, SyntheticPoiGenerator generator, int batchSize,
+                               int threads) {
+        if (batchSize <= 0 || threads <= 0) {
+            throw new IllegalArgumentException("Batch size and threads must be positive: " + batchSize + ", " + threads);
+        }
+        this.collection = collection;
+        this.generator = generator;
+        this.batchSize = batchSize;
+        this.threads = threads;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Options options = Options.parse(args);
+
+        SyntheticPoiGenerator generator = new SyntheticPoiGenerator(GpxFiles.readLocations(GpxFiles.RESOURCE_DIR),
+                options.getLong("seed", 1));
+
+        int threads = (int) options.getLong("threads", Runtime.getRuntime().availableProcessors());
+        try (MongoClient client = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(options.get("uri", "mongodb://localhost:27017")))
+                .applyToConnectionPoolSettings(pool -> pool.maxSize(threads))
+                .build())) {
+            MongoCollection<Document> collection = client.getDatabase(options.get("database", "demo-campus"))
+                    .getCollection(options.get("collection", "point-of-interest"))
+                    // acknowledged by the primary only, the data set can be generated again
+                    .withWriteConcern(WriteConcern.W1);
+
+            if (options.isSet("drop")) {
+                LOG.info("Dropping collection " + collection.getNamespace());
+                collection.drop();
+            }
+
+            SyntheticDataLoader loader = new SyntheticDataLoader(collection, generator,
+                    (int) options.getLong("batch-size", 1000), threads);
+            loader.load(options.getLong("count", 1_000_000));
+            loader.createIndexes();
+        }
+    }
+
+    /**
+     * Generates and inserts the points of interest.
+     *
+     * @param count the number of points of interest
+     * @return the number of inserted documents
+     */
+    public long load(long count) throws InterruptedException {
+        LOG.info("Loading " + count + " points of interest into " + collection.getNamespace() + " with " + threads
+                + " threads");
+
+        long batches = (count + batchSize - 1) / batchSize;
+        AtomicLong inserted = new AtomicLong();
+        long startNanos = System.nanoTime();
+        InsertManyOptions insertOptions = new InsertManyOptions().ordered(false);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (long batch = 0; batch < batches; batch++) {
+                long firstIndex = batch * batchSize;
+                int size = (int) Math.min(batchSize, count - firstIndex);
+                futures.add(executor.submit(() -> {
+                    collection.insertMany(generator.generateBatch(firstIndex, size), insertOptions);
+                    long total = inserted.addAndGet(size);
+                    if (total / PROGRESS_INTERVAL != (total - size) / PROGRESS_INTERVAL) {
+                        LOG.info("Inserted " + total + " points of interest, " + perSecond(total, startNanos)
+                                + " per second");
+                    }
+                }));
+            }
+
+            try {
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (ExecutionException e) {
+                executor.shutdownNow();
+                throw new IllegalStateException("Inserting points of interest failed", e.getCause());
+            }
+        }
+
+        LOG.info("Inserted " + inserted.get() + " points of interest in "
+                + Duration.ofNanos(System.nanoTime() - startNanos).toSeconds() + " s, "
+                + perSecond(inserted.get(), startNanos) + " per second");
+        return inserted.get();
+    }
+
+    private static long perSecond(long count, long startNanos) {
+        return count * 1_000_000_000L / Math.max(System.nanoTime() - startNanos, 1);
+    }
+
+    /**
+     * Creates the 2dsphere index the geo queries of the backends need and the index of the category.
+     */
+    public void createIndexes() {
+        LOG.info("Creating indexes of " + collection.getNamespace());
+        collection.createIndex(Indexes.geo2dsphere("location"));
+        collection.createIndex(Indexes.ascending("category"));
+    }
+}
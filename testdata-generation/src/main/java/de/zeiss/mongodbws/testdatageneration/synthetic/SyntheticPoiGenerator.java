@@ -0,0 +1,197 @@
+package de.zeiss.mongodbws.testdatageneration.synthetic;
+
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Generates points of interest in clusters around seed points, e.g. the waypoints of the GPX files.
+ * <p>
+ * Each seed is the center of a metropolitan area of districts. The districts lie at log-normally distributed distances
+ * from the seed, most of them close to it, and the points of interest are normally distributed around the center of
+ * their district. Categories follow a fixed mix, the length of the details a log-normal distribution with a long tail.
+ * <p>
+ * The points of interest of a batch only depend on the seed of the generator and the index of its first point of
+ * interest, so a data set is reproducible even if the batches are generated in parallel and in any order.
+ */
+public class SyntheticPoiGenerator {
+
+    /**
+     * Share of the categories, like in a city: many restaurants, parking lots and cafés, few police stations.
+     */
+    static final Map<String, Double> CATEGORY_MIX = categoryMix();
+
+    /**
+     * Number of districts around each seed.
+     */
+    static final int DISTRICTS_PER_SEED = 200;
+
+    /**
+     * Median distance of the districts from their seed in meters.
+     */
+    static final double MEDIAN_DISTRICT_DISTANCE = 5000;
+
+    /**
+     * Median standard deviation of the distance of the points of interest from the center of their district in meters.
+     */
+    static final double MEDIAN_DISTRICT_RADIUS = 500;
+
+    /**
+     * Median length of the details in characters.
+     */
+    static final double MEDIAN_DETAILS_LENGTH = 120;
+
+    static final int MAX_DETAILS_LENGTH = 4000;
+
+    private static final double EARTH_RADIUS = 6_371_000;
+
+    private static final String[] STREETS = {"Hauptstraße", "Bahnhofstraße", "Schillerstraße", "Goethestraße",
+            "Lindenallee", "Marktplatz", "Bergstraße", "Wiesenweg", "Am Park", "Dorfstraße", "Kirchgasse",
+            "Gartenstraße"};
+
+    private static final String[] WORDS = {"open", "daily", "from", "until", "parking", "available", "wheelchair",
+            "accessible", "cards", "accepted", "near", "the", "station", "city", "center", "free", "wifi", "terrace",
+            "family", "friendly", "reservation", "recommended", "closed", "on", "holidays", "entrance", "at", "rear"};
+
+    private final long seed;
+
+    private final String[] categories;
+
+    private final double[] cumulativeShares;
+
+    /**
+     * Centers of the districts as latitude and longitude, {@link #DISTRICTS_PER_SEED} per seed point.
+     */
+    private final List<double[]> districts = new ArrayList<>();
+
+    /**
+     * Standard deviations of the distance from the district centers in meters.
+     */
+    private final List<Double> districtRadii = new ArrayList<>();
+
+    /**
+     * @param seedPoints latitude and longitude of the seed points
+     * @param seed       the seed of the random numbers
+     */
+    public SyntheticPoiGenerator(List<double[]> seedPoints, long seed) {
+        if (seedPoints.isEmpty()) {
+            throw new IllegalArgumentException("No seed points to generate points of interest around");
+        }
+        this.seed = seed;
+
+        categories = CATEGORY_MIX.keySet().toArray(String[]::new);
+        cumulativeShares = new double[categories.length];
+        double total = CATEGORY_MIX.values().stream().mapToDouble(Double::doubleValue).sum();
+        double cumulative = 0;
+        for (int i = 0; i < categories.length; i++) {
+            cumulative += CATEGORY_MIX.get(categories[i]) / total;
+            cumulativeShares[i] = cumulative;
+        }
+
+        SplittableRandom random = new SplittableRandom(seed);
+        for (double[] seedPoint : seedPoints) {
+            for (int i = 0; i < DISTRICTS_PER_SEED; i++) {
+                double distance = logNormal(random, MEDIAN_DISTRICT_DISTANCE, 1.0);
+                districts.add(offset(seedPoint[0], seedPoint[1], distance, 2 * Math.PI * random.nextDouble()));
+                districtRadii.add(logNormal(random, MEDIAN_DISTRICT_RADIUS, 0.5));
+            }
+        }
+    }
+
+    private static Map<String, Double> categoryMix() {
+        Map<String, Double> mix = new LinkedHashMap<>();
+        mix.put("restaurant", 0.20);
+        mix.put("parking", 0.14);
+        mix.put("coffee", 0.10);
+        mix.put("company", 0.10);
+        mix.put("supermarket", 0.08);
+        mix.put("cash", 0.08);
+        mix.put("lodging", 0.07);
+        mix.put("toilet", 0.06);
+        mix.put("gasstation", 0.05);
+        mix.put("pharmacy", 0.05);
+        mix.put("post", 0.04);
+        mix.put("police", 0.01);
+        return mix;
+    }
+
+    /**
+     * @param firstIndex the index of the first point of interest of the batch
+     * @param size       the number of points of interest in the batch
+     * @return the points of interest of the batch as documents of the collection of the backends
+     */
+    public List<Document> generateBatch(long firstIndex, int size) {
+        // a random generator per batch keeps the data set independent of the order the batches are generated in
+        SplittableRandom random = new SplittableRandom(seed * 0x9E3779B97F4A7C15L + firstIndex);
+        List<Document> documents = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            documents.add(generate(random, firstIndex + i));
+        }
+        return documents;
+    }
+
+    private Document generate(SplittableRandom random, long index) {
+        int district = random.nextInt(districts.size());
+        double[] center = districts.get(district);
+        double distance = Math.abs(random.nextGaussian()) * districtRadii.get(district);
+        double[] location = offset(center[0], center[1], distance, 2 * Math.PI * random.nextDouble());
+
+        String category = category(random.nextDouble());
+        return new Document("category", category)
+                .append("name", capitalize(category) + " " + index)
+                .append("details", details(random))
+                .append("location", new Document("type", "Point")
+                        .append("coordinates", List.of(location[1], location[0])));
+    }
+
+    /**
+     * @param uniform a random number in [0, 1)
+     * @return the category whose share contains the number
+     */
+    String category(double uniform) {
+        for (int i = 0; i < cumulativeShares.length - 1; i++) {
+            if (uniform < cumulativeShares[i]) {
+                return categories[i];
+            }
+        }
+        return categories[categories.length - 1];
+    }
+
+    /**
+     * @return an address like in the GPX files, followed by a description of log-normally distributed length
+     */
+    private static String details(SplittableRandom random) {
+        int length = (int) Math.min(logNormal(random, MEDIAN_DETAILS_LENGTH, 0.8), MAX_DETAILS_LENGTH);
+        StringBuilder details = new StringBuilder(length + 16)
+                .append(STREETS[random.nextInt(STREETS.length)]).append(' ').append(1 + random.nextInt(120))
+                .append(", ").append(String.format(Locale.ROOT, "%05d", 1000 + random.nextInt(98000)))
+                .append(", Tel.: +49 ").append(100 + random.nextInt(900)).append(' ').append(random.nextInt(1_000_000));
+        while (details.length() < length) {
+            details.append(' ').append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return details.toString();
+    }
+
+    private static String capitalize(String category) {
+        return Character.toUpperCase(category.charAt(0)) + category.substring(1);
+    }
+
+    private static double logNormal(SplittableRandom random, double median, double sigma) {
+        return median * Math.exp(sigma * random.nextGaussian());
+    }
+
+    /**
+     * @return latitude and longitude of the point at the distance in meters and bearing in radians from the given one
+     */
+    static double[] offset(double latitude, double longitude, double distance, double bearing) {
+        double lat = latitude + Math.toDegrees(distance * Math.cos(bearing) / EARTH_RADIUS);
+        double lon = longitude
+                + Math.toDegrees(distance * Math.sin(bearing) / EARTH_RADIUS / Math.cos(Math.toRadians(latitude)));
+        return new double[]{Math.clamp(lat, -89.9, 89.9), ((lon + 540) % 360) - 180};
+    }
+}
@@ -0,0 +1,49 @@
+package de.zeiss.mongodbws.testdatageneration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ImportCheckpoint.
+ */
+public class ImportCheckpointTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void offset_unknownFile_returnsZero() throws IOException {
+        ImportCheckpoint checkpoint = ImportCheckpoint.open(tempDir.resolve("state.json"), true);
+
+        assertEquals(0, checkpoint.offset("restaurant/restaurant.gpx"));
+    }
+
+    @Test
+    void advance_resume_returnsSavedOffsets() throws IOException {
+        ImportCheckpoint checkpoint = ImportCheckpoint.open(tempDir.resolve("state.json"), false);
+        checkpoint.advance("restaurant/restaurant.gpx", 3);
+        checkpoint.advance("coffee/coffee.gpx", 1);
+        checkpoint.advance("restaurant/restaurant.gpx", 4);
+
+        ImportCheckpoint resumed = ImportCheckpoint.open(tempDir.resolve("state.json"), true);
+
+        assertEquals(4, resumed.offset("restaurant/restaurant.gpx"));
+        assertEquals(1, resumed.offset("coffee/coffee.gpx"));
+        assertFalse(Files.exists(tempDir.resolve("state.json.tmp")));
+    }
+
+    @Test
+    void open_noResume_ignoresSavedOffsets() throws IOException {
+        ImportCheckpoint.open(tempDir.resolve("state.json"), false).advance("restaurant/restaurant.gpx", 3);
+
+        ImportCheckpoint checkpoint = ImportCheckpoint.open(tempDir.resolve("state.json"), false);
+
+        assertEquals(0, checkpoint.offset("restaurant/restaurant.gpx"));
+    }
+}
@@ -0,0 +1,279 @@
+package de.zeiss.mongodbws.testdatageneration;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for Main, importing a GPX file into a stub of the POI service.
+ */
+public class MainTest {
+
+    private static final String GPX = """
+            <?xml version="1.0" encoding="utf-8"?>
+            <gpx xmlns="http://www.topografix.com/GPX/1/1" version="1.1" creator="test">
+                <wpt lat="51.03" lon="13.72"><name>First, Street 1</name></wpt>
+                <wpt lat="51.04" lon="13.73"><name>Second, Street 2</name></wpt>
+                <wpt lat="51.05" lon="13.74"><name>Third, Street 3</name></wpt>
+            </gpx>
+            """;
+
+    private static final RetryPolicy RETRY_POLICY = new RetryPolicy(3, Duration.ofMillis(1), Duration.ofMillis(10));
+
+    @TempDir
+    Path tempDir;
+
+    private Path resourceDir;
+
+    private HttpServer server;
+
+    private final Queue<String> posted = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Points of interest created by the stub by id.
+     */
+    private final Map<String, String> created = new ConcurrentHashMap<>();
+
+    /**
+     * Ids of all requests, including the failed ones.
+     */
+    private final List<String> requestedIds = new CopyOnWriteArrayList<>();
+
+    /**
+     * Status codes the stub responds with before it creates the points of interest.
+     */
+    private final Queue<Integer> failures = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Status codes the stub responds with after it created the points of interest, as if the response got lost.
+     */
+    private final Queue<Integer> failuresAfterCreate = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Retry-After header of the failures, if any.
+     */
+    private volatile String retryAfter;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        resourceDir = tempDir.resolve("resources");
+        Files.createDirectories(resourceDir.resolve("restaurant"));
+        Files.writeString(resourceDir.resolve("restaurant/restaurant.gpx"), GPX);
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/poi/", exchange -> {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            String id = exchange.getRequestURI().getPath().substring("/api/poi/".length());
+            requestedIds.add(id);
+            Integer failure = failures.poll();
+            if (!"PUT".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405);
+            } else if (failure != null) {
+                respondFailure(exchange, failure);
+            } else if (body.contains("Second")) {
+                respond(exchange, 400);
+            } else {
+                boolean isNew = created.put(id, body) == null;
+                posted.add(body);
+                Integer failureAfterCreate = failuresAfterCreate.poll();
+                if (failureAfterCreate != null) {
+                    respondFailure(exchange, failureAfterCreate);
+                } else {
+                    respond(exchange, isNew ? 201 : 204);
+                }
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    private static void respond(HttpExchange exchange, int status) throws IOException {
+        exchange.sendResponseHeaders(status, -1);
+        exchange.close();
+    }
+
+    private void respondFailure(HttpExchange exchange, int status) throws IOException {
+        if (retryAfter != null) {
+            exchange.getResponseHeaders().add("Retry-After", retryAfter);
+        }
+        respond(exchange, status);
+    }
+
+    private Main createMain(String url, boolean resume) throws IOException {
+        return new Main(HttpClient.newHttpClient(), url,
+                ImportCheckpoint.open(tempDir.resolve("state.json"), resume),
+                new DeadLetters(tempDir.resolve("dead-letters.jsonl"), resume), RETRY_POLICY);
+    }
+
+    private String serviceUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + "/api/poi";
+    }
+
+    @Test
+    void processAllResourceFolders_rejectedWaypoint_writesDeadLetterAndContinues() throws IOException {
+        createMain(serviceUrl(), false).processAllResourceFolders(resourceDir);
+
+        assertEquals(2, posted.size());
+        List<String> deadLetters = Files.readAllLines(tempDir.resolve("dead-letters.jsonl"));
+        assertEquals(1, deadLetters.size());
+        assertTrue(deadLetters.getFirst().contains("\"offset\":1"));
+        assertTrue(deadLetters.getFirst().contains("\"error\":\"400"));
+        assertTrue(deadLetters.getFirst().contains("Second"));
+        assertEquals(3, ImportCheckpoint.open(tempDir.resolve("state.json"), true).offset("restaurant/restaurant.gpx"));
+    }
+
+    @Test
+    void processAllResourceFolders_serverErrors_retries() throws IOException {
+        failures.add(503);
+        failures.add(500);
+
+        createMain(serviceUrl(), false).processAllResourceFolders(resourceDir);
+
+        assertEquals(2, posted.size());
+        assertTrue(posted.peek().contains("First"));
+    }
+
+    @Test
+    void processAllResourceFolders_serverErrorsExhaustRetries_writesDeadLetter() throws IOException {
+        failures.add(503);
+        failures.add(503);
+        failures.add(503);
+
+        createMain(serviceUrl(), false).processAllResourceFolders(resourceDir);
+
+        assertEquals(1, posted.size());
+        assertEquals(2, Files.readAllLines(tempDir.resolve("dead-letters.jsonl")).size());
+    }
+
+    @Test
+    void processAllResourceFolders_resume_skipsWaypointsDone() throws IOException {
+        ImportCheckpoint.open(tempDir.resolve("state.json"), false).advance("restaurant/restaurant.gpx", 2);
+
+        createMain(serviceUrl(), true).processAllResourceFolders(resourceDir);
+
+        assertEquals(1, posted.size());
+        assertTrue(posted.peek().contains("Third"));
+    }
+
+    @Test
+    void processAllResourceFolders_noResume_startsOver() throws IOException {
+        ImportCheckpoint.open(tempDir.resolve("state.json"), false).advance("restaurant/restaurant.gpx", 2);
+        Files.writeString(tempDir.resolve("dead-letters.jsonl"), "{}\n");
+
+        createMain(serviceUrl(), false).processAllResourceFolders(resourceDir);
+
+        assertEquals(2, posted.size());
+        assertEquals(1, Files.readAllLines(tempDir.resolve("dead-letters.jsonl")).size());
+    }
+
+    @Test
+    void processAllResourceFolders_serviceUnreachable_stopsAndKeepsCheckpoint() throws IOException {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        Main main = createMain("http://localhost:" + closedPort + "/api/poi", false);
+
+        assertThrows(IllegalStateException.class, () -> main.processAllResourceFolders(resourceDir));
+
+        assertEquals(0, ImportCheckpoint.open(tempDir.resolve("state.json"), true).offset("restaurant/restaurant.gpx"));
+        assertFalse(Files.exists(tempDir.resolve("dead-letters.jsonl")));
+    }
+
+    @Test
+    void processAllResourceFolders_serverErrors_retriesWithSameId() throws IOException {
+        failures.add(503);
+        failures.add(500);
+
+        createMain(serviceUrl(), false).processAllResourceFolders(resourceDir);
+
+        String id = Main.poiId("restaurant/restaurant.gpx", 0).toHexString();
+        assertEquals(List.of(id, id, id), requestedIds.subList(0, 3));
+    }
+
+    @Test
+    void processAllResourceFolders_responseLost_doesNotCreateTwice() throws IOException {
+        failuresAfterCreate.add(503);
+
+        createMain(serviceUrl(), false).processAllResourceFolders(resourceDir);
+
+        assertEquals(3, posted.size());
+        assertEquals(2, created.size());
+        assertEquals(1, Files.readAllLines(tempDir.resolve("dead-letters.jsonl")).size());
+    }
+
+    @Test
+    void processAllResourceFolders_noResume_updatesPointsOfInterestOfPreviousRun() throws IOException {
+        createMain(serviceUrl(), false).processAllResourceFolders(resourceDir);
+        createMain(serviceUrl(), false).processAllResourceFolders(resourceDir);
+
+        assertEquals(4, posted.size());
+        assertEquals(2, created.size());
+    }
+
+    @Test
+    void processAllResourceFolders_retryAfter_waitsAsLongAsAsked() throws IOException {
+        failures.add(503);
+        retryAfter = "1";
+
+        long start = System.nanoTime();
+        createMain(serviceUrl(), false).processAllResourceFolders(resourceDir);
+
+        assertTrue(System.nanoTime() - start >= TimeUnit.SECONDS.toNanos(1));
+        assertEquals(2, posted.size());
+    }
+
+    @Test
+    void poiId_sameWaypoint_sameId() {
+        assertEquals(Main.poiId("restaurant/restaurant.gpx", 1), Main.poiId("restaurant/restaurant.gpx", 1));
+        assertNotEquals(Main.poiId("restaurant/restaurant.gpx", 1), Main.poiId("restaurant/restaurant.gpx", 2));
+        assertNotEquals(Main.poiId("restaurant/restaurant.gpx", 1), Main.poiId("cafe/restaurant.gpx", 1));
+    }
+
+    @Test
+    void retryAfter_secondsOrDate_returnsDelay() {
+        Instant now = Instant.parse("2025-10-01T12:00:00Z");
+
+        assertEquals(Duration.ofSeconds(3), Main.retryAfter("3", now));
+        assertEquals(Duration.ofSeconds(30), Main.retryAfter("Wed, 01 Oct 2025 12:00:30 GMT", now));
+        assertEquals(Duration.ZERO, Main.retryAfter("Wed, 01 Oct 2025 11:00:00 GMT", now));
+        assertNull(Main.retryAfter("soon", now));
+        assertNull(Main.retryAfter(null, now));
+    }
+
+    @Test
+    void isRetryable_statusCodes_retriesTransientErrorsOnly() {
+        assertTrue(Main.isRetryable(503));
+        assertTrue(Main.isRetryable(500));
+        assertTrue(Main.isRetryable(429));
+        assertTrue(Main.isRetryable(408));
+        assertFalse(Main.isRetryable(400));
+        assertFalse(Main.isRetryable(409));
+    }
+}
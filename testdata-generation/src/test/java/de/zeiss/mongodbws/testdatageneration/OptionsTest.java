@@ -0,0 +1,38 @@
+package de.zeiss.mongodbws.testdatageneration;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for Options.
+ */
+public class OptionsTest {
+
+    @Test
+    void parse_validOptions_returnsValuesByName() {
+        Options options = Options.parse(new String[]{"--rate=10", "--url=http://host/api?x=1"});
+        assertEquals("10", options.get("rate", null));
+        assertEquals(10, options.getLong("rate", 0));
+        assertEquals("http://host/api?x=1", options.get("url", null));
+    }
+
+    @Test
+    void parse_missingOption_returnsDefault() {
+        Options options = Options.parse(new String[0]);
+        assertEquals("default", options.get("url", "default"));
+        assertEquals(2.5, options.getDouble("rate", 2.5));
+        assertFalse(options.isSet("resume"));
+    }
+
+    @Test
+    void parse_withoutValue_isFlag() {
+        assertTrue(Options.parse(new String[]{"--resume"}).isSet("resume"));
+    }
+
+    @Test
+    void parse_noOption_throwsIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> Options.parse(new String[]{"rate=10"}));
+        assertThrows(IllegalArgumentException.class, () -> Options.parse(new String[]{"--"}));
+    }
+}
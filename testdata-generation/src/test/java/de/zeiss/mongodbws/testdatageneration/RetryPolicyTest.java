@@ -0,0 +1,47 @@
+package de.zeiss.mongodbws.testdatageneration;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RetryPolicy.
+ */
+public class RetryPolicyTest {
+
+    private final RetryPolicy retryPolicy = new RetryPolicy(5, Duration.ofMillis(500), Duration.ofSeconds(30));
+
+    @Test
+    void delay_attempts_doubleDelay() {
+        assertEquals(Duration.ofMillis(375), retryPolicy.delay(1, 0.5));
+        assertEquals(Duration.ofMillis(750), retryPolicy.delay(2, 0.5));
+        assertEquals(Duration.ofMillis(1500), retryPolicy.delay(3, 0.5));
+    }
+
+    @Test
+    void delay_jitter_halvesDelayAtMost() {
+        assertEquals(Duration.ofMillis(500), retryPolicy.delay(2, 0));
+        assertTrue(retryPolicy.delay(2, 0.999999999).toMillis() <= 1000);
+    }
+
+    @Test
+    void delay_manyAttempts_cappedAtMaxDelay() {
+        assertEquals(Duration.ofMillis(22_500), retryPolicy.delay(10, 0.5));
+        assertEquals(Duration.ofMillis(22_500), retryPolicy.delay(100, 0.5));
+    }
+
+    @Test
+    void delay_retryAfter_waitsAtLeastRetryAfter() {
+        assertEquals(Duration.ofSeconds(60), retryPolicy.delay(1, 0.5, Duration.ofSeconds(60)));
+        assertEquals(Duration.ofMillis(375), retryPolicy.delay(1, 0.5, Duration.ofMillis(100)));
+        assertEquals(Duration.ofMillis(375), retryPolicy.delay(1, 0.5, null));
+    }
+
+    @Test
+    void constructor_noAttempts_throwsIllegalArgument() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new RetryPolicy(0, Duration.ofMillis(500), Duration.ofSeconds(30)));
+    }
+}
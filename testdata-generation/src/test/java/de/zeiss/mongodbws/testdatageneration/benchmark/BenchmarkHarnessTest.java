@@ -0,0 +1,73 @@
+package de.zeiss.mongodbws.testdatageneration.benchmark;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BenchmarkHarness.
+ */
+public class BenchmarkHarnessTest {
+
+    private static Map<String, Object> result(String backend, double p99) {
+        return Map.of(
+                "backend", backend,
+                "startupSeconds", 4.5,
+                "timeToFirstRequestSeconds", 6.25,
+                "idleRssMb", 300L,
+                "peakRssMb", 420L,
+                "loadTest", Map.of(
+                        "requestsPerSecond", 95.5,
+                        "endpoints", Map.of("all", Map.of(
+                                "requests", 10_000L,
+                                "errors", 2L,
+                                "responseTimeMs", Map.of("p50", 3.0, "p90", 8.0, "p99", p99, "p999", 80.0,
+                                        "max", 120.0)))));
+    }
+
+    @Test
+    void toTable_results_areSideBySide() {
+        String table = BenchmarkHarness.toTable(List.of(result("jee", 25.0), result("spring", 30.5)));
+
+        List<String> lines = table.lines().toList();
+        assertTrue(lines.getFirst().matches("\\s+jee\\s+spring"), lines.getFirst());
+        assertEquals(List.of("25.00", "30.50"), row(table, "p99 response time (ms)"));
+        assertEquals(List.of("420", "420"), row(table, "peak RSS (MB)"));
+        assertEquals(List.of("95.50", "95.50"), row(table, "throughput (requests/s)"));
+    }
+
+    @Test
+    void toTable_failedBackend_showsDashes() {
+        String table = BenchmarkHarness.toTable(List.of(Map.of("backend", "dotnet")));
+
+        assertEquals(List.of("-"), row(table, "p50 response time (ms)"));
+    }
+
+    private static List<String> row(String table, String label) {
+        String line = table.lines().filter(l -> l.startsWith(label)).findFirst().orElseThrow();
+        return List.of(line.substring(label.length()).trim().split("\\s+"));
+    }
+
+    @Test
+    void parseRssKilobytes_severalProcesses_sumsRss() {
+        String status = """
+                Name:\tstandalone.sh
+                VmRSS:\t    3412 kB
+                Threads:\t1
+                Name:\tjava
+                VmRSS:\t  512000 kB
+                Name:\tkthreadd
+                """;
+
+        assertEquals(515412, RssSampler.parseRssKilobytes(status));
+    }
+
+    @Test
+    void byName_unknownBackend_throwsIllegalArgument() {
+        assertEquals("spring", Backend.byName("spring").name());
+        assertThrows(IllegalArgumentException.class, () -> Backend.byName("node"));
+    }
+}
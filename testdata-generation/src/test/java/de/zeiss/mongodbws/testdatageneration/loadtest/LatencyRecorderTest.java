@@ -0,0 +1,96 @@
+package de.zeiss.mongodbws.testdatageneration.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LatencyRecorder.
+ */
+public class LatencyRecorderTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void record_sentLate_responseTimeIncludesWaiting() {
+        LatencyRecorder recorder = new LatencyRecorder();
+
+        // intended at 0, sent at 900 ms as the generator was stalled, answered after 100 ms
+        recorder.record("radius", 0, 900 * MS, 1000 * MS, true);
+
+        Map<String, Object> statistics = endpoint(recorder, "radius");
+        assertEquals(1L, statistics.get("requests"));
+        assertEquals(0L, statistics.get("errors"));
+        assertEquals(1000.0, percentiles(statistics, "responseTimeMs").get("max"), 1.0);
+        assertEquals(100.0, percentiles(statistics, "serviceTimeMs").get("max"), 0.1);
+    }
+
+    @Test
+    void record_sentEarly_responseTimeEqualsServiceTime() {
+        LatencyRecorder recorder = new LatencyRecorder();
+
+        recorder.record("details", 500 * MS, 400 * MS, 450 * MS, true);
+
+        assertEquals(50.0, percentiles(endpoint(recorder, "details"), "responseTimeMs").get("max"), 0.1);
+    }
+
+    @Test
+    void record_failed_countsError() {
+        LatencyRecorder recorder = new LatencyRecorder();
+
+        recorder.record("edit", 0, 0, 10 * MS, true);
+        recorder.record("edit", 0, 0, 20 * MS, false);
+
+        Map<String, Object> statistics = endpoint(recorder, "edit");
+        assertEquals(2L, statistics.get("requests"));
+        assertEquals(1L, statistics.get("errors"));
+    }
+
+    @Test
+    void record_aboveHighestTrackable_isClamped() {
+        LatencyRecorder recorder = new LatencyRecorder();
+
+        recorder.record("radius", 0, 0, TimeUnit.HOURS.toNanos(1), true);
+
+        assertEquals(TimeUnit.MICROSECONDS.toMillis(LatencyRecorder.HIGHEST_TRACKABLE_MICROS),
+                percentiles(endpoint(recorder, "radius"), "responseTimeMs").get("max"),
+                TimeUnit.MICROSECONDS.toMillis(LatencyRecorder.HIGHEST_TRACKABLE_MICROS) / 100.0);
+    }
+
+    @Test
+    void toReport_percentiles_areOrdered() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        for (int i = 1; i <= 1000; i++) {
+            recorder.record("radius", 0, 0, i * MS, true);
+        }
+
+        Map<String, Double> percentiles = percentiles(endpoint(recorder, "radius"), "responseTimeMs");
+        assertEquals(500.0, percentiles.get("p50"), 1.0);
+        assertEquals(990.0, percentiles.get("p99"), 1.0);
+        assertTrue(percentiles.get("p999") <= percentiles.get("max"));
+    }
+
+    @Test
+    void toReport_severalEndpoints_aggregatesAll() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        recorder.record("radius", 0, 0, 10 * MS, true);
+        recorder.record("details", 0, 0, 20 * MS, false);
+
+        assertEquals(2L, endpoint(recorder, LatencyRecorder.ALL).get("requests"));
+        assertEquals(1L, endpoint(recorder, LatencyRecorder.ALL).get("errors"));
+        assertEquals(1, recorder.getSuccessfulRequests());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> endpoint(LatencyRecorder recorder, String endpoint) {
+        return (Map<String, Object>) recorder.toReport().get(endpoint);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Double> percentiles(Map<String, Object> statistics, String latency) {
+        return (Map<String, Double>) statistics.get(latency);
+    }
+}
@@ -0,0 +1,76 @@
+package de.zeiss.mongodbws.testdatageneration.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LoadTest, running sessions against a stub of the POI service.
+ */
+public class LoadTestTest {
+
+    private HttpServer server;
+
+    private final AtomicInteger radiusQueries = new AtomicInteger();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/poi", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            if (path.equals("/api/poi")) {
+                radiusQueries.incrementAndGet();
+                respond(exchange, "[{\"href\": \"/api/poi/1\", \"name\": \"one\"}]");
+            } else {
+                respond(exchange, "{\"href\": \"/api/poi/1\", \"name\": \"one\"}");
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+
+    @Test
+    void run_stubService_recordsRadiusQueriesOfAllSessions() throws InterruptedException {
+        URI url = URI.create("http://localhost:" + server.getAddress().getPort() + "/api/poi");
+        LoadTest loadTest = new LoadTest(url, 20, Duration.ofSeconds(1), 7, List.of(new double[]{51.05, 13.73}));
+
+        loadTest.run();
+
+        Map<String, Object> report = loadTest.toReport(Instant.now());
+        long sessions = (Long) report.get("sessions");
+        assertTrue(sessions > 0);
+        @SuppressWarnings("unchecked")
+        Map<String, Map<String, Object>> endpoints = (Map<String, Map<String, Object>>) report.get("endpoints");
+        long radiusRequests = (Long) endpoints.get(UserSession.RADIUS).get("requests");
+        // every session queries the map at least once
+        assertTrue(radiusRequests >= sessions);
+        assertEquals(radiusQueries.get(), radiusRequests);
+        assertEquals(0L, endpoints.get(UserSession.RADIUS).get("errors"));
+    }
+}
@@ -0,0 +1,35 @@
+package de.zeiss.mongodbws.testdatageneration.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Unit tests for ZoomLevels.
+ */
+public class ZoomLevelsTest {
+
+    @Test
+    void toRadius_mappedZoom_returnsRadiusOfFrontend() {
+        assertEquals(50000, ZoomLevels.toRadius(9));
+        assertEquals(3000, ZoomLevels.toRadius(13));
+        assertEquals(1000, ZoomLevels.toRadius(15));
+    }
+
+    @Test
+    void toRadius_zoomAboveLargest_returnsRadiusOfLargest() {
+        assertEquals(1000, ZoomLevels.toRadius(18));
+    }
+
+    @Test
+    void toRadius_zoomBelowSmallest_returnsRadiusOfSmallest() {
+        assertEquals(50000, ZoomLevels.toRadius(3));
+    }
+
+    @Test
+    void clamp_zoomOutsideMapped_returnsClosestMapped() {
+        assertEquals(9, ZoomLevels.clamp(5));
+        assertEquals(15, ZoomLevels.clamp(17));
+        assertEquals(12, ZoomLevels.clamp(12));
+    }
+}
@@ -0,0 +1,104 @@
+package de.zeiss.mongodbws.testdatageneration.synthetic;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SyntheticPoiGenerator.
+ */
+public class SyntheticPoiGeneratorTest {
+
+    private static final List<double[]> SEED_POINTS = List.of(new double[]{51.05, 13.73}, new double[]{48.1, 20.78});
+
+    @Test
+    void generateBatch_sameSeed_isReproducible() {
+        List<Document> first = new SyntheticPoiGenerator(SEED_POINTS, 42).generateBatch(1000, 100);
+        List<Document> second = new SyntheticPoiGenerator(SEED_POINTS, 42).generateBatch(1000, 100);
+
+        assertEquals(first, second);
+    }
+
+    @Test
+    void generateBatch_otherSeed_differs() {
+        List<Document> first = new SyntheticPoiGenerator(SEED_POINTS, 42).generateBatch(0, 100);
+        List<Document> second = new SyntheticPoiGenerator(SEED_POINTS, 43).generateBatch(0, 100);
+
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    void generateBatch_anyOrder_generatesSameBatches() {
+        SyntheticPoiGenerator generator = new SyntheticPoiGenerator(SEED_POINTS, 42);
+        List<Document> later = generator.generateBatch(100, 100);
+        generator.generateBatch(0, 100);
+
+        assertEquals(later, new SyntheticPoiGenerator(SEED_POINTS, 42).generateBatch(100, 100));
+    }
+
+    @Test
+    void generateBatch_documents_haveFieldsOfBackends() {
+        Document poi = new SyntheticPoiGenerator(SEED_POINTS, 1).generateBatch(7, 1).getFirst();
+
+        assertTrue(SyntheticPoiGenerator.CATEGORY_MIX.containsKey(poi.getString("category")));
+        assertTrue(poi.getString("name").endsWith(" 7"));
+        assertFalse(poi.getString("details").isEmpty());
+        Document location = poi.get("location", Document.class);
+        assertEquals("Point", location.getString("type"));
+        assertEquals(2, location.getList("coordinates", Double.class).size());
+    }
+
+    @Test
+    void generateBatch_locations_areClusteredAroundSeeds() {
+        for (Document poi : new SyntheticPoiGenerator(SEED_POINTS, 1).generateBatch(0, 10_000)) {
+            List<Double> coordinates = poi.get("location", Document.class).getList("coordinates", Double.class);
+            double lon = coordinates.get(0);
+            double lat = coordinates.get(1);
+            // most districts are within a few kilometers, hardly any beyond 200 km, i.e. about 2 degrees
+            boolean nearSeed = SEED_POINTS.stream()
+                    .anyMatch(seed -> Math.abs(seed[0] - lat) < 3 && Math.abs(seed[1] - lon) < 5);
+            assertTrue(nearSeed, lat + ", " + lon);
+        }
+    }
+
+    @Test
+    void generateBatch_categories_followMix() {
+        Map<String, Integer> counts = new HashMap<>();
+        int size = 100_000;
+        for (Document poi : new SyntheticPoiGenerator(SEED_POINTS, 1).generateBatch(0, size)) {
+            counts.merge(poi.getString("category"), 1, Integer::sum);
+        }
+
+        SyntheticPoiGenerator.CATEGORY_MIX.forEach((category, share) ->
+                assertEquals(share, counts.getOrDefault(category, 0) / (double) size, 0.01, category));
+    }
+
+    @Test
+    void generateBatch_details_haveLongTailUpToMaximum() {
+        int longest = 0;
+        for (Document poi : new SyntheticPoiGenerator(SEED_POINTS, 1).generateBatch(0, 10_000)) {
+            int length = poi.getString("details").length();
+            assertTrue(length <= SyntheticPoiGenerator.MAX_DETAILS_LENGTH + 20, "length " + length);
+            longest = Math.max(longest, length);
+        }
+        assertTrue(longest > 4 * SyntheticPoiGenerator.MEDIAN_DETAILS_LENGTH, "longest " + longest);
+    }
+
+    @Test
+    void category_lastShare_returnsLastCategory() {
+        SyntheticPoiGenerator generator = new SyntheticPoiGenerator(SEED_POINTS, 1);
+
+        assertEquals("restaurant", generator.category(0));
+        assertEquals("police", generator.category(0.9999999));
+    }
+
+    @Test
+    void constructor_noSeedPoints_throwsIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> new SyntheticPoiGenerator(List.of(), 1));
+    }
+}